@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.submarine.benchmark;
+
+import io.atomix.primitive.service.impl.DefaultBackupInput;
+import io.atomix.primitive.service.impl.DefaultBackupOutput;
+import io.atomix.storage.buffer.Buffer;
+import io.atomix.storage.buffer.HeapBuffer;
+import org.apache.submarine.commons.cluster.ClusterManager;
+import org.apache.submarine.commons.cluster.ClusterStateMachine;
+import org.apache.submarine.commons.cluster.meta.ClusterMeta;
+import org.apache.submarine.commons.cluster.meta.ClusterMetaCodec;
+import org.apache.submarine.commons.cluster.meta.ClusterMetaType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the snapshot of the cluster meta by {@link ClusterStateMachine}: the backup
+ * written when raft compacts its log and the restore when a server replays it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClusterStateMachineBenchmark {
+
+  // Number of servers, with as many interpreter processes
+  @Param({"1000", "10000"})
+  public int entries;
+
+  private ClusterStateMachine stateMachine;
+  private Buffer snapshot;
+
+  @Setup
+  public void setup() throws IOException {
+    ClusterMeta clusterMeta = new ClusterMeta();
+    for (int i = 0; i < entries; i++) {
+      clusterMeta.put(ClusterMetaType.SERVER_META, "server" + i, serverMeta(i));
+      clusterMeta.put(ClusterMetaType.INTP_PROCESS_META, "intp" + i, intpMeta(i));
+    }
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new ClusterMetaCodec(ClusterManager.clientSerializer).write(clusterMeta, out);
+
+    // Load the meta the way a follower does, from a snapshot
+    snapshot = HeapBuffer.allocate();
+    snapshot.write(out.toByteArray()).flip();
+    stateMachine = restore();
+  }
+
+  @Benchmark
+  public Buffer backup() {
+    Buffer buffer = HeapBuffer.allocate();
+    stateMachine.backup(new DefaultBackupOutput(buffer, ClusterManager.clientSerializer));
+    return buffer.flip();
+  }
+
+  @Benchmark
+  public ClusterStateMachine restore() {
+    ClusterStateMachine restored = new ClusterStateMachine();
+    restored.restore(new DefaultBackupInput(snapshot.rewind(), ClusterManager.clientSerializer));
+    return restored;
+  }
+
+  private static HashMap<String, Object> serverMeta(int i) {
+    HashMap<String, Object> meta = new HashMap<>();
+    meta.put(ClusterMeta.NODE_NAME, "node" + i);
+    meta.put(ClusterMeta.SERVER_HOST, "10.0." + (i / 256) % 256 + "." + i % 256);
+    meta.put(ClusterMeta.SERVER_PORT, 8080);
+    meta.put(ClusterMeta.CPU_CAPACITY, 3200L);
+    meta.put(ClusterMeta.CPU_USED, (long) (i % 3200));
+    meta.put(ClusterMeta.MEMORY_CAPACITY, 128L << 30);
+    meta.put(ClusterMeta.MEMORY_USED, (long) i << 20);
+    meta.put(ClusterMeta.STATUS, ClusterMeta.ONLINE_STATUS);
+    return meta;
+  }
+
+  private static HashMap<String, Object> intpMeta(int i) {
+    HashMap<String, Object> meta = new HashMap<>();
+    meta.put(ClusterMeta.NODE_NAME, "node" + i);
+    meta.put(ClusterMeta.INTP_PROCESS_NAME, "intp" + i);
+    meta.put(ClusterMeta.INTP_TSERVER_HOST, "10.0." + (i / 256) % 256 + "." + i % 256);
+    meta.put(ClusterMeta.INTP_TSERVER_PORT, 30000 + i % 1000);
+    meta.put(ClusterMeta.STATUS, ClusterMeta.ONLINE_STATUS);
+    return meta;
+  }
+}
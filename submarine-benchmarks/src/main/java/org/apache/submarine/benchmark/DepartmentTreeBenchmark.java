@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.submarine.benchmark;
+
+import org.apache.submarine.server.workbench.database.entity.SysDept;
+import org.apache.submarine.server.workbench.database.entity.SysDeptSelect;
+import org.apache.submarine.server.workbench.database.entity.SysDeptTree;
+import org.apache.submarine.server.workbench.database.utils.DepartmentTree;
+import org.apache.submarine.server.workbench.database.utils.DepartmentUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the department tree of the workbench: building it from the department list,
+ * as each query of the tree did, against the queries and updates of the cached
+ * {@link DepartmentTree}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DepartmentTreeBenchmark {
+
+  // Number of departments, 10 children for each
+  @Param({"5000", "50000"})
+  public int depts;
+
+  private List<SysDept> sysDeptList;
+  private DepartmentTree tree;
+  private String leafCode;
+  private int next = 0;
+
+  @Setup
+  public void setup() {
+    sysDeptList = new ArrayList<>(depts);
+    for (int i = 0; i < depts; i++) {
+      SysDept dept = new SysDept(code(i), "dept" + i);
+      dept.setId(String.valueOf(i));
+      dept.setParentCode(i == 0 ? null : code((i - 1) / 10));
+      dept.setSortOrder(i % 10);
+      sysDeptList.add(dept);
+    }
+    tree = new DepartmentTree(sysDeptList);
+    leafCode = code(depts - 1);
+  }
+
+  @Benchmark
+  public List<SysDeptTree> wrapDeptListToTree() {
+    return DepartmentUtil.wrapDeptListToTree(sysDeptList, new ArrayList<>());
+  }
+
+  @Benchmark
+  public List<SysDeptTree> cachedToTree() {
+    return tree.toTree(new ArrayList<SysDeptSelect>());
+  }
+
+  @Benchmark
+  public List<SysDept> ancestors() {
+    return tree.getAncestors(leafCode);
+  }
+
+  @Benchmark
+  public List<SysDept> codePrefix() {
+    return tree.findByCodePrefix("D0001");
+  }
+
+  @Benchmark
+  public DepartmentTree put() {
+    // Moves a department to another parent, as an edit does
+    int i = 1 + next++ % (depts - 1);
+    SysDept dept = new SysDept(code(i), "dept" + i);
+    dept.setId(String.valueOf(i));
+    dept.setParentCode(code((i - 1) / 10 == 0 ? 0 : (i - 1) / 10 - 1));
+    dept.setSortOrder(i % 10);
+    tree.put(dept);
+    return tree;
+  }
+
+  private static String code(int i) {
+    return String.format("D%06d", i);
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.submarine.benchmark;
+
+import org.apache.submarine.server.api.Submitter;
+import org.apache.submarine.server.api.experiment.Experiment;
+import org.apache.submarine.server.api.experiment.ExperimentId;
+import org.apache.submarine.server.experiment.ExperimentManager;
+import org.apache.submarine.server.experiment.database.ExperimentEntity;
+import org.apache.submarine.server.experiment.database.ExperimentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of {@link ExperimentManager#getExperiment(String)} and
+ * {@link ExperimentManager#listExperimentsByStatus(String)} under concurrency, with
+ * the parsed-spec cache enabled and disabled. The database and the submitter are
+ * replaced by in-memory stubs, so only the work done by the manager is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class ExperimentManagerBenchmark {
+
+  @Param({"0", "10000"})
+  public int specCacheSize;
+
+  @Param({"100"})
+  public int experiments;
+
+  private ExperimentManager experimentManager;
+  private String[] ids;
+
+  @Setup
+  public void setup() throws IOException {
+    String spec = Resources.read("/experiment/spec.json");
+    Map<String, ExperimentEntity> entities = new HashMap<>();
+    ids = new String[experiments];
+    for (int i = 0; i < experiments; i++) {
+      ExperimentEntity entity = new ExperimentEntity();
+      entity.setId(ExperimentId.newInstance(System.currentTimeMillis(), i + 1).toString());
+      entity.setExperimentSpec(spec);
+      entities.put(entity.getId(), entity);
+      ids[i] = entity.getId();
+    }
+
+    ExperimentService service = new ExperimentService() {
+      @Override
+      public List<ExperimentEntity> selectAll() {
+        return new ArrayList<>(entities.values());
+      }
+
+      @Override
+      public ExperimentEntity select(String id) {
+        return entities.get(id);
+      }
+    };
+
+    Experiment found = new Experiment();
+    found.setStatus("Running");
+    Submitter submitter = (Submitter) Proxy.newProxyInstance(Submitter.class.getClassLoader(),
+        new Class<?>[] {Submitter.class},
+        (proxy, method, args) -> "findExperiment".equals(method.getName()) ? found : null);
+
+    // The constructor taking the stubs is protected, create a subclass
+    experimentManager = new ExperimentManager(submitter, service, specCacheSize) {
+    };
+  }
+
+  @Benchmark
+  public Experiment getExperiment() {
+    String id = ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    return experimentManager.getExperiment(id);
+  }
+
+  @Benchmark
+  public List<Experiment> listExperiments() {
+    return experimentManager.listExperimentsByStatus(null);
+  }
+}
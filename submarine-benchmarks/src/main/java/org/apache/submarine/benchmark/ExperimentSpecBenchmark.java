@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.submarine.benchmark;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.apache.submarine.server.api.spec.ExperimentSpec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the Gson parsing and serialisation of an {@link ExperimentSpec}, with the
+ * Gson instances the ExperimentManager uses to read and store the specs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExperimentSpecBenchmark {
+  private static final Gson GSON = new Gson();
+  private static final Gson GSON_WITHOUT_HTML_ESCAPING = new GsonBuilder().disableHtmlEscaping().create();
+
+  private String json;
+  private ExperimentSpec spec;
+
+  @Setup
+  public void setup() throws IOException {
+    json = Resources.read("/experiment/spec.json");
+    spec = GSON.fromJson(json, ExperimentSpec.class);
+  }
+
+  @Benchmark
+  public ExperimentSpec parse() {
+    return GSON.fromJson(json, ExperimentSpec.class);
+  }
+
+  @Benchmark
+  public String serialise() {
+    return GSON_WITHOUT_HTML_ESCAPING.toJson(spec);
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.submarine.benchmark;
+
+import com.google.gson.Gson;
+import org.apache.submarine.server.api.spec.ExperimentSpec;
+import org.apache.submarine.server.api.spec.ExperimentTemplateSpec;
+import org.apache.submarine.server.experimenttemplate.CompiledExperimentTemplate;
+import org.apache.submarine.server.experimenttemplate.ExperimentTemplateCompiler;
+import org.apache.submarine.server.experimenttemplate.ExperimentTemplateManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the mapping of the parameters of an experiment template to an experiment spec,
+ * as done by {@link ExperimentTemplateManager} on a template that went through the same
+ * preparation as a registered one, without the database.
+ *
+ * compile is the cost of registering a template, which compiles it and renders it with the
+ * default values. render is the cost of submitting a template, once it is compiled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExperimentTemplateBenchmark {
+
+  private ExperimentTemplateCompiler compiler;
+  private ExperimentTemplateSpec spec;
+  private CompiledExperimentTemplate compiledTemplate;
+  private Map<String, String> params;
+
+  @Setup
+  public void setup() throws Exception {
+    Gson gson = new Gson();
+    compiler = new ExperimentTemplateCompiler(gson);
+    spec = gson.fromJson(Resources.read("/experimentTemplate/test_template_1.json"),
+        ExperimentTemplateSpec.class);
+
+    // The preparation is private to the manager
+    Method addResourcesParameter = ExperimentTemplateManager.class
+        .getDeclaredMethod("addResourcesParameter", ExperimentTemplateSpec.class);
+    addResourcesParameter.setAccessible(true);
+    spec = (ExperimentTemplateSpec) addResourcesParameter.invoke(
+        ExperimentTemplateManager.getInstance(), spec);
+
+    compiledTemplate = compiler.compile(spec);
+    params = new HashMap<>();
+    params.put("experiment_name", "benchmark");
+    params.put("learning_rate", "0.2");
+    params.put("spec.Worker.replicas", "4");
+  }
+
+  @Benchmark
+  public ExperimentSpec compile() {
+    return compiler.compile(spec).renderDefaults();
+  }
+
+  @Benchmark
+  public ExperimentSpec render() {
+    return compiledTemplate.render(params);
+  }
+}
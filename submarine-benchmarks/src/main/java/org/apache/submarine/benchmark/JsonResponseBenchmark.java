@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.submarine.benchmark;
+
+import org.apache.submarine.server.response.JsonResponse;
+import org.apache.submarine.server.response.JsonResponse.ListResult;
+import org.apache.submarine.server.workbench.database.entity.SysDictItem;
+import org.apache.submarine.server.workbench.database.entity.SysUser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.ws.rs.core.Response;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the serialisation of a page of records by {@link JsonResponse}, for records
+ * without @Dict fields (SysDictItem) and with @Dict fields (SysUser).
+ *
+ * The @Dict fields are translated with the dictionary items of the database configured
+ * in submarine-site.xml, as the server does, e.g. the one used by the server-core tests.
+ * The items are cached, without the database the records are written untranslated.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonResponseBenchmark {
+
+  @Param({"10", "1000"})
+  public int records;
+
+  private List<SysDictItem> dictItems;
+  private List<SysUser> users;
+
+  @Setup
+  public void setup() {
+    dictItems = new ArrayList<>();
+    users = new ArrayList<>();
+    Date now = new Date();
+    for (int i = 0; i < records; i++) {
+      SysDictItem item = new SysDictItem();
+      item.setId("item" + i);
+      item.setDictCode("SYS_USER_SEX");
+      item.setItemCode(String.valueOf(i % 2));
+      item.setItemName(i % 2 == 0 ? "Male" : "Female");
+      item.setDescription("Item " + i);
+      item.setSortOrder(i);
+      item.setDeleted(0);
+      item.setCreateTime(now);
+      dictItems.add(item);
+
+      SysUser user = new SysUser();
+      user.setId("user" + i);
+      user.setUserName("user" + i);
+      user.setRealName("User " + i);
+      user.setEmail("user" + i + "@submarine.apache.org");
+      user.setPhone("1234567890");
+      user.setSex(String.valueOf(i % 2));
+      user.setStatus("0");
+      user.setDeptCode("A");
+      user.setDeptName("Department A");
+      user.setRoleCode("user");
+      user.setDeleted(0);
+      user.setBirthday(now);
+      user.setCreateTime(now);
+      users.add(user);
+    }
+  }
+
+  @Benchmark
+  public String plain() {
+    return toJson(new ListResult<>(dictItems, records));
+  }
+
+  @Benchmark
+  public String dict() {
+    return toJson(new ListResult<>(users, records));
+  }
+
+  private static <T> String toJson(ListResult<T> result) {
+    Response response = new JsonResponse.Builder<ListResult<T>>(Response.Status.OK)
+        .success(true).result(result).build();
+    return response.getEntity().toString();
+  }
+}
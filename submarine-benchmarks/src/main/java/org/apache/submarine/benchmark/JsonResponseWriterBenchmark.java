@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.submarine.benchmark;
+
+import org.apache.submarine.server.response.JsonResponse;
+import org.apache.submarine.server.response.JsonResponse.ListResult;
+import org.apache.submarine.server.rest.provider.JsonResponseWriter;
+import org.apache.submarine.server.workbench.database.entity.Metric;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.ws.rs.core.Response;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compares writing a large {@link JsonResponse} to the response stream as a String, as
+ * it was before the {@link JsonResponseWriter}, and streamed by the writer.
+ *
+ * The allocations per operation are reported by the gc profiler, as gc.alloc.rate.norm,
+ * which the benchmarks module runs by default.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonResponseWriterBenchmark {
+
+  @Param({"10000"})
+  public int records;
+
+  @Param({"false", "true"})
+  public boolean gzip;
+
+  private JsonResponse<?> response;
+
+  @Setup
+  public void setup() {
+    List<Metric> metrics = new ArrayList<>();
+    for (int i = 0; i < records; i++) {
+      Metric metric = new Metric();
+      metric.setId("experiment_1595332719154_0001");
+      metric.setKey("accuracy");
+      metric.setValue(i / (float) records);
+      metric.setWorkerIndex("worker-" + i % 4);
+      metric.setTimestamp(BigInteger.valueOf(1595332719154L + i));
+      metric.setStep(i);
+      metric.setIsNan(false);
+      metrics.add(metric);
+    }
+    response = (JsonResponse<?>) new JsonResponse.Builder<ListResult<Metric>>(Response.Status.OK)
+        .success(true).result(new ListResult<>(metrics, records)).build().getEntity();
+  }
+
+  @Benchmark
+  public long string() throws IOException {
+    CountingOutputStream out = new CountingOutputStream();
+    OutputStream stream = gzip ? new GZIPOutputStream(out, 8192) : out;
+    // As the String entity was written
+    Writer writer = new OutputStreamWriter(stream, StandardCharsets.UTF_8);
+    writer.write(response.toString());
+    writer.flush();
+    if (gzip) {
+      ((GZIPOutputStream) stream).finish();
+    }
+    return out.count;
+  }
+
+  @Benchmark
+  public long streaming() throws IOException {
+    CountingOutputStream out = new CountingOutputStream();
+    JsonResponseWriter.write(response, out, gzip);
+    return out.count;
+  }
+
+  private static class CountingOutputStream extends OutputStream {
+    private long count = 0;
+
+    @Override
+    public void write(int b) {
+      count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+      count += len;
+    }
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.submarine.benchmark;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.submarine.server.submitter.yarnservice.utils.ZipUtilities;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ZipUtilities#zipDir(String, String)}, which zips the local directories
+ * of a job before they are uploaded. The directory has a few levels of small files, half
+ * of them random and half of them text.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ZipUtilitiesBenchmark {
+
+  @Param({"100", "1000"})
+  public int files;
+
+  @Param({"16384"})
+  public int fileSize;
+
+  private File workDir;
+  private File srcDir;
+  private File dstFile;
+
+  @Setup
+  public void setup() throws IOException {
+    workDir = Files.createTempDirectory("submarine-zip-benchmark").toFile();
+    srcDir = new File(workDir, "src");
+    dstFile = new File(workDir, "src.zip");
+
+    Random random = new Random(files);
+    byte[] content = new byte[fileSize];
+    for (int i = 0; i < files; i++) {
+      File dir = new File(srcDir, "dir" + i % 10 + File.separator + "dir" + i % 3);
+      if (i % 2 == 0) {
+        random.nextBytes(content);
+      } else {
+        for (int j = 0; j < fileSize; j++) {
+          content[j] = (byte) ('a' + random.nextInt(8));
+        }
+      }
+      FileUtils.writeByteArrayToFile(new File(dir, "file" + i), content);
+    }
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    FileUtils.deleteDirectory(workDir);
+  }
+
+  @Benchmark
+  public String zipDir() throws IOException {
+    return ZipUtilities.zipDir(srcDir.getAbsolutePath(), dstFile.getAbsolutePath());
+  }
+}
@@ -0,0 +1,258 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.submarine.commons.cluster;
+
+import io.atomix.utils.net.Address;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends the cluster events to the peers.
+ * A broadcast sends to all the peers at once, so a slow peer only delays its own
+ * acknowledgement. Each send has its own timeout and is retried a bounded number of
+ * times with a growing delay. The result of a broadcast completes when every peer
+ * has acknowledged or failed, it is never completed exceptionally.
+ * The latencies of the sends are recorded by peer.
+ */
+public class ClusterEventBus {
+  private static final Logger LOG = LoggerFactory.getLogger(ClusterEventBus.class);
+
+  /**
+   * Sends a message and receives the reply, e.g. MessagingService::sendAndReceive
+   */
+  @FunctionalInterface
+  public interface Transport {
+    CompletableFuture<byte[]> sendAndReceive(Address address, String topic, byte[] payload,
+                                             Duration timeout);
+  }
+
+  private final Transport transport;
+  private final Duration timeout;
+  private final int maxAttempts;
+  private final long retryDelayMillis;
+
+  private final ScheduledExecutorService retryExecutor;
+  private final Map<Address, PeerStats> peerStats = new ConcurrentHashMap<>();
+
+  /**
+   * @param transport        sends a message to a peer
+   * @param timeoutMillis    timeout of each attempt
+   * @param maxAttempts      number of attempts of a send, at least 1
+   * @param retryDelayMillis delay before the first retry, doubled for each retry
+   */
+  public ClusterEventBus(Transport transport, long timeoutMillis, int maxAttempts,
+                         long retryDelayMillis) {
+    this.transport = transport;
+    this.timeout = Duration.ofMillis(timeoutMillis);
+    this.maxAttempts = Math.max(1, maxAttempts);
+    this.retryDelayMillis = Math.max(0, retryDelayMillis);
+    this.retryExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread thread = new Thread(r, "ClusterEventBus-retry");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Send the event to a peer, retried until it is acknowledged or the attempts are exhausted
+   * @return completed with the reply of the peer, or with the failure of the last attempt
+   */
+  public CompletableFuture<byte[]> unicast(Address address, String topic, byte[] payload) {
+    CompletableFuture<byte[]> result = new CompletableFuture<>();
+    attempt(address, topic, payload, 1, result);
+    return result;
+  }
+
+  /**
+   * Send the event to all the peers concurrently
+   * @return completed when every peer has acknowledged or failed
+   */
+  public CompletableFuture<BroadcastResult> broadcast(Collection<Address> addresses, String topic,
+                                                      byte[] payload) {
+    Map<Address, CompletableFuture<byte[]>> sends = new HashMap<>();
+    for (Address address : addresses) {
+      sends.put(address, unicast(address, topic, payload));
+    }
+
+    return CompletableFuture.allOf(sends.values().toArray(new CompletableFuture[0]))
+        .handle((r, e) -> {
+          List<Address> acked = new ArrayList<>();
+          Map<Address, Throwable> failed = new HashMap<>();
+          for (Map.Entry<Address, CompletableFuture<byte[]>> entry : sends.entrySet()) {
+            try {
+              entry.getValue().join();
+              acked.add(entry.getKey());
+            } catch (Exception ex) {
+              failed.put(entry.getKey(), null == ex.getCause() ? ex : ex.getCause());
+            }
+          }
+          return new BroadcastResult(acked, failed);
+        });
+  }
+
+  /**
+   * @return the latencies of the sends by peer, a snapshot
+   */
+  public Map<Address, PeerStats> getPeerStats() {
+    Map<Address, PeerStats> stats = new HashMap<>();
+    for (Map.Entry<Address, PeerStats> entry : peerStats.entrySet()) {
+      stats.put(entry.getKey(), entry.getValue().copy());
+    }
+    return stats;
+  }
+
+  public void shutdown() {
+    retryExecutor.shutdownNow();
+  }
+
+  private void attempt(Address address, String topic, byte[] payload, int attempt,
+                       CompletableFuture<byte[]> result) {
+    PeerStats stats = peerStats.computeIfAbsent(address, a -> new PeerStats());
+    long start = System.nanoTime();
+    CompletableFuture<byte[]> response;
+    try {
+      response = transport.sendAndReceive(address, topic, payload, timeout);
+    } catch (RuntimeException e) {
+      response = new CompletableFuture<>();
+      response.completeExceptionally(e);
+    }
+
+    response.whenComplete((reply, error) -> {
+      stats.record(System.nanoTime() - start, null == error);
+      if (null == error) {
+        result.complete(reply);
+        return;
+      }
+      if (attempt >= maxAttempts || retryExecutor.isShutdown()) {
+        LOG.warn("Send cluster event {} to {} failed after {} attempts: {}",
+            topic, address, attempt, error.toString());
+        result.completeExceptionally(error);
+        return;
+      }
+      long delay = retryDelayMillis << (attempt - 1);
+      if (LOG.isDebugEnabled()) {
+        LOG.debug("Send cluster event {} to {} failed, retry in {} ms: {}",
+            topic, address, delay, error.toString());
+      }
+      try {
+        retryExecutor.schedule(() -> attempt(address, topic, payload, attempt + 1, result),
+            delay, TimeUnit.MILLISECONDS);
+      } catch (RuntimeException e) {
+        result.completeExceptionally(error);
+      }
+    });
+  }
+
+  /**
+   * The peers that acknowledged an event and the failures of the others
+   */
+  public static class BroadcastResult {
+    private final List<Address> acked;
+    private final Map<Address, Throwable> failed;
+
+    BroadcastResult(List<Address> acked, Map<Address, Throwable> failed) {
+      this.acked = Collections.unmodifiableList(acked);
+      this.failed = Collections.unmodifiableMap(failed);
+    }
+
+    public List<Address> getAcked() {
+      return acked;
+    }
+
+    public Map<Address, Throwable> getFailed() {
+      return failed;
+    }
+
+    public boolean isSuccess() {
+      return failed.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+      return "acked=" + acked + ", failed=" + failed.keySet();
+    }
+  }
+
+  /**
+   * Number of the attempts sent to a peer, of the failed ones, and their latencies
+   */
+  public static class PeerStats {
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private volatile long lastNanos = 0;
+
+    void record(long nanos, boolean success) {
+      attempts.increment();
+      if (!success) {
+        failures.increment();
+      }
+      totalNanos.add(nanos);
+      maxNanos.accumulateAndGet(nanos, Math::max);
+      lastNanos = nanos;
+    }
+
+    PeerStats copy() {
+      PeerStats copy = new PeerStats();
+      copy.attempts.add(attempts.sum());
+      copy.failures.add(failures.sum());
+      copy.totalNanos.add(totalNanos.sum());
+      copy.maxNanos.set(maxNanos.get());
+      copy.lastNanos = lastNanos;
+      return copy;
+    }
+
+    public long getAttempts() {
+      return attempts.sum();
+    }
+
+    public long getFailures() {
+      return failures.sum();
+    }
+
+    public double getMeanLatencyMillis() {
+      long count = attempts.sum();
+      return 0 == count ? 0 : totalNanos.sum() / 1e6 / count;
+    }
+
+    public double getMaxLatencyMillis() {
+      return maxNanos.get() / 1e6;
+    }
+
+    public double getLastLatencyMillis() {
+      return lastNanos / 1e6;
+    }
+  }
+}
@@ -22,6 +22,9 @@ import io.atomix.cluster.Node;
 import io.atomix.cluster.messaging.MessagingConfig;
 import io.atomix.cluster.messaging.MessagingService;
 import io.atomix.cluster.messaging.impl.NettyMessagingService;
+import io.atomix.primitive.PrimitiveState;
+import io.atomix.primitive.event.PrimitiveEvent;
+import io.atomix.primitive.event.impl.DefaultEventType;
 import io.atomix.primitive.operation.OperationType;
 import io.atomix.primitive.operation.PrimitiveOperation;
 import io.atomix.primitive.operation.impl.DefaultOperationId;
@@ -81,12 +84,15 @@ import io.atomix.utils.serializer.Namespace;
 import io.atomix.utils.serializer.Serializer;
 import org.apache.commons.lang.StringUtils;
 import org.apache.submarine.commons.cluster.meta.ClusterMeta;
+import org.apache.submarine.commons.cluster.meta.ClusterMetaChange;
+import org.apache.submarine.commons.cluster.meta.ClusterMetaCompareAndSet;
 import org.apache.submarine.commons.cluster.meta.ClusterMetaEntity;
 import org.apache.submarine.commons.cluster.meta.ClusterMetaOperation;
 import org.apache.submarine.commons.cluster.meta.ClusterMetaType;
 import org.apache.submarine.commons.cluster.protocol.LocalRaftProtocolFactory;
 import org.apache.submarine.commons.cluster.protocol.RaftClientMessagingProtocol;
 import org.apache.submarine.commons.utils.NetworkUtils;
+import org.apache.submarine.commons.utils.SubmarineConfVars.ConfVars;
 import org.apache.submarine.commons.utils.SubmarineConfiguration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -95,22 +101,27 @@ import java.io.IOException;
 import java.net.InetAddress;
 import java.net.SocketException;
 import java.net.UnknownHostException;
+import java.time.Duration;
 import java.time.Instant;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.Map;
+import java.util.Objects;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 import static io.atomix.primitive.operation.PrimitiveOperation.operation;
 import static org.apache.submarine.commons.cluster.meta.ClusterMetaOperation.DELETE_OPERATION;
@@ -141,9 +152,28 @@ public abstract class ClusterManager {
 
   protected AtomicBoolean running = new AtomicBoolean(true);
 
-  // Write data through the queue to prevent failure due to network exceptions
-  private ConcurrentLinkedQueue<ClusterMetaEntity> clusterMetaQueue
-      = new ConcurrentLinkedQueue<>();
+  // Write data through the queue to prevent failure due to network exceptions,
+  // the queued writes are committed in batches
+  private final ClusterMetaBatcher metaBatcher = new ClusterMetaBatcher(
+      "ClusterMetaBatcher", this::commitClusterMeta, this::raftInitialized,
+      sconf.getInt(ConfVars.CLUSTER_META_BATCH_MAX_SIZE),
+      sconf.getLong(ConfVars.CLUSTER_META_BATCH_LINGER_MS),
+      sconf.getLong(ConfVars.CLUSTER_META_COMMIT_TIMEOUT_MS));
+
+  // Consistency of the metadata reads
+  protected final ClusterReadConsistency readConsistency = ClusterReadConsistency.fromString(
+      sconf.getString(ConfVars.CLUSTER_META_READ_CONSISTENCY));
+
+  // Local view of the metadata, serves the reads with the LOCAL consistency
+  private final ClusterMetaView metaView = new ClusterMetaView(
+      sconf.getLong(ConfVars.CLUSTER_META_LOCAL_MAX_STALENESS_MS));
+
+  // The last metadata write of this node, the LOCAL reads wait for the view to apply it
+  private CompletableFuture<Long> lastWrite = CompletableFuture.completedFuture(0L);
+  private final Object lastWriteLock = new Object();
+
+  // Notified of the metadata changes applied by the state machine
+  private final List<Consumer<List<ClusterMetaEntity>>> metaListeners = new CopyOnWriteArrayList<>();
 
   // submarine server host & port
   protected String serverHost = "";
@@ -195,7 +225,7 @@ public abstract class ClusterManager {
   private SessionClient createProxy(RaftClient client) {
     return client.sessionBuilder(ClusterPrimitiveType.PRIMITIVE_NAME,
         ClusterPrimitiveType.INSTANCE, new ServiceConfig())
-        .withReadConsistency(ReadConsistency.SEQUENTIAL)
+        .withReadConsistency(readConsistency.getRaftConsistency())
         .withCommunicationStrategy(CommunicationStrategy.LEADER)
         .build()
         .connect()
@@ -241,53 +271,14 @@ public abstract class ClusterManager {
         raftClient.connect(clusterMemberIds).join();
 
         raftSessionClient = createProxy(raftClient);
+        watchClusterMeta(raftSessionClient);
 
         LOG.info("RaftClientThread run() <<<");
       }
     }).start();
 
     // Cluster Meta Consume Thread
-    new Thread(new Runnable() {
-      @Override
-      public void run() {
-        try {
-          while (getRunning().get()) {
-            ClusterMetaEntity metaEntity = clusterMetaQueue.peek();
-            if (null != metaEntity) {
-              // Determine whether the client is connected
-              int retry = 0;
-              while (!raftInitialized()) {
-                retry++;
-                if (0 == retry % 30) {
-                  LOG.warn("Raft incomplete initialization! retry[{}]", retry);
-                }
-                Thread.sleep(100);
-              }
-              boolean success = false;
-              switch (metaEntity.getOperation()) {
-                case DELETE_OPERATION:
-                  success = deleteClusterMeta(metaEntity);
-                  break;
-                case PUT_OPERATION:
-                  success = putClusterMeta(metaEntity);
-                  break;
-              }
-              if (true == success) {
-                // The operation was successfully deleted
-                clusterMetaQueue.remove(metaEntity);
-                LOG.info("Cluster Meta Consume success! {}", metaEntity);
-              } else {
-                LOG.error("Cluster Meta Consume failed!");
-              }
-            } else {
-              Thread.sleep(100);
-            }
-          }
-        } catch (InterruptedException e) {
-          LOG.error(e.getMessage(), e);
-        }
-      }
-    }).start();
+    metaBatcher.start();
   }
 
   // cluster shutdown
@@ -297,6 +288,7 @@ public abstract class ClusterManager {
     }
 
     running.set(false);
+    metaBatcher.stop();
 
     try {
       if (null != raftSessionClient) {
@@ -331,79 +323,220 @@ public abstract class ClusterManager {
   }
 
   // put metadata into cluster metadata
-  private boolean putClusterMeta(ClusterMetaEntity entity) {
+  public CompletableFuture<Long> putClusterMeta(ClusterMetaType type, String key,
+                                                HashMap<String, Object> values) {
+    ClusterMetaEntity metaEntity = new ClusterMetaEntity(PUT_OPERATION, type, key, values);
+
+    if (LOG.isDebugEnabled()) {
+      LOG.debug(this.getClass().toString() + "::putClusterMeta {} {}", type, key);
+    }
+
+    // add cluster name
+    metaEntity.getValues().put(ClusterMeta.SERVER_HOST, serverHost);
+    metaEntity.getValues().put(ClusterMeta.SERVER_PORT, raftServerPort);
+
+    return submitClusterMeta(metaEntity);
+  }
+
+  // delete metadata from cluster metadata
+  public CompletableFuture<Long> deleteClusterMeta(ClusterMetaType type, String key) {
+    // Need to pay attention to delete metadata operations
+    LOG.info(this.getClass().toString() + "::deleteClusterMeta {} {}", type, key);
+
+    ClusterMetaEntity metaEntity = new ClusterMetaEntity(DELETE_OPERATION, type, key, null);
+    return submitClusterMeta(metaEntity);
+  }
+
+  /**
+   * Queue the write, with cluster.meta.sync.put it also waits for the commit
+   * @return completed with the raft commit index when the write is committed
+   */
+  private CompletableFuture<Long> submitClusterMeta(ClusterMetaEntity metaEntity) {
+    CompletableFuture<Long> future = metaBatcher.submit(metaEntity);
+    trackWrite(future);
+    if (sconf.getBoolean(ConfVars.CLUSTER_META_SYNC_PUT)) {
+      try {
+        future.get(sconf.getLong(ConfVars.CLUSTER_META_COMMIT_TIMEOUT_MS), TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (ExecutionException | TimeoutException e) {
+        LOG.warn(this.getClass().toString() + "::commit {} {} failed: {}",
+            metaEntity.getMetaType(), metaEntity.getKey(), e.toString());
+      }
+    }
+    return future;
+  }
+
+  // A put merged into a queued put is committed before the writes queued after it,
+  // so the last write is the one with the highest commit index
+  private void trackWrite(CompletableFuture<Long> future) {
+    synchronized (lastWriteLock) {
+      lastWrite = lastWrite.thenCombine(future.exceptionally(e -> 0L), Math::max);
+    }
+  }
+
+  /**
+   * Replace the metadata of the key if its version is still the expected one. The state
+   * machine checks the version when it applies the command, with the same outcome on
+   * every node. The write is not queued, it fails if raft is not initialized.
+   * @param expectedVersion the version from {@link #getClusterMetaVersion}, 0 if the key
+   *                        must not exist
+   * @param values          the new metadata, null to remove the key
+   * @return completed with the new version of the key, the raft commit index of the write,
+   * or 0 if the version was not the expected one
+   */
+  public CompletableFuture<Long> compareAndSetClusterMeta(ClusterMetaType type, String key,
+                                                          long expectedVersion,
+                                                          HashMap<String, Object> values) {
     if (!raftInitialized()) {
-      LOG.error(this.getClass().toString() + "::Raft incomplete initialization!");
-      return false;
+      CompletableFuture<Long> failed = new CompletableFuture<>();
+      failed.completeExceptionally(new IllegalStateException("Raft incomplete initialization!"));
+      return failed;
     }
 
-    ClusterMetaType metaType = entity.getMetaType();
-    String metaKey = entity.getKey();
-    HashMap<String, Object> newMetaValue = entity.getValues();
+    ClusterMetaCompareAndSet cas = new ClusterMetaCompareAndSet(type, key, expectedVersion, values);
+    CompletableFuture<Long> future = raftSessionClient.execute(
+        operation(ClusterStateMachine.COMPARE_AND_SET, clientSerializer.encode(cas)))
+        .thenApply(clientSerializer::decode);
+    trackWrite(future);
+    return future;
+  }
 
-    if (LOG.isDebugEnabled()) {
-      LOG.debug(this.getClass().toString() + "::putClusterMeta {} {}", metaType, metaKey);
+  /**
+   * @return the version of the key for {@link #compareAndSetClusterMeta}, 0 if the key does
+   * not exist
+   */
+  public long getClusterMetaVersion(ClusterMetaType metaType, String metaKey) {
+    if (readLocally(metaType)) {
+      return metaView.getVersion(metaType, metaKey);
     }
 
-    // add cluster name
-    newMetaValue.put(ClusterMeta.SERVER_HOST, serverHost);
-    newMetaValue.put(ClusterMeta.SERVER_PORT, raftServerPort);
+    ClusterMeta.VersionedMeta meta = getVersionedClusterMeta(metaType, metaKey).get(metaKey);
+    return null == meta ? 0 : meta.getVersion();
+  }
 
-    raftSessionClient.execute(operation(ClusterStateMachine.PUT,
-        clientSerializer.encode(entity)))
-        .<Long>thenApply(clientSerializer::decode);
-    return true;
+  // commit a batch of metadata writes as one raft command
+  private CompletableFuture<Long> commitClusterMeta(List<ClusterMetaEntity> entities) {
+    return raftSessionClient.execute(operation(ClusterStateMachine.BATCH,
+        clientSerializer.encode(new ArrayList<>(entities))))
+        .thenApply(clientSerializer::decode);
   }
 
-  // put metadata into cluster metadata
-  public void putClusterMeta(ClusterMetaType type, String key, HashMap<String, Object> values) {
-    ClusterMetaEntity metaEntity = new ClusterMetaEntity(PUT_OPERATION, type, key, values);
+  /**
+   * Find the metadata whose attribute has the value, e.g. the online servers or the
+   * interpreters of a server. With the LOCAL consistency the indexes of the local view
+   * are used, otherwise all the metadata of the type are read and filtered.
+   */
+  public HashMap<String, HashMap<String, Object>> findClusterMeta(
+      ClusterMetaType metaType, String attribute, Object value) {
+    if (readLocally(metaType)) {
+      return metaView.find(metaType, attribute, value);
+    }
 
-    boolean result = putClusterMeta(metaEntity);
-    if (false == result) {
-      LOG.warn(this.getClass().toString() + "::putClusterMeta failure, Cache metadata to queue.");
-      clusterMetaQueue.add(metaEntity);
+    HashMap<String, HashMap<String, Object>> found = new HashMap<>();
+    for (Map.Entry<String, HashMap<String, Object>> entry : getClusterMeta(metaType, "").entrySet()) {
+      if (null != entry.getValue() && Objects.equals(entry.getValue().get(attribute), value)) {
+        found.put(entry.getKey(), entry.getValue());
+      }
     }
+    return found;
   }
 
-  // delete metadata by cluster metadata
-  private boolean deleteClusterMeta(ClusterMetaEntity entity) {
-    ClusterMetaType metaType = entity.getMetaType();
-    String metaKey = entity.getKey();
+  /**
+   * With the LOCAL consistency, whether the read can be served by the local view: the view
+   * is readable and has applied the writes this node submitted before the read, otherwise
+   * the read goes to raft, whose sequential reads follow the writes of the session.
+   */
+  private boolean readLocally(ClusterMetaType metaType) {
+    if (readConsistency != ClusterReadConsistency.LOCAL || !metaView.isReadable(metaType)) {
+      return false;
+    }
 
-    // Need to pay attention to delete metadata operations
-    LOG.info(this.getClass().toString() + "::deleteClusterMeta {} {}", metaType, metaKey);
+    CompletableFuture<Long> write;
+    synchronized (lastWriteLock) {
+      write = lastWrite;
+    }
+    if (!write.isDone() && !raftInitialized()) {
+      // The write can not be committed yet, raft can not read it either
+      return true;
+    }
 
-    if (!raftInitialized()) {
-      LOG.error(this.getClass().toString() + "::Raft incomplete initialization!");
+    long timeoutMillis = sconf.getLong(ConfVars.CLUSTER_META_COMMIT_TIMEOUT_MS);
+    long deadline = System.currentTimeMillis() + timeoutMillis;
+    try {
+      long index = write.get(timeoutMillis, TimeUnit.MILLISECONDS);
+      return metaView.awaitApplied(index, Math.max(0, deadline - System.currentTimeMillis()));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    } catch (ExecutionException | TimeoutException e) {
       return false;
     }
+  }
 
-    raftSessionClient.execute(operation(
-        ClusterStateMachine.REMOVE,
-        clientSerializer.encode(entity)))
-        .<Long>thenApply(clientSerializer::decode)
-        .thenAccept(result -> {
-          LOG.info(this.getClass().toString() + "::deleteClusterMeta {}", result);
-        });
+  /**
+   * Listen to the metadata changes applied by the state machine, e.g. the heartbeats.
+   * The listener is called on the thread of the raft session and must not block.
+   */
+  public void addClusterMetaListener(Consumer<List<ClusterMetaEntity>> listener) {
+    metaListeners.add(listener);
+  }
 
-    return true;
+  // Notify the listeners of the changes applied by the state machine, whatever the read
+  // consistency, and with the LOCAL consistency keep the local view up to date
+  private void watchClusterMeta(SessionClient session) {
+    session.addEventListener(ClusterStateMachine.CHANGE,
+        event -> onClusterMetaChange(clientSerializer.<ClusterMetaChange>decode(event.value())));
+    if (readConsistency != ClusterReadConsistency.LOCAL) {
+      return;
+    }
+    session.addStateChangeListener(state -> {
+      if (state != PrimitiveState.CONNECTED) {
+        metaView.disconnected();
+      } else if (metaView.connected()) {
+        loadClusterMeta(session, ClusterMetaType.values());
+      }
+    });
+    loadClusterMeta(session, ClusterMetaType.values());
   }
 
-  // delete metadata from cluster metadata
-  public void deleteClusterMeta(ClusterMetaType type, String key) {
-    ClusterMetaEntity metaEntity = new ClusterMetaEntity(DELETE_OPERATION, type, key, null);
+  private void onClusterMetaChange(ClusterMetaChange change) {
+    if (readConsistency == ClusterReadConsistency.LOCAL) {
+      metaView.apply(change.getIndex(), change.getEntities());
+    }
+    for (Consumer<List<ClusterMetaEntity>> listener : metaListeners) {
+      try {
+        listener.accept(change.getEntities());
+      } catch (RuntimeException e) {
+        LOG.error("Cluster meta listener failed", e);
+      }
+    }
+  }
 
-    boolean result = deleteClusterMeta(metaEntity);
-    if (false == result) {
-      LOG.warn(this.getClass().toString() + "::deleteClusterMeta failed, Cache data to queue.");
-      clusterMetaQueue.add(metaEntity);
+  // Load the local view from raft, the changes published before the response are overwritten
+  private void loadClusterMeta(SessionClient session, ClusterMetaType... metaTypes) {
+    for (ClusterMetaType metaType : metaTypes) {
+      ClusterMetaEntity entity = new ClusterMetaEntity(GET_OPERATION, metaType, "", null);
+      session.execute(operation(ClusterStateMachine.GET_VERSIONED, clientSerializer.encode(entity)))
+          .<HashMap<String, ClusterMeta.VersionedMeta>>thenApply(clientSerializer::decode)
+          .whenComplete((metas, error) -> {
+            if (null == error) {
+              metaView.load(metaType, metas);
+            } else if (running.get()) {
+              LOG.warn("Failed to load the {} cluster meta, retry in 1s: {}", metaType, error.toString());
+              session.context().schedule(Duration.ofSeconds(1), () -> loadClusterMeta(session, metaType));
+            }
+          });
     }
   }
 
   // get metadata by cluster metadata
   public HashMap<String, HashMap<String, Object>> getClusterMeta(
       ClusterMetaType metaType, String metaKey) {
+    if (readLocally(metaType)) {
+      return metaView.get(metaType, metaKey);
+    }
+
     HashMap<String, HashMap<String, Object>> clusterMeta = new HashMap<>();
     if (!raftInitialized()) {
       LOG.error(this.getClass().toString() + "::Raft incomplete initialization!");
@@ -431,6 +564,24 @@ public abstract class ClusterManager {
     return clusterMeta;
   }
 
+  // get the metadata and their versions from raft
+  private HashMap<String, ClusterMeta.VersionedMeta> getVersionedClusterMeta(
+      ClusterMetaType metaType, String metaKey) {
+    if (!raftInitialized()) {
+      LOG.error(this.getClass().toString() + "::Raft incomplete initialization!");
+      return new HashMap<>();
+    }
+
+    ClusterMetaEntity entity = new ClusterMetaEntity(GET_OPERATION, metaType, metaKey, null);
+    try {
+      return clientSerializer.decode(raftSessionClient.execute(operation(
+          ClusterStateMachine.GET_VERSIONED, clientSerializer.encode(entity))).get(3, TimeUnit.SECONDS));
+    } catch (InterruptedException | ExecutionException | TimeoutException e) {
+      LOG.error(e.getMessage(), e);
+      return new HashMap<>();
+    }
+  }
+
   protected static final Namespace storageNamespace = Namespace.builder()
       .register(CloseSessionEntry.class)
       .register(CommandEntry.class)
@@ -517,6 +668,9 @@ public abstract class ClusterManager {
       .register(RaftMember.Type.class)
       .register(Instant.class)
       .register(Configuration.class)
+      .register(LinkedList.class)
+      .register(PrimitiveEvent.class)
+      .register(DefaultEventType.class)
       .build());
 
   protected static final Serializer storageSerializer = Serializer.using(Namespace.builder()
@@ -554,5 +708,10 @@ public abstract class ClusterManager {
       .register(HashMap.class)
       .register(LocalDateTime.class)
       .register(Maps.immutableEntry(new String(), new Object()).getClass())
+      .register(ArrayList.class)
+      // Registered last, the ids of the classes above are kept in the raft logs and snapshots
+      .register(ClusterMetaChange.class)
+      .register(ClusterMetaCompareAndSet.class)
+      .register(ClusterMeta.VersionedMeta.class)
       .build());
 }
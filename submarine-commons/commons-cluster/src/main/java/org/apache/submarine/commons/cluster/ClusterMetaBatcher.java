@@ -0,0 +1,279 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.submarine.commons.cluster;
+
+import org.apache.submarine.commons.cluster.meta.ClusterMetaEntity;
+import org.apache.submarine.commons.cluster.meta.ClusterMetaOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+/**
+ * Commits the cluster metadata writes to raft in batches.
+ * The writes are queued, a single thread drains the queue into a batch of at most
+ * maxBatchSize entries, waiting up to lingerMillis for more entries, and commits the
+ * batch as one raft command. The writes queued while a batch is being committed make
+ * up the next batches, so the batches grow with the load. A failed batch is retried
+ * with a backoff until it is committed, e.g. across a leader change, its writes are only
+ * failed when the batcher is stopped.
+ *
+ * A put is merged into the put of the same key still in the queue, as the state machine
+ * merges the puts, so while raft is unreachable the queue holds at most one write for
+ * each key instead of every heartbeat.
+ */
+public class ClusterMetaBatcher {
+  private static final Logger LOG = LoggerFactory.getLogger(ClusterMetaBatcher.class);
+
+  private static final long POLL_MILLIS = 100;
+  private static final long MAX_BACKOFF_MILLIS = 5000;
+
+  /**
+   * Commits a batch of entries as one raft command
+   */
+  @FunctionalInterface
+  public interface Committer {
+    /**
+     * @return the commit index of the batch
+     */
+    CompletableFuture<Long> commit(List<ClusterMetaEntity> entries);
+  }
+
+  private final String name;
+  private final Committer committer;
+  private final BooleanSupplier ready;
+  private final int maxBatchSize;
+  private final long lingerNanos;
+  private final long commitTimeoutMillis;
+
+  private final BlockingQueue<PendingEntry> queue = new LinkedBlockingQueue<>();
+  // type/key -> the last write of the key still in the queue, guarded by itself
+  private final Map<String, PendingEntry> queuedByKey = new HashMap<>();
+  private volatile boolean running = false;
+  private Thread thread = null;
+
+  /**
+   * @param name                name of the committing thread
+   * @param committer           commits a batch
+   * @param ready               whether the raft client is initialized
+   * @param maxBatchSize        maximum number of entries of a batch
+   * @param lingerMillis        maximum time a batch waits for more entries
+   * @param commitTimeoutMillis timeout of each commit attempt
+   */
+  public ClusterMetaBatcher(String name, Committer committer, BooleanSupplier ready,
+                            int maxBatchSize, long lingerMillis, long commitTimeoutMillis) {
+    this.name = name;
+    this.committer = committer;
+    this.ready = ready;
+    this.maxBatchSize = Math.max(1, maxBatchSize);
+    this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, lingerMillis));
+    this.commitTimeoutMillis = commitTimeoutMillis;
+  }
+
+  /**
+   * Queue an entry, the entries are committed in the order they are submitted
+   * @return completed with the commit index when the entry is committed
+   */
+  public CompletableFuture<Long> submit(ClusterMetaEntity entity) {
+    String key = entity.getMetaType() + "/" + entity.getKey();
+    synchronized (queuedByKey) {
+      PendingEntry queued = queuedByKey.get(key);
+      if (null != queued && isPut(queued.entity) && isPut(entity)) {
+        HashMap<String, Object> values = new HashMap<>();
+        if (null != queued.entity.getValues()) {
+          values.putAll(queued.entity.getValues());
+        }
+        if (null != entity.getValues()) {
+          values.putAll(entity.getValues());
+        }
+        queued.entity = new ClusterMetaEntity(ClusterMetaOperation.PUT_OPERATION,
+            entity.getMetaType(), entity.getKey(), values);
+        return queued.future.thenApply(Function.identity());
+      }
+      PendingEntry pending = new PendingEntry(key, entity);
+      queuedByKey.put(key, pending);
+      queue.add(pending);
+      return pending.future;
+    }
+  }
+
+  private static boolean isPut(ClusterMetaEntity entity) {
+    return entity.getOperation() == ClusterMetaOperation.PUT_OPERATION;
+  }
+
+  /**
+   * @return number of entries waiting for a batch, the merged puts count once
+   */
+  public int getQueueSize() {
+    return queue.size();
+  }
+
+  public synchronized void start() {
+    if (running) {
+      return;
+    }
+    running = true;
+    thread = new Thread(this::run, name);
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Stop committing, the entries not committed yet are failed
+   */
+  public synchronized void stop() {
+    running = false;
+    if (null != thread) {
+      thread.interrupt();
+      thread = null;
+    }
+    List<PendingEntry> remaining = new ArrayList<>();
+    synchronized (queuedByKey) {
+      queue.drainTo(remaining);
+      queuedByKey.clear();
+    }
+    fail(remaining, new IllegalStateException(name + " is stopped"));
+  }
+
+  private void run() {
+    List<PendingEntry> batch = new ArrayList<>();
+    try {
+      while (running) {
+        batch = nextBatch();
+        if (batch.isEmpty()) {
+          continue;
+        }
+        waitReady();
+        if (!running) {
+          fail(batch, new IllegalStateException(name + " is stopped"));
+          break;
+        }
+        commit(batch);
+      }
+    } catch (InterruptedException e) {
+      LOG.info("{} interrupted", name);
+      fail(batch, e);
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private List<PendingEntry> nextBatch() throws InterruptedException {
+    List<PendingEntry> batch = new ArrayList<>();
+    PendingEntry first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+    if (null == first) {
+      return batch;
+    }
+    batch.add(first);
+    long deadline = System.nanoTime() + lingerNanos;
+    while (batch.size() < maxBatchSize) {
+      if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+        continue;
+      }
+      long remaining = deadline - System.nanoTime();
+      if (remaining <= 0) {
+        break;
+      }
+      PendingEntry next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+      if (null == next) {
+        break;
+      }
+      batch.add(next);
+    }
+    // The writes submitted from now on are not merged into the batch
+    synchronized (queuedByKey) {
+      for (PendingEntry pending : batch) {
+        queuedByKey.remove(pending.key, pending);
+      }
+    }
+    return batch;
+  }
+
+  private void waitReady() throws InterruptedException {
+    int retry = 0;
+    while (running && !ready.getAsBoolean()) {
+      retry++;
+      if (0 == retry % 30) {
+        LOG.warn("Raft incomplete initialization! retry[{}]", retry);
+      }
+      Thread.sleep(POLL_MILLIS);
+    }
+  }
+
+  private void commit(List<PendingEntry> batch) throws InterruptedException {
+    List<ClusterMetaEntity> entries = new ArrayList<>(batch.size());
+    for (PendingEntry pending : batch) {
+      entries.add(pending.entity);
+    }
+
+    long backoffMillis = POLL_MILLIS;
+    int attempt = 0;
+    while (true) {
+      attempt++;
+      try {
+        Long index = committer.commit(entries).get(commitTimeoutMillis, TimeUnit.MILLISECONDS);
+        for (PendingEntry pending : batch) {
+          pending.future.complete(index);
+        }
+        if (LOG.isDebugEnabled()) {
+          LOG.debug("Cluster Meta Consume success! {} entries at index {}", batch.size(), index);
+        }
+        return;
+      } catch (ExecutionException | TimeoutException | RuntimeException e) {
+        // The puts and removes are idempotent, a batch that timed out can be committed again
+        LOG.warn("Cluster Meta Consume failed! {} entries, attempt {}, retry in {} ms: {}",
+            batch.size(), attempt, backoffMillis, e.toString());
+      }
+      Thread.sleep(backoffMillis);
+      if (!running) {
+        fail(batch, new IllegalStateException(name + " is stopped"));
+        return;
+      }
+      backoffMillis = Math.min(2 * backoffMillis, MAX_BACKOFF_MILLIS);
+    }
+  }
+
+  private static void fail(List<PendingEntry> entries, Throwable cause) {
+    for (PendingEntry pending : entries) {
+      pending.future.completeExceptionally(cause);
+    }
+  }
+
+  private static class PendingEntry {
+    private final String key;
+    // Replaced when a put is merged, guarded by queuedByKey until the entry is batched
+    private ClusterMetaEntity entity;
+    private final CompletableFuture<Long> future = new CompletableFuture<>();
+
+    PendingEntry(String key, ClusterMetaEntity entity) {
+      this.key = key;
+      this.entity = entity;
+    }
+  }
+}
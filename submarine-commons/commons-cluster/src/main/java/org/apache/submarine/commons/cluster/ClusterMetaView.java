@@ -0,0 +1,194 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.submarine.commons.cluster;
+
+import org.apache.submarine.commons.cluster.meta.ClusterMeta;
+import org.apache.submarine.commons.cluster.meta.ClusterMetaEntity;
+import org.apache.submarine.commons.cluster.meta.ClusterMetaType;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local copy of the cluster metadata, updated with the changes the state machine
+ * publishes when it applies the raft log. The reads are not blocked by the updates
+ * and return copies, so that they can be modified by the callers.
+ *
+ * The view is readable once every meta type has been loaded from raft, and stays
+ * readable while the raft session is connected. When the session is suspended the
+ * changes may be missed, the view is then readable for maxStalenessMillis and must
+ * be reloaded when the session is connected again.
+ *
+ * The view records the raft commit index of the last change it applied, so that a
+ * node can wait for the view to reflect its own writes before reading it. The keys
+ * have the same versions as in the state machine.
+ */
+public class ClusterMetaView {
+  private final long maxStalenessNanos;
+
+  private ClusterMeta clusterMeta = new ClusterMeta();
+  private final Set<ClusterMetaType> loadedTypes = EnumSet.noneOf(ClusterMetaType.class);
+  // System.nanoTime() when the session was disconnected, 0 while it is connected
+  private long disconnectedNanos = 0;
+  // Raft commit index of the last applied change
+  private long appliedIndex = 0;
+
+  public ClusterMetaView(long maxStalenessMillis) {
+    this.maxStalenessNanos = TimeUnit.MILLISECONDS.toNanos(maxStalenessMillis);
+  }
+
+  /**
+   * Replace the metadata of a type with the metadata and versions read from raft
+   */
+  public synchronized void load(ClusterMetaType type, Map<String, ClusterMeta.VersionedMeta> metas) {
+    // Replaced key by key, a concurrent read sees each key before or after the load
+    for (String key : clusterMeta.get(type, "").keySet()) {
+      if (!metas.containsKey(key)) {
+        clusterMeta.remove(type, key);
+      }
+    }
+    for (Map.Entry<String, ClusterMeta.VersionedMeta> entry : metas.entrySet()) {
+      clusterMeta.set(type, entry.getKey(), entry.getValue().getValues(), entry.getValue().getVersion());
+    }
+    loadedTypes.add(type);
+  }
+
+  /**
+   * Apply the changes published by the state machine at the raft commit index
+   */
+  public synchronized void apply(long index, List<ClusterMetaEntity> entities) {
+    for (ClusterMetaEntity entity : entities) {
+      if (clusterMeta.getVersion(entity.getMetaType(), entity.getKey()) > index) {
+        // Loaded from raft after a later update, the changes of the same index are
+        // applied again, which gives the same metadata
+        continue;
+      }
+      switch (entity.getOperation()) {
+        case PUT_OPERATION:
+          clusterMeta.put(entity.getMetaType(), entity.getKey(), entity.getValues(), index);
+          break;
+        case SET_OPERATION:
+          clusterMeta.set(entity.getMetaType(), entity.getKey(), entity.getValues(), index);
+          break;
+        case DELETE_OPERATION:
+          clusterMeta.remove(entity.getMetaType(), entity.getKey());
+          break;
+        default:
+          break;
+      }
+    }
+    if (index > appliedIndex) {
+      appliedIndex = index;
+      notifyAll();
+    }
+  }
+
+  /**
+   * Wait for the view to apply the changes up to the raft commit index
+   * @return whether the index was applied before the timeout
+   */
+  public synchronized boolean awaitApplied(long index, long timeoutMillis)
+      throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    while (appliedIndex < index) {
+      long remaining = deadline - System.nanoTime();
+      if (remaining <= 0) {
+        return false;
+      }
+      TimeUnit.NANOSECONDS.timedWait(this, remaining);
+    }
+    return true;
+  }
+
+  public synchronized long getAppliedIndex() {
+    return appliedIndex;
+  }
+
+  /**
+   * The session is connected
+   * @return whether the view must be reloaded, because changes may have been missed
+   */
+  public synchronized boolean connected() {
+    if (disconnectedNanos == 0) {
+      return false;
+    }
+    disconnectedNanos = 0;
+    loadedTypes.clear();
+    return true;
+  }
+
+  /**
+   * The session is suspended or expired, the changes may be missed from now on
+   */
+  public synchronized void disconnected() {
+    if (disconnectedNanos == 0) {
+      disconnectedNanos = System.nanoTime();
+    }
+  }
+
+  /**
+   * @return whether the metadata of the type is loaded and within the staleness bound
+   */
+  public synchronized boolean isReadable(ClusterMetaType type) {
+    if (!loadedTypes.contains(type)) {
+      return false;
+    }
+    return disconnectedNanos == 0 || System.nanoTime() - disconnectedNanos <= maxStalenessNanos;
+  }
+
+  /**
+   * @return the metadata of the key, or of all the keys if the key is empty,
+   * as {@link ClusterMeta#get(ClusterMetaType, String)}
+   */
+  public HashMap<String, HashMap<String, Object>> get(ClusterMetaType type, String key) {
+    return toHashMap(clusterMeta.get(type, key));
+  }
+
+  /**
+   * @return the version of the key, the raft commit index of its last update, 0 if the key
+   * does not exist
+   */
+  public long getVersion(ClusterMetaType type, String key) {
+    return clusterMeta.getVersion(type, key);
+  }
+
+  /**
+   * @return the metadata whose attribute has the value,
+   * as {@link ClusterMeta#find(ClusterMetaType, String, Object)}
+   */
+  public HashMap<String, HashMap<String, Object>> find(ClusterMetaType type, String attribute,
+                                                       Object value) {
+    return toHashMap(clusterMeta.find(type, attribute, value));
+  }
+
+  // The values returned by ClusterMeta are already copies
+  private static HashMap<String, HashMap<String, Object>> toHashMap(Map<String, Map<String, Object>> metas) {
+    HashMap<String, HashMap<String, Object>> result = new HashMap<>();
+    for (Map.Entry<String, Map<String, Object>> entry : metas.entrySet()) {
+      Map<String, Object> values = entry.getValue();
+      result.put(entry.getKey(), null == values || values instanceof HashMap
+          ? (HashMap<String, Object>) values : new HashMap<>(values));
+    }
+    return result;
+  }
+}
@@ -17,20 +17,21 @@
 package org.apache.submarine.commons.cluster;
 
 import com.sun.management.OperatingSystemMXBean;
-import org.apache.commons.lang.StringUtils;
 import org.apache.submarine.commons.cluster.meta.ClusterMeta;
+import org.apache.submarine.commons.cluster.meta.ClusterMetaEntity;
+import org.apache.submarine.commons.cluster.meta.ClusterMetaOperation;
 import org.apache.submarine.commons.cluster.meta.ClusterMetaType;
+import org.apache.submarine.commons.utils.SubmarineConfVars.ConfVars;
 import org.apache.submarine.commons.utils.SubmarineConfiguration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.management.ManagementFactory;
-import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.EnumMap;
 import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
-import java.util.Queue;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.apache.submarine.commons.cluster.meta.ClusterMetaType.INTP_PROCESS_META;
@@ -41,29 +42,50 @@ import static org.apache.submarine.commons.cluster.meta.ClusterMetaType.SERVER_M
  * 1. cluster monitoring is also used for submarine-Server and submarine Interpreter,
  *    distinguish by member variable ClusterMetaType
  * 2. Report the average of the server resource CPU and MEMORY usage in the
- *    last few minutes to smooth the server's instantaneous peak
- * 3. checks the heartbeat timeout of the submarine-server and interpreter processes
+ *    last few minutes to smooth the server's instantaneous peak, with its 95th percentile
+ *    and moving average. The usage is only reported when it changed by more than
+ *    cluster.usage.change.threshold, or before the heartbeat times out
+ * 3. checks the heartbeats of the submarine-server and interpreter processes with a
+ *    phi accrual failure detector
  */
 public class ClusterMonitor {
   private static Logger LOG = LoggerFactory.getLogger(ClusterMonitor.class);
 
-  // Whether the thread has started
-  private static AtomicBoolean running = new AtomicBoolean(true);
+  // Whether the thread has started, per monitor: the shutdown of a monitor must not stop
+  // the other monitors of the process
+  private final AtomicBoolean running = new AtomicBoolean(true);
 
   private ClusterManager clusterManager = null;
 
   // Save the CPU resource and MEmory usage of the server resources
-  // in the last few minutes through the queue, and then average them through the queue.
-  private Queue<UsageUtil> monitorUsageQueues = new LinkedList<>();
-  private final int USAGE_QUEUE_LIMIT = 100; // queue length
+  // in the last few minutes, and then average them.
+  private final int USAGE_QUEUE_LIMIT = 100; // number of samples
+  private final double USAGE_EWMA_ALPHA = 0.2;
+  private final UsageSampler cpuSampler = new UsageSampler(USAGE_QUEUE_LIMIT, USAGE_EWMA_ALPHA);
+  private final UsageSampler memorySampler = new UsageSampler(USAGE_QUEUE_LIMIT, USAGE_EWMA_ALPHA);
+
+  // The usage is reported when its share of the capacity changed by more than this
+  private float usageChangeThreshold = 0.05f;
+  // The shares of the last reported usage, and when it was reported
+  private double reportedCpuShare = -1;
+  private double reportedMemoryShare = -1;
+  private long reportedTimeMillis = 0;
+
   private int heartbeatInterval = 3000; // Heartbeat reporting interval（milliseconds）
 
-  // The submarine-server leader checks the heartbeat timeout of
-  // the submarine-server and submarine-interpreter processes in the cluster metadata.
-  // If this time is exceeded, the submarine-server and interpreter processes
-  // can have an exception and no heartbeat is reported.
+  // The submarine-server reports its usage at least twice per heartbeat timeout,
+  // so that its heartbeat is seen even when the usage does not change.
   private int heartbeatTimeout = 9000;
 
+  // The submarine-server leader checks the heartbeats of the submarine-server and
+  // submarine-interpreter processes, received with the metadata changes.
+  // When a heartbeat is later than its usual interval allows, the process is suspected
+  // to have an exception and is set offline.
+  private final Map<ClusterMetaType, PhiAccrualFailureDetector> failureDetectors
+      = new EnumMap<>(ClusterMetaType.class);
+  // Whether this server was the leader at the last check
+  private boolean leader = false;
+
   // Type of cluster monitoring object
   private ClusterMetaType clusterMetaType;
 
@@ -78,6 +100,8 @@ public class ClusterMonitor {
     SubmarineConfiguration sconf = SubmarineConfiguration.getInstance();
     heartbeatInterval = sconf.getClusterHeartbeatInterval();
     heartbeatTimeout = sconf.getClusterHeartbeatTimeout();
+    usageChangeThreshold = sconf.getFloat(ConfVars.CLUSTER_USAGE_CHANGE_THRESHOLD);
+    float phiThreshold = sconf.getFloat(ConfVars.CLUSTER_FAILURE_PHI_THRESHOLD);
 
     if (heartbeatTimeout < heartbeatInterval) {
       LOG.error("Heartbeat timeout must be greater than heartbeat period.");
@@ -88,6 +112,11 @@ public class ClusterMonitor {
     if (heartbeatTimeout < heartbeatInterval * 3) {
       LOG.warn("Heartbeat timeout recommended than 3 times the heartbeat period.");
     }
+
+    for (ClusterMetaType metaType : ClusterMetaType.values()) {
+      failureDetectors.put(metaType, new PhiAccrualFailureDetector(phiThreshold,
+          USAGE_QUEUE_LIMIT, heartbeatInterval / 4.0, heartbeatInterval, heartbeatInterval));
+    }
   }
 
   // start cluster monitor
@@ -95,6 +124,10 @@ public class ClusterMonitor {
     this.clusterMetaType = clusterMetaType;
     this.metaKey = metaKey;
 
+    if (clusterMetaType == SERVER_META) {
+      clusterManager.addClusterMetaListener(this::onClusterMetaChange);
+    }
+
     new Thread(new Runnable() {
       @Override
       public void run() {
@@ -126,10 +159,29 @@ public class ClusterMonitor {
     running.set(false);
   }
 
+  // Feed the failure detectors with the heartbeats in the metadata changes
+  private void onClusterMetaChange(List<ClusterMetaEntity> change) {
+    long now = System.currentTimeMillis();
+    for (ClusterMetaEntity entity : change) {
+      PhiAccrualFailureDetector detector = failureDetectors.get(entity.getMetaType());
+      if (null == detector) {
+        continue;
+      }
+      Map<String, Object> values = entity.getValues();
+      if (entity.getOperation() == ClusterMetaOperation.DELETE_OPERATION
+          || (null != values && ClusterMeta.OFFLINE_STATUS.equals(values.get(ClusterMeta.STATUS)))) {
+        detector.remove(entity.getKey());
+      } else if (null != values && values.containsKey(ClusterMeta.LATEST_HEARTBEAT)) {
+        detector.heartbeat(entity.getKey(), now);
+      }
+    }
+  }
+
   // Check the healthy of each service and interpreter instance
   private void checkHealthy() {
     // only leader check cluster healthy
     if (!clusterManager.isClusterLeader()) {
+      leader = false;
       return;
     }
 
@@ -137,47 +189,35 @@ public class ClusterMonitor {
       LOG.debug("checkHealthy()");
     }
 
-    LocalDateTime now = LocalDateTime.now();
-    // check machine mate
-    for (ClusterMetaType metaType : ClusterMetaType.values()) {
-      Map<String, HashMap<String, Object>> clusterMeta
-          = clusterManager.getClusterMeta(metaType, "");
-
-      if (LOG.isDebugEnabled()) {
-        LOG.debug("clusterMeta : {}", clusterMeta);
-      }
-
-      for (Map.Entry<String, HashMap<String, Object>> entry : clusterMeta.entrySet()) {
-        String key = entry.getKey();
-        Map<String, Object> meta = entry.getValue();
-        if (null == meta) {
-          continue;
-        }
-
-        // Metadata that has been offline is not processed
-        String status = (String) meta.get(ClusterMeta.STATUS);
-        if (StringUtils.equals(status, ClusterMeta.OFFLINE_STATUS)) {
-          continue;
-        }
-
-        Object heartbeat = meta.get(ClusterMeta.LATEST_HEARTBEAT);
-        if (heartbeat instanceof LocalDateTime) {
-          LocalDateTime dHeartbeat = (LocalDateTime) heartbeat;
-          Duration duration = Duration.between(dHeartbeat, now);
-          long timeInterval = duration.getSeconds() * 1000; // Convert to milliseconds
-          if (timeInterval > heartbeatTimeout) {
-            // Set the metadata for the heartbeat timeout to offline
-            // Cannot delete metadata
-            HashMap<String, Object> mapValues = new HashMap<>();
-            mapValues.put(ClusterMeta.STATUS, ClusterMeta.OFFLINE_STATUS);
-            clusterManager.putClusterMeta(metaType, key, mapValues);
-            LOG.warn("offline heartbeat timeout[{}] meta[{}]", dHeartbeat, key);
+    long now = System.currentTimeMillis();
+    if (!leader) {
+      // Monitor the online metadata whose heartbeat was not seen yet, e.g. after a restart,
+      // as if they had just sent one
+      leader = true;
+      for (ClusterMetaType metaType : ClusterMetaType.values()) {
+        PhiAccrualFailureDetector detector = failureDetectors.get(metaType);
+        for (String key : clusterManager.findClusterMeta(
+            metaType, ClusterMeta.STATUS, ClusterMeta.ONLINE_STATUS).keySet()) {
+          if (!detector.isMonitoring(key)) {
+            detector.heartbeat(key, now);
           }
-        } else {
-          LOG.error("wrong data type");
         }
       }
     }
+
+    // The suspected metadata are set offline together, the writes are committed in a batch
+    for (ClusterMetaType metaType : ClusterMetaType.values()) {
+      PhiAccrualFailureDetector detector = failureDetectors.get(metaType);
+      for (String key : detector.getSuspected(now)) {
+        // Set the metadata for the heartbeat timeout to offline
+        // Cannot delete metadata
+        LOG.warn("offline heartbeat timeout meta[{}] phi[{}]", key, detector.phi(key, now));
+        detector.remove(key);
+        HashMap<String, Object> mapValues = new HashMap<>();
+        mapValues.put(ClusterMeta.STATUS, ClusterMeta.OFFLINE_STATUS);
+        clusterManager.putClusterMeta(metaType, key, mapValues);
+      }
+    }
   }
 
   // The interpreter process sends a heartbeat to the cluster,
@@ -198,38 +238,57 @@ public class ClusterMonitor {
       LOG.debug("sendMachineUsage >>>");
     }
 
-    // Limit queue size
-    while (monitorUsageQueues.size() > USAGE_QUEUE_LIMIT) {
-      monitorUsageQueues.poll();
-    }
     UsageUtil monitorUtil = getMachineUsage();
-    monitorUsageQueues.add(monitorUtil);
-
-    UsageUtil avgMonitorUtil = new UsageUtil();
-    for (UsageUtil monitor : monitorUsageQueues){
-      avgMonitorUtil.memoryUsed += monitor.memoryUsed;
-      avgMonitorUtil.memoryCapacity += monitor.memoryCapacity;
-      avgMonitorUtil.cpuUsed += monitor.cpuUsed;
-      avgMonitorUtil.cpuCapacity += monitor.cpuCapacity;
-    }
+    cpuSampler.add(monitorUtil.cpuUsed, monitorUtil.cpuCapacity);
+    memorySampler.add(monitorUtil.memoryUsed, monitorUtil.memoryCapacity);
 
     // Resource consumption average
-    int queueSize = monitorUsageQueues.size();
-    avgMonitorUtil.memoryUsed = avgMonitorUtil.memoryUsed / queueSize;
-    avgMonitorUtil.memoryCapacity = avgMonitorUtil.memoryCapacity / queueSize;
-    avgMonitorUtil.cpuUsed = avgMonitorUtil.cpuUsed / queueSize;
-    avgMonitorUtil.cpuCapacity = avgMonitorUtil.cpuCapacity / queueSize;
+    long cpuUsed = cpuSampler.getMeanUsed();
+    long cpuCapacity = cpuSampler.getMeanCapacity();
+    long memoryUsed = memorySampler.getMeanUsed();
+    long memoryCapacity = memorySampler.getMeanCapacity();
+
+    long now = System.currentTimeMillis();
+    double cpuShare = share(cpuUsed, cpuCapacity);
+    double memoryShare = share(memoryUsed, memoryCapacity);
+    if (!isUsageReportDue(now, cpuShare, memoryShare)) {
+      return;
+    }
 
     HashMap<String, Object> mapMonitorUtil = new HashMap<>();
-    mapMonitorUtil.put(ClusterMeta.MEMORY_USED, avgMonitorUtil.memoryUsed);
-    mapMonitorUtil.put(ClusterMeta.MEMORY_CAPACITY, avgMonitorUtil.memoryCapacity);
-    mapMonitorUtil.put(ClusterMeta.CPU_USED, avgMonitorUtil.cpuUsed);
-    mapMonitorUtil.put(ClusterMeta.CPU_CAPACITY, avgMonitorUtil.cpuCapacity);
+    mapMonitorUtil.put(ClusterMeta.MEMORY_USED, memoryUsed);
+    mapMonitorUtil.put(ClusterMeta.MEMORY_CAPACITY, memoryCapacity);
+    mapMonitorUtil.put(ClusterMeta.CPU_USED, cpuUsed);
+    mapMonitorUtil.put(ClusterMeta.CPU_CAPACITY, cpuCapacity);
+    mapMonitorUtil.put(ClusterMeta.MEMORY_USED_P95, memorySampler.getP95Used());
+    mapMonitorUtil.put(ClusterMeta.MEMORY_USED_EWMA, memorySampler.getEwmaUsed());
+    mapMonitorUtil.put(ClusterMeta.CPU_USED_P95, cpuSampler.getP95Used());
+    mapMonitorUtil.put(ClusterMeta.CPU_USED_EWMA, cpuSampler.getEwmaUsed());
     mapMonitorUtil.put(ClusterMeta.LATEST_HEARTBEAT, LocalDateTime.now());
     mapMonitorUtil.put(ClusterMeta.STATUS, ClusterMeta.ONLINE_STATUS);
 
     String clusterName = clusterManager.getClusterNodeName();
     clusterManager.putClusterMeta(SERVER_META, clusterName, mapMonitorUtil);
+
+    reportedCpuShare = cpuShare;
+    reportedMemoryShare = memoryShare;
+    reportedTimeMillis = now;
+  }
+
+  /**
+   * The usage is reported when it moved by more than the change threshold, or when the
+   * last report is half the heartbeat timeout old, so that the leader does not set the
+   * server offline
+   */
+  private boolean isUsageReportDue(long now, double cpuShare, double memoryShare) {
+    return reportedTimeMillis == 0
+        || Math.abs(cpuShare - reportedCpuShare) > usageChangeThreshold
+        || Math.abs(memoryShare - reportedMemoryShare) > usageChangeThreshold
+        || now - reportedTimeMillis >= heartbeatTimeout / 2;
+  }
+
+  private static double share(long used, long capacity) {
+    return capacity <= 0 ? 0 : (double) used / capacity;
   }
 
   private UsageUtil getMachineUsage() {
@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.submarine.commons.cluster;
+
+import io.atomix.protocols.raft.ReadConsistency;
+
+/**
+ * Consistency of the cluster metadata reads, set with cluster.meta.read.consistency
+ */
+public enum ClusterReadConsistency {
+  // The leader confirms its leadership with a quorum before each read
+  LINEARIZABLE(ReadConsistency.LINEARIZABLE),
+  // The leader relies on its lease, a read may be stale during a leader change
+  LINEARIZABLE_LEASE(ReadConsistency.LINEARIZABLE_LEASE),
+  // A read may be stale, but never older than the previous reads and writes of this node
+  SEQUENTIAL(ReadConsistency.SEQUENTIAL),
+  // Served from the local view without a raft round trip, sequential while connected,
+  // a read waits for the view to apply the previous writes of this node
+  LOCAL(ReadConsistency.SEQUENTIAL);
+
+  private final ReadConsistency raftConsistency;
+
+  ClusterReadConsistency(ReadConsistency raftConsistency) {
+    this.raftConsistency = raftConsistency;
+  }
+
+  /**
+   * @return consistency of the raft queries, for LOCAL the queries that refresh the view
+   */
+  public ReadConsistency getRaftConsistency() {
+    return raftConsistency;
+  }
+
+  public static ClusterReadConsistency fromString(String value) {
+    for (ClusterReadConsistency consistency : values()) {
+      if (consistency.name().equalsIgnoreCase(value)) {
+        return consistency;
+      }
+    }
+    throw new IllegalArgumentException("Unknown cluster read consistency: " + value);
+  }
+}
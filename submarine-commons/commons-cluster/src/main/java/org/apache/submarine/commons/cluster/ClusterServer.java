@@ -26,6 +26,7 @@ import io.atomix.cluster.discovery.BootstrapDiscoveryProvider;
 import io.atomix.cluster.impl.DefaultClusterMembershipService;
 import io.atomix.cluster.impl.DefaultNodeDiscoveryService;
 import io.atomix.cluster.messaging.BroadcastService;
+import io.atomix.cluster.messaging.ManagedMessagingService;
 import io.atomix.cluster.messaging.MessagingConfig;
 import io.atomix.cluster.messaging.MessagingService;
 import io.atomix.cluster.messaging.UnicastService;
@@ -41,20 +42,28 @@ import io.atomix.utils.Version;
 import io.atomix.utils.net.Address;
 import org.apache.commons.lang.StringUtils;
 import org.apache.submarine.commons.cluster.meta.ClusterMeta;
+import org.apache.submarine.commons.cluster.placement.NodePlacer;
+import org.apache.submarine.commons.cluster.placement.NodeResources;
+import org.apache.submarine.commons.cluster.placement.PlacementRequest;
+import org.apache.submarine.commons.cluster.placement.PlacementStrategy;
 import org.apache.submarine.commons.cluster.protocol.RaftServerMessagingProtocol;
+import org.apache.submarine.commons.utils.SubmarineConfVars.ConfVars;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
-import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
+import static org.apache.submarine.commons.cluster.meta.ClusterMetaType.INTP_PROCESS_META;
 import static org.apache.submarine.commons.cluster.meta.ClusterMetaType.SERVER_META;
 
 /**
@@ -72,6 +81,22 @@ public class ClusterServer extends ClusterManager {
 
   protected MessagingService messagingService = null;
 
+  // Sends the cluster events over the messaging service
+  private final ClusterEventBus eventBus = new ClusterEventBus(
+      (address, topic, payload, timeout)
+          -> messagingService.sendAndReceive(address, topic, payload, timeout),
+      sconf.getLong(ConfVars.CLUSTER_EVENT_TIMEOUT_MS),
+      sconf.getInt(ConfVars.CLUSTER_EVENT_MAX_ATTEMPTS),
+      sconf.getLong(ConfVars.CLUSTER_EVENT_RETRY_DELAY_MS));
+
+  // Chooses the nodes of the interpreters
+  private final NodePlacer nodePlacer = new NodePlacer(
+      PlacementStrategy.create(sconf.getString(ConfVars.CLUSTER_PLACEMENT_STRATEGY)),
+      sconf.getLong(ConfVars.CLUSTER_PLACEMENT_RESERVATION_MS));
+
+  // Compacts the raft log by size, null with the memory storage level
+  private RaftLogCompactor logCompactor = null;
+
   private ClusterServer() {
     super();
   }
@@ -192,22 +217,22 @@ public class ClusterServer extends ClusterManager {
             bootstrapService,
             new HeartbeatMembershipProtocol(new HeartbeatMembershipProtocolConfig()));
 
-        File atomixDateDir = com.google.common.io.Files.createTempDir();
-        atomixDateDir.deleteOnExit();
-
+        RaftStorage storage = createRaftStorage();
         RaftServer.Builder builder = RaftServer.builder(member.id())
             .withMembershipService(clusterService)
             .withProtocol(protocol)
-            .withStorage(RaftStorage.builder()
-                .withStorageLevel(StorageLevel.MEMORY)
-                .withDirectory(atomixDateDir)
-                .withNamespace(storageNamespace)
-                .withMaxSegmentSize(1024 * 1024)
-                .build());
+            .withStorage(storage);
 
         raftServer = builder.build();
         raftServer.bootstrap(clusterMemberIds);
 
+        if (storage.storageLevel() != StorageLevel.MEMORY) {
+          logCompactor = new RaftLogCompactor(raftServer, storage.directory(),
+              sconf.getLong(ConfVars.CLUSTER_RAFT_COMPACT_THRESHOLD_BYTES),
+              sconf.getLong(ConfVars.CLUSTER_RAFT_COMPACT_CHECK_INTERVAL_MS));
+          logCompactor.start();
+        }
+
         HashMap<String, Object> meta = new HashMap<String, Object>();
         String nodeName = getClusterNodeName();
         meta.put(ClusterMeta.NODE_NAME, nodeName);
@@ -221,6 +246,41 @@ public class ClusterServer extends ClusterManager {
     }).start();
   }
 
+  /**
+   * Create the storage of the raft log. With the memory level the log is kept in memory
+   * and replayed from the peers when the server restarts. With the mapped or disk level
+   * it is kept in the storage directory and the server restarts from its latest snapshot
+   * plus the log entries after it.
+   */
+  @VisibleForTesting
+  RaftStorage createRaftStorage() {
+    StorageLevel level = StorageLevel.valueOf(
+        sconf.getString(ConfVars.CLUSTER_RAFT_STORAGE_LEVEL).toUpperCase());
+    String storageDir = sconf.getString(ConfVars.CLUSTER_RAFT_STORAGE_DIR);
+    File directory;
+    if (StringUtils.isEmpty(storageDir)) {
+      if (level != StorageLevel.MEMORY) {
+        LOG.warn("{} is not set, the raft log is stored in a temporary directory",
+            ConfVars.CLUSTER_RAFT_STORAGE_DIR.getVarName());
+      }
+      directory = com.google.common.io.Files.createTempDir();
+      directory.deleteOnExit();
+    } else {
+      // Several servers can share the storage directory, e.g. in the test cases
+      directory = new File(storageDir, serverHost + "_" + raftServerPort);
+    }
+    LOG.info("Raft storage level: {}, directory: {}", level, directory);
+
+    return RaftStorage.builder()
+        .withStorageLevel(level)
+        .withDirectory(directory)
+        .withNamespace(storageNamespace)
+        .withMaxSegmentSize(sconf.getInt(ConfVars.CLUSTER_RAFT_SEGMENT_SIZE))
+        .withMaxEntriesPerSegment(sconf.getInt(ConfVars.CLUSTER_RAFT_SEGMENT_MAX_ENTRIES))
+        .withFlushOnCommit(sconf.getBoolean(ConfVars.CLUSTER_RAFT_FLUSH_ON_COMMIT))
+        .build();
+  }
+
   @Override
   public void shutdown() {
     if (!sconf.isClusterMode()) {
@@ -244,6 +304,12 @@ public class ClusterServer extends ClusterManager {
     // close raft client
     super.shutdown();
 
+    if (null != logCompactor) {
+      logCompactor.stop();
+    }
+
+    eventBus.shutdown();
+
     if (null != raftServer && raftServer.isRunning()) {
       try {
         LOG.info("ClusterServer::raftServer.shutdown()");
@@ -253,70 +319,112 @@ public class ClusterServer extends ClusterManager {
       }
     }
 
+    // Release the raft port, so that the server can be restarted in the same process
+    if (messagingService instanceof ManagedMessagingService) {
+      try {
+        ((ManagedMessagingService) messagingService).stop().get(5, TimeUnit.SECONDS);
+      } catch (InterruptedException | ExecutionException | TimeoutException e) {
+        LOG.error(e.getMessage(), e);
+      }
+    }
+
     LOG.info("ClusterServer::super.shutdown()");
   }
 
   // Obtain the server node whose resources are idle in the cluster
   public HashMap<String, Object> getIdleNodeMeta() {
-    HashMap<String, Object> idleNodeMeta = null;
-    HashMap<String, HashMap<String, Object>> clusterMeta = getClusterMeta(SERVER_META, "");
+    return getIdleNodeMeta(new PlacementRequest(
+        sconf.getLong(ConfVars.CLUSTER_PLACEMENT_INTERPRETER_CPU),
+        sconf.getLong(ConfVars.CLUSTER_PLACEMENT_INTERPRETER_MEMORY)));
+  }
 
-    long memoryIdle = 0;
+  /**
+   * Choose the server node of an interpreter with the cluster.placement.strategy,
+   * among the online nodes whose heartbeat has not timed out
+   * @return the meta of the node, null if there is no node
+   */
+  public HashMap<String, Object> getIdleNodeMeta(PlacementRequest request) {
+    // Only the online services or processes
+    HashMap<String, HashMap<String, Object>> clusterMeta
+        = findClusterMeta(SERVER_META, ClusterMeta.STATUS, ClusterMeta.ONLINE_STATUS);
+
+    Map<String, Integer> intpCounts = new HashMap<>();
+    for (HashMap<String, Object> intpMeta : findClusterMeta(INTP_PROCESS_META,
+        ClusterMeta.STATUS, ClusterMeta.ONLINE_STATUS).values()) {
+      Object nodeName = intpMeta.get(ClusterMeta.NODE_NAME);
+      if (null != nodeName) {
+        intpCounts.merge((String) nodeName, 1, Integer::sum);
+      }
+    }
+
+    LocalDateTime heartbeatDeadline
+        = LocalDateTime.now().minus(sconf.getClusterHeartbeatTimeout(), ChronoUnit.MILLIS);
+    List<NodeResources> nodes = new ArrayList<>();
     for (Map.Entry<String, HashMap<String, Object>> entry : clusterMeta.entrySet()) {
       HashMap<String, Object> meta = entry.getValue();
-      // Check if the service or process is offline
-      String status = (String) meta.get(ClusterMeta.STATUS);
-      if (null == status || StringUtils.isEmpty(status)
-          || status.equals(ClusterMeta.OFFLINE_STATUS)) {
+      Object heartbeat = meta.get(ClusterMeta.LATEST_HEARTBEAT);
+      if (heartbeat instanceof LocalDateTime
+          && ((LocalDateTime) heartbeat).isBefore(heartbeatDeadline)) {
+        // Not marked offline yet
         continue;
       }
-
-      long memoryCapacity  = (long) meta.get(ClusterMeta.MEMORY_CAPACITY);
-      long memoryUsed      = (long) meta.get(ClusterMeta.MEMORY_USED);
-      long idle = memoryCapacity - memoryUsed;
-      if (idle > memoryIdle) {
-        memoryIdle = idle;
-        idleNodeMeta = meta;
+      NodeResources node = NodeResources.fromMeta(
+          entry.getKey(), meta, intpCounts.getOrDefault(entry.getKey(), 0));
+      if (null != node) {
+        nodes.add(node);
       }
     }
 
-    return idleNodeMeta;
+    NodeResources placed = nodePlacer.place(nodes, request);
+    return null == placed ? null : clusterMeta.get(placed.getName());
   }
 
-  public void unicastClusterEvent(String host, int port, String topic, String msg) {
+  /**
+   * Send the event to a node, retried with the cluster.event.* settings
+   * @return completed with the reply of the node, or with the failure of the last attempt
+   */
+  public CompletableFuture<byte[]> unicastClusterEvent(String host, int port, String topic,
+                                                       String msg) {
     LOG.info("send unicastClusterEvent host:{} port:{} topic:{} message:{}",
         host, port, topic, msg);
 
-    Address address = Address.from(host, port);
-    CompletableFuture<byte[]> response = messagingService.sendAndReceive(address,
-        topic, msg.getBytes(), Duration.ofSeconds(2));
-    response.whenComplete((r, e) -> {
-      if (null == e) {
-        LOG.error(e.getMessage(), e);
-      }
-    });
+    return eventBus.unicast(Address.from(host, port), topic, msg.getBytes());
   }
 
-  public void broadcastClusterEvent(String topic, String msg) {
+  /**
+   * Send the event to all the other nodes concurrently
+   * @return completed when every node has acknowledged or failed
+   */
+  public CompletableFuture<ClusterEventBus.BroadcastResult> broadcastClusterEvent(String topic,
+                                                                                 String msg) {
     if (LOG.isDebugEnabled()) {
       LOG.debug("send broadcastClusterEvent message {}", msg);
     }
+    List<Address> peers = new ArrayList<>();
     for (Node node : clusterNodes) {
       if (StringUtils.equals(node.address().host(), serverHost)
           && node.address().port() == raftServerPort) {
         // skip myself
         continue;
       }
-
-      CompletableFuture<byte[]> response = messagingService.sendAndReceive(node.address(),
-          topic, msg.getBytes(), Duration.ofSeconds(2));
-      response.whenComplete((r, e) -> {
-        if (null == e) {
-          LOG.error(e.getMessage(), e);
-        } else {
-          LOG.info("broadcastClusterNoteEvent success! {}", msg);
-        }
-      });
+      peers.add(node.address());
     }
+
+    return eventBus.broadcast(peers, topic, msg.getBytes()).whenComplete((result, e) -> {
+      if (null != e) {
+        LOG.error(e.getMessage(), e);
+      } else if (result.isSuccess()) {
+        LOG.info("broadcastClusterEvent success! {}", msg);
+      } else {
+        LOG.error("broadcastClusterEvent {} failed! {}", topic, result);
+      }
+    });
+  }
+
+  /**
+   * @return the latencies of the cluster events by node
+   */
+  public Map<Address, ClusterEventBus.PeerStats> getClusterEventStats() {
+    return eventBus.getPeerStats();
   }
 }
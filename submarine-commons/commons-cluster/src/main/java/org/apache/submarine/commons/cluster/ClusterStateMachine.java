@@ -16,37 +16,68 @@
  */
 package org.apache.submarine.commons.cluster;
 
-import com.google.common.collect.Maps;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.primitives.Ints;
+import io.atomix.primitive.event.EventType;
 import io.atomix.primitive.operation.OperationId;
 import io.atomix.primitive.service.AbstractPrimitiveService;
 import io.atomix.primitive.service.BackupOutput;
 import io.atomix.primitive.service.BackupInput;
 import io.atomix.primitive.service.Commit;
 import io.atomix.primitive.service.ServiceExecutor;
+import io.atomix.primitive.session.Session;
 import io.atomix.utils.serializer.Serializer;
 import org.apache.submarine.commons.cluster.meta.ClusterMeta;
+import org.apache.submarine.commons.cluster.meta.ClusterMetaChange;
+import org.apache.submarine.commons.cluster.meta.ClusterMetaCodec;
+import org.apache.submarine.commons.cluster.meta.ClusterMetaCompareAndSet;
 import org.apache.submarine.commons.cluster.meta.ClusterMetaEntity;
+import org.apache.submarine.commons.cluster.meta.ClusterMetaOperation;
 import org.apache.submarine.commons.cluster.meta.ClusterMetaType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import static org.apache.submarine.commons.cluster.meta.ClusterMetaOperation.DELETE_OPERATION;
+import static org.apache.submarine.commons.cluster.meta.ClusterMetaOperation.SET_OPERATION;
+
 /**
  * Cluster State Machine for submarine
  * The cluster state is implemented as a snapshot state machine.
  * The state machine stores the service and process metadata information of the cluster.
  * Metadata information can be manipulated by put, get, remove, index, and snapshot.
+ * The raft commit index of a command is the version of the keys it updates, so that
+ * a compare and set has the same outcome on every node.
  */
 public class ClusterStateMachine extends AbstractPrimitiveService {
   private static Logger LOG = LoggerFactory.getLogger(ClusterStateMachine.class);
   private ClusterMeta clusterMeta = new ClusterMeta();
+  private final ClusterMetaCodec codec = new ClusterMetaCodec(ClusterManager.clientSerializer);
 
   // Command to operation a variable in cluster state machine
   public static final OperationId PUT = OperationId.command("put");
   public static final OperationId GET = OperationId.query("get");
   public static final OperationId REMOVE = OperationId.command("remove");
   public static final OperationId INDEX = OperationId.command("index");
+  // Put and remove several metadata in one command
+  public static final OperationId BATCH = OperationId.command("batch");
+  // Replace or remove a metadata if its version is still the expected one
+  public static final OperationId COMPARE_AND_SET = OperationId.command("compareAndSet");
+  // Get the metadata with their versions
+  public static final OperationId GET_VERSIONED = OperationId.query("getVersioned");
+
+  // Event published to the sessions with the applied puts and removes
+  public static final EventType CHANGE = EventType.from("change");
 
   public ClusterStateMachine() {
     super(ClusterPrimitiveType.INSTANCE);
@@ -63,11 +94,15 @@ public class ClusterStateMachine extends AbstractPrimitiveService {
     executor.register(GET, this::get);
     executor.register(REMOVE, this::remove);
     executor.register(INDEX, this::index);
+    executor.register(BATCH, this::batch);
+    executor.register(COMPARE_AND_SET, this::compareAndSet);
+    executor.register(GET_VERSIONED, this::getVersioned);
   }
 
   protected long put(Commit<ClusterMetaEntity> commit) {
     clusterMeta.put(commit.value().getMetaType(),
-        commit.value().getKey(), commit.value().getValues());
+        commit.value().getKey(), commit.value().getValues(), commit.index());
+    publish(commit.index(), Collections.singletonList(commit.value()));
     return commit.index();
   }
 
@@ -77,6 +112,7 @@ public class ClusterStateMachine extends AbstractPrimitiveService {
 
   protected long remove(Commit<ClusterMetaEntity> commit) {
     clusterMeta.remove(commit.value().getMetaType(), commit.value().getKey());
+    publish(commit.index(), Collections.singletonList(commit.value()));
     return commit.index();
   }
 
@@ -84,52 +120,63 @@ public class ClusterStateMachine extends AbstractPrimitiveService {
     return commit.index();
   }
 
+  protected long batch(Commit<List<ClusterMetaEntity>> commit) {
+    for (ClusterMetaEntity entity : commit.value()) {
+      switch (entity.getOperation()) {
+        case PUT_OPERATION:
+          clusterMeta.put(entity.getMetaType(), entity.getKey(), entity.getValues(), commit.index());
+          break;
+        case DELETE_OPERATION:
+          clusterMeta.remove(entity.getMetaType(), entity.getKey());
+          break;
+        default:
+          LOG.warn("Unsupported operation {} in a batch", entity.getOperation());
+      }
+    }
+    publish(commit.index(), commit.value());
+    return commit.index();
+  }
+
+  // Return the new version of the key, 0 if its version was not the expected one
+  protected long compareAndSet(Commit<ClusterMetaCompareAndSet> commit) {
+    ClusterMetaCompareAndSet cas = commit.value();
+    if (!clusterMeta.compareAndSet(cas.getMetaType(), cas.getKey(),
+        cas.getExpectedVersion(), cas.getValues(), commit.index())) {
+      return 0;
+    }
+    ClusterMetaOperation operation = null == cas.getValues() ? DELETE_OPERATION : SET_OPERATION;
+    publish(commit.index(), Collections.singletonList(
+        new ClusterMetaEntity(operation, cas.getMetaType(), cas.getKey(), cas.getValues())));
+    return commit.index();
+  }
+
+  protected HashMap<String, ClusterMeta.VersionedMeta> getVersioned(Commit<ClusterMetaEntity> commit) {
+    return new HashMap<>(clusterMeta.getVersioned(commit.value().getMetaType(), commit.value().getKey()));
+  }
+
+  // Publish the applied changes, the sessions keep their local view of the metadata up to date
+  private void publish(long index, List<ClusterMetaEntity> entities) {
+    ClusterMetaChange change = new ClusterMetaChange(index, entities);
+    for (Object session : getSessions()) {
+      ((Session) session).publish(CHANGE, change);
+    }
+  }
+
+  @VisibleForTesting
+  ClusterMeta getClusterMeta() {
+    return clusterMeta;
+  }
+
   @Override
   public void backup(BackupOutput writer) {
     if (LOG.isDebugEnabled()) {
       LOG.debug("ClusterStateMachine.backup()");
     }
 
-    // backup SERVER_META
-    // cluster meta map struct
-    // cluster_name -> {server_tserver_host,server_tserver_port,cpu_capacity,...}
-    Map<String, Map<String, Object>> mapServerMeta
-        = clusterMeta.get(ClusterMetaType.SERVER_META, "");
-    // write all SERVER_META size
-    writer.writeInt(mapServerMeta.size());
-    for (Map.Entry<String, Map<String, Object>> entry : mapServerMeta.entrySet()) {
-      // write cluster_name
-      writer.writeString(entry.getKey());
-
-      Map<String, Object> kvPairs = entry.getValue();
-      // write cluster mate kv pairs size
-      writer.writeInt(kvPairs.size());
-      for (Map.Entry<String, Object> entryValue : kvPairs.entrySet()) {
-        // write cluster mate kv pairs
-        writer.writeString(entryValue.getKey());
-        writer.writeObject(entryValue.getValue());
-      }
-    }
-
-    // backup INTP_PROCESS_META
-    // Interpreter meta map struct
-    // IntpGroupId -> {server_tserver_host,server_tserver_port,...}
-    Map<String, Map<String, Object>> mapIntpProcMeta
-        = clusterMeta.get(ClusterMetaType.INTP_PROCESS_META, "");
-    // write interpreter size
-    writer.writeInt(mapIntpProcMeta.size());
-    for (Map.Entry<String, Map<String, Object>> entry : mapIntpProcMeta.entrySet()) {
-      // write IntpGroupId
-      writer.writeString(entry.getKey());
-
-      Map<String, Object> kvPairs = entry.getValue();
-      // write interpreter mate kv pairs size
-      writer.writeInt(kvPairs.size());
-      for (Map.Entry<String, Object> entryValue : kvPairs.entrySet()) {
-        // write interpreter mate kv pairs
-        writer.writeString(entryValue.getKey());
-        writer.writeObject(entryValue.getValue());
-      }
+    try {
+      codec.write(clusterMeta, new BackupOutputStream(writer));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
     }
   }
 
@@ -139,41 +186,96 @@ public class ClusterStateMachine extends AbstractPrimitiveService {
       LOG.debug("ClusterStateMachine.restore()");
     }
 
-    clusterMeta = new ClusterMeta();
-    // read all SERVER_META size
-    int nServerMeta = reader.readInt();
-    for (int i = 0; i < nServerMeta; i++) {
-      // read cluster_name
-      String clusterName = reader.readString();
+    int header = reader.readInt();
+    if (header != ClusterMetaCodec.MAGIC) {
+      // Snapshot written before ClusterMetaCodec, starting with the number of SERVER_META
+      clusterMeta = restoreLegacy(reader, header);
+      return;
+    }
 
-      // read cluster mate kv pairs size
+    InputStream in = new SequenceInputStream(
+        new ByteArrayInputStream(Ints.toByteArray(header)), new BackupInputStream(reader));
+    try {
+      clusterMeta = codec.read(in);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static ClusterMeta restoreLegacy(BackupInput reader, int nServerMeta) {
+    ClusterMeta clusterMeta = new ClusterMeta();
+    restoreLegacy(reader, clusterMeta, ClusterMetaType.SERVER_META, nServerMeta);
+    restoreLegacy(reader, clusterMeta, ClusterMetaType.INTP_PROCESS_META, reader.readInt());
+    return clusterMeta;
+  }
+
+  private static void restoreLegacy(BackupInput reader, ClusterMeta clusterMeta,
+                                    ClusterMetaType type, int nMeta) {
+    for (int i = 0; i < nMeta; i++) {
+      // read cluster_name or interpreter name
+      String name = reader.readString();
+
+      // read mate kv pairs
       int nKVpairs = reader.readInt();
-      for (int j = 0; j < nKVpairs; i++) {
-        // read cluster mate kv pairs
+      HashMap<String, Object> values = new HashMap<>();
+      for (int j = 0; j < nKVpairs; j++) {
         String key = reader.readString();
         Object value = reader.readObject();
-
-        clusterMeta.put(ClusterMetaType.SERVER_META,
-            clusterName, Maps.immutableEntry(key, value));
+        values.put(key, value);
       }
+      clusterMeta.set(type, name, values, ClusterMetaCodec.LEGACY_VERSION);
     }
+  }
 
-    // read all INTP_PROCESS_META size
-    int nIntpMeta = reader.readInt();
-    for (int i = 0; i < nIntpMeta; i++) {
-      // read interpreter name
-      String intpName = reader.readString();
+  /**
+   * Streams the snapshot to the backup output
+   */
+  private static class BackupOutputStream extends OutputStream {
+    private final BackupOutput output;
 
-      // read interpreter mate kv pairs size
-      int nKVpairs = reader.readInt();
-      for (int j = 0; j < nKVpairs; i++) {
-        // read interpreter mate kv pairs
-        String key = reader.readString();
-        Object value = reader.readObject();
+    BackupOutputStream(BackupOutput output) {
+      this.output = output;
+    }
 
-        clusterMeta.put(ClusterMetaType.INTP_PROCESS_META,
-            intpName, Maps.immutableEntry(key, value));
+    @Override
+    public void write(int b) {
+      output.writeByte(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+      output.write(b, off, len);
+    }
+  }
+
+  /**
+   * Streams the snapshot from the backup input
+   */
+  private static class BackupInputStream extends InputStream {
+    private final BackupInput input;
+
+    BackupInputStream(BackupInput input) {
+      this.input = input;
+    }
+
+    @Override
+    public int read() {
+      return input.hasRemaining() ? input.readUnsignedByte() : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+      int n = Math.min(len, input.remaining());
+      if (n <= 0) {
+        return len == 0 ? 0 : -1;
       }
+      input.read(b, off, n);
+      return n;
+    }
+
+    @Override
+    public int available() {
+      return input.remaining();
     }
   }
 }
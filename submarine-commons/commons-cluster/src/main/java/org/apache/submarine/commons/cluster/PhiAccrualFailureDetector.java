@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.submarine.commons.cluster;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Phi accrual failure detector, as described by Hayashibara et al.
+ *
+ * For each monitored key, the intervals between its last heartbeats are kept, and phi
+ * tells how unlikely it is, given their mean and deviation, that the next heartbeat has
+ * not arrived yet: phi = -log10(1 - F(time since the last heartbeat)), with F the normal
+ * cumulative distribution of the intervals. A key is suspected once phi exceeds the
+ * threshold, so the detection adapts to the heartbeat rate and jitter of each key instead
+ * of relying on a fixed timeout.
+ *
+ * The statistics are updated in constant time for each heartbeat. Thread-safe.
+ */
+public class PhiAccrualFailureDetector {
+  private final double threshold;
+  private final int windowSize;
+  private final double minStdDeviationMillis;
+  private final double acceptablePauseMillis;
+  private final double firstIntervalMillis;
+
+  private final Map<String, History> histories = new ConcurrentHashMap<>();
+
+  /**
+   * @param threshold             phi above which a key is suspected, 8 is about a
+   *                              one in 10^8 chance that the key is still alive
+   * @param windowSize            number of intervals kept for each key
+   * @param minStdDeviationMillis lower bound of the deviation, so that a very regular
+   *                              heartbeat does not make a small delay suspect
+   * @param acceptablePauseMillis pause added to the mean interval, e.g. for a GC pause
+   * @param firstIntervalMillis   expected interval, used until the first intervals are known
+   */
+  public PhiAccrualFailureDetector(double threshold, int windowSize, double minStdDeviationMillis,
+                                   double acceptablePauseMillis, double firstIntervalMillis) {
+    this.threshold = threshold;
+    this.windowSize = Math.max(2, windowSize);
+    this.minStdDeviationMillis = minStdDeviationMillis;
+    this.acceptablePauseMillis = acceptablePauseMillis;
+    this.firstIntervalMillis = firstIntervalMillis;
+  }
+
+  /**
+   * Record a heartbeat of the key, received at the time
+   */
+  public void heartbeat(String key, long timeMillis) {
+    histories.computeIfAbsent(key, k -> new History(windowSize, firstIntervalMillis, timeMillis))
+        .heartbeat(timeMillis);
+  }
+
+  /**
+   * Stop monitoring the key
+   */
+  public void remove(String key) {
+    histories.remove(key);
+  }
+
+  public boolean isMonitoring(String key) {
+    return histories.containsKey(key);
+  }
+
+  /**
+   * @return the phi of the key at the time, 0 if the key is not monitored
+   */
+  public double phi(String key, long timeMillis) {
+    History history = histories.get(key);
+    return null == history ? 0 : history.phi(timeMillis);
+  }
+
+  public boolean isAvailable(String key, long timeMillis) {
+    return phi(key, timeMillis) < threshold;
+  }
+
+  /**
+   * @return the monitored keys whose phi exceeds the threshold at the time
+   */
+  public List<String> getSuspected(long timeMillis) {
+    List<String> suspected = new ArrayList<>();
+    for (Map.Entry<String, History> entry : histories.entrySet()) {
+      if (entry.getValue().phi(timeMillis) >= threshold) {
+        suspected.add(entry.getKey());
+      }
+    }
+    return suspected;
+  }
+
+  // The last intervals of a key, with their running sum and sum of squares
+  private class History {
+    private final double[] intervals;
+    private int next = 0;
+    private int count = 0;
+    private double sum = 0;
+    private double squares = 0;
+    private long lastMillis;
+
+    History(int windowSize, double firstIntervalMillis, long timeMillis) {
+      intervals = new double[windowSize];
+      lastMillis = timeMillis;
+      // Two intervals around the expected one, with the minimum deviation
+      add(firstIntervalMillis - minStdDeviationMillis);
+      add(firstIntervalMillis + minStdDeviationMillis);
+    }
+
+    synchronized void heartbeat(long timeMillis) {
+      if (timeMillis > lastMillis) {
+        add(timeMillis - lastMillis);
+        lastMillis = timeMillis;
+      }
+    }
+
+    private void add(double interval) {
+      if (count == intervals.length) {
+        sum -= intervals[next];
+        squares -= intervals[next] * intervals[next];
+      } else {
+        count++;
+      }
+      intervals[next] = interval;
+      sum += interval;
+      squares += interval * interval;
+      next = (next + 1) % intervals.length;
+    }
+
+    synchronized double phi(long timeMillis) {
+      double mean = sum / count + acceptablePauseMillis;
+      double variance = Math.max(0, squares / count - (sum / count) * (sum / count));
+      double stdDeviation = Math.max(Math.sqrt(variance), minStdDeviationMillis);
+      double elapsed = timeMillis - lastMillis;
+
+      // Logistic approximation of the normal cumulative distribution
+      double y = (elapsed - mean) / stdDeviation;
+      double e = Math.exp(-y * (1.5976 + 0.070566 * y * y));
+      if (elapsed > mean) {
+        return -Math.log10(e / (1.0 + e));
+      } else {
+        return -Math.log10(1.0 - 1.0 / (1.0 + e));
+      }
+    }
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.submarine.commons.cluster;
+
+import io.atomix.protocols.raft.RaftServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Snapshots the cluster state machine and compacts the raft log when the log on disk
+ * grew by more than a threshold since the last compaction.
+ * Atomix only compacts the segments which are full, so with large segments the log
+ * and the replay on restart keep growing, this bounds them by size.
+ */
+public class RaftLogCompactor {
+  private static Logger LOG = LoggerFactory.getLogger(RaftLogCompactor.class);
+
+  private static final String LOG_SUFFIX = ".log";
+
+  private final RaftServer raftServer;
+  private final File directory;
+  private final long thresholdBytes;
+  private final long intervalMillis;
+
+  private final AtomicBoolean compacting = new AtomicBoolean(false);
+  private volatile long sizeAfterCompaction = 0;
+
+  private ScheduledExecutorService scheduler;
+
+  public RaftLogCompactor(RaftServer raftServer, File directory, long thresholdBytes, long intervalMillis) {
+    this.raftServer = raftServer;
+    this.directory = directory;
+    this.thresholdBytes = thresholdBytes;
+    this.intervalMillis = intervalMillis;
+  }
+
+  public synchronized void start() {
+    if (scheduler != null || thresholdBytes <= 0) {
+      return;
+    }
+    sizeAfterCompaction = getLogSize(directory);
+    ThreadFactory threadFactory = r -> {
+      Thread thread = new Thread(r, "RaftLogCompactor");
+      thread.setDaemon(true);
+      return thread;
+    };
+    scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+    scheduler.scheduleWithFixedDelay(this::check, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+  }
+
+  public synchronized void stop() {
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+      scheduler = null;
+    }
+  }
+
+  void check() {
+    long size = getLogSize(directory);
+    if (size - sizeAfterCompaction < thresholdBytes || !raftServer.isRunning()
+        || !compacting.compareAndSet(false, true)) {
+      return;
+    }
+    LOG.info("Raft log grew to {} bytes, take a snapshot and compact it", size);
+    long start = System.currentTimeMillis();
+    raftServer.compact().whenComplete((result, error) -> {
+      if (error != null) {
+        LOG.warn("Failed to compact the raft log: " + error.getMessage(), error);
+      } else {
+        sizeAfterCompaction = getLogSize(directory);
+        LOG.info("Compacted the raft log to {} bytes in {} ms", sizeAfterCompaction,
+            System.currentTimeMillis() - start);
+      }
+      compacting.set(false);
+    });
+  }
+
+  /**
+   * @return the total size of the raft log segments in the directory
+   */
+  public static long getLogSize(File directory) {
+    File[] segments = directory.listFiles((dir, name) -> name.endsWith(LOG_SUFFIX));
+    long size = 0;
+    if (segments != null) {
+      for (File segment : segments) {
+        size += segment.length();
+      }
+    }
+    return size;
+  }
+}
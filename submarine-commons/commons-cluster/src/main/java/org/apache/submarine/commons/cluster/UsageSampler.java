@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.submarine.commons.cluster;
+
+/**
+ * Rolling statistics of the last samples of a resource usage: the mean of the used and
+ * capacity values, the 95th percentile of the used share and an exponentially weighted
+ * moving average of the used value.
+ *
+ * The samples are kept in a ring buffer and the sums and the histogram of the shares are
+ * updated when a sample is added and when the oldest one is evicted, so adding a sample
+ * and reading the statistics cost the same whatever the window size. The percentile has
+ * the precision of the histogram, 1% of the capacity. Not thread-safe.
+ */
+public class UsageSampler {
+  // Buckets of the share in percents, 0 to 100
+  private static final int BUCKETS = 101;
+
+  private final long[] usedSamples;
+  private final long[] capacitySamples;
+  private final int[] bucketSamples;
+  private final int[] histogram = new int[BUCKETS];
+  private final double alpha;
+
+  private int next = 0;
+  private int count = 0;
+  private long usedSum = 0;
+  private long capacitySum = 0;
+  private double ewma = 0;
+
+  /**
+   * @param window number of the samples kept
+   * @param alpha  weight of a new sample in the moving average, between 0 and 1
+   */
+  public UsageSampler(int window, double alpha) {
+    int size = Math.max(1, window);
+    this.usedSamples = new long[size];
+    this.capacitySamples = new long[size];
+    this.bucketSamples = new int[size];
+    this.alpha = Math.min(1, Math.max(0, alpha));
+  }
+
+  public void add(long used, long capacity) {
+    if (count == usedSamples.length) {
+      // Evict the oldest sample, which the new one overwrites
+      usedSum -= usedSamples[next];
+      capacitySum -= capacitySamples[next];
+      histogram[bucketSamples[next]]--;
+    } else {
+      count++;
+    }
+
+    int bucket = capacity <= 0 ? BUCKETS - 1
+        : (int) Math.min(BUCKETS - 1, Math.max(0, Math.round(100.0 * used / capacity)));
+    usedSamples[next] = used;
+    capacitySamples[next] = capacity;
+    bucketSamples[next] = bucket;
+    usedSum += used;
+    capacitySum += capacity;
+    histogram[bucket]++;
+    next = (next + 1) % usedSamples.length;
+
+    ewma = count == 1 ? used : alpha * used + (1 - alpha) * ewma;
+  }
+
+  public int getCount() {
+    return count;
+  }
+
+  public long getMeanUsed() {
+    return 0 == count ? 0 : usedSum / count;
+  }
+
+  public long getMeanCapacity() {
+    return 0 == count ? 0 : capacitySum / count;
+  }
+
+  public long getEwmaUsed() {
+    return Math.round(ewma);
+  }
+
+  /**
+   * @return the 95th percentile of the used value, from the share of the mean capacity
+   */
+  public long getP95Used() {
+    return Math.round(getPercentileShare(0.95) * getMeanCapacity());
+  }
+
+  /**
+   * @param quantile between 0 and 1
+   * @return the used share under which the quantile of the samples are
+   */
+  public double getPercentileShare(double quantile) {
+    if (0 == count) {
+      return 0;
+    }
+    int rank = (int) Math.ceil(quantile * count);
+    int cumulative = 0;
+    for (int bucket = 0; bucket < BUCKETS; bucket++) {
+      cumulative += histogram[bucket];
+      if (cumulative >= rank) {
+        return bucket / 100.0;
+      }
+    }
+    return 1;
+  }
+}
@@ -21,11 +21,26 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Metadata stores metadata information in a KV key-value pair
+ *
+ * The store is thread-safe, it is updated by the state machine and read by the REST
+ * and monitor threads. Each update of a key is atomic and stamps the key with the raft
+ * commit index of the update as its version, which {@link #compareAndSet} checks. The
+ * versions are the same on every node, so that a compare and set applied from the raft
+ * log has the same outcome everywhere. The keys are indexed by the values of
+ * {@link #INDEXED_ATTRIBUTES}, so that {@link #find} does not scan the whole store.
+ * The reads return copies of the values.
  */
 public class ClusterMeta implements Serializable {
   private static Logger LOG = LoggerFactory.getLogger(ClusterMeta.class);
@@ -49,6 +64,11 @@ public class ClusterMeta implements Serializable {
   public static String CPU_USED             = "CPU_USED";
   public static String MEMORY_CAPACITY      = "MEMORY_CAPACITY";
   public static String MEMORY_USED          = "MEMORY_USED";
+  // 95th percentile and moving average of the usage, the *_USED values are the averages
+  public static String CPU_USED_P95         = "CPU_USED_P95";
+  public static String CPU_USED_EWMA        = "CPU_USED_EWMA";
+  public static String MEMORY_USED_P95      = "MEMORY_USED_P95";
+  public static String MEMORY_USED_EWMA     = "MEMORY_USED_EWMA";
 
   public static String LATEST_HEARTBEAT     = "LATEST_HEARTBEAT";
 
@@ -62,87 +82,239 @@ public class ClusterMeta implements Serializable {
 
   public static String PROPERTIES = "properties";
 
-  // cluster_name = host:port
-  // Map:cluster_name -> {server_tserver_host,server_tserver_port,cpu_capacity,...}
-  private Map<String, Map<String, Object>> mapServerMeta = new HashMap<>();
+  // Attributes with a secondary index: the status of the servers and interpreters,
+  // the server of the interpreters and the interpreter name
+  public static final List<String> INDEXED_ATTRIBUTES = Collections.unmodifiableList(
+      Arrays.asList(STATUS, NODE_NAME, INTP_PROCESS_NAME));
 
+  // SERVER_META, cluster_name = host:port
+  // Map:cluster_name -> {server_tserver_host,server_tserver_port,cpu_capacity,...}
+  // INTP_PROCESS_META
   // Map:InterpreterGroupId -> {cluster_name,intp_tserver_host,...}
-  private Map<String, Map<String, Object>> mapInterpreterMeta = new HashMap<>();
+  private final Map<ClusterMetaType, ConcurrentHashMap<String, VersionedMeta>> metas
+      = new EnumMap<>(ClusterMetaType.class);
+
+  // Map:meta type -> attribute -> attribute value -> keys
+  private final Map<ClusterMetaType, Map<String, ConcurrentHashMap<Object, Set<String>>>> indexes
+      = new EnumMap<>(ClusterMetaType.class);
+
+  public ClusterMeta() {
+    for (ClusterMetaType type : ClusterMetaType.values()) {
+      metas.put(type, new ConcurrentHashMap<>());
+      Map<String, ConcurrentHashMap<Object, Set<String>>> typeIndexes = new HashMap<>();
+      for (String attribute : INDEXED_ATTRIBUTES) {
+        typeIndexes.put(attribute, new ConcurrentHashMap<>());
+      }
+      indexes.put(type, typeIndexes);
+    }
+  }
 
-  public void put(ClusterMetaType type, String key, Object value) {
+  /**
+   * Merge the values into the metadata of the key,
+   * because it may be partially updated metadata information
+   * @param version the raft commit index of the update
+   * @return the new version of the key
+   */
+  public long put(ClusterMetaType type, String key, Object value, long version) {
     Map<String, Object> mapValue = (Map<String, Object>) value;
 
-    switch (type) {
-      case SERVER_META:
-        // Because it may be partially updated metadata information
-        if (mapServerMeta.containsKey(key)) {
-          Map<String, Object> values = mapServerMeta.get(key);
-          values.putAll(mapValue);
-        } else {
-          mapServerMeta.put(key, mapValue);
-        }
-        break;
-      case INTP_PROCESS_META:
-        if (mapInterpreterMeta.containsKey(key)) {
-          Map<String, Object> values = mapInterpreterMeta.get(key);
-          values.putAll(mapValue);
-        } else {
-          mapInterpreterMeta.put(key, mapValue);
-        }
-        break;
+    VersionedMeta updated = metas.get(type).compute(key, (k, current) -> {
+      HashMap<String, Object> values = new HashMap<>();
+      if (null != current) {
+        values.putAll(current.values);
+      }
+      if (null != mapValue) {
+        values.putAll(mapValue);
+      }
+      VersionedMeta next = new VersionedMeta(version, values);
+      reindex(type, k, current, next);
+      return next;
+    });
+    return updated.version;
+  }
+
+  /**
+   * Replace the metadata of the key
+   * @param version the raft commit index of the update
+   * @return the new version of the key
+   */
+  public long set(ClusterMetaType type, String key, Map<String, Object> values, long version) {
+    VersionedMeta updated = metas.get(type).compute(key, (k, current) -> {
+      VersionedMeta next = new VersionedMeta(version, new HashMap<>(values));
+      reindex(type, k, current, next);
+      return next;
+    });
+    return updated.version;
+  }
+
+  /**
+   * Replace the metadata of the key if its version is still the expected one
+   * @param expectedVersion the version read before, 0 if the key must not exist
+   * @param values          the new metadata, null to remove the key
+   * @param version         the raft commit index of the update
+   * @return whether the metadata was replaced
+   */
+  public boolean compareAndSet(ClusterMetaType type, String key, long expectedVersion,
+                               Map<String, Object> values, long version) {
+    boolean[] replaced = {false};
+    metas.get(type).compute(key, (k, current) -> {
+      long currentVersion = null == current ? 0 : current.version;
+      if (currentVersion != expectedVersion) {
+        return current;
+      }
+      VersionedMeta next = null == values ? null : new VersionedMeta(version, new HashMap<>(values));
+      reindex(type, k, current, next);
+      replaced[0] = true;
+      return next;
+    });
+    return replaced[0];
+  }
+
+  /**
+   * @return the version of the key, 0 if the key does not exist
+   */
+  public long getVersion(ClusterMetaType type, String key) {
+    VersionedMeta meta = metas.get(type).get(key);
+    return null == meta ? 0 : meta.version;
+  }
+
+  /**
+   * @return the metadata and version of the key, or of all the keys if the key is empty
+   */
+  public Map<String, VersionedMeta> getVersioned(ClusterMetaType type, String key) {
+    ConcurrentHashMap<String, VersionedMeta> typeMetas = metas.get(type);
+    if (null == key || StringUtils.isEmpty(key)) {
+      return new HashMap<>(typeMetas);
+    }
+
+    Map<String, VersionedMeta> result = new HashMap<>();
+    VersionedMeta meta = typeMetas.get(key);
+    if (null != meta) {
+      result.put(key, meta);
     }
+    return result;
+  }
+
+  public int size(ClusterMetaType type) {
+    return metas.get(type).size();
   }
 
   public Map<String, Map<String, Object>> get(ClusterMetaType type, String key) {
-    Map<String, Object> values = null;
+    ConcurrentHashMap<String, VersionedMeta> typeMetas = metas.get(type);
+    Map<String, Map<String, Object>> result = new HashMap<>();
 
-    switch (type) {
-      case SERVER_META:
-        if (null == key || StringUtils.isEmpty(key)) {
-          return mapServerMeta;
-        }
-        if (mapServerMeta.containsKey(key)) {
-          values = mapServerMeta.get(key);
-        } else {
-          LOG.warn("can not find key : {}", key);
-        }
-        break;
-      case INTP_PROCESS_META:
-        if (null == key || StringUtils.isEmpty(key)) {
-          return mapInterpreterMeta;
-        }
-        if (mapInterpreterMeta.containsKey(key)) {
-          values = mapInterpreterMeta.get(key);
-        } else {
-          LOG.warn("can not find key : {}", key);
-        }
-        break;
+    if (null == key || StringUtils.isEmpty(key)) {
+      for (Map.Entry<String, VersionedMeta> entry : typeMetas.entrySet()) {
+        result.put(entry.getKey(), new HashMap<>(entry.getValue().values));
+      }
+      return result;
     }
 
-    Map<String, Map<String, Object>> result = new HashMap<>();
-    result.put(key, values);
+    VersionedMeta meta = typeMetas.get(key);
+    if (null == meta) {
+      LOG.warn("can not find key : {}", key);
+    }
+    result.put(key, null == meta ? null : new HashMap<>(meta.values));
 
     return result;
   }
 
-  public Map<String, Object> remove(ClusterMetaType type, String key) {
-    switch (type) {
-      case SERVER_META:
-        if (mapServerMeta.containsKey(key)) {
-          return mapServerMeta.remove(key);
-        } else {
-          LOG.warn("can not find key : {}", key);
+  /**
+   * Find the metadata whose attribute has the value, e.g. the online servers
+   * or the interpreters of a server
+   * @return the metadata by key
+   */
+  public Map<String, Map<String, Object>> find(ClusterMetaType type, String attribute, Object value) {
+    ConcurrentHashMap<String, VersionedMeta> typeMetas = metas.get(type);
+    Map<String, Map<String, Object>> result = new HashMap<>();
+
+    ConcurrentHashMap<Object, Set<String>> index = indexes.get(type).get(attribute);
+    if (null == index) {
+      // Not indexed
+      for (Map.Entry<String, VersionedMeta> entry : typeMetas.entrySet()) {
+        if (Objects.equals(entry.getValue().values.get(attribute), value)) {
+          result.put(entry.getKey(), new HashMap<>(entry.getValue().values));
         }
-        break;
-      case INTP_PROCESS_META:
-        if (mapInterpreterMeta.containsKey(key)) {
-          return mapInterpreterMeta.remove(key);
-        } else {
-          LOG.warn("can not find key : {}", key);
+      }
+      return result;
+    }
+
+    Set<String> keys = null == value ? null : index.get(value);
+    if (null != keys) {
+      for (String key : keys) {
+        // The index may be ahead or behind of the metadata during an update
+        VersionedMeta meta = typeMetas.get(key);
+        if (null != meta && Objects.equals(meta.values.get(attribute), value)) {
+          result.put(key, new HashMap<>(meta.values));
         }
-        break;
+      }
     }
+    return result;
+  }
+
+  public Map<String, Object> remove(ClusterMetaType type, String key) {
+    VersionedMeta[] removed = {null};
+    metas.get(type).computeIfPresent(key, (k, current) -> {
+      reindex(type, k, current, null);
+      removed[0] = current;
+      return null;
+    });
 
-    return null;
+    if (null == removed[0]) {
+      LOG.warn("can not find key : {}", key);
+      return null;
+    }
+    return new HashMap<>(removed[0].values);
+  }
+
+  // Called while the key is locked by the compute of its map
+  private void reindex(ClusterMetaType type, String key, VersionedMeta current, VersionedMeta next) {
+    for (Map.Entry<String, ConcurrentHashMap<Object, Set<String>>> entry
+        : indexes.get(type).entrySet()) {
+      String attribute = entry.getKey();
+      ConcurrentHashMap<Object, Set<String>> index = entry.getValue();
+      Object currentValue = null == current ? null : current.values.get(attribute);
+      Object nextValue = null == next ? null : next.values.get(attribute);
+      if (Objects.equals(currentValue, nextValue)) {
+        continue;
+      }
+      if (null != currentValue) {
+        index.computeIfPresent(currentValue, (v, keys) -> {
+          keys.remove(key);
+          return keys.isEmpty() ? null : keys;
+        });
+      }
+      if (null != nextValue) {
+        index.compute(nextValue, (v, keys) -> {
+          Set<String> indexed = null == keys ? ConcurrentHashMap.newKeySet() : keys;
+          indexed.add(key);
+          return indexed;
+        });
+      }
+    }
+  }
+
+  /**
+   * The metadata of a key and its version, never modified once created
+   */
+  public static class VersionedMeta implements Serializable {
+    private final long version;
+    private final HashMap<String, Object> values;
+
+    public VersionedMeta(long version, HashMap<String, Object> values) {
+      this.version = version;
+      this.values = values;
+    }
+
+    public long getVersion() {
+      return version;
+    }
+
+    /**
+     * @return a copy of the metadata
+     */
+    public HashMap<String, Object> getValues() {
+      return new HashMap<>(values);
+    }
   }
 }
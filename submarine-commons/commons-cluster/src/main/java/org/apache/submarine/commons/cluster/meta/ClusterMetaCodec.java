@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.submarine.commons.cluster.meta;
+
+import io.atomix.utils.serializer.Serializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Binary snapshot format of the cluster metadata
+ *
+ * <pre>
+ * int    MAGIC
+ * int    VERSION
+ * for each meta type:
+ *   byte   SECTION
+ *   string meta type name
+ *   int    number of entries
+ *   for each entry:
+ *     string key
+ *     long   version, the raft commit index of the last update of the key (since VERSION 2)
+ *     int    length of the values, the values are encoded with the serializer
+ *     byte[] values
+ * byte   END
+ * long   CRC32 of all the bytes above
+ * </pre>
+ * Strings are written as an int length followed by the UTF-8 bytes. The entries are
+ * written and read one at a time, so the whole snapshot is never held in memory.
+ * The sections of unknown meta types are skipped, so that a snapshot written by a
+ * newer version with more meta types can still be read. The entries of a VERSION 1
+ * snapshot get {@link #LEGACY_VERSION}.
+ */
+public class ClusterMetaCodec {
+  private static final Logger LOG = LoggerFactory.getLogger(ClusterMetaCodec.class);
+
+  // "SMCM", can not be confused with the entry count at the start of a legacy snapshot
+  public static final int MAGIC = 0x534D434D;
+  public static final int VERSION = 2;
+  // Version of the entries of a snapshot without versions, the raft indexes start at 1
+  public static final long LEGACY_VERSION = 1;
+
+  private static final byte SECTION = 1;
+  private static final byte END = 0;
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private static final int MAX_LENGTH = 64 * 1024 * 1024;
+
+  private final Serializer serializer;
+
+  /**
+   * @param serializer serializer of the metadata values
+   */
+  public ClusterMetaCodec(Serializer serializer) {
+    this.serializer = serializer;
+  }
+
+  /**
+   * Write the cluster metadata to the stream, the stream is flushed but not closed
+   */
+  public void write(ClusterMeta clusterMeta, OutputStream out) throws IOException {
+    CheckedOutputStream checked = new CheckedOutputStream(
+        new BufferedOutputStream(out, BUFFER_SIZE), new CRC32());
+    DataOutputStream data = new DataOutputStream(checked);
+    data.writeInt(MAGIC);
+    data.writeInt(VERSION);
+
+    for (ClusterMetaType type : ClusterMetaType.values()) {
+      Map<String, ClusterMeta.VersionedMeta> entries = clusterMeta.getVersioned(type, "");
+      data.writeByte(SECTION);
+      writeString(data, type.name());
+      data.writeInt(entries.size());
+      for (Map.Entry<String, ClusterMeta.VersionedMeta> entry : entries.entrySet()) {
+        writeString(data, entry.getKey());
+        data.writeLong(entry.getValue().getVersion());
+        byte[] values = serializer.encode(entry.getValue().getValues());
+        data.writeInt(values.length);
+        data.write(values);
+      }
+    }
+    data.writeByte(END);
+
+    // The checksum itself is not part of the checksum
+    data.flush();
+    long checksum = checked.getChecksum().getValue();
+    DataOutputStream trailer = new DataOutputStream(out);
+    trailer.writeLong(checksum);
+    trailer.flush();
+  }
+
+  /**
+   * Read the cluster metadata from the stream, the stream may be read past the end of the snapshot
+   * @throws IOException the stream is not a snapshot, is truncated or is corrupted
+   */
+  public ClusterMeta read(InputStream in) throws IOException {
+    InputStream buffered = new BufferedInputStream(in, BUFFER_SIZE);
+    CheckedInputStream checked = new CheckedInputStream(buffered, new CRC32());
+    DataInputStream data = new DataInputStream(checked);
+
+    int magic = data.readInt();
+    if (magic != MAGIC) {
+      throw new IOException("Not a cluster meta snapshot, magic: " + Integer.toHexString(magic));
+    }
+    int version = data.readInt();
+    if (version > VERSION) {
+      throw new IOException("Unsupported cluster meta snapshot version: " + version);
+    }
+
+    ClusterMeta clusterMeta = new ClusterMeta();
+    byte marker;
+    while ((marker = data.readByte()) == SECTION) {
+      String typeName = readString(data);
+      ClusterMetaType type = findType(typeName);
+      int count = data.readInt();
+      for (int i = 0; i < count; i++) {
+        String key = readString(data);
+        long entryVersion = version >= 2 ? data.readLong() : LEGACY_VERSION;
+        byte[] values = new byte[readLength(data)];
+        data.readFully(values);
+        if (null != type) {
+          HashMap<String, Object> decoded = serializer.decode(values);
+          clusterMeta.set(type, key, decoded, entryVersion);
+        }
+      }
+      if (null == type) {
+        LOG.warn("Skipped {} entries of the unknown cluster meta type {}", count, typeName);
+      }
+    }
+    if (marker != END) {
+      throw new IOException("Corrupted cluster meta snapshot, unexpected marker: " + marker);
+    }
+
+    long expected = checked.getChecksum().getValue();
+    long checksum = new DataInputStream(buffered).readLong();
+    if (checksum != expected) {
+      throw new IOException("Corrupted cluster meta snapshot, checksum: "
+          + Long.toHexString(checksum) + ", expected: " + Long.toHexString(expected));
+    }
+    return clusterMeta;
+  }
+
+  private static ClusterMetaType findType(String name) {
+    for (ClusterMetaType type : ClusterMetaType.values()) {
+      if (type.name().equals(name)) {
+        return type;
+      }
+    }
+    return null;
+  }
+
+  private static void writeString(DataOutputStream data, String value) throws IOException {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    data.writeInt(bytes.length);
+    data.write(bytes);
+  }
+
+  private static String readString(DataInputStream data) throws IOException {
+    byte[] bytes = new byte[readLength(data)];
+    data.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  // Fail on a corrupted length instead of allocating a huge array
+  private static int readLength(DataInputStream data) throws IOException {
+    int length = data.readInt();
+    if (length < 0 || length > MAX_LENGTH) {
+      throw new IOException("Corrupted cluster meta snapshot, length: " + length);
+    }
+    return length;
+  }
+}
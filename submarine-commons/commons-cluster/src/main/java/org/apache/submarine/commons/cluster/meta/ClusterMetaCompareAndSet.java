@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.submarine.commons.cluster.meta;
+
+import java.io.Serializable;
+import java.util.HashMap;
+
+/**
+ * Replace the metadata of a key if its version is still the expected one
+ */
+public class ClusterMetaCompareAndSet implements Serializable {
+  private ClusterMetaType type;
+  private String key;
+  private long expectedVersion;
+  private HashMap<String, Object> values;
+
+  /**
+   * @param expectedVersion the version read before, 0 if the key must not exist
+   * @param values          the new metadata, null to remove the key
+   */
+  public ClusterMetaCompareAndSet(ClusterMetaType type, String key, long expectedVersion,
+                                  HashMap<String, Object> values) {
+    this.type = type;
+    this.key = key;
+    this.expectedVersion = expectedVersion;
+    this.values = null == values ? null : new HashMap<>(values);
+  }
+
+  public ClusterMetaType getMetaType() {
+    return type;
+  }
+
+  public String getKey() {
+    return key;
+  }
+
+  public long getExpectedVersion() {
+    return expectedVersion;
+  }
+
+  public HashMap<String, Object> getValues() {
+    return values;
+  }
+}
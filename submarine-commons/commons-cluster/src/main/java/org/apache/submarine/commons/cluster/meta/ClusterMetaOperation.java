@@ -22,5 +22,7 @@ package org.apache.submarine.commons.cluster.meta;
 public enum ClusterMetaOperation {
   GET_OPERATION,
   PUT_OPERATION,
-  DELETE_OPERATION
+  DELETE_OPERATION,
+  // Replace the values, published by a compare and set
+  SET_OPERATION
 }
@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.submarine.commons.cluster.placement;
+
+import java.util.List;
+
+/**
+ * Dominant resource fairness: the node whose dominant share, the larger of its CPU and
+ * memory shares, is the lowest once the interpreter is started. The nodes where the
+ * interpreter fits are preferred, the ties go to the node with fewer interpreters.
+ */
+public class DominantResourceStrategy implements PlacementStrategy {
+
+  @Override
+  public NodeResources select(List<NodeResources> nodes, PlacementRequest request) {
+    NodeResources selected = null;
+    double selectedShare = 0;
+    boolean selectedFits = false;
+    for (NodeResources node : nodes) {
+      boolean fits = node.fits(request);
+      NodeResources placed = node.plus(request);
+      double share = Math.max(placed.getCpuShare(), placed.getMemoryShare());
+      if (null == selected
+          || (fits && !selectedFits)
+          || (fits == selectedFits && (share < selectedShare || (share == selectedShare
+              && node.getInterpreterCount() < selected.getInterpreterCount())))) {
+        selected = node;
+        selectedShare = share;
+        selectedFits = fits;
+      }
+    }
+    return selected;
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.submarine.commons.cluster.placement;
+
+import java.util.List;
+
+/**
+ * The node with the lowest load once the interpreter is started. The load is the weighted
+ * sum of the CPU share, the memory share and the number of interpreters relative to the
+ * busiest node. A node where the interpreter does not fit is only chosen if it fits nowhere.
+ */
+public class LeastLoadedStrategy implements PlacementStrategy {
+  // Past a full node, the load of a node where the interpreter does not fit
+  private static final double OVERCOMMIT_PENALTY = 1000;
+
+  private final double cpuWeight;
+  private final double memoryWeight;
+  private final double interpreterWeight;
+
+  public LeastLoadedStrategy() {
+    this(1, 1, 0.5);
+  }
+
+  public LeastLoadedStrategy(double cpuWeight, double memoryWeight, double interpreterWeight) {
+    this.cpuWeight = cpuWeight;
+    this.memoryWeight = memoryWeight;
+    this.interpreterWeight = interpreterWeight;
+  }
+
+  @Override
+  public NodeResources select(List<NodeResources> nodes, PlacementRequest request) {
+    int maxInterpreters = maxInterpreters(nodes);
+    NodeResources selected = null;
+    double selectedLoad = 0;
+    for (NodeResources node : nodes) {
+      double load = load(node, request, maxInterpreters);
+      if (null == selected || load < selectedLoad) {
+        selected = node;
+        selectedLoad = load;
+      }
+    }
+    return selected;
+  }
+
+  /**
+   * @return the load of the node once the interpreter is started
+   */
+  double load(NodeResources node, PlacementRequest request, int maxInterpreters) {
+    NodeResources placed = node.plus(request);
+    double load = cpuWeight * placed.getCpuShare() + memoryWeight * placed.getMemoryShare()
+        + interpreterWeight * placed.getInterpreterCount() / (maxInterpreters + 1);
+    return node.fits(request) ? load : load + OVERCOMMIT_PENALTY;
+  }
+
+  static int maxInterpreters(List<NodeResources> nodes) {
+    int max = 0;
+    for (NodeResources node : nodes) {
+      max = Math.max(max, node.getInterpreterCount());
+    }
+    return max;
+  }
+}
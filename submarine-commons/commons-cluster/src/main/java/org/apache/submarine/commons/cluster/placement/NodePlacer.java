@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.submarine.commons.cluster.placement;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Places the interpreters on the nodes with a {@link PlacementStrategy}.
+ *
+ * The usage of a node is only reported every heartbeat, so the interpreters placed since
+ * the last report are not in it yet. Each placement reserves the requested resources on
+ * its node until the reservation expires, and the reserved resources are added to the
+ * reported usage of the next placements. A burst of placements is then spread over the
+ * nodes instead of all going to the node that looked idle at the last report.
+ */
+public class NodePlacer {
+  private final PlacementStrategy strategy;
+  private final long reservationMillis;
+  private final LongSupplier clock;
+
+  // Map:node name -> its reservations, in the order they were made
+  private final Map<String, ArrayDeque<Reservation>> reservations = new HashMap<>();
+
+  /**
+   * @param reservationMillis how long a placement is reserved, about the time the usage
+   *                          of the interpreter takes to be reported, 0 not to reserve
+   */
+  public NodePlacer(PlacementStrategy strategy, long reservationMillis) {
+    this(strategy, reservationMillis, System::currentTimeMillis);
+  }
+
+  public NodePlacer(PlacementStrategy strategy, long reservationMillis, LongSupplier clock) {
+    this.strategy = strategy;
+    this.reservationMillis = Math.max(0, reservationMillis);
+    this.clock = clock;
+  }
+
+  /**
+   * Choose the node of an interpreter and reserve the resources of the request on it
+   * @param nodes the online nodes with their reported usage
+   * @return the chosen node, with its reported usage, or null if there is no node
+   */
+  public synchronized NodeResources place(List<NodeResources> nodes, PlacementRequest request) {
+    if (nodes.isEmpty()) {
+      return null;
+    }
+    long now = clock.getAsLong();
+    expire(now);
+
+    List<NodeResources> reserved = new ArrayList<>(nodes.size());
+    Map<NodeResources, NodeResources> reported = new IdentityHashMap<>();
+    for (NodeResources node : nodes) {
+      NodeResources withReservations = withReservations(node);
+      reserved.add(withReservations);
+      reported.put(withReservations, node);
+    }
+
+    NodeResources selected = strategy.select(reserved, request);
+    if (null == selected) {
+      return null;
+    }
+    if (reservationMillis > 0) {
+      reservations.computeIfAbsent(selected.getName(), name -> new ArrayDeque<>())
+          .add(new Reservation(request, now + reservationMillis));
+    }
+    return reported.getOrDefault(selected, selected);
+  }
+
+  /**
+   * @return number of the reservations not expired yet
+   */
+  public synchronized int getReservationCount() {
+    expire(clock.getAsLong());
+    int count = 0;
+    for (ArrayDeque<Reservation> nodeReservations : reservations.values()) {
+      count += nodeReservations.size();
+    }
+    return count;
+  }
+
+  private NodeResources withReservations(NodeResources node) {
+    ArrayDeque<Reservation> nodeReservations = reservations.get(node.getName());
+    if (null == nodeReservations) {
+      return node;
+    }
+    long cpu = 0;
+    long memory = 0;
+    for (Reservation reservation : nodeReservations) {
+      cpu += reservation.request.getCpu();
+      memory += reservation.request.getMemory();
+    }
+    return new NodeResources(node.getName(), node.getCpuCapacity(), node.getCpuUsed() + cpu,
+        node.getMemoryCapacity(), node.getMemoryUsed() + memory,
+        node.getInterpreterCount() + nodeReservations.size());
+  }
+
+  private void expire(long now) {
+    Iterator<ArrayDeque<Reservation>> iterator = reservations.values().iterator();
+    while (iterator.hasNext()) {
+      ArrayDeque<Reservation> nodeReservations = iterator.next();
+      // All the reservations last as long, the oldest expire first
+      while (!nodeReservations.isEmpty() && nodeReservations.peekFirst().expiresAt <= now) {
+        nodeReservations.pollFirst();
+      }
+      if (nodeReservations.isEmpty()) {
+        iterator.remove();
+      }
+    }
+  }
+
+  private static class Reservation {
+    private final PlacementRequest request;
+    private final long expiresAt;
+
+    Reservation(PlacementRequest request, long expiresAt) {
+      this.request = request;
+      this.expiresAt = expiresAt;
+    }
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.submarine.commons.cluster.placement;
+
+import org.apache.submarine.commons.cluster.meta.ClusterMeta;
+
+import java.util.Map;
+
+/**
+ * The resources of a server node a placement decides on.
+ * The CPU is in percents of a core and the memory in bytes, as reported by the ClusterMonitor.
+ */
+public class NodeResources {
+  private final String name;
+  private final long cpuCapacity;
+  private final long cpuUsed;
+  private final long memoryCapacity;
+  private final long memoryUsed;
+  private final int interpreterCount;
+
+  public NodeResources(String name, long cpuCapacity, long cpuUsed, long memoryCapacity,
+                       long memoryUsed, int interpreterCount) {
+    this.name = name;
+    this.cpuCapacity = cpuCapacity;
+    this.cpuUsed = cpuUsed;
+    this.memoryCapacity = memoryCapacity;
+    this.memoryUsed = memoryUsed;
+    this.interpreterCount = interpreterCount;
+  }
+
+  /**
+   * @return the resources of the server meta, null if it has not reported its usage yet
+   */
+  public static NodeResources fromMeta(String name, Map<String, Object> meta, int interpreterCount) {
+    Object cpuCapacity = meta.get(ClusterMeta.CPU_CAPACITY);
+    Object cpuUsed = meta.get(ClusterMeta.CPU_USED);
+    Object memoryCapacity = meta.get(ClusterMeta.MEMORY_CAPACITY);
+    Object memoryUsed = meta.get(ClusterMeta.MEMORY_USED);
+    if (!(cpuCapacity instanceof Number) || !(cpuUsed instanceof Number)
+        || !(memoryCapacity instanceof Number) || !(memoryUsed instanceof Number)) {
+      return null;
+    }
+    return new NodeResources(name, ((Number) cpuCapacity).longValue(), ((Number) cpuUsed).longValue(),
+        ((Number) memoryCapacity).longValue(), ((Number) memoryUsed).longValue(), interpreterCount);
+  }
+
+  /**
+   * @return the resources once the interpreter of the request is started on the node
+   */
+  public NodeResources plus(PlacementRequest request) {
+    return new NodeResources(name, cpuCapacity, cpuUsed + request.getCpu(),
+        memoryCapacity, memoryUsed + request.getMemory(), interpreterCount + 1);
+  }
+
+  public boolean fits(PlacementRequest request) {
+    return cpuUsed + request.getCpu() <= cpuCapacity
+        && memoryUsed + request.getMemory() <= memoryCapacity;
+  }
+
+  public double getCpuShare() {
+    return share(cpuUsed, cpuCapacity);
+  }
+
+  public double getMemoryShare() {
+    return share(memoryUsed, memoryCapacity);
+  }
+
+  private static double share(long used, long capacity) {
+    return capacity <= 0 ? 1 : (double) used / capacity;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public long getCpuCapacity() {
+    return cpuCapacity;
+  }
+
+  public long getCpuUsed() {
+    return cpuUsed;
+  }
+
+  public long getMemoryCapacity() {
+    return memoryCapacity;
+  }
+
+  public long getMemoryUsed() {
+    return memoryUsed;
+  }
+
+  public int getInterpreterCount() {
+    return interpreterCount;
+  }
+
+  @Override
+  public String toString() {
+    return name + "{cpu=" + cpuUsed + "/" + cpuCapacity + ", memory=" + memoryUsed + "/"
+        + memoryCapacity + ", interpreters=" + interpreterCount + "}";
+  }
+}
@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.submarine.commons.cluster.placement;
+
+/**
+ * The resources expected to be used by an interpreter to place,
+ * the CPU in percents of a core and the memory in bytes
+ */
+public class PlacementRequest {
+  private final long cpu;
+  private final long memory;
+
+  public PlacementRequest(long cpu, long memory) {
+    this.cpu = Math.max(0, cpu);
+    this.memory = Math.max(0, memory);
+  }
+
+  public long getCpu() {
+    return cpu;
+  }
+
+  public long getMemory() {
+    return memory;
+  }
+
+  @Override
+  public String toString() {
+    return "{cpu=" + cpu + ", memory=" + memory + "}";
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.submarine.commons.cluster.placement;
+
+import java.util.List;
+
+/**
+ * Chooses the node an interpreter is started on, set with cluster.placement.strategy.
+ *
+ * The built-in strategies are drf, least_loaded and power_of_two. Another strategy is
+ * set by its class name, the class needs a public constructor without arguments.
+ */
+public interface PlacementStrategy {
+  /**
+   * @param nodes   the online nodes, with the resources reserved by the previous
+   *                placements, never empty
+   * @param request the resources of the interpreter
+   * @return one of the nodes
+   */
+  NodeResources select(List<NodeResources> nodes, PlacementRequest request);
+
+  static PlacementStrategy create(String name) {
+    switch (name.toLowerCase()) {
+      case "drf":
+        return new DominantResourceStrategy();
+      case "least_loaded":
+        return new LeastLoadedStrategy();
+      case "power_of_two":
+        return new PowerOfTwoChoicesStrategy();
+      default:
+        try {
+          return Class.forName(name).asSubclass(PlacementStrategy.class)
+              .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | ClassCastException e) {
+          throw new IllegalArgumentException("Unknown cluster placement strategy: " + name, e);
+        }
+    }
+  }
+}
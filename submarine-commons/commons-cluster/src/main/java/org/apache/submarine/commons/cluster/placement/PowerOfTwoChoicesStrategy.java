@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.submarine.commons.cluster.placement;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The less loaded of two nodes picked at random, with the load of the {@link LeastLoadedStrategy}.
+ * Several servers placing with stale usage spread over the nodes instead of all choosing
+ * the same least loaded node.
+ */
+public class PowerOfTwoChoicesStrategy implements PlacementStrategy {
+  private final LeastLoadedStrategy loadStrategy;
+  private final Random random;
+
+  public PowerOfTwoChoicesStrategy() {
+    this(new LeastLoadedStrategy(), null);
+  }
+
+  /**
+   * @param random null to use the ThreadLocalRandom
+   */
+  public PowerOfTwoChoicesStrategy(LeastLoadedStrategy loadStrategy, Random random) {
+    this.loadStrategy = loadStrategy;
+    this.random = random;
+  }
+
+  @Override
+  public NodeResources select(List<NodeResources> nodes, PlacementRequest request) {
+    if (nodes.size() == 1) {
+      return nodes.get(0);
+    }
+    Random rnd = null == random ? ThreadLocalRandom.current() : random;
+    int first = rnd.nextInt(nodes.size());
+    int second = rnd.nextInt(nodes.size() - 1);
+    if (second >= first) {
+      second++;
+    }
+
+    int maxInterpreters = LeastLoadedStrategy.maxInterpreters(nodes);
+    NodeResources firstNode = nodes.get(first);
+    NodeResources secondNode = nodes.get(second);
+    return loadStrategy.load(firstNode, request, maxInterpreters)
+        <= loadStrategy.load(secondNode, request, maxInterpreters) ? firstNode : secondNode;
+  }
+}
@@ -42,7 +42,17 @@ public abstract class RaftMessagingProtocol {
   }
 
   protected Address address(MemberId memberId) {
-    return addressProvider.apply(memberId);
+    Address address = addressProvider.apply(memberId);
+    if (null == address) {
+      // The member ids of the raft clients are their host:port, the servers only know
+      // the clients of their own process, e.g. to publish the session events
+      try {
+        address = Address.from(memberId.id());
+      } catch (RuntimeException e) {
+        return null;
+      }
+    }
+    return address;
   }
 
   protected <T, U> CompletableFuture<U> sendAndReceive(MemberId memberId,
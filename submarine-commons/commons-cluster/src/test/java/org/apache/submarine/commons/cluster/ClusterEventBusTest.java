@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.submarine.commons.cluster;
+
+import io.atomix.utils.net.Address;
+import org.junit.After;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ClusterEventBusTest {
+  private static final Address SLOW = Address.from("127.0.0.1", 7001);
+  private static final Address FLAKY = Address.from("127.0.0.1", 7002);
+  private static final Address DOWN = Address.from("127.0.0.1", 7003);
+
+  private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(4);
+  private final Map<Address, AtomicInteger> received = new ConcurrentHashMap<>();
+  private ClusterEventBus eventBus;
+
+  @After
+  public void shutdown() {
+    if (null != eventBus) {
+      eventBus.shutdown();
+    }
+    scheduler.shutdownNow();
+  }
+
+  // In-JVM messaging: SLOW replies after 500 ms, FLAKY fails its first attempt,
+  // DOWN never replies, and the others echo the payload
+  private CompletableFuture<byte[]> sendAndReceive(Address address, String topic, byte[] payload,
+                                                   Duration timeout) {
+    int count = received.computeIfAbsent(address, a -> new AtomicInteger()).incrementAndGet();
+    CompletableFuture<byte[]> reply = new CompletableFuture<>();
+    if (address.equals(DOWN) || (address.equals(FLAKY) && count == 1)) {
+      scheduler.schedule(() -> reply.completeExceptionally(new TimeoutException(topic)),
+          timeout.toMillis(), TimeUnit.MILLISECONDS);
+    } else if (address.equals(SLOW)) {
+      scheduler.schedule(() -> reply.complete(payload), 500, TimeUnit.MILLISECONDS);
+    } else {
+      reply.complete(payload);
+    }
+    return reply;
+  }
+
+  @Test
+  public void testBroadcastIsParallel() throws Exception {
+    eventBus = new ClusterEventBus(this::sendAndReceive, 2000, 1, 0);
+    List<Address> peers = new ArrayList<>();
+    peers.add(SLOW);
+    for (int i = 0; i < 20; i++) {
+      peers.add(Address.from("127.0.0.1", 8000 + i));
+    }
+
+    long start = System.nanoTime();
+    ClusterEventBus.BroadcastResult result
+        = eventBus.broadcast(peers, "topic", "msg".getBytes()).get(10, TimeUnit.SECONDS);
+    long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+    assertTrue(result.isSuccess());
+    assertEquals(21, result.getAcked().size());
+    assertTrue("broadcast took " + elapsedMillis + " ms", elapsedMillis < 2000);
+    assertTrue(eventBus.getPeerStats().get(SLOW).getMaxLatencyMillis() >= 400);
+  }
+
+  @Test
+  public void testRetryAndAggregatedFailures() throws Exception {
+    eventBus = new ClusterEventBus(this::sendAndReceive, 100, 3, 10);
+    List<Address> peers = new ArrayList<>();
+    peers.add(FLAKY);
+    peers.add(DOWN);
+    peers.add(Address.from("127.0.0.1", 8000));
+
+    ClusterEventBus.BroadcastResult result
+        = eventBus.broadcast(peers, "topic", "msg".getBytes()).get(10, TimeUnit.SECONDS);
+
+    assertFalse(result.isSuccess());
+    assertEquals(2, result.getAcked().size());
+    assertTrue(result.getAcked().contains(FLAKY));
+    assertEquals(1, result.getFailed().size());
+    assertTrue(result.getFailed().get(DOWN) instanceof TimeoutException);
+
+    assertEquals(2, received.get(FLAKY).get());
+    assertEquals(3, received.get(DOWN).get());
+    Map<Address, ClusterEventBus.PeerStats> stats = eventBus.getPeerStats();
+    assertEquals(3, stats.get(DOWN).getAttempts());
+    assertEquals(3, stats.get(DOWN).getFailures());
+    assertEquals(1, stats.get(FLAKY).getFailures());
+  }
+
+  @Test
+  public void testUnicast() throws Exception {
+    eventBus = new ClusterEventBus(this::sendAndReceive, 100, 2, 0);
+    assertArrayEquals("msg".getBytes(), eventBus.unicast(FLAKY, "topic", "msg".getBytes())
+        .get(10, TimeUnit.SECONDS));
+
+    try {
+      eventBus.unicast(DOWN, "topic", "msg".getBytes()).get(10, TimeUnit.SECONDS);
+      fail("DOWN never replies");
+    } catch (Exception e) {
+      assertTrue(e.getCause() instanceof TimeoutException);
+    }
+    assertEquals(2, received.get(DOWN).get());
+  }
+}
@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.submarine.commons.cluster;
+
+import org.apache.submarine.commons.cluster.meta.ClusterMetaEntity;
+import org.apache.submarine.commons.cluster.meta.ClusterMetaOperation;
+import org.apache.submarine.commons.cluster.meta.ClusterMetaType;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ClusterMetaBatcherTest {
+  private final List<List<ClusterMetaEntity>> batches = new CopyOnWriteArrayList<>();
+  private final AtomicLong index = new AtomicLong();
+  private ClusterMetaBatcher batcher;
+
+  @After
+  public void stop() {
+    if (null != batcher) {
+      batcher.stop();
+    }
+  }
+
+  // Commits after a delay, so that the entries submitted meanwhile are batched
+  private CompletableFuture<Long> slowCommit(List<ClusterMetaEntity> entries) {
+    batches.add(new ArrayList<>(entries));
+    return CompletableFuture.supplyAsync(() -> {
+      sleep(20);
+      return index.incrementAndGet();
+    });
+  }
+
+  @Test
+  public void testBatching() throws Exception {
+    batcher = new ClusterMetaBatcher("test", this::slowCommit, () -> true, 64, 5, 10000);
+    batcher.start();
+
+    List<CompletableFuture<Long>> futures = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      futures.add(batcher.submit(entity("key" + i)));
+    }
+    for (CompletableFuture<Long> future : futures) {
+      assertTrue(future.get(10, TimeUnit.SECONDS) > 0);
+    }
+
+    assertTrue("1000 entries in " + batches.size() + " batches", batches.size() < 100);
+    List<String> keys = new ArrayList<>();
+    for (List<ClusterMetaEntity> batch : batches) {
+      assertTrue(batch.size() <= 64);
+      for (ClusterMetaEntity entity : batch) {
+        keys.add(entity.getKey());
+      }
+    }
+    // Committed once, in the submitted order
+    assertEquals(1000, keys.size());
+    for (int i = 0; i < 1000; i++) {
+      assertEquals("key" + i, keys.get(i));
+    }
+  }
+
+  @Test
+  public void testWaitReady() throws Exception {
+    AtomicBoolean ready = new AtomicBoolean(false);
+    batcher = new ClusterMetaBatcher("test", this::slowCommit, ready::get, 64, 0, 10000);
+    batcher.start();
+
+    CompletableFuture<Long> future = batcher.submit(entity("key"));
+    sleep(300);
+    assertFalse(future.isDone());
+    assertTrue(batches.isEmpty());
+
+    ready.set(true);
+    assertEquals(1L, (long) future.get(10, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testRetryUntilCommitted() throws Exception {
+    // No leader for the first attempts, as during a leader change
+    AtomicInteger attempts = new AtomicInteger();
+    ClusterMetaBatcher.Committer failFirst = entries -> {
+      CompletableFuture<Long> result = new CompletableFuture<>();
+      if (attempts.incrementAndGet() <= 5) {
+        result.completeExceptionally(new IllegalStateException("no leader"));
+      } else {
+        result.complete(42L);
+      }
+      return result;
+    };
+    batcher = new ClusterMetaBatcher("test", failFirst, () -> true, 64, 0, 10000);
+    batcher.start();
+    assertEquals(42L, (long) batcher.submit(entity("key")).get(10, TimeUnit.SECONDS));
+    assertEquals(6, attempts.get());
+    batcher.stop();
+
+    ClusterMetaBatcher.Committer alwaysFail = entries -> {
+      CompletableFuture<Long> result = new CompletableFuture<>();
+      result.completeExceptionally(new IllegalStateException("no leader"));
+      return result;
+    };
+    batcher = new ClusterMetaBatcher("test", alwaysFail, () -> true, 64, 0, 10000);
+    batcher.start();
+    CompletableFuture<Long> future = batcher.submit(entity("key"));
+    sleep(1000);
+    // Still retried, the entry is only failed when the batcher stops
+    assertFalse(future.isDone());
+    batcher.stop();
+    try {
+      future.get(10, TimeUnit.SECONDS);
+      fail("The pending entry should fail");
+    } catch (ExecutionException e) {
+      assertTrue(future.isCompletedExceptionally());
+    }
+  }
+
+  @Test
+  public void testMergeQueuedPuts() throws Exception {
+    // Raft is unreachable while the heartbeats are submitted
+    AtomicBoolean ready = new AtomicBoolean(false);
+    batcher = new ClusterMetaBatcher("test", this::slowCommit, ready::get, 64, 0, 10000);
+    batcher.start();
+
+    List<CompletableFuture<Long>> futures = new ArrayList<>();
+    futures.add(batcher.submit(entity("other")));
+    // Taken in a batch that waits for raft, the writes submitted afterwards are queued
+    sleep(300);
+    for (int i = 0; i < 1000; i++) {
+      HashMap<String, Object> values = new HashMap<>();
+      values.put("heartbeat", i);
+      values.put("status" + i % 2, "ONLINE");
+      futures.add(batcher.submit(new ClusterMetaEntity(ClusterMetaOperation.PUT_OPERATION,
+          ClusterMetaType.INTP_PROCESS_META, "key", values)));
+    }
+    // A delete is not merged, nor the puts after it
+    futures.add(batcher.submit(new ClusterMetaEntity(ClusterMetaOperation.DELETE_OPERATION,
+        ClusterMetaType.INTP_PROCESS_META, "key", null)));
+    futures.add(batcher.submit(entity("key")));
+    assertEquals(3, batcher.getQueueSize());
+
+    ready.set(true);
+    for (CompletableFuture<Long> future : futures) {
+      assertTrue(future.get(10, TimeUnit.SECONDS) > 0);
+    }
+    List<ClusterMetaEntity> entries = new ArrayList<>();
+    for (List<ClusterMetaEntity> batch : batches) {
+      entries.addAll(batch);
+    }
+    assertEquals(4, entries.size());
+    assertEquals("other", entries.get(0).getKey());
+    assertEquals(999, entries.get(1).getValues().get("heartbeat"));
+    assertEquals("ONLINE", entries.get(1).getValues().get("status0"));
+    assertEquals("ONLINE", entries.get(1).getValues().get("status1"));
+    assertEquals(ClusterMetaOperation.DELETE_OPERATION, entries.get(2).getOperation());
+    assertEquals(ClusterMetaOperation.PUT_OPERATION, entries.get(3).getOperation());
+  }
+
+  @Test
+  public void testStopFailsPending() {
+    batcher = new ClusterMetaBatcher("test", this::slowCommit, () -> false, 64, 0, 10000);
+    batcher.start();
+    CompletableFuture<Long> future = batcher.submit(entity("key"));
+    batcher.stop();
+    try {
+      future.get(10, TimeUnit.SECONDS);
+      fail("The pending entry should fail");
+    } catch (Exception e) {
+      assertTrue(future.isCompletedExceptionally());
+    }
+  }
+
+  private static ClusterMetaEntity entity(String key) {
+    return new ClusterMetaEntity(ClusterMetaOperation.PUT_OPERATION,
+        ClusterMetaType.INTP_PROCESS_META, key, new HashMap<>());
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
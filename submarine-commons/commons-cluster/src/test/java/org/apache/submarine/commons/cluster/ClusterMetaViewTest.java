@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.submarine.commons.cluster;
+
+import org.apache.submarine.commons.cluster.meta.ClusterMeta;
+import org.apache.submarine.commons.cluster.meta.ClusterMetaEntity;
+import org.apache.submarine.commons.cluster.meta.ClusterMetaOperation;
+import org.apache.submarine.commons.cluster.meta.ClusterMetaType;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+import static org.apache.submarine.commons.cluster.meta.ClusterMetaType.INTP_PROCESS_META;
+import static org.apache.submarine.commons.cluster.meta.ClusterMetaType.SERVER_META;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ClusterMetaViewTest {
+
+  @Test
+  public void testLoadAndApply() {
+    ClusterMetaView view = new ClusterMetaView(1000);
+    assertFalse(view.isReadable(SERVER_META));
+
+    HashMap<String, ClusterMeta.VersionedMeta> metas = new HashMap<>();
+    metas.put("server1", new ClusterMeta.VersionedMeta(3, values("STATUS", "ONLINE")));
+    metas.put("server2", new ClusterMeta.VersionedMeta(5, values("STATUS", "ONLINE")));
+    view.load(SERVER_META, metas);
+    assertTrue(view.isReadable(SERVER_META));
+    assertFalse(view.isReadable(INTP_PROCESS_META));
+
+    view.apply(10, Arrays.asList(
+        entity(ClusterMetaOperation.PUT_OPERATION, SERVER_META, "server1", values("STATUS", "OFFLINE")),
+        entity(ClusterMetaOperation.DELETE_OPERATION, SERVER_META, "server2", null),
+        entity(ClusterMetaOperation.PUT_OPERATION, SERVER_META, "server3", values("CPU_USED", 1L))));
+
+    HashMap<String, HashMap<String, Object>> all = view.get(SERVER_META, "");
+    assertEquals(2, all.size());
+    assertEquals("OFFLINE", all.get("server1").get("STATUS"));
+    assertEquals(1L, all.get("server3").get("CPU_USED"));
+    assertNull(view.get(SERVER_META, "server2").get("server2"));
+    // The versions are the raft commit indexes of the updates
+    assertEquals(10, view.getVersion(SERVER_META, "server1"));
+    assertEquals(0, view.getVersion(SERVER_META, "server2"));
+
+    // A reload replaces the changes applied before
+    view.load(SERVER_META, new HashMap<>());
+    assertTrue(view.get(SERVER_META, "").isEmpty());
+  }
+
+  @Test
+  public void testReadsAreCopies() {
+    ClusterMetaView view = new ClusterMetaView(1000);
+    HashMap<String, Object> values = values("STATUS", "ONLINE");
+    HashMap<String, ClusterMeta.VersionedMeta> metas = new HashMap<>();
+    metas.put("server1", new ClusterMeta.VersionedMeta(1, values));
+    view.load(SERVER_META, metas);
+
+    view.get(SERVER_META, "").get("server1").put("STATUS", "OFFLINE");
+    values.put("STATUS", "OFFLINE");
+    assertEquals("ONLINE", view.get(SERVER_META, "server1").get("server1").get("STATUS"));
+  }
+
+  @Test
+  public void testSetAndOlderChanges() {
+    ClusterMetaView view = new ClusterMetaView(1000);
+    HashMap<String, Object> loaded = values("STATUS", "ONLINE");
+    loaded.put("CPU_USED", 1L);
+    HashMap<String, ClusterMeta.VersionedMeta> metas = new HashMap<>();
+    metas.put("server1", new ClusterMeta.VersionedMeta(20, loaded));
+    view.load(SERVER_META, metas);
+
+    // Published before the load read the metadata
+    view.apply(15, Arrays.asList(
+        entity(ClusterMetaOperation.DELETE_OPERATION, SERVER_META, "server1", null)));
+    assertEquals(20, view.getVersion(SERVER_META, "server1"));
+
+    // A compare and set replaces the values
+    view.apply(21, Arrays.asList(
+        entity(ClusterMetaOperation.SET_OPERATION, SERVER_META, "server1", values("STATUS", "OFFLINE"))));
+    assertEquals(values("STATUS", "OFFLINE"), view.get(SERVER_META, "server1").get("server1"));
+    assertEquals(21, view.getVersion(SERVER_META, "server1"));
+  }
+
+  @Test
+  public void testStalenessBound() throws InterruptedException {
+    ClusterMetaView view = new ClusterMetaView(200);
+    view.load(SERVER_META, new HashMap<>());
+    assertFalse(view.connected());
+
+    view.disconnected();
+    assertTrue(view.isReadable(SERVER_META));
+    Thread.sleep(300);
+    assertFalse(view.isReadable(SERVER_META));
+
+    // Changes may have been missed, the view is reloaded before it is read again
+    assertTrue(view.connected());
+    assertFalse(view.isReadable(SERVER_META));
+    view.load(SERVER_META, new HashMap<>());
+    assertTrue(view.isReadable(SERVER_META));
+  }
+
+  @Test
+  public void testAwaitApplied() throws Exception {
+    ClusterMetaView view = new ClusterMetaView(1000);
+    view.apply(10, Arrays.asList(
+        entity(ClusterMetaOperation.PUT_OPERATION, SERVER_META, "server1", values("STATUS", "ONLINE"))));
+    assertTrue(view.awaitApplied(10, 0));
+    assertFalse(view.awaitApplied(11, 100));
+
+    Thread applier = new Thread(() -> {
+      try {
+        Thread.sleep(100);
+      } catch (InterruptedException e) {
+        return;
+      }
+      view.apply(12, Arrays.asList(
+          entity(ClusterMetaOperation.PUT_OPERATION, SERVER_META, "server1", values("STATUS", "OFFLINE"))));
+    });
+    applier.start();
+    assertTrue(view.awaitApplied(12, 10000));
+    assertEquals(12, view.getAppliedIndex());
+    applier.join();
+
+    // A change published again after a reload does not move the index back
+    view.apply(11, Arrays.asList());
+    assertEquals(12, view.getAppliedIndex());
+  }
+
+  private static HashMap<String, Object> values(String key, Object value) {
+    HashMap<String, Object> values = new HashMap<>();
+    values.put(key, value);
+    return values;
+  }
+
+  private static ClusterMetaEntity entity(ClusterMetaOperation operation, ClusterMetaType type,
+                                          String key, HashMap<String, Object> values) {
+    return new ClusterMetaEntity(operation, type, key, values);
+  }
+}
@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.submarine.commons.cluster;
+
+import org.apache.submarine.commons.cluster.meta.ClusterMeta;
+import org.apache.submarine.commons.cluster.meta.ClusterMetaEntity;
+import org.apache.submarine.commons.cluster.meta.ClusterMetaType;
+import org.apache.submarine.commons.utils.NetworkUtils;
+import org.apache.submarine.commons.utils.SubmarineConfVars.ConfVars;
+import org.apache.submarine.commons.utils.SubmarineConfiguration;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The leader monitors the heartbeats when the metadata are not read from the local view
+ */
+public class ClusterMonitorTest {
+  private static final Logger LOG = LoggerFactory.getLogger(ClusterMonitorTest.class);
+
+  private static final List<ClusterServer> clusterServers = new ArrayList<>();
+  private static ClusterClient clusterClient = null;
+  // A short heartbeat interval, the leader suspects a silent server within a second
+  private static final int HEARTBEAT_INTERVAL_MS = 200;
+  private static final int HEARTBEAT_TIMEOUT_MS = 1000;
+  // Several times the time the leader takes to suspect a server without heartbeat
+  private static final long ONLINE_CHECK_MS = 4000;
+  private static final long WAIT_TIMEOUT_MS = 60000;
+
+  // The keys whose heartbeat a server listener has seen
+  private static final Set<String> heartbeats = ConcurrentHashMap.newKeySet();
+  // The keys a server listener has seen set offline
+  private static final Set<String> offline = ConcurrentHashMap.newKeySet();
+
+  static final String metaKey = "ClusterMonitorTestKey";
+
+  @BeforeClass
+  public static void startCluster() throws Exception {
+    SubmarineConfiguration sconf = SubmarineConfiguration.getInstance();
+    sconf.setString(ConfVars.CLUSTER_META_READ_CONSISTENCY, "linearizable");
+    sconf.setInt(ConfVars.CLUSTER_HEARTBEAT_INTERVAL, HEARTBEAT_INTERVAL_MS);
+    sconf.setInt(ConfVars.CLUSTER_HEARTBEAT_TIMEOUT, HEARTBEAT_TIMEOUT_MS);
+
+    String serverHost = NetworkUtils.findAvailableHostAddress();
+    List<Integer> serverPorts = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      serverPorts.add(NetworkUtils.findRandomAvailablePortOnAllLocalInterfaces());
+    }
+    String clusterAddrList = serverHost + ":" + serverPorts.get(0) + "," + serverHost + ":"
+        + serverPorts.get(1) + "," + serverHost + ":" + serverPorts.get(2);
+    sconf.setClusterAddress(clusterAddrList);
+
+    for (int serverPort : serverPorts) {
+      Constructor<ClusterServer> constructor = ClusterServer.class.getDeclaredConstructor();
+      constructor.setAccessible(true);
+      ClusterServer clusterServer = constructor.newInstance();
+      clusterServer.initTestCluster(clusterAddrList, serverHost, serverPort);
+      assertEquals(ClusterReadConsistency.LINEARIZABLE, clusterServer.readConsistency);
+      clusterServer.addClusterMetaListener(ClusterMonitorTest::onClusterMetaChange);
+      clusterServers.add(clusterServer);
+    }
+    for (ClusterServer clusterServer : clusterServers) {
+      clusterServer.start();
+    }
+
+    Constructor<ClusterClient> constructor = ClusterClient.class.getDeclaredConstructor();
+    constructor.setAccessible(true);
+    clusterClient = constructor.newInstance();
+    clusterClient.start(metaKey);
+
+    // Waiting for cluster startup
+    long start = System.currentTimeMillis();
+    waitFor(() -> clusterIsStartup() && clusterClient.raftInitialized(), "The cluster did not start");
+    LOG.info("ClusterMonitorTest::cluster startup in {}(ms)", System.currentTimeMillis() - start);
+  }
+
+  @AfterClass
+  public static void stopCluster() {
+    if (null != clusterClient) {
+      clusterClient.shutdown();
+    }
+    for (ClusterServer clusterServer : clusterServers) {
+      clusterServer.shutdown();
+    }
+    SubmarineConfiguration sconf = SubmarineConfiguration.getInstance();
+    sconf.setString(ConfVars.CLUSTER_META_READ_CONSISTENCY,
+        ConfVars.CLUSTER_META_READ_CONSISTENCY.getStringValue());
+    sconf.setInt(ConfVars.CLUSTER_HEARTBEAT_INTERVAL, ConfVars.CLUSTER_HEARTBEAT_INTERVAL.getIntValue());
+    sconf.setInt(ConfVars.CLUSTER_HEARTBEAT_TIMEOUT, ConfVars.CLUSTER_HEARTBEAT_TIMEOUT.getIntValue());
+  }
+
+  private static boolean clusterIsStartup() {
+    boolean foundLeader = false;
+    for (ClusterServer clusterServer : clusterServers) {
+      if (!clusterServer.raftInitialized()) {
+        return false;
+      }
+      foundLeader |= clusterServer.isClusterLeader();
+    }
+    return foundLeader;
+  }
+
+  private static void onClusterMetaChange(List<ClusterMetaEntity> change) {
+    for (ClusterMetaEntity entity : change) {
+      Map<String, Object> values = entity.getValues();
+      if (null != values && values.containsKey(ClusterMeta.LATEST_HEARTBEAT)) {
+        heartbeats.add(entity.getKey());
+      }
+      if (null != values && ClusterMeta.OFFLINE_STATUS.equals(values.get(ClusterMeta.STATUS))) {
+        offline.add(entity.getKey());
+      }
+    }
+  }
+
+  private static void waitFor(BooleanSupplier condition, String message) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + WAIT_TIMEOUT_MS;
+    while (!condition.getAsBoolean()) {
+      assertTrue(message, System.currentTimeMillis() < deadline);
+      Thread.sleep(HEARTBEAT_INTERVAL_MS);
+    }
+  }
+
+  @Test
+  public void testStaysOnline() throws InterruptedException {
+    waitFor(() -> clusterClient.getClusterMeta(ClusterMetaType.SERVER_META, "").size() == 3,
+        "The servers did not register");
+    HashMap<String, HashMap<String, Object>> serverMeta =
+        clusterClient.getClusterMeta(ClusterMetaType.SERVER_META, "");
+    waitFor(() -> heartbeats.contains(metaKey) && heartbeats.containsAll(serverMeta.keySet()),
+        "No heartbeat seen from " + serverMeta.keySet() + " and " + metaKey);
+
+    // Nothing is suspected while the heartbeats keep coming
+    Thread.sleep(ONLINE_CHECK_MS);
+    assertTrue(offline.toString(), offline.isEmpty());
+    for (Map.Entry<String, HashMap<String, Object>> entry :
+        clusterClient.getClusterMeta(ClusterMetaType.SERVER_META, "").entrySet()) {
+      assertEquals(entry.getKey(), ClusterMeta.ONLINE_STATUS, entry.getValue().get(ClusterMeta.STATUS));
+    }
+    HashMap<String, HashMap<String, Object>> intpMeta =
+        clusterClient.getClusterMeta(ClusterMetaType.INTP_PROCESS_META, metaKey);
+    assertNotNull(intpMeta.get(metaKey));
+    assertEquals(ClusterMeta.ONLINE_STATUS, intpMeta.get(metaKey).get(ClusterMeta.STATUS));
+  }
+}
@@ -16,6 +16,7 @@
  */
 package org.apache.submarine.commons.cluster;
 
+import org.apache.submarine.commons.cluster.meta.ClusterMeta;
 import org.apache.submarine.commons.cluster.meta.ClusterMetaType;
 import org.apache.submarine.commons.utils.SubmarineConfiguration;
 import org.apache.submarine.commons.utils.NetworkUtils;
@@ -31,9 +32,13 @@ import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 public class ClusterMultiNodeTest {
   private static Logger LOG = LoggerFactory.getLogger(ClusterMultiNodeTest.class);
@@ -183,4 +188,69 @@ public class ClusterMultiNodeTest {
     assertEquals(hashMap.size(), 1);
     LOG.info("ClusterMultiNodeTest::testClusterClientMeta <<<");
   }
+
+  @Test
+  public void testReadOwnWrites() {
+    // The puts are not waited for, the reads must still see them
+    String key = "ClusterMultiNodeTestReadOwnWrites";
+    for (int i = 0; i < 20; i++) {
+      HashMap<String, Object> values = new HashMap<>();
+      values.put(ClusterMeta.INTP_PROCESS_COUNT, i);
+      clusterClient.putClusterMeta(ClusterMetaType.INTP_PROCESS_META, key, values);
+
+      HashMap<String, HashMap<String, Object>> meta
+          = clusterClient.getClusterMeta(ClusterMetaType.INTP_PROCESS_META, key);
+      assertNotNull(meta.get(key));
+      assertEquals(i, meta.get(key).get(ClusterMeta.INTP_PROCESS_COUNT));
+    }
+    clusterClient.deleteClusterMeta(ClusterMetaType.INTP_PROCESS_META, key);
+    assertNull(clusterClient.getClusterMeta(ClusterMetaType.INTP_PROCESS_META, key).get(key));
+  }
+
+  @Test
+  public void testCompareAndSet() throws Exception {
+    String key = "ClusterMultiNodeTestCompareAndSet";
+    List<ClusterManager> managers = new ArrayList<>(clusterServers);
+    managers.add(clusterClient);
+
+    long version = 0;
+    for (int round = 0; round < 5; round++) {
+      // Every node replaces the same version, only one of them succeeds
+      List<CompletableFuture<Long>> futures = new ArrayList<>();
+      for (int i = 0; i < managers.size(); i++) {
+        HashMap<String, Object> values = new HashMap<>();
+        values.put(ClusterMeta.NODE_NAME, "node" + i);
+        futures.add(managers.get(i).compareAndSetClusterMeta(
+            ClusterMetaType.INTP_PROCESS_META, key, version, values));
+      }
+      int replaced = 0;
+      long newVersion = 0;
+      for (CompletableFuture<Long> future : futures) {
+        long result = future.get(10, TimeUnit.SECONDS);
+        if (result != 0) {
+          replaced++;
+          newVersion = result;
+        }
+      }
+      assertEquals(1, replaced);
+      assertTrue(newVersion > version);
+      version = newVersion;
+
+      // Every node has the same version, the one returned by the compare and set
+      for (ClusterManager manager : managers) {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (manager.getClusterMetaVersion(ClusterMetaType.INTP_PROCESS_META, key) != version
+            && System.currentTimeMillis() < deadline) {
+          Thread.sleep(10);
+        }
+        assertEquals(version, manager.getClusterMetaVersion(ClusterMetaType.INTP_PROCESS_META, key));
+      }
+    }
+
+    assertEquals(0L, (long) clusterClient.compareAndSetClusterMeta(
+        ClusterMetaType.INTP_PROCESS_META, key, version - 1, null).get(10, TimeUnit.SECONDS));
+    assertTrue(clusterClient.compareAndSetClusterMeta(
+        ClusterMetaType.INTP_PROCESS_META, key, version, null).get(10, TimeUnit.SECONDS) > version);
+    assertNull(clusterClient.getClusterMeta(ClusterMetaType.INTP_PROCESS_META, key).get(key));
+  }
 }
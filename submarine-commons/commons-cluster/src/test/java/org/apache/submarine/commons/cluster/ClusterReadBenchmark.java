@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.submarine.commons.cluster;
+
+import org.apache.submarine.commons.cluster.meta.ClusterMetaType;
+import org.apache.submarine.commons.utils.NetworkUtils;
+import org.apache.submarine.commons.utils.SubmarineConfVars.ConfVars;
+import org.apache.submarine.commons.utils.SubmarineConfiguration;
+
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Compares the latency of the cluster metadata reads with each read consistency.
+ *
+ * Not run by the test suite, run it with:
+ * <pre>
+ * java -cp ... org.apache.submarine.commons.cluster.ClusterReadBenchmark [entries] [reads]
+ * </pre>
+ */
+public class ClusterReadBenchmark {
+
+  public static void main(String[] args) throws Exception {
+    int entries = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+    int reads = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+
+    SubmarineConfiguration sconf = SubmarineConfiguration.getInstance();
+    String serverHost = NetworkUtils.findAvailableHostAddress();
+    List<Integer> ports = new ArrayList<>();
+    StringBuilder clusterAddrList = new StringBuilder();
+    for (int i = 0; i < 3; i++) {
+      int port = NetworkUtils.findRandomAvailablePortOnAllLocalInterfaces();
+      ports.add(port);
+      clusterAddrList.append(i == 0 ? "" : ",").append(serverHost).append(":").append(port);
+    }
+    sconf.setClusterAddress(clusterAddrList.toString());
+
+    List<ClusterServer> clusterServers = new ArrayList<>();
+    for (int port : ports) {
+      Constructor<ClusterServer> constructor = ClusterServer.class.getDeclaredConstructor();
+      constructor.setAccessible(true);
+      ClusterServer clusterServer = constructor.newInstance();
+      clusterServer.initTestCluster(clusterAddrList.toString(), serverHost, port);
+      clusterServer.start();
+      clusterServers.add(clusterServer);
+    }
+    while (!clusterServers.stream().allMatch(ClusterServer::raftInitialized)) {
+      Thread.sleep(100);
+    }
+
+    CompletableFuture<Long> committed = null;
+    for (int i = 0; i < entries; i++) {
+      HashMap<String, Object> values = new HashMap<>();
+      values.put("index", i);
+      committed = clusterServers.get(0).putClusterMeta(ClusterMetaType.INTP_PROCESS_META, "key" + i, values);
+    }
+    if (null != committed) {
+      committed.get();
+    }
+
+    for (ClusterReadConsistency consistency : ClusterReadConsistency.values()) {
+      sconf.setString(ConfVars.CLUSTER_META_READ_CONSISTENCY, consistency.name());
+      Constructor<ClusterClient> constructor = ClusterClient.class.getDeclaredConstructor();
+      constructor.setAccessible(true);
+      ClusterClient client = constructor.newInstance();
+      client.start("ClusterReadBenchmark-" + consistency);
+      while (!client.raftInitialized()) {
+        Thread.sleep(100);
+      }
+      // Let the local view load
+      Thread.sleep(1000);
+
+      long[] latencies = new long[reads];
+      for (int i = 0; i < reads; i++) {
+        long start = System.nanoTime();
+        client.getClusterMeta(ClusterMetaType.INTP_PROCESS_META, "");
+        latencies[i] = System.nanoTime() - start;
+      }
+      Arrays.sort(latencies);
+      System.out.printf("%-18s p50 %8.1f us, p99 %8.1f us%n", consistency,
+          latencies[reads / 2] / 1000.0, latencies[reads * 99 / 100] / 1000.0);
+      client.shutdown();
+    }
+
+    for (ClusterServer clusterServer : clusterServers) {
+      clusterServer.shutdown();
+    }
+    System.exit(0);
+  }
+}
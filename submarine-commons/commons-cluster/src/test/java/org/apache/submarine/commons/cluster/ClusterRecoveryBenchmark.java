@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.submarine.commons.cluster;
+
+import io.atomix.protocols.raft.impl.DefaultRaftServer;
+import io.atomix.protocols.raft.impl.RaftContext;
+import org.apache.submarine.commons.cluster.meta.ClusterMetaType;
+import org.apache.submarine.commons.utils.NetworkUtils;
+import org.apache.submarine.commons.utils.SubmarineConfVars.ConfVars;
+import org.apache.submarine.commons.utils.SubmarineConfiguration;
+
+import java.io.File;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time a cluster server takes to rejoin a 3-node cluster after a restart and
+ * apply the entries committed by the leader, with the raft log kept in memory (replayed
+ * from the peers) or on disk (restored from the latest snapshot).
+ *
+ * Not run by the test suite, run it with:
+ * <pre>
+ * java -cp ... org.apache.submarine.commons.cluster.ClusterRecoveryBenchmark [memory|mapped|disk] [entries]
+ * </pre>
+ */
+public class ClusterRecoveryBenchmark {
+  private static final long WAIT_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(10);
+
+  public static void main(String[] args) throws Exception {
+    String storageLevel = args.length > 0 ? args[0] : "disk";
+    int entries = args.length > 1 ? Integer.parseInt(args[1]) : 100000;
+    File storageDir = com.google.common.io.Files.createTempDir();
+
+    SubmarineConfiguration sconf = SubmarineConfiguration.getInstance();
+    sconf.setString(ConfVars.CLUSTER_RAFT_STORAGE_LEVEL, storageLevel);
+    sconf.setString(ConfVars.CLUSTER_RAFT_STORAGE_DIR, storageDir.getAbsolutePath());
+
+    String serverHost = NetworkUtils.findAvailableHostAddress();
+    List<Integer> ports = new ArrayList<>();
+    StringBuilder clusterAddrList = new StringBuilder();
+    for (int i = 0; i < 3; i++) {
+      int port = NetworkUtils.findRandomAvailablePortOnAllLocalInterfaces();
+      ports.add(port);
+      clusterAddrList.append(i == 0 ? "" : ",").append(serverHost).append(":").append(port);
+    }
+    sconf.setClusterAddress(clusterAddrList.toString());
+
+    List<ClusterServer> clusterServers = new ArrayList<>();
+    for (int port : ports) {
+      ClusterServer clusterServer = newClusterServer(clusterAddrList.toString(), serverHost, port);
+      clusterServer.start();
+      clusterServers.add(clusterServer);
+    }
+    waitFor(() -> clusterServers.stream().allMatch(ClusterServer::raftInitialized)
+        && clusterServers.stream().anyMatch(ClusterServer::isClusterLeader));
+
+    ClusterServer writer = clusterServers.get(1);
+    long start = System.nanoTime();
+    for (int i = 0; i < entries; i++) {
+      HashMap<String, Object> values = new HashMap<>();
+      values.put("index", i);
+      CompletableFuture<Long> committed =
+          writer.putClusterMeta(ClusterMetaType.INTP_PROCESS_META, "key" + i, values);
+      if (i % 1000 == 999 || i == entries - 1) {
+        // The puts are asynchronous, bound the number of queued puts
+        committed.get();
+      }
+    }
+    System.out.printf("Loaded %d entries in %d ms%n", entries, elapsedMillis(start));
+    long commitIndex = getRaftContext(clusterServers.stream()
+        .filter(ClusterServer::isClusterLeader).findFirst().get()).getCommitIndex();
+
+    ClusterServer restarted = clusterServers.get(0);
+    restarted.shutdown();
+    ClusterServer recovered = newClusterServer(clusterAddrList.toString(), serverHost, ports.get(0));
+    start = System.nanoTime();
+    recovered.start();
+    // The node has recovered once it applied all the entries, not when it joined the cluster
+    waitFor(() -> recovered.raftInitialized()
+        && getRaftContext(recovered).getLastApplied() >= commitIndex);
+    long recoveryMillis = elapsedMillis(start);
+    int recoveredEntries = recovered.getClusterMeta(ClusterMetaType.INTP_PROCESS_META, "").size();
+    System.out.printf("Storage level %s: recovered %d entries in %d ms%n",
+        storageLevel, recoveredEntries, recoveryMillis);
+
+    recovered.shutdown();
+    for (int i = 1; i < clusterServers.size(); i++) {
+      clusterServers.get(i).shutdown();
+    }
+    System.exit(0);
+  }
+
+  private static ClusterServer newClusterServer(String clusterAddrList, String host, int port)
+      throws Exception {
+    Constructor<ClusterServer> constructor = ClusterServer.class.getDeclaredConstructor();
+    constructor.setAccessible(true);
+    ClusterServer clusterServer = constructor.newInstance();
+    clusterServer.initTestCluster(clusterAddrList, host, port);
+    return clusterServer;
+  }
+
+  private static RaftContext getRaftContext(ClusterServer clusterServer) throws Exception {
+    Field context = DefaultRaftServer.class.getDeclaredField("context");
+    context.setAccessible(true);
+    return (RaftContext) context.get(clusterServer.raftServer);
+  }
+
+  private interface Condition {
+    boolean test() throws Exception;
+  }
+
+  private static void waitFor(Condition condition) throws Exception {
+    long deadline = System.currentTimeMillis() + WAIT_TIMEOUT_MS;
+    while (!condition.test()) {
+      if (System.currentTimeMillis() > deadline) {
+        throw new IllegalStateException("Timed out waiting for the cluster");
+      }
+      Thread.sleep(10);
+    }
+  }
+
+  private static long elapsedMillis(long startNanos) {
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+  }
+}
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.submarine.commons.cluster;
+
+import io.atomix.primitive.service.BackupInput;
+import io.atomix.primitive.service.BackupOutput;
+import io.atomix.primitive.service.impl.DefaultBackupInput;
+import io.atomix.primitive.service.impl.DefaultBackupOutput;
+import io.atomix.storage.buffer.Buffer;
+import io.atomix.storage.buffer.HeapBuffer;
+import org.apache.submarine.commons.cluster.meta.ClusterMeta;
+import org.apache.submarine.commons.cluster.meta.ClusterMetaCodec;
+import org.apache.submarine.commons.cluster.meta.ClusterMetaType;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class ClusterStateMachineTest {
+
+  @Test
+  public void testBackupRestore() {
+    ClusterStateMachine stateMachine = new ClusterStateMachine();
+    for (int i = 0; i < 1000; i++) {
+      stateMachine.getClusterMeta().put(ClusterMetaType.SERVER_META, "server" + i, values(i), 2 * i + 1);
+      stateMachine.getClusterMeta().put(ClusterMetaType.INTP_PROCESS_META, "intp" + i, values(i), 2 * i + 2);
+    }
+
+    Buffer buffer = HeapBuffer.allocate();
+    stateMachine.backup(new DefaultBackupOutput(buffer, ClusterManager.clientSerializer));
+    buffer.flip();
+
+    ClusterStateMachine restored = new ClusterStateMachine();
+    restored.restore(new DefaultBackupInput(buffer, ClusterManager.clientSerializer));
+    assertMetaEquals(stateMachine.getClusterMeta(), restored.getClusterMeta());
+  }
+
+  @Test
+  public void testRestoreLegacySnapshot() {
+    ClusterMeta clusterMeta = new ClusterMeta();
+    // The legacy snapshots have no versions
+    clusterMeta.put(ClusterMetaType.SERVER_META, "server1", values(1), ClusterMetaCodec.LEGACY_VERSION);
+    clusterMeta.put(ClusterMetaType.SERVER_META, "server2", values(2), ClusterMetaCodec.LEGACY_VERSION);
+    clusterMeta.put(ClusterMetaType.INTP_PROCESS_META, "intp1", values(3), ClusterMetaCodec.LEGACY_VERSION);
+
+    // The format written before the snapshot codec
+    Buffer buffer = HeapBuffer.allocate();
+    BackupOutput writer = new DefaultBackupOutput(buffer, ClusterManager.clientSerializer);
+    for (ClusterMetaType type : new ClusterMetaType[]{
+        ClusterMetaType.SERVER_META, ClusterMetaType.INTP_PROCESS_META}) {
+      Map<String, Map<String, Object>> entries = clusterMeta.get(type, "");
+      writer.writeInt(entries.size());
+      for (Map.Entry<String, Map<String, Object>> entry : entries.entrySet()) {
+        writer.writeString(entry.getKey());
+        writer.writeInt(entry.getValue().size());
+        for (Map.Entry<String, Object> value : entry.getValue().entrySet()) {
+          writer.writeString(value.getKey());
+          writer.writeObject(value.getValue());
+        }
+      }
+    }
+    buffer.flip();
+
+    ClusterStateMachine restored = new ClusterStateMachine();
+    BackupInput reader = new DefaultBackupInput(buffer, ClusterManager.clientSerializer);
+    restored.restore(reader);
+    assertMetaEquals(clusterMeta, restored.getClusterMeta());
+  }
+
+  private static HashMap<String, Object> values(int i) {
+    HashMap<String, Object> values = new HashMap<>();
+    values.put(ClusterMeta.SERVER_HOST, "host" + i);
+    values.put(ClusterMeta.SERVER_PORT, i);
+    values.put(ClusterMeta.CPU_USED, (long) i);
+    values.put(ClusterMeta.STATUS, ClusterMeta.ONLINE_STATUS);
+    return values;
+  }
+
+  private static void assertMetaEquals(ClusterMeta expected, ClusterMeta actual) {
+    for (ClusterMetaType type : ClusterMetaType.values()) {
+      assertEquals(expected.get(type, ""), actual.get(type, ""));
+      for (String key : expected.get(type, "").keySet()) {
+        assertEquals(expected.getVersion(type, key), actual.getVersion(type, key));
+      }
+    }
+  }
+}
@@ -0,0 +1,230 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.submarine.commons.cluster;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PhiAccrualFailureDetectorTest {
+  private static final Logger LOG = LoggerFactory.getLogger(PhiAccrualFailureDetectorTest.class);
+
+  private static final int HEARTBEAT_INTERVAL = 3000;
+  // The previous fixed heartbeat timeout
+  private static final int HEARTBEAT_TIMEOUT = 9000;
+
+  private static PhiAccrualFailureDetector newDetector() {
+    return new PhiAccrualFailureDetector(8, 100, HEARTBEAT_INTERVAL / 4.0,
+        HEARTBEAT_INTERVAL, HEARTBEAT_INTERVAL);
+  }
+
+  @Test
+  public void testPhi() {
+    PhiAccrualFailureDetector detector = newDetector();
+    assertEquals(0, detector.phi("node", 0), 0);
+    assertTrue(detector.isAvailable("node", 0));
+
+    for (long time = 0; time <= 60000; time += HEARTBEAT_INTERVAL) {
+      detector.heartbeat("node", time);
+    }
+    // phi grows with the time since the last heartbeat
+    double previous = -1;
+    for (long time = 60000; time < 80000; time += 1000) {
+      double phi = detector.phi("node", time);
+      assertTrue(phi >= previous);
+      previous = phi;
+    }
+    assertTrue(detector.isAvailable("node", 60000 + HEARTBEAT_INTERVAL));
+    assertFalse(detector.isAvailable("node", 60000 + 3 * HEARTBEAT_TIMEOUT));
+    assertEquals(1, detector.getSuspected(60000 + 3 * HEARTBEAT_TIMEOUT).size());
+
+    detector.remove("node");
+    assertFalse(detector.isMonitoring("node"));
+    assertTrue(detector.getSuspected(60000 + 3 * HEARTBEAT_TIMEOUT).isEmpty());
+  }
+
+  @Test
+  public void testNoFalsePositiveWithJitter() {
+    // 50 nodes for an hour, latency of 5 to 50 ms and a 2 s spike for 1% of the heartbeats
+    SimulatedNetwork network = new SimulatedNetwork(50, 1);
+    network.jitterMillis = 45;
+    network.spikeProbability = 0.01;
+    network.spikeMillis = 2000;
+    network.run(3600_000);
+
+    LOG.info("jitter: {} false positives in {} checks", network.falsePositives, network.checks);
+    assertEquals(0, network.falsePositives);
+  }
+
+  @Test
+  public void testDetectionTime() {
+    SimulatedNetwork network = new SimulatedNetwork(20, 2);
+    network.jitterMillis = 45;
+    network.run(600_000);
+    // Half of the nodes crash
+    for (int node = 0; node < 10; node++) {
+      network.crashedAt.put(node, network.now);
+    }
+    network.run(660_000);
+
+    LOG.info("crash: detected {} of 10, mean {} ms, max {} ms", network.detected,
+        network.detectionMillis / Math.max(1, network.detected), network.maxDetectionMillis);
+    assertEquals(10, network.detected);
+    assertEquals(0, network.falsePositives);
+    // Detected about as fast as the fixed timeout, with no false positive
+    assertTrue(network.maxDetectionMillis < HEARTBEAT_TIMEOUT + 2 * HEARTBEAT_INTERVAL);
+  }
+
+  @Test
+  public void testPartition() {
+    SimulatedNetwork network = new SimulatedNetwork(10, 3);
+    network.jitterMillis = 20;
+    network.run(300_000);
+
+    // Nodes 0 and 1 are partitioned for 30 s, then the network heals
+    network.partitioned.put(0, network.now + 30_000);
+    network.partitioned.put(1, network.now + 30_000);
+    network.run(330_000);
+    assertEquals(2, network.detected);
+    assertFalse(network.detector.isAvailable("node0", network.now));
+
+    network.run(340_000);
+    assertTrue(network.detector.isAvailable("node0", network.now));
+    assertTrue(network.detector.isAvailable("node1", network.now));
+    assertEquals(0, network.falsePositives);
+  }
+
+  @Test
+  public void testAdaptsToSlowerHeartbeats() {
+    // A node that reports every 6 s, twice the expected interval, is not suspected
+    SimulatedNetwork network = new SimulatedNetwork(5, 4);
+    network.intervalMillis = 2 * HEARTBEAT_INTERVAL;
+    network.jitterMillis = 50;
+    network.run(1800_000);
+    assertEquals(0, network.falsePositives);
+  }
+
+  /**
+   * In-JVM heartbeat delivery with a simulated clock. The nodes send a heartbeat every
+   * interval, delivered after a latency, with injected spikes, crashes and partitions.
+   * A leader checks the detector every interval, as the ClusterMonitor does.
+   */
+  private static class SimulatedNetwork {
+    private final PhiAccrualFailureDetector detector = newDetector();
+    private final Random random;
+    private final int nodes;
+    private final PriorityQueue<long[]> deliveries = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+    private final long[] nextSend;
+    private final Map<Integer, Long> crashedAt = new HashMap<>();
+    // Map:node -> end of its partition
+    private final Map<Integer, Long> partitioned = new HashMap<>();
+    private final Map<Integer, Long> suspectedAt = new HashMap<>();
+
+    private long intervalMillis = HEARTBEAT_INTERVAL;
+    private long jitterMillis = 0;
+    private double spikeProbability = 0;
+    private long spikeMillis = 0;
+
+    private long now = 0;
+    private long nextCheck = HEARTBEAT_INTERVAL;
+    private int checks = 0;
+    private int falsePositives = 0;
+    private int detected = 0;
+    private long detectionMillis = 0;
+    private long maxDetectionMillis = 0;
+
+    SimulatedNetwork(int nodes, long seed) {
+      this.nodes = nodes;
+      this.random = new Random(seed);
+      this.nextSend = new long[nodes];
+      for (int node = 0; node < nodes; node++) {
+        nextSend[node] = random.nextInt(HEARTBEAT_INTERVAL);
+      }
+    }
+
+    void run(long until) {
+      for (; now < until; now += 10) {
+        for (int node = 0; node < nodes; node++) {
+          if (nextSend[node] <= now) {
+            nextSend[node] = now + intervalMillis;
+            send(node);
+          }
+        }
+        while (!deliveries.isEmpty() && deliveries.peek()[0] <= now) {
+          detector.heartbeat("node" + deliveries.poll()[1], now);
+        }
+        if (nextCheck <= now) {
+          nextCheck = now + HEARTBEAT_INTERVAL;
+          check();
+        }
+      }
+    }
+
+    private void send(int node) {
+      if (crashedAt.containsKey(node)) {
+        return;
+      }
+      Long partitionEnd = partitioned.get(node);
+      if (null != partitionEnd && now < partitionEnd) {
+        return;
+      }
+      long latency = 5 + (jitterMillis > 0 ? (long) (random.nextDouble() * jitterMillis) : 0);
+      if (random.nextDouble() < spikeProbability) {
+        latency += spikeMillis;
+      }
+      deliveries.add(new long[]{now + latency, node});
+    }
+
+    private void check() {
+      checks++;
+      for (int node = 0; node < nodes; node++) {
+        boolean suspected = !detector.isAvailable("node" + node, now);
+        if (!suspected) {
+          suspectedAt.remove(node);
+          continue;
+        }
+        if (suspectedAt.containsKey(node)) {
+          continue;
+        }
+        suspectedAt.put(node, now);
+
+        Long crashed = crashedAt.get(node);
+        Long partitionEnd = partitioned.get(node);
+        if (null != crashed) {
+          detected++;
+          detectionMillis += now - crashed;
+          maxDetectionMillis = Math.max(maxDetectionMillis, now - crashed);
+        } else if (null != partitionEnd && now < partitionEnd) {
+          detected++;
+        } else {
+          falsePositives++;
+        }
+      }
+    }
+  }
+}
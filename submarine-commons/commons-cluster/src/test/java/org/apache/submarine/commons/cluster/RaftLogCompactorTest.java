@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.submarine.commons.cluster;
+
+import io.atomix.protocols.raft.RaftServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RaftLogCompactorTest {
+  private static final long THRESHOLD_BYTES = 1000;
+
+  private File directory;
+  private File segment;
+  private RaftServer raftServer;
+  private RaftLogCompactor compactor;
+
+  @Before
+  public void before() throws IOException {
+    directory = com.google.common.io.Files.createTempDir();
+    segment = new File(directory, "raft-1.log");
+    raftServer = mock(RaftServer.class);
+    when(raftServer.isRunning()).thenReturn(true);
+    // The compaction removes the entries covered by the snapshot from the segment
+    when(raftServer.compact()).thenAnswer(invocation -> {
+      resize(segment, 200);
+      return CompletableFuture.completedFuture(null);
+    });
+    compactor = new RaftLogCompactor(raftServer, directory, THRESHOLD_BYTES, 60000);
+  }
+
+  @After
+  public void after() {
+    compactor.stop();
+    File[] files = directory.listFiles();
+    if (files != null) {
+      for (File file : files) {
+        file.delete();
+      }
+    }
+    directory.delete();
+  }
+
+  private static void resize(File file, long length) throws IOException {
+    try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+      randomAccessFile.setLength(length);
+    }
+  }
+
+  @Test
+  public void testGetLogSize() throws IOException {
+    resize(segment, 300);
+    resize(new File(directory, "raft-2.log"), 400);
+    resize(new File(directory, "raft.meta"), 500);
+    assertEquals(700, RaftLogCompactor.getLogSize(directory));
+  }
+
+  @Test
+  public void testCompactWhenThresholdCrossed() throws IOException {
+    resize(segment, 500);
+    compactor.check();
+    verify(raftServer, never()).compact();
+
+    resize(segment, 1500);
+    compactor.check();
+    verify(raftServer, times(1)).compact();
+    assertEquals(200, RaftLogCompactor.getLogSize(directory));
+
+    // The threshold counts from the size after the last compaction
+    resize(segment, 1100);
+    compactor.check();
+    verify(raftServer, times(1)).compact();
+
+    resize(segment, 1300);
+    compactor.check();
+    verify(raftServer, times(2)).compact();
+  }
+
+  @Test
+  public void testThresholdFromSizeAtStart() throws IOException {
+    resize(segment, 5000);
+    compactor.start();
+    compactor.check();
+    verify(raftServer, never()).compact();
+
+    resize(segment, 6000);
+    compactor.check();
+    verify(raftServer, times(1)).compact();
+  }
+
+  @Test
+  public void testNotCompactedWhenStopped() throws IOException {
+    when(raftServer.isRunning()).thenReturn(false);
+    resize(segment, 1500);
+    compactor.check();
+    verify(raftServer, never()).compact();
+  }
+}
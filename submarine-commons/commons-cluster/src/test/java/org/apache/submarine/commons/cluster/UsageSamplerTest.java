@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.submarine.commons.cluster;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class UsageSamplerTest {
+
+  @Test
+  public void testRollingStatistics() {
+    UsageSampler sampler = new UsageSampler(10, 0.5);
+    assertEquals(0, sampler.getMeanUsed());
+    assertEquals(0, sampler.getP95Used());
+
+    for (int i = 1; i <= 10; i++) {
+      sampler.add(i * 10, 100);
+    }
+    assertEquals(10, sampler.getCount());
+    assertEquals(55, sampler.getMeanUsed());
+    assertEquals(100, sampler.getMeanCapacity());
+    assertEquals(100, sampler.getP95Used());
+    assertEquals(0.5, sampler.getPercentileShare(0.5), 1e-9);
+
+    // The oldest samples are evicted
+    for (int i = 0; i < 5; i++) {
+      sampler.add(0, 100);
+    }
+    assertEquals(10, sampler.getCount());
+    assertEquals((60 + 70 + 80 + 90 + 100) / 10, sampler.getMeanUsed());
+    assertEquals(0.0, sampler.getPercentileShare(0.5), 1e-9);
+
+    // The moving average follows the last samples
+    assertTrue(sampler.getEwmaUsed() < 5);
+    sampler.add(100, 100);
+    assertTrue(sampler.getEwmaUsed() >= 50);
+  }
+
+  @Test
+  public void testMatchesFullRecomputation() {
+    UsageSampler sampler = new UsageSampler(100, 0.2);
+    long[] window = new long[100];
+    Random random = new Random(7);
+    for (int i = 0; i < 1000; i++) {
+      long used = random.nextInt(1001);
+      sampler.add(used, 1000);
+      window[i % 100] = used;
+
+      int count = Math.min(i + 1, 100);
+      long[] samples = Arrays.copyOf(window, count);
+      long sum = 0;
+      for (long sample : samples) {
+        sum += sample;
+      }
+      assertEquals(sum / count, sampler.getMeanUsed());
+
+      Arrays.sort(samples);
+      long p95 = samples[(int) Math.ceil(0.95 * count) - 1];
+      // 1% of the capacity
+      assertEquals(p95, sampler.getP95Used(), 10);
+    }
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.submarine.commons.cluster.meta;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the write and read throughput of the cluster meta snapshot.
+ *
+ * Not run by the test suite, run it with:
+ * <pre>
+ * java -cp ... org.apache.submarine.commons.cluster.meta.ClusterMetaCodecBenchmark [entries...]
+ * </pre>
+ */
+public class ClusterMetaCodecBenchmark {
+  private static final int WARMUP_ROUNDS = 5;
+  private static final int ROUNDS = 10;
+
+  public static void main(String[] args) throws Exception {
+    int[] sizes = args.length > 0
+        ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray()
+        : new int[]{10000, 100000};
+    ClusterMetaCodec codec = new ClusterMetaCodec(ClusterMetaCodecTest.SERIALIZER);
+
+    for (int entries : sizes) {
+      ClusterMeta clusterMeta = ClusterMetaCodecTest.randomClusterMeta(new Random(entries), entries);
+      byte[] snapshot = null;
+      long writeNanos = 0;
+      long readNanos = 0;
+      for (int round = 0; round < WARMUP_ROUNDS + ROUNDS; round++) {
+        long start = System.nanoTime();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        codec.write(clusterMeta, out);
+        snapshot = out.toByteArray();
+        long written = System.nanoTime();
+        codec.read(new ByteArrayInputStream(snapshot));
+        long read = System.nanoTime();
+        if (round >= WARMUP_ROUNDS) {
+          writeNanos += written - start;
+          readNanos += read - written;
+        }
+      }
+      System.out.printf(
+          "%d entries, %d bytes: write %.1f ms (%.0f entries/s), read %.1f ms (%.0f entries/s)%n",
+          entries, snapshot.length,
+          millis(writeNanos / ROUNDS), entries / seconds(writeNanos / ROUNDS),
+          millis(readNanos / ROUNDS), entries / seconds(readNanos / ROUNDS));
+    }
+  }
+
+  private static double millis(long nanos) {
+    return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+  }
+
+  private static double seconds(long nanos) {
+    return nanos / (double) TimeUnit.SECONDS.toNanos(1);
+  }
+}
@@ -0,0 +1,194 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.submarine.commons.cluster.meta;
+
+import io.atomix.utils.serializer.Namespace;
+import io.atomix.utils.serializer.Serializer;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Random;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ClusterMetaCodecTest {
+  static final Serializer SERIALIZER = Serializer.using(Namespace.builder()
+      .register(HashMap.class)
+      .register(LocalDateTime.class)
+      .build());
+
+  private final ClusterMetaCodec codec = new ClusterMetaCodec(SERIALIZER);
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    Random random = new Random(20201018L);
+    for (int round = 0; round < 50; round++) {
+      ClusterMeta clusterMeta = randomClusterMeta(random, random.nextInt(200));
+      ClusterMeta restored = codec.read(new ByteArrayInputStream(write(clusterMeta)));
+      assertMetaEquals(clusterMeta, restored);
+    }
+  }
+
+  @Test
+  public void testEmpty() throws IOException {
+    ClusterMeta restored = codec.read(new ByteArrayInputStream(write(new ClusterMeta())));
+    assertMetaEquals(new ClusterMeta(), restored);
+  }
+
+  @Test
+  public void testCorruptedSnapshot() throws IOException {
+    byte[] bytes = write(randomClusterMeta(new Random(1), 100));
+    Random random = new Random(2);
+    for (int round = 0; round < 50; round++) {
+      byte[] corrupted = Arrays.copyOf(bytes, bytes.length);
+      int position = 8 + random.nextInt(corrupted.length - 8);
+      corrupted[position] ^= 1 << random.nextInt(8);
+      try {
+        codec.read(new ByteArrayInputStream(corrupted));
+        fail("Corruption at " + position + " not detected");
+      } catch (IOException | RuntimeException e) {
+        // Expected, a flipped bit in the values may also fail the decoding
+      }
+    }
+  }
+
+  @Test
+  public void testTruncatedSnapshot() throws IOException {
+    byte[] bytes = write(randomClusterMeta(new Random(3), 100));
+    try {
+      codec.read(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 1)));
+      fail("Truncation not detected");
+    } catch (IOException e) {
+      // Expected
+    }
+  }
+
+  @Test
+  public void testReadVersion1() throws IOException {
+    HashMap<String, Object> values = new HashMap<>();
+    values.put(ClusterMeta.CPU_USED, 10L);
+
+    // The format before the versions of the keys were written
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    CheckedOutputStream checked = new CheckedOutputStream(bytes, new CRC32());
+    DataOutputStream data = new DataOutputStream(checked);
+    data.writeInt(ClusterMetaCodec.MAGIC);
+    data.writeInt(1);
+    data.writeByte(1);
+    writeString(data, ClusterMetaType.SERVER_META.name());
+    data.writeInt(1);
+    writeString(data, "server1");
+    byte[] encoded = SERIALIZER.encode(values);
+    data.writeInt(encoded.length);
+    data.write(encoded);
+    data.writeByte(0);
+    data.flush();
+    new DataOutputStream(bytes).writeLong(checked.getChecksum().getValue());
+
+    ClusterMeta restored = codec.read(new ByteArrayInputStream(bytes.toByteArray()));
+    assertEquals(values, restored.get(ClusterMetaType.SERVER_META, "server1").get("server1"));
+    assertEquals(ClusterMetaCodec.LEGACY_VERSION,
+        restored.getVersion(ClusterMetaType.SERVER_META, "server1"));
+  }
+
+  @Test
+  public void testNotSnapshot() {
+    try {
+      codec.read(new ByteArrayInputStream(new byte[]{0, 0, 0, 1}));
+      fail("Missing magic not detected");
+    } catch (IOException e) {
+      assertTrue(e.getMessage().contains("magic"));
+    }
+  }
+
+  private static void writeString(DataOutputStream data, String value) throws IOException {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    data.writeInt(bytes.length);
+    data.write(bytes);
+  }
+
+  private byte[] write(ClusterMeta clusterMeta) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    codec.write(clusterMeta, out);
+    return out.toByteArray();
+  }
+
+  static void assertMetaEquals(ClusterMeta expected, ClusterMeta actual) {
+    for (ClusterMetaType type : ClusterMetaType.values()) {
+      assertEquals(expected.get(type, ""), actual.get(type, ""));
+      for (String key : expected.get(type, "").keySet()) {
+        assertEquals(expected.getVersion(type, key), actual.getVersion(type, key));
+      }
+    }
+  }
+
+  /**
+   * Cluster metadata with random keys and values of the types put by the cluster monitor
+   */
+  static ClusterMeta randomClusterMeta(Random random, int entries) {
+    ClusterMeta clusterMeta = new ClusterMeta();
+    for (int i = 0; i < entries; i++) {
+      ClusterMetaType type = ClusterMetaType.values()[random.nextInt(ClusterMetaType.values().length)];
+      HashMap<String, Object> values = new HashMap<>();
+      int nValues = random.nextInt(8);
+      for (int j = 0; j < nValues; j++) {
+        values.put(randomString(random), randomValue(random));
+      }
+      clusterMeta.put(type, randomString(random) + i, values, 1 + random.nextInt(1000000));
+    }
+    return clusterMeta;
+  }
+
+  private static Object randomValue(Random random) {
+    switch (random.nextInt(5)) {
+      case 0:
+        return random.nextLong();
+      case 1:
+        return random.nextInt();
+      case 2:
+        return random.nextBoolean();
+      case 3:
+        return LocalDateTime.of(2000 + random.nextInt(100), 1 + random.nextInt(12),
+            1 + random.nextInt(28), random.nextInt(24), random.nextInt(60));
+      default:
+        return randomString(random);
+    }
+  }
+
+  private static String randomString(Random random) {
+    StringBuilder builder = new StringBuilder();
+    int length = random.nextInt(16);
+    for (int i = 0; i < length; i++) {
+      // Include non-ASCII characters
+      builder.append((char) (random.nextBoolean() ? 'a' + random.nextInt(26) : 0x4e00 + random.nextInt(100)));
+    }
+    return builder.toString();
+  }
+}
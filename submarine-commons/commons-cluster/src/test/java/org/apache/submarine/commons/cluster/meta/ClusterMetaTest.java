@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.submarine.commons.cluster.meta;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.apache.submarine.commons.cluster.meta.ClusterMetaType.INTP_PROCESS_META;
+import static org.apache.submarine.commons.cluster.meta.ClusterMetaType.SERVER_META;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ClusterMetaTest {
+
+  @Test
+  public void testPutMergesAndVersions() {
+    ClusterMeta clusterMeta = new ClusterMeta();
+    long version1 = clusterMeta.put(SERVER_META, "server1",
+        values(ClusterMeta.STATUS, ClusterMeta.ONLINE_STATUS), 1);
+    long version2 = clusterMeta.put(SERVER_META, "server1", values(ClusterMeta.CPU_USED, 10L), 2);
+    assertEquals(1, version1);
+    assertEquals(2, version2);
+    assertEquals(version2, clusterMeta.getVersion(SERVER_META, "server1"));
+
+    Map<String, Object> meta = clusterMeta.get(SERVER_META, "server1").get("server1");
+    assertEquals(ClusterMeta.ONLINE_STATUS, meta.get(ClusterMeta.STATUS));
+    assertEquals(10L, meta.get(ClusterMeta.CPU_USED));
+
+    // The reads are copies
+    meta.put(ClusterMeta.CPU_USED, 20L);
+    assertEquals(10L, clusterMeta.get(SERVER_META, "").get("server1").get(ClusterMeta.CPU_USED));
+    assertEquals(version2, clusterMeta.getVersion(SERVER_META, "server1"));
+
+    assertEquals(ClusterMeta.ONLINE_STATUS,
+        clusterMeta.remove(SERVER_META, "server1").get(ClusterMeta.STATUS));
+    assertEquals(0, clusterMeta.getVersion(SERVER_META, "server1"));
+    assertNull(clusterMeta.get(SERVER_META, "server1").get("server1"));
+    assertNull(clusterMeta.remove(SERVER_META, "server1"));
+  }
+
+  @Test
+  public void testCompareAndSet() {
+    ClusterMeta clusterMeta = new ClusterMeta();
+    assertTrue(clusterMeta.compareAndSet(SERVER_META, "server1", 0, values(ClusterMeta.CPU_USED, 1L), 1));
+    assertFalse(clusterMeta.compareAndSet(SERVER_META, "server1", 0, values(ClusterMeta.CPU_USED, 2L), 2));
+
+    long version = clusterMeta.getVersion(SERVER_META, "server1");
+    assertEquals(1, version);
+    assertTrue(clusterMeta.compareAndSet(SERVER_META, "server1", version,
+        values(ClusterMeta.CPU_USED, 3L), 3));
+    assertFalse(clusterMeta.compareAndSet(SERVER_META, "server1", version,
+        values(ClusterMeta.CPU_USED, 4L), 4));
+    assertEquals(3L, clusterMeta.get(SERVER_META, "server1").get("server1").get(ClusterMeta.CPU_USED));
+    assertEquals(3, clusterMeta.getVersion(SERVER_META, "server1"));
+
+    // A key removed and put again gets a new version
+    long removedVersion = clusterMeta.getVersion(SERVER_META, "server1");
+    assertTrue(clusterMeta.compareAndSet(SERVER_META, "server1", removedVersion, null, 5));
+    clusterMeta.put(SERVER_META, "server1", values(ClusterMeta.CPU_USED, 5L), 6);
+    assertFalse(clusterMeta.compareAndSet(SERVER_META, "server1", removedVersion, null, 7));
+
+    Map<String, ClusterMeta.VersionedMeta> versioned = clusterMeta.getVersioned(SERVER_META, "server1");
+    assertEquals(6, versioned.get("server1").getVersion());
+    assertEquals(5L, versioned.get("server1").getValues().get(ClusterMeta.CPU_USED));
+  }
+
+  @Test
+  public void testFind() {
+    ClusterMeta clusterMeta = new ClusterMeta();
+    long index = 0;
+    for (int i = 0; i < 10; i++) {
+      clusterMeta.put(SERVER_META, "server" + i,
+          values(ClusterMeta.STATUS, ClusterMeta.ONLINE_STATUS), ++index);
+      for (int j = 0; j < 3; j++) {
+        HashMap<String, Object> intp = values(ClusterMeta.NODE_NAME, "server" + i);
+        intp.put(ClusterMeta.INTP_PROCESS_NAME, j == 0 ? "python" : "spark");
+        clusterMeta.put(INTP_PROCESS_META, "intp" + i + "_" + j, intp, ++index);
+      }
+    }
+    clusterMeta.put(SERVER_META, "server3", values(ClusterMeta.STATUS, ClusterMeta.OFFLINE_STATUS), ++index);
+    clusterMeta.remove(SERVER_META, "server4");
+
+    assertEquals(8, clusterMeta.find(SERVER_META, ClusterMeta.STATUS, ClusterMeta.ONLINE_STATUS).size());
+    assertEquals(1, clusterMeta.find(SERVER_META, ClusterMeta.STATUS, ClusterMeta.OFFLINE_STATUS).size());
+    assertEquals(3, clusterMeta.find(INTP_PROCESS_META, ClusterMeta.NODE_NAME, "server1").size());
+    assertEquals(10, clusterMeta.find(INTP_PROCESS_META, ClusterMeta.INTP_PROCESS_NAME, "python").size());
+    assertEquals(0, clusterMeta.find(INTP_PROCESS_META, ClusterMeta.NODE_NAME, "unknown").size());
+    // Not indexed, scanned
+    clusterMeta.put(SERVER_META, "server5", values(ClusterMeta.CPU_USED, 50L), ++index);
+    assertEquals(1, clusterMeta.find(SERVER_META, ClusterMeta.CPU_USED, 50L).size());
+  }
+
+  @Test
+  public void testConcurrentUpdates() throws Exception {
+    ClusterMeta clusterMeta = new ClusterMeta();
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int t = 0; t < 8; t++) {
+      int seed = t;
+      futures.add(executor.submit(() -> {
+        Random random = new Random(seed);
+        for (int i = 0; i < 20000; i++) {
+          String key = "server" + random.nextInt(100);
+          String status = random.nextBoolean() ? ClusterMeta.ONLINE_STATUS : ClusterMeta.OFFLINE_STATUS;
+          if (random.nextInt(10) == 0) {
+            clusterMeta.remove(SERVER_META, key);
+          } else {
+            clusterMeta.put(SERVER_META, key, values(ClusterMeta.STATUS, status), i + 1);
+          }
+          clusterMeta.find(SERVER_META, ClusterMeta.STATUS, status);
+        }
+      }));
+    }
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    executor.shutdown();
+
+    // The indexes agree with the metadata
+    Map<String, Map<String, Object>> all = clusterMeta.get(SERVER_META, "");
+    Map<String, Map<String, Object>> online
+        = clusterMeta.find(SERVER_META, ClusterMeta.STATUS, ClusterMeta.ONLINE_STATUS);
+    Map<String, Map<String, Object>> offline
+        = clusterMeta.find(SERVER_META, ClusterMeta.STATUS, ClusterMeta.OFFLINE_STATUS);
+    assertEquals(all.size(), online.size() + offline.size());
+    for (Map.Entry<String, Map<String, Object>> entry : all.entrySet()) {
+      Map<String, Map<String, Object>> expected
+          = ClusterMeta.ONLINE_STATUS.equals(entry.getValue().get(ClusterMeta.STATUS)) ? online : offline;
+      assertTrue(expected.containsKey(entry.getKey()));
+    }
+  }
+
+  private static HashMap<String, Object> values(String key, Object value) {
+    HashMap<String, Object> values = new HashMap<>();
+    values.put(key, value);
+    return values;
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.submarine.commons.cluster.placement;
+
+import org.apache.submarine.commons.cluster.meta.ClusterMeta;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class NodePlacerTest {
+  private static final long GB = 1024L * 1024 * 1024;
+  private static final PlacementRequest REQUEST = new PlacementRequest(100, GB);
+
+  // cpu-bound: idle memory, busy cpu; memory-bound: the other way round
+  private final NodeResources cpuBound = new NodeResources("cpu-bound", 800, 700, 64 * GB, 4 * GB, 0);
+  private final NodeResources memoryBound = new NodeResources("memory-bound", 800, 100, 64 * GB, 56 * GB, 0);
+  private final NodeResources balanced = new NodeResources("balanced", 800, 300, 64 * GB, 24 * GB, 0);
+
+  @Test
+  public void testStrategies() {
+    List<NodeResources> nodes = Arrays.asList(cpuBound, memoryBound, balanced);
+    // The most free memory was cpu-bound, whose CPU is almost full
+    assertEquals("balanced", new DominantResourceStrategy().select(nodes, REQUEST).getName());
+    assertEquals("balanced", new LeastLoadedStrategy().select(nodes, REQUEST).getName());
+    // Only memory counts
+    assertEquals("cpu-bound", new LeastLoadedStrategy(0, 1, 0).select(nodes, REQUEST).getName());
+
+    // A node where the request does not fit is avoided
+    NodeResources full = new NodeResources("full", 800, 0, 64 * GB, 64 * GB, 0);
+    NodeResources busy = new NodeResources("busy", 800, 600, 64 * GB, 40 * GB, 10);
+    assertEquals("busy", new DominantResourceStrategy().select(Arrays.asList(full, busy), REQUEST).getName());
+    assertEquals("busy", new LeastLoadedStrategy().select(Arrays.asList(full, busy), REQUEST).getName());
+  }
+
+  @Test
+  public void testPowerOfTwoChoices() {
+    List<NodeResources> nodes = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      nodes.add(new NodeResources("node" + i, 800, 80 * i, 64 * GB, 6 * GB * i, 0));
+    }
+    PowerOfTwoChoicesStrategy strategy =
+        new PowerOfTwoChoicesStrategy(new LeastLoadedStrategy(), new Random(1));
+    Set<String> selected = new HashSet<>();
+    for (int i = 0; i < 100; i++) {
+      selected.add(strategy.select(nodes, REQUEST).getName());
+    }
+    // Spread over the nodes, but never the most loaded one
+    assertTrue(selected.size() > 3);
+    assertTrue(!selected.contains("node9"));
+  }
+
+  @Test
+  public void testReservations() {
+    AtomicLong clock = new AtomicLong();
+    NodePlacer placer = new NodePlacer(new LeastLoadedStrategy(), 1000, clock::get);
+    List<NodeResources> nodes = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      nodes.add(new NodeResources("node" + i, 800, 0, 8 * GB, 0, 0));
+    }
+
+    // A burst between two usage reports is spread over the nodes
+    Map<String, Integer> placements = new HashMap<>();
+    for (int i = 0; i < 8; i++) {
+      placements.merge(placer.place(nodes, REQUEST).getName(), 1, Integer::sum);
+    }
+    assertEquals(4, placements.size());
+    for (int count : placements.values()) {
+      assertEquals(2, count);
+    }
+    assertEquals(8, placer.getReservationCount());
+
+    clock.set(1000);
+    assertEquals(0, placer.getReservationCount());
+
+    // Without reservations the burst goes to a single node
+    NodePlacer unreserved = new NodePlacer(new LeastLoadedStrategy(), 0, clock::get);
+    Set<String> selected = new HashSet<>();
+    for (int i = 0; i < 8; i++) {
+      selected.add(unreserved.place(nodes, REQUEST).getName());
+    }
+    assertEquals(1, selected.size());
+    assertNull(unreserved.place(new ArrayList<>(), REQUEST));
+  }
+
+  @Test
+  public void testFromMeta() {
+    Map<String, Object> meta = new HashMap<>();
+    meta.put(ClusterMeta.CPU_CAPACITY, 800L);
+    meta.put(ClusterMeta.CPU_USED, 100L);
+    meta.put(ClusterMeta.MEMORY_CAPACITY, 8 * GB);
+    assertNull(NodeResources.fromMeta("node", meta, 0));
+
+    meta.put(ClusterMeta.MEMORY_USED, GB);
+    NodeResources node = NodeResources.fromMeta("node", meta, 3);
+    assertEquals(0.125, node.getCpuShare(), 1e-9);
+    assertEquals(0.125, node.getMemoryShare(), 1e-9);
+    assertEquals(3, node.getInterpreterCount());
+
+    assertTrue(PlacementStrategy.create("DRF") instanceof DominantResourceStrategy);
+    assertTrue(PlacementStrategy.create(LeastLoadedStrategy.class.getName()) instanceof LeastLoadedStrategy);
+  }
+}
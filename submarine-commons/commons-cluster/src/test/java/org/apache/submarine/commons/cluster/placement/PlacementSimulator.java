@@ -0,0 +1,194 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.submarine.commons.cluster.placement;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * Replays a synthetic trace of nodes and interpreter starts with each placement strategy,
+ * with and without reservations, and reports the balance of the nodes and the latency of
+ * the placements.
+ *
+ * The nodes have different capacities and report their usage every heartbeat. The
+ * interpreters arrive in bursts, on several servers that place them independently, and
+ * use a random share of the requested resources until they stop.
+ *
+ * Not run by the test suite, run it with:
+ * <pre>
+ * java -cp ... org.apache.submarine.commons.cluster.placement.PlacementSimulator
+ *     [nodes] [interpreters] [servers]
+ * </pre>
+ */
+public class PlacementSimulator {
+  private static final long GB = 1024L * 1024 * 1024;
+  private static final long HEARTBEAT_MILLIS = 3000;
+  private static final PlacementRequest REQUEST = new PlacementRequest(100, 2 * GB);
+
+  public static void main(String[] args) {
+    int nodes = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+    int interpreters = args.length > 1 ? Integer.parseInt(args[1]) : 5000;
+    int servers = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+
+    System.out.printf("%d nodes, %d interpreters, %d servers%n", nodes, interpreters, servers);
+    System.out.printf("%-14s %-8s %10s %10s %12s %12s %10s %10s%n", "strategy", "reserve",
+        "mem stddev", "max mem", "overcommits", "max intps", "p50 us", "p99 us");
+    for (String strategy : Arrays.asList("drf", "least_loaded", "power_of_two")) {
+      for (long reservationMillis : new long[]{0, 2 * HEARTBEAT_MILLIS}) {
+        Result result = new PlacementSimulator(nodes, servers, strategy, reservationMillis)
+            .run(interpreters);
+        System.out.printf("%-14s %-8s %10.3f %10.3f %12d %12d %10.1f %10.1f%n", strategy,
+            reservationMillis > 0 ? "yes" : "no", result.memoryShareStddev, result.maxMemoryShare,
+            result.overcommits, result.maxInterpreters, result.p50Micros, result.p99Micros);
+      }
+    }
+  }
+
+  private final Random random = new Random(42);
+  private final SimulatedNode[] nodes;
+  private final NodePlacer[] placers;
+  private long now = 0;
+
+  PlacementSimulator(int nodeCount, int servers, String strategy, long reservationMillis) {
+    nodes = new SimulatedNode[nodeCount];
+    for (int i = 0; i < nodeCount; i++) {
+      // 8 to 64 cores, 32 to 256 GB
+      int size = 1 << random.nextInt(4);
+      nodes[i] = new SimulatedNode("node" + i, 800L * size, 32 * GB * size);
+    }
+    placers = new NodePlacer[servers];
+    for (int i = 0; i < servers; i++) {
+      placers[i] = new NodePlacer(PlacementStrategy.create(strategy), reservationMillis, () -> now);
+    }
+  }
+
+  Result run(int interpreters) {
+    PriorityQueue<long[]> stops = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+    long nextReport = 0;
+    List<Double> stddevs = new ArrayList<>();
+    long[] latencies = new long[interpreters];
+    Result result = new Result();
+
+    for (int i = 0; i < interpreters; i++) {
+      // Bursts of up to 50 starts within a few milliseconds, every second on average
+      now += random.nextInt(20) == 0 ? random.nextInt(20000) : random.nextInt(5);
+
+      while (!stops.isEmpty() && stops.peek()[0] <= now) {
+        long[] stop = stops.poll();
+        nodes[(int) stop[1]].stop(stop[2], stop[3]);
+      }
+      while (nextReport <= now) {
+        List<NodeResources> reported = new ArrayList<>();
+        for (SimulatedNode node : nodes) {
+          node.report();
+          double share = (double) node.memoryUsed / node.memoryCapacity;
+          result.maxMemoryShare = Math.max(result.maxMemoryShare, share);
+          reported.add(node.reported);
+        }
+        stddevs.add(stddev(reported));
+        nextReport += HEARTBEAT_MILLIS;
+      }
+
+      List<NodeResources> reported = new ArrayList<>();
+      for (SimulatedNode node : nodes) {
+        reported.add(node.reported);
+      }
+      NodePlacer placer = placers[random.nextInt(placers.length)];
+      long start = System.nanoTime();
+      NodeResources placed = placer.place(reported, REQUEST);
+      latencies[i] = System.nanoTime() - start;
+
+      int index = Integer.parseInt(placed.getName().substring("node".length()));
+      long cpu = (long) (REQUEST.getCpu() * (0.5 + random.nextDouble()));
+      long memory = (long) (REQUEST.getMemory() * (0.5 + random.nextDouble()));
+      if (nodes[index].start(cpu, memory)) {
+        result.overcommits++;
+      }
+      result.maxInterpreters = Math.max(result.maxInterpreters, nodes[index].interpreters);
+      // Run for 1 to 10 minutes
+      stops.add(new long[]{now + 60000 + random.nextInt(540000), index, cpu, memory});
+    }
+
+    Arrays.sort(latencies);
+    result.p50Micros = latencies[interpreters / 2] / 1000.0;
+    result.p99Micros = latencies[interpreters * 99 / 100] / 1000.0;
+    result.memoryShareStddev = stddevs.stream().mapToDouble(Double::doubleValue).average().orElse(0);
+    return result;
+  }
+
+  private static double stddev(List<NodeResources> nodes) {
+    double sum = 0;
+    double squares = 0;
+    for (NodeResources node : nodes) {
+      sum += node.getMemoryShare();
+      squares += node.getMemoryShare() * node.getMemoryShare();
+    }
+    double mean = sum / nodes.size();
+    return Math.sqrt(Math.max(0, squares / nodes.size() - mean * mean));
+  }
+
+  private static class SimulatedNode {
+    private final String name;
+    private final long cpuCapacity;
+    private final long memoryCapacity;
+    private long cpuUsed = 0;
+    private long memoryUsed = 0;
+    private int interpreters = 0;
+    private NodeResources reported;
+
+    SimulatedNode(String name, long cpuCapacity, long memoryCapacity) {
+      this.name = name;
+      this.cpuCapacity = cpuCapacity;
+      this.memoryCapacity = memoryCapacity;
+      report();
+    }
+
+    /**
+     * @return whether the node is overcommitted
+     */
+    boolean start(long cpu, long memory) {
+      cpuUsed += cpu;
+      memoryUsed += memory;
+      interpreters++;
+      return cpuUsed > cpuCapacity || memoryUsed > memoryCapacity;
+    }
+
+    void stop(long cpu, long memory) {
+      cpuUsed -= cpu;
+      memoryUsed -= memory;
+      interpreters--;
+    }
+
+    void report() {
+      reported = new NodeResources(name, cpuCapacity, cpuUsed, memoryCapacity, memoryUsed, interpreters);
+    }
+  }
+
+  static class Result {
+    private double memoryShareStddev;
+    private double maxMemoryShare;
+    private int overcommits;
+    private int maxInterpreters;
+    private double p50Micros;
+    private double p99Micros;
+  }
+}
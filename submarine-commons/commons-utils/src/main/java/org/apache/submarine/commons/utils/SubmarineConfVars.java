@@ -35,6 +35,7 @@ public class SubmarineConfVars {
     SUBMARINE_SERVER_JETTY_THREAD_POOL_MIN("submarine.server.jetty.thread.pool.min", 8),
     SUBMARINE_SERVER_JETTY_THREAD_POOL_TIMEOUT("submarine.server.jetty.thread.pool.timeout", 30),
     SUBMARINE_SERVER_JETTY_REQUEST_HEADER_SIZE("submarine.server.jetty.request.header.size", 8192),
+    SUBMARINE_SERVER_REST_GZIP_ENABLED("submarine.server.rest.gzip.enabled", true),
     SUBMARINE_SERVER_SSL_CLIENT_AUTH("submarine.server.ssl.client.auth", false),
     SUBMARINE_SERVER_SSL_KEYSTORE_PATH("submarine.server.ssl.keystore.path", "keystore"),
     SUBMARINE_SERVER_SSL_KEYSTORE_TYPE("submarine.server.ssl.keystore.type", "JKS"),
@@ -50,6 +51,43 @@ public class SubmarineConfVars {
         "submarine.server.rpc.port", 8980),
     CLUSTER_HEARTBEAT_INTERVAL("cluster.heartbeat.interval", 3000),
     CLUSTER_HEARTBEAT_TIMEOUT("cluster.heartbeat.timeout", 9000),
+    // the server usage is reported when its share of the capacity changed by more than this
+    CLUSTER_USAGE_CHANGE_THRESHOLD("cluster.usage.change.threshold", 0.05f),
+    // a server or interpreter whose heartbeat is late with a phi above this is set offline
+    CLUSTER_FAILURE_PHI_THRESHOLD("cluster.failure.phi.threshold", 8.0f),
+    // memory, mapped or disk, the log of the memory level is lost when the server restarts
+    CLUSTER_RAFT_STORAGE_LEVEL("cluster.raft.storage.level", "memory"),
+    // empty to use a temporary directory
+    CLUSTER_RAFT_STORAGE_DIR("cluster.raft.storage.dir", ""),
+    CLUSTER_RAFT_SEGMENT_SIZE("cluster.raft.segment.size", 1024 * 1024),
+    CLUSTER_RAFT_SEGMENT_MAX_ENTRIES("cluster.raft.segment.max.entries", 1024 * 1024),
+    CLUSTER_RAFT_FLUSH_ON_COMMIT("cluster.raft.flush.on.commit", true),
+    // snapshot and compact the log when it grew by this many bytes, 0 to disable
+    CLUSTER_RAFT_COMPACT_THRESHOLD_BYTES("cluster.raft.compact.threshold.bytes", 64L * 1024 * 1024),
+    CLUSTER_RAFT_COMPACT_CHECK_INTERVAL_MS("cluster.raft.compact.check.interval.ms", 60000L),
+    // cluster metadata writes are committed to raft in batches of at most this size
+    CLUSTER_META_BATCH_MAX_SIZE("cluster.meta.batch.max.size", 256),
+    // how long a batch waits for more writes before it is committed
+    CLUSTER_META_BATCH_LINGER_MS("cluster.meta.batch.linger.ms", 5L),
+    CLUSTER_META_COMMIT_TIMEOUT_MS("cluster.meta.commit.timeout.ms", 10000L),
+    // whether putClusterMeta and deleteClusterMeta wait for the commit
+    CLUSTER_META_SYNC_PUT("cluster.meta.sync.put", false),
+    // linearizable, linearizable_lease, sequential or local
+    CLUSTER_META_READ_CONSISTENCY("cluster.meta.read.consistency", "local"),
+    // how long the local view is read while the raft session is disconnected
+    CLUSTER_META_LOCAL_MAX_STALENESS_MS("cluster.meta.local.max.staleness.ms", 5000L),
+    // timeout of each attempt to send a cluster event to a peer
+    CLUSTER_EVENT_TIMEOUT_MS("cluster.event.timeout.ms", 2000L),
+    CLUSTER_EVENT_MAX_ATTEMPTS("cluster.event.max.attempts", 3),
+    // delay before the first retry of a cluster event, doubled for each retry
+    CLUSTER_EVENT_RETRY_DELAY_MS("cluster.event.retry.delay.ms", 100L),
+    // drf, least_loaded, power_of_two or the class name of a PlacementStrategy
+    CLUSTER_PLACEMENT_STRATEGY("cluster.placement.strategy", "least_loaded"),
+    // resources reserved for an interpreter, the cpu in percents of a core
+    CLUSTER_PLACEMENT_INTERPRETER_CPU("cluster.placement.interpreter.cpu", 100L),
+    CLUSTER_PLACEMENT_INTERPRETER_MEMORY("cluster.placement.interpreter.memory", 1024L * 1024 * 1024),
+    // how long a placement is reserved, until the usage of the interpreter is reported
+    CLUSTER_PLACEMENT_RESERVATION_MS("cluster.placement.reservation.ms", 6000L),
 
     JDBC_DRIVERCLASSNAME("jdbc.driverClassName", "com.mysql.jdbc.Driver"),
     JDBC_URL("jdbc.url", "jdbc:mysql://127.0.0.1:3306/submarine" +
@@ -62,13 +100,36 @@ public class SubmarineConfVars {
         "failOverReadOnly=false&zeroDateTimeBehavior=convertToNull&useSSL=false"),
     METASTORE_JDBC_USERNAME("metastore.jdbc.username", "metastore"),
     METASTORE_JDBC_PASSWORD("metastore.jdbc.password", "password"),
+    JDBC_POOL_TYPE("jdbc.pool.type", "hikari"),
+    JDBC_POOL_MAX_SIZE("jdbc.pool.max.size", 20),
+    JDBC_POOL_MIN_IDLE("jdbc.pool.min.idle", 5),
+    JDBC_POOL_CONNECTION_TIMEOUT_MS("jdbc.pool.connection.timeout.ms", 30000L),
+    JDBC_POOL_VALIDATION_TIMEOUT_MS("jdbc.pool.validation.timeout.ms", 5000L),
+    JDBC_POOL_LEAK_DETECTION_THRESHOLD_MS("jdbc.pool.leak.detection.threshold.ms", 60000L),
+    JDBC_POOL_PREP_STMT_CACHE_SIZE("jdbc.pool.prep.stmt.cache.size", 250),
+
+    METRIC_INGESTION_QUEUE_CAPACITY("metric.ingestion.queue.capacity", 100000),
+    METRIC_INGESTION_BATCH_SIZE("metric.ingestion.batch.size", 500),
+    METRIC_INGESTION_LINGER_MS("metric.ingestion.linger.ms", 200L),
 
     WORKBENCH_WEBSOCKET_MAX_TEXT_MESSAGE_SIZE(
         "workbench.websocket.max.text.message.size", "1024000"),
     WORKBENCH_WEB_WAR("workbench.web.war", "submarine-workbench/workbench-web/dist"),
+    WORKBENCH_DICT_CACHE_EXPIRE_MS("workbench.dict.cache.expire.ms", 60000L),
+    WORKBENCH_DEPT_CACHE_EXPIRE_MS("workbench.dept.cache.expire.ms", 60000L),
     SUBMARINE_RUNTIME_CLASS("submarine.runtime.class",
         "org.apache.submarine.server.submitter.yarn.YarnRuntimeFactory"),
     SUBMARINE_SUBMITTER("submarine.submitter", "k8s"),
+    SUBMARINE_K8S_INFORMER_ENABLED("submarine.k8s.informer.enabled", true),
+    SUBMARINE_K8S_INFORMER_RESYNC_PERIOD_MS("submarine.k8s.informer.resync.period.ms", 0L),
+    SUBMARINE_K8S_CALL_THREADS("submarine.k8s.call.threads", 16),
+    SUBMARINE_K8S_CALL_TIMEOUT_MS("submarine.k8s.call.timeout.ms", 30000L),
+    SUBMARINE_K8S_SLOW_OPERATION_MS("submarine.k8s.slow.operation.ms", 1000L),
+    SUBMARINE_EXPERIMENT_SPEC_CACHE_SIZE("submarine.experiment.spec.cache.size", 10000),
+    SUBMARINE_ENVIRONMENT_CACHE_SIZE("submarine.environment.cache.size", 1000),
+    SUBMARINE_ENVIRONMENT_CACHE_EXPIRE_MS("submarine.environment.cache.expire.ms", 60000L),
+    SUBMARINE_EXPERIMENT_TEMPLATE_CACHE_SIZE("submarine.experiment.template.cache.size", 1000),
+    SUBMARINE_EXPERIMENT_TEMPLATE_CACHE_EXPIRE_MS("submarine.experiment.template.cache.expire.ms", 60000L),
     ENVIRONMENT_CONDA_MIN_VERSION("environment.conda.min.version", "4.0.1"),
     ENVIRONMENT_CONDA_MAX_VERSION("environment.conda.max.version", "4.10.10");
 
@@ -0,0 +1,45 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.submarine.server.api;
+
+import org.apache.submarine.server.api.experiment.Experiment;
+import org.apache.submarine.server.api.notebook.Notebook;
+
+/**
+ * Listener of the status changes of the experiments and notebooks observed by the submitter.
+ * The methods are called from the threads of the submitter and must not block.
+ */
+public interface StatusListener {
+  /**
+   * The status of an experiment resource changed
+   * @param namespace namespace of the resource
+   * @param experiment name, uid, status and times of the resource
+   * @param deleted whether the resource was deleted
+   */
+  void onExperimentStatus(String namespace, Experiment experiment, boolean deleted);
+
+  /**
+   * The status of a notebook resource changed
+   * @param namespace namespace of the resource
+   * @param notebook name, uid, status and reason of the resource
+   * @param deleted whether the resource was deleted
+   */
+  void onNotebookStatus(String namespace, Notebook notebook, boolean deleted);
+}
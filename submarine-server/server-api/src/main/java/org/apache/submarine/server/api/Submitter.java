@@ -23,6 +23,7 @@ import org.apache.submarine.commons.utils.SubmarineConfiguration;
 import org.apache.submarine.commons.utils.exception.SubmarineRuntimeException;
 import org.apache.submarine.server.api.experiment.Experiment;
 import org.apache.submarine.server.api.experiment.ExperimentLog;
+import org.apache.submarine.server.api.experiment.ExperimentLogOptions;
 import org.apache.submarine.server.api.experiment.TensorboardInfo;
 import org.apache.submarine.server.api.experiment.MlflowInfo;
 import org.apache.submarine.server.api.experiment.ServeRequest;
@@ -31,6 +32,7 @@ import org.apache.submarine.server.api.notebook.Notebook;
 import org.apache.submarine.server.api.spec.ExperimentSpec;
 import org.apache.submarine.server.api.spec.NotebookSpec;
 
+import java.io.InputStream;
 import java.util.List;
 
 /**
@@ -92,6 +94,17 @@ public interface Submitter {
    */
   ExperimentLog getExperimentLogName(ExperimentSpec spec, String id) throws SubmarineRuntimeException;
 
+  /**
+   * Open the log stream of a pod in the job, the log is not buffered, the caller
+   * must close the stream
+   * @param spec spec
+   * @param options the pod name, the range of the log and whether to follow it
+   * @return the log stream, starting at the offset of the options
+   * @throws SubmarineRuntimeException running error
+   */
+  InputStream getExperimentLogStream(ExperimentSpec spec, ExperimentLogOptions options)
+      throws SubmarineRuntimeException;
+
   /**
    * Create a notebook with spec
    * @param spec notebook spec
@@ -118,7 +131,7 @@ public interface Submitter {
 
   /**
    * List notebooks with userID
-   * @param id user ID
+   * @param id user ID, if null will list the notebooks of all users
    * @return object
    * @throws SubmarineRuntimeException running error
    */
@@ -156,4 +169,11 @@ public interface Submitter {
    * @throws SubmarineRuntimeException running error
    */
   MlflowInfo getMlflowInfo() throws SubmarineRuntimeException;
+
+  /**
+   * Add a listener of the status changes of the experiments and notebooks,
+   * a submitter which can not observe the changes never calls it
+   * @param listener status listener
+   */
+  void addStatusListener(StatusListener listener);
 }
@@ -69,4 +69,12 @@ public class ExperimentLog {
   public void clearPodLog() {
     logContent.clear();
   }
+
+  public List<String> getPodNames() {
+    List<String> podNames = new ArrayList<String>();
+    for (PodLog podlog : logContent) {
+      podNames.add(podlog.podName);
+    }
+    return podNames;
+  }
 }
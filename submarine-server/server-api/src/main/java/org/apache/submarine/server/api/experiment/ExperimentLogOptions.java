@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.submarine.server.api.experiment;
+
+/**
+ * Options to stream the log of a pod of an experiment
+ */
+public class ExperimentLogOptions {
+  private String podName;
+  private Integer tailLines;
+  private Integer sinceSeconds;
+  private boolean follow;
+  private long offset;
+  private Integer limitBytes;
+
+  public String getPodName() {
+    return podName;
+  }
+
+  public ExperimentLogOptions podName(String podName) {
+    this.podName = podName;
+    return this;
+  }
+
+  /**
+   * @return the number of lines from the end of the log to show, null to show all the lines
+   */
+  public Integer getTailLines() {
+    return tailLines;
+  }
+
+  public ExperimentLogOptions tailLines(Integer tailLines) {
+    this.tailLines = tailLines;
+    return this;
+  }
+
+  /**
+   * @return show the log of the last seconds only, null to show all the log
+   */
+  public Integer getSinceSeconds() {
+    return sinceSeconds;
+  }
+
+  public ExperimentLogOptions sinceSeconds(Integer sinceSeconds) {
+    this.sinceSeconds = sinceSeconds;
+    return this;
+  }
+
+  /**
+   * @return keep the stream open and follow the log until the pod terminates
+   */
+  public boolean isFollow() {
+    return follow;
+  }
+
+  public ExperimentLogOptions follow(boolean follow) {
+    this.follow = follow;
+    return this;
+  }
+
+  /**
+   * @return the number of bytes to skip, used to resume an interrupted stream
+   */
+  public long getOffset() {
+    return offset;
+  }
+
+  public ExperimentLogOptions offset(long offset) {
+    this.offset = offset;
+    return this;
+  }
+
+  /**
+   * @return the maximum number of bytes to read after the offset, null for no limit
+   */
+  public Integer getLimitBytes() {
+    return limitBytes;
+  }
+
+  public ExperimentLogOptions limitBytes(Integer limitBytes) {
+    this.limitBytes = limitBytes;
+    return this;
+  }
+}
@@ -19,9 +19,18 @@
 package org.apache.submarine.server;
 
 import org.apache.log4j.PropertyConfigurator;
+import org.apache.submarine.server.api.Submitter;
+import org.apache.submarine.server.rest.provider.JsonResponseWriter;
 import org.apache.submarine.server.rest.provider.YamlEntityProvider;
 import org.apache.submarine.server.rpc.SubmarineRpcServer;
+import org.apache.submarine.server.database.utils.MyBatisUtil;
+import org.apache.submarine.server.metrics.JvmMetrics;
+import org.apache.submarine.server.metrics.MetricsRegistry;
+import org.apache.submarine.server.metrics.MetricsServlet;
+import org.apache.submarine.server.metrics.RestMetricsFilter;
+import org.apache.submarine.server.workbench.database.service.MetricIngestionQueue;
 import org.apache.submarine.server.workbench.websocket.NotebookServer;
+import org.apache.submarine.server.workbench.websocket.StatusEventPublisher;
 import org.apache.submarine.commons.cluster.ClusterServer;
 import org.eclipse.jetty.http.HttpVersion;
 import org.eclipse.jetty.server.Handler;
@@ -38,7 +47,6 @@ import org.eclipse.jetty.servlet.ServletContextHandler;
 import org.eclipse.jetty.servlet.ServletHolder;
 import org.eclipse.jetty.util.ssl.SslContextFactory;
 import org.eclipse.jetty.util.thread.QueuedThreadPool;
-import org.eclipse.jetty.util.thread.ThreadPool;
 import org.eclipse.jetty.webapp.WebAppContext;
 import org.eclipse.jetty.websocket.servlet.WebSocketServlet;
 import org.glassfish.hk2.api.ServiceLocator;
@@ -131,6 +139,8 @@ public class SubmarineServer extends ResourceConfig {
              "org.apache.submarine.server.rest"
     );
     register(YamlEntityProvider.class);
+    register(JsonResponseWriter.class);
+    register(RestMetricsFilter.class);
   }
 
   private static void startServer() throws InterruptedException {
@@ -150,6 +160,8 @@ public class SubmarineServer extends ResourceConfig {
                   LOG.info("Shutting down Submarine Server ... ");
                   try {
                     jettyWebServer.stop();
+                    MetricIngestionQueue.shutdown();
+                    MyBatisUtil.close();
                     Thread.sleep(3000);
                   } catch (Exception e) {
                     LOG.error("Error while stopping servlet container", e);
@@ -197,6 +209,9 @@ public class SubmarineServer extends ResourceConfig {
     // you need to modify the `/workbench/*` here.
     webApp.addServlet(new ServletHolder(RefreshServlet.class), "/user/*");
     webApp.addServlet(new ServletHolder(RefreshServlet.class), "/workbench/*");
+    // Prometheus scrape endpoint
+    JvmMetrics.register(MetricsRegistry.getInstance());
+    webApp.addServlet(new ServletHolder(new MetricsServlet()), "/metrics");
 
     handlers.setHandlers(new Handler[] { webApp });
 
@@ -204,10 +219,11 @@ public class SubmarineServer extends ResourceConfig {
   }
 
   private static Server setupJettyServer(SubmarineConfiguration conf) {
-    ThreadPool threadPool =
+    QueuedThreadPool threadPool =
         new QueuedThreadPool(conf.getInt(SubmarineConfVars.ConfVars.SUBMARINE_SERVER_JETTY_THREAD_POOL_MAX),
             conf.getInt(SubmarineConfVars.ConfVars.SUBMARINE_SERVER_JETTY_THREAD_POOL_MIN),
             conf.getInt(SubmarineConfVars.ConfVars.SUBMARINE_SERVER_JETTY_THREAD_POOL_TIMEOUT));
+    registerThreadPoolMetrics(threadPool);
     final Server server = new Server(threadPool);
     ServerConnector connector;
 
@@ -248,15 +264,34 @@ public class SubmarineServer extends ResourceConfig {
     return server;
   }
 
+  private static void registerThreadPoolMetrics(QueuedThreadPool threadPool) {
+    MetricsRegistry registry = MetricsRegistry.getInstance();
+    registry.gauge("jetty_threads", "Threads of the Jetty thread pool",
+        threadPool::getThreads, "state", "all");
+    registry.gauge("jetty_threads", "Threads of the Jetty thread pool",
+        threadPool::getIdleThreads, "state", "idle");
+    registry.gauge("jetty_threads", "Threads of the Jetty thread pool",
+        threadPool::getBusyThreads, "state", "busy");
+    registry.gauge("jetty_threads_max", "Max threads of the Jetty thread pool", threadPool::getMaxThreads);
+    registry.gauge("jetty_queue_size", "Jobs waiting for a thread of the Jetty thread pool",
+        threadPool::getQueueSize);
+  }
+
   private static void setupNotebookServer(WebAppContext webapp,
       SubmarineConfiguration conf, ServiceLocator serviceLocator) {
     String maxTextMessageSize = conf.getWebsocketMaxTextMessageSize();
-    final ServletHolder servletHolder =
-        new ServletHolder(serviceLocator.getService(NotebookServer.class));
+    NotebookServer notebookServer = serviceLocator.getService(NotebookServer.class);
+    final ServletHolder servletHolder = new ServletHolder(notebookServer);
     servletHolder.setInitParameter("maxTextMessageSize", maxTextMessageSize);
 
     final ServletContextHandler context = new ServletContextHandler(ServletContextHandler.SESSIONS);
     webapp.addServlet(servletHolder, "/ws/*");
+
+    // Push the status changes of the experiments and notebooks to the subscribed connections
+    Submitter submitter = SubmitterManager.loadSubmitter();
+    if (submitter != null) {
+      submitter.addStatusListener(new StatusEventPublisher(notebookServer.getConnectionManager()));
+    }
   }
 
   private static void setupClusterServer() {
@@ -22,6 +22,7 @@ package org.apache.submarine.server;
 import org.apache.submarine.commons.utils.SubmarineConfVars;
 import org.apache.submarine.commons.utils.SubmarineConfiguration;
 import org.apache.submarine.server.api.Submitter;
+import org.apache.submarine.server.metrics.TimedProxy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -69,7 +70,8 @@ public class SubmitterManager {
       Class<?> clazz = Class.forName(clazzName, true, classLoader);
       Class<? extends Submitter> sClass = clazz.asSubclass(Submitter.class);
       Constructor<? extends Submitter> method = sClass.getDeclaredConstructor();
-      submitter = method.newInstance();
+      submitter = TimedProxy.wrap(Submitter.class, method.newInstance(), "submarine_submitter_call_seconds",
+          "Latency of the submitter calls");
       submitter.initialize(conf);
     } catch (Exception e) {
       LOG.error("Initialize the submitter failed. " + e.getMessage(), e);
@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.submarine.server.database.utils;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.apache.submarine.server.metrics.Histogram;
+import org.apache.submarine.server.metrics.MetricsRegistry;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the state and the latencies of the JDBC connection pool.
+ */
+public class ConnectionPoolMetrics implements MetricsTrackerFactory {
+  private final Histogram acquireSeconds = Histogram.latency();
+  private final Histogram usageSeconds = Histogram.latency();
+  private final Histogram createSeconds = Histogram.latency();
+  private final LongAdder timeouts = new LongAdder();
+
+  private volatile String poolName;
+  private volatile PoolStats poolStats;
+
+  @Override
+  public IMetricsTracker create(String poolName, PoolStats poolStats) {
+    this.poolName = poolName;
+    this.poolStats = poolStats;
+    return new IMetricsTracker() {
+      @Override
+      public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+        createSeconds.observe(connectionCreatedMillis / 1e3);
+      }
+
+      @Override
+      public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+        acquireSeconds.observeNanos(elapsedAcquiredNanos);
+      }
+
+      @Override
+      public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+        usageSeconds.observe(elapsedBorrowedMillis / 1e3);
+      }
+
+      @Override
+      public void recordConnectionTimeout() {
+        timeouts.increment();
+      }
+    };
+  }
+
+  public String getPoolName() {
+    return poolName;
+  }
+
+  public int getActiveConnections() {
+    return poolStats == null ? 0 : poolStats.getActiveConnections();
+  }
+
+  public int getIdleConnections() {
+    return poolStats == null ? 0 : poolStats.getIdleConnections();
+  }
+
+  public int getTotalConnections() {
+    return poolStats == null ? 0 : poolStats.getTotalConnections();
+  }
+
+  public int getPendingThreads() {
+    return poolStats == null ? 0 : poolStats.getPendingThreads();
+  }
+
+  public int getMaxConnections() {
+    return poolStats == null ? 0 : poolStats.getMaxConnections();
+  }
+
+  public Histogram getAcquireSeconds() {
+    return acquireSeconds;
+  }
+
+  public Histogram getUsageSeconds() {
+    return usageSeconds;
+  }
+
+  public Histogram getCreateSeconds() {
+    return createSeconds;
+  }
+
+  public long getTimeouts() {
+    return timeouts.sum();
+  }
+
+  /**
+   * Export the pool state and latencies to the metrics registry
+   */
+  public void register(MetricsRegistry registry) {
+    String help = "Connections of the JDBC pool";
+    registry.gauge("submarine_db_pool_connections", help, this::getActiveConnections, "state", "active");
+    registry.gauge("submarine_db_pool_connections", help, this::getIdleConnections, "state", "idle");
+    registry.gauge("submarine_db_pool_connections_max", "Max connections of the JDBC pool",
+        this::getMaxConnections);
+    registry.gauge("submarine_db_pool_pending_threads", "Threads waiting for a JDBC connection",
+        this::getPendingThreads);
+    registry.counter("submarine_db_pool_timeouts_total", "Timeouts acquiring a JDBC connection",
+        this::getTimeouts);
+    registry.histogram("submarine_db_pool_acquire_seconds", "Time to acquire a JDBC connection",
+        acquireSeconds);
+    registry.histogram("submarine_db_pool_usage_seconds", "Time a JDBC connection is borrowed",
+        usageSeconds);
+  }
+
+  /**
+   * @return a snapshot of the pool state, suitable for a JSON response
+   */
+  public Map<String, Object> toMap() {
+    Map<String, Object> map = new LinkedHashMap<>();
+    map.put("pool", getPoolName());
+    map.put("active", getActiveConnections());
+    map.put("idle", getIdleConnections());
+    map.put("total", getTotalConnections());
+    map.put("pending", getPendingThreads());
+    map.put("max", getMaxConnections());
+    map.put("timeouts", getTimeouts());
+    map.put("acquireSeconds", histogramToMap(acquireSeconds));
+    map.put("usageSeconds", histogramToMap(usageSeconds));
+    return map;
+  }
+
+  private static Map<String, Object> histogramToMap(Histogram histogram) {
+    Map<String, Object> map = new LinkedHashMap<>();
+    double[] bounds = histogram.getBounds();
+    long[] counts = histogram.getCumulativeCounts();
+    Map<String, Long> buckets = new LinkedHashMap<>();
+    for (int i = 0; i < bounds.length; i++) {
+      buckets.put(String.valueOf(bounds[i]), counts[i]);
+    }
+    buckets.put("+Inf", counts[bounds.length]);
+    map.put("buckets", buckets);
+    map.put("count", histogram.getCount());
+    map.put("sum", histogram.getSum());
+    return map;
+  }
+}
@@ -0,0 +1,204 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.submarine.server.database.utils;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader.InvalidCacheLoadException;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.apache.submarine.commons.utils.exception.SubmarineRuntimeException;
+import org.apache.submarine.server.metrics.MetricsRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A bounded cache of the rows of a table, by name, in front of the database.
+ *
+ * Reads go through the cache: {@link #get} loads a missing row, once for all the
+ * concurrent callers of the name, and {@link #list} loads all the rows once, then serves
+ * them from the cache until an entry is evicted or expires. Writes go through the cache
+ * too: the caller puts the rows it writes and invalidates the ones it deletes, once the
+ * database transaction is committed.
+ *
+ * The entries expire, so that the changes made through another server are seen.
+ * The hits and misses are exported as metrics, labelled by the name of the cache.
+ */
+public class EntityCache<V> {
+  private final Function<String, V> loader;
+  private final Supplier<Map<String, V>> allLoader;
+  private final Cache<String, V> cache;
+  private final Ticker ticker;
+  private final long expireNanos;
+
+  // Changed by each invalidation or eviction, so that a load running meanwhile is not kept
+  private final AtomicLong generation = new AtomicLong();
+  // Ticker time until which the cache holds all the rows, if set
+  private volatile long completeUntil;
+  private volatile boolean complete = false;
+  private final Object listLock = new Object();
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  /**
+   * @param name         name of the cache, in the metrics
+   * @param maximumSize  maximum number of the cached rows
+   * @param expireMillis time after which a cached row is read again
+   * @param loader       reads a row by name, null if there is none
+   * @param allLoader    reads all the rows by name
+   */
+  public EntityCache(String name, long maximumSize, long expireMillis,
+      Function<String, V> loader, Supplier<Map<String, V>> allLoader) {
+    this(maximumSize, expireMillis, loader, allLoader, Ticker.systemTicker());
+    MetricsRegistry registry = MetricsRegistry.getInstance();
+    registry.counter("submarine_cache_hits_total", "Reads served by the cache",
+        hits::sum, "cache", name);
+    registry.counter("submarine_cache_misses_total", "Reads that went to the database",
+        misses::sum, "cache", name);
+    registry.counter("submarine_cache_evictions_total", "Entries evicted by size or expiry",
+        evictions::sum, "cache", name);
+    registry.gauge("submarine_cache_size", "Number of the cached entries",
+        cache::size, "cache", name);
+  }
+
+  @VisibleForTesting
+  EntityCache(long maximumSize, long expireMillis, Function<String, V> loader,
+      Supplier<Map<String, V>> allLoader, Ticker ticker) {
+    this.loader = loader;
+    this.allLoader = allLoader;
+    this.ticker = ticker;
+    this.expireNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(expireMillis, 0));
+    this.cache = CacheBuilder.newBuilder()
+        .maximumSize(Math.max(maximumSize, 0))
+        .expireAfterWrite(expireNanos, TimeUnit.NANOSECONDS)
+        .ticker(ticker)
+        .<String, V>removalListener(notification -> {
+          if (notification.wasEvicted()) {
+            evictions.increment();
+            generation.incrementAndGet();
+            complete = false;
+          }
+        })
+        .build();
+  }
+
+  /**
+   * @return the row, null if there is none
+   * @throws SubmarineRuntimeException if the row could not be read
+   */
+  public V get(String name) throws SubmarineRuntimeException {
+    V value = cache.getIfPresent(name);
+    if (value != null || isComplete()) {
+      // Not cached while all the rows are, so there is no such row
+      hits.increment();
+      return value;
+    }
+    misses.increment();
+    long loadGeneration = generation.get();
+    try {
+      value = cache.get(name, () -> loader.apply(name));
+    } catch (InvalidCacheLoadException e) {
+      // No such row
+      return null;
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      if (e.getCause() instanceof SubmarineRuntimeException) {
+        throw (SubmarineRuntimeException) e.getCause();
+      }
+      throw new SubmarineRuntimeException(e.getCause().getMessage());
+    }
+    if (generation.get() != loadGeneration) {
+      // The row may have been deleted while it was read
+      cache.invalidate(name);
+    }
+    return value;
+  }
+
+  /**
+   * @return all the rows
+   * @throws SubmarineRuntimeException if the rows could not be read
+   */
+  public List<V> list() throws SubmarineRuntimeException {
+    if (isComplete()) {
+      hits.increment();
+      return new ArrayList<>(cache.asMap().values());
+    }
+    synchronized (listLock) {
+      if (isComplete()) {
+        hits.increment();
+        return new ArrayList<>(cache.asMap().values());
+      }
+      misses.increment();
+      long loadGeneration = generation.get();
+      long loadTime = ticker.read();
+      Map<String, V> values = allLoader.get();
+      cache.putAll(values);
+      // Complete until the first of the rows put expires, unless one was invalidated or
+      // evicted meanwhile
+      if (generation.get() == loadGeneration) {
+        completeUntil = loadTime + expireNanos;
+        complete = true;
+      }
+      return new ArrayList<>(values.values());
+    }
+  }
+
+  /**
+   * Cache a row written to the database
+   */
+  public void put(String name, V value) {
+    cache.put(name, value);
+  }
+
+  /**
+   * Evict a row deleted from the database
+   */
+  public void invalidate(String name) {
+    generation.incrementAndGet();
+    cache.invalidate(name);
+  }
+
+  public void invalidateAll() {
+    generation.incrementAndGet();
+    complete = false;
+    cache.invalidateAll();
+  }
+
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  private boolean isComplete() {
+    return complete && ticker.read() - completeUntil < 0;
+  }
+}
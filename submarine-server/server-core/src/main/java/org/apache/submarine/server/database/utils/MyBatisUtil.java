@@ -18,11 +18,17 @@
  */
 package org.apache.submarine.server.database.utils;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
 import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.Environment;
 import org.apache.ibatis.session.SqlSession;
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.apache.submarine.commons.utils.SubmarineConfVars.ConfVars;
 import org.apache.submarine.commons.utils.SubmarineConfiguration;
+import org.apache.submarine.server.metrics.MetricsRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,8 +39,15 @@ import java.util.Properties;
 public class MyBatisUtil {
   private static final Logger LOG = LoggerFactory.getLogger(MyBatisUtil.class);
 
+  public static final String POOL_TYPE_HIKARI = "hikari";
+  public static final String POOL_TYPE_MYBATIS = "mybatis";
+
   private static SqlSessionFactory sqlSessionFactory;
 
+  private static HikariDataSource dataSource;
+
+  private static final ConnectionPoolMetrics poolMetrics = new ConnectionPoolMetrics();
+
   static {
     Reader reader = null;
     try {
@@ -62,6 +75,19 @@ public class MyBatisUtil {
       props.setProperty("jdbc.password", jdbcPassword);
 
       sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader, props);
+
+      String poolType = conf.getString(ConfVars.JDBC_POOL_TYPE);
+      if (POOL_TYPE_HIKARI.equalsIgnoreCase(poolType)) {
+        // Replace the POOLED data source declared in mybatis-config.xml
+        Environment environment = sqlSessionFactory.getConfiguration().getEnvironment();
+        dataSource = new HikariDataSource(createPoolConfig(conf, poolMetrics));
+        poolMetrics.register(MetricsRegistry.getInstance());
+        sqlSessionFactory.getConfiguration().setEnvironment(
+            new Environment(environment.getId(), new JdbcTransactionFactory(), dataSource));
+      } else if (!POOL_TYPE_MYBATIS.equalsIgnoreCase(poolType)) {
+        LOG.warn("Unknown {}: {}, fallback to the mybatis POOLED data source",
+            ConfVars.JDBC_POOL_TYPE.getVarName(), poolType);
+      }
     } finally {
       try {
         if (null != reader) {
@@ -82,6 +108,58 @@ public class MyBatisUtil {
     return sqlSessionFactory.openSession();
   }
 
+  /**
+   * Build the HikariCP configuration. Connections are validated with
+   * {@link java.sql.Connection#isValid(int)} rather than a test query, and the
+   * MySQL driver caches prepared statements on the client side.
+   */
+  static HikariConfig createPoolConfig(SubmarineConfiguration conf, ConnectionPoolMetrics metrics) {
+    HikariConfig config = new HikariConfig();
+    config.setPoolName("submarine-jdbc");
+    config.setDriverClassName(conf.getJdbcDriverClassName());
+    config.setJdbcUrl(conf.getJdbcUrl());
+    config.setUsername(conf.getJdbcUserName());
+    config.setPassword(conf.getJdbcPassword());
+    config.setAutoCommit(false);
+
+    int maxSize = conf.getInt(ConfVars.JDBC_POOL_MAX_SIZE);
+    config.setMaximumPoolSize(maxSize);
+    config.setMinimumIdle(Math.min(conf.getInt(ConfVars.JDBC_POOL_MIN_IDLE), maxSize));
+    config.setConnectionTimeout(conf.getLong(ConfVars.JDBC_POOL_CONNECTION_TIMEOUT_MS));
+    config.setValidationTimeout(conf.getLong(ConfVars.JDBC_POOL_VALIDATION_TIMEOUT_MS));
+    config.setLeakDetectionThreshold(conf.getLong(ConfVars.JDBC_POOL_LEAK_DETECTION_THRESHOLD_MS));
+    // Do not fail the server start when the database is not reachable yet,
+    // the connections are created lazily as with the mybatis POOLED data source
+    config.setInitializationFailTimeout(-1);
+
+    int prepStmtCacheSize = conf.getInt(ConfVars.JDBC_POOL_PREP_STMT_CACHE_SIZE);
+    if (prepStmtCacheSize > 0) {
+      config.addDataSourceProperty("cachePrepStmts", "true");
+      config.addDataSourceProperty("prepStmtCacheSize", String.valueOf(prepStmtCacheSize));
+      config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+      config.addDataSourceProperty("useServerPrepStmts", "true");
+    }
+    config.setMetricsTrackerFactory(metrics);
+    return config;
+  }
+
+  /**
+   * @return the state and the acquire latency of the connection pool, the counts
+   * stay at zero when the mybatis POOLED data source is used
+   */
+  public static ConnectionPoolMetrics getPoolMetrics() {
+    return poolMetrics;
+  }
+
+  /**
+   * Close the pooled data source
+   */
+  public static void close() {
+    if (dataSource != null) {
+      dataSource.close();
+    }
+  }
+
   private static void checkCalledByTestMethod() {
     StackTraceElement[] stackTraceElements = Thread.currentThread().getStackTrace();
     for (StackTraceElement element : stackTraceElements) {
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.submarine.server.database.utils;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Plugin;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.submarine.server.metrics.MetricsRegistry;
+
+import java.util.Properties;
+
+/**
+ * Times the MyBatis statements per mapper statement id. It must be declared after the
+ * PageInterceptor in mybatis-config.xml so that it wraps the paged queries too.
+ */
+@Intercepts({
+    @Signature(type = Executor.class, method = "update",
+        args = {MappedStatement.class, Object.class}),
+    @Signature(type = Executor.class, method = "query",
+        args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+    @Signature(type = Executor.class, method = "query",
+        args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class,
+            CacheKey.class, BoundSql.class})})
+public class StatementMetricsInterceptor implements Interceptor {
+  static final String METRIC_NAME = "submarine_db_statement_seconds";
+  static final String ERRORS_METRIC_NAME = "submarine_db_statement_errors_total";
+
+  @Override
+  public Object intercept(Invocation invocation) throws Throwable {
+    MappedStatement statement = (MappedStatement) invocation.getArgs()[0];
+    MetricsRegistry registry = MetricsRegistry.getInstance();
+    long start = System.nanoTime();
+    try {
+      return invocation.proceed();
+    } catch (Throwable e) {
+      registry.counter(ERRORS_METRIC_NAME, "Failed MyBatis statements",
+          "statement", statement.getId()).increment();
+      throw e;
+    } finally {
+      registry.timer(METRIC_NAME, "Latency of the MyBatis statements", "statement", statement.getId())
+          .observeNanos(System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public Object plugin(Object target) {
+    return Plugin.wrap(target, this);
+  }
+
+  @Override
+  public void setProperties(Properties properties) {
+  }
+}
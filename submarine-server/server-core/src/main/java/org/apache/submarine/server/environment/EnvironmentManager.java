@@ -19,20 +19,22 @@
 
 package org.apache.submarine.server.environment;
 
-import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.ws.rs.core.Response.Status;
 
 import org.apache.ibatis.session.SqlSession;
+import org.apache.submarine.commons.utils.SubmarineConfVars.ConfVars;
+import org.apache.submarine.commons.utils.SubmarineConfiguration;
 import org.apache.submarine.commons.utils.exception.SubmarineRuntimeException;
 import org.apache.submarine.server.SubmarineServer;
 import org.apache.submarine.server.api.environment.Environment;
 import org.apache.submarine.server.api.environment.EnvironmentId;
 import org.apache.submarine.server.api.spec.EnvironmentSpec;
+import org.apache.submarine.server.database.utils.EntityCache;
 import org.apache.submarine.server.database.utils.MyBatisUtil;
 import org.apache.submarine.server.environment.database.entity.EnvironmentEntity;
 import org.apache.submarine.server.environment.database.mappers.EnvironmentMapper;
@@ -54,13 +56,12 @@ public class EnvironmentManager {
 
   private final AtomicInteger environmentIdCounter = new AtomicInteger(0);
 
-  private static Boolean readedDB = true;
+  private static final Gson gson = new GsonBuilder().disableHtmlEscaping().create();
 
   /**
    * Environment Cache
    */
-  private final ConcurrentMap<String, Environment> cachedEnvironments =
-      new ConcurrentHashMap<>();
+  private final EntityCache<Environment> cachedEnvironments;
 
   /**
    * Get the singleton instance
@@ -78,7 +79,11 @@ public class EnvironmentManager {
   }
 
   private EnvironmentManager() {
-
+    SubmarineConfiguration conf = SubmarineConfiguration.getInstance();
+    cachedEnvironments = new EntityCache<>("environment",
+        conf.getInt(ConfVars.SUBMARINE_ENVIRONMENT_CACHE_SIZE),
+        conf.getLong(ConfVars.SUBMARINE_ENVIRONMENT_CACHE_EXPIRE_MS),
+        this::loadEnvironment, this::loadEnvironments);
   }
 
   /**
@@ -119,8 +124,7 @@ public class EnvironmentManager {
     String environmentId = generateEnvironmentId().toString();
     entity.setId(environmentId);
     entity.setEnvironmentName(spec.getName());
-    entity.setEnvironmentSpec(
-        new GsonBuilder().disableHtmlEscaping().create().toJson(spec));
+    entity.setEnvironmentSpec(gson.toJson(spec));
     try (SqlSession sqlSession = MyBatisUtil.getSqlSession()) {
       EnvironmentMapper environmentMapper =
           sqlSession.getMapper(EnvironmentMapper.class);
@@ -136,7 +140,7 @@ public class EnvironmentManager {
       environment.setEnvironmentSpec(spec);
 
       // Update cache
-      cachedEnvironments.putIfAbsent(spec.getName(), environment);
+      cachedEnvironments.put(spec.getName(), environment);
 
       return environment;
     } catch (Exception e) {
@@ -173,7 +177,7 @@ public class EnvironmentManager {
       sqlSession.commit();
 
       // Invalidate cache
-      cachedEnvironments.remove(name);
+      cachedEnvironments.invalidate(name);
       return env;
     } catch (Exception e) {
       LOG.error(e.getMessage(), e);
@@ -206,34 +210,7 @@ public class EnvironmentManager {
    */
   public List<Environment> listEnvironments(String status)
       throws SubmarineRuntimeException {
-    List<Environment> environmentList =
-        new ArrayList<Environment>(cachedEnvironments.values());
-
-    // Is it available in cache?
-    if (this.readedDB == true) {
-      try (SqlSession sqlSession = MyBatisUtil.getSqlSession()) {
-        EnvironmentMapper environmentMapper =
-              sqlSession.getMapper(EnvironmentMapper.class);
-        List<EnvironmentEntity> environmentEntitys = environmentMapper.selectAll();
-        for (EnvironmentEntity environmentEntity : environmentEntitys) {
-          if (environmentEntity != null) {
-            Environment env = new Environment();
-            env.setEnvironmentSpec(new Gson().fromJson(
-                  environmentEntity.getEnvironmentSpec(), EnvironmentSpec.class));
-            env.setEnvironmentId(
-                  EnvironmentId.fromString(environmentEntity.getId()));
-            environmentList.add(env);
-            cachedEnvironments.put(env.getEnvironmentSpec().getName(), env);
-          }
-        }
-      } catch (Exception e) {
-        LOG.error(e.getMessage(), e);
-        throw new SubmarineRuntimeException(Status.BAD_REQUEST.getStatusCode(),
-              "Unable to get the environment list.");
-      }
-    }
-    this.readedDB = false;
-    return environmentList;
+    return cachedEnvironments.list();
   }
 
   private void checkSpec(EnvironmentSpec spec)
@@ -246,27 +223,44 @@ public class EnvironmentManager {
 
   private Environment getEnvironmentDetails(String name)
       throws SubmarineRuntimeException {
+    return cachedEnvironments.get(name);
+  }
 
-    // Is it available in cache?
-    Environment env = cachedEnvironments.get(name);
-    if (env != null) {
-      return env;
-    }
-
+  private Environment loadEnvironment(String name) {
     try (SqlSession sqlSession = MyBatisUtil.getSqlSession()) {
       EnvironmentMapper environmentMapper = sqlSession.getMapper(EnvironmentMapper.class);
       EnvironmentEntity environmentEntity = environmentMapper.select(name);
+      return environmentEntity == null ? null : toEnvironment(environmentEntity);
+    } catch (Exception e) {
+      LOG.error(e.getMessage(), e);
+      throw new SubmarineRuntimeException(Status.BAD_REQUEST.getStatusCode(),
+          "Unable to get the environment details.");
+    }
+  }
 
-      if (environmentEntity != null) {
-        env = new Environment();
-        env.setEnvironmentSpec(new Gson().fromJson(
-            environmentEntity.getEnvironmentSpec(), EnvironmentSpec.class));
+  private Map<String, Environment> loadEnvironments() {
+    try (SqlSession sqlSession = MyBatisUtil.getSqlSession()) {
+      EnvironmentMapper environmentMapper = sqlSession.getMapper(EnvironmentMapper.class);
+      Map<String, Environment> environments = new LinkedHashMap<>();
+      for (EnvironmentEntity environmentEntity : environmentMapper.selectAll()) {
+        if (environmentEntity != null) {
+          Environment env = toEnvironment(environmentEntity);
+          environments.put(env.getEnvironmentSpec().getName(), env);
+        }
       }
+      return environments;
     } catch (Exception e) {
       LOG.error(e.getMessage(), e);
       throw new SubmarineRuntimeException(Status.BAD_REQUEST.getStatusCode(),
-          "Unable to get the environment details.");
+          "Unable to get the environment list.");
     }
+  }
+
+  private Environment toEnvironment(EnvironmentEntity environmentEntity) {
+    Environment env = new Environment();
+    env.setEnvironmentSpec(gson.fromJson(
+        environmentEntity.getEnvironmentSpec(), EnvironmentSpec.class));
+    env.setEnvironmentId(EnvironmentId.fromString(environmentEntity.getId()));
     return env;
   }
 }
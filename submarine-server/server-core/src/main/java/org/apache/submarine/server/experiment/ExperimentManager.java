@@ -19,18 +19,28 @@
 
 package org.apache.submarine.server.experiment;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.ws.rs.core.Response.Status;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import org.apache.submarine.commons.utils.SubmarineConfVars.ConfVars;
 import org.apache.submarine.commons.utils.SubmarineConfiguration;
 import org.apache.submarine.commons.utils.exception.SubmarineRuntimeException;
 import org.apache.submarine.server.SubmarineServer;
@@ -39,6 +49,7 @@ import org.apache.submarine.server.api.experiment.Experiment;
 import org.apache.submarine.server.api.experiment.ExperimentId;
 import org.apache.submarine.server.api.Submitter;
 import org.apache.submarine.server.api.experiment.ExperimentLog;
+import org.apache.submarine.server.api.experiment.ExperimentLogOptions;
 import org.apache.submarine.server.api.experiment.TensorboardInfo;
 import org.apache.submarine.server.api.experiment.MlflowInfo;
 import org.apache.submarine.server.api.experiment.ServeRequest;
@@ -59,16 +70,39 @@ public class ExperimentManager {
 
   private static volatile ExperimentManager manager;
 
+  private static final Gson GSON = new Gson();
+
+  private static final Gson GSON_WITHOUT_HTML_ESCAPING = new GsonBuilder().disableHtmlEscaping().create();
+
   private final AtomicInteger experimentCounter = new AtomicInteger(0);
 
   private Optional<org.mlflow.api.proto.Service.Experiment> MlflowExperimentOptional;
   private org.mlflow.api.proto.Service.Experiment MlflowExperiment;
   /**
-   * Used to cache the specs by the experiment id.
+   * Used to cache the parsed specs by the experiment id.
    * key: the string of experiment id
-   * value: Experiment object
+   * value: the parsed spec, versioned by the JSON it was parsed from
+   */
+  private final Cache<String, VersionedSpec> cachedSpecMap;
+
+  /**
+   * Index of the experiments by the namespace and name of their resource, it is
+   * loaded from the database on the first lookup and then kept up to date.
+   * key: namespace/name
+   * value: the string of experiment id
+   */
+  private final ConcurrentMap<String, String> experimentIdByName = new ConcurrentHashMap<>();
+
+  private volatile boolean nameIndexLoaded = false;
+
+  /**
+   * The experiments deleted by submarine, kept until the deletion of their resource is
+   * observed so that the deletion can still be reported with the experiment id.
+   * key: namespace/name
+   * value: the string of experiment id
    */
-  private final ConcurrentMap<String, Experiment> cachedExperimentMap = new ConcurrentHashMap<>();
+  private final Cache<String, String> deletedExperimentIdByName =
+      CacheBuilder.newBuilder().expireAfterWrite(10, TimeUnit.MINUTES).build();
 
   private final Submitter submitter;
   private final ExperimentService experimentService;
@@ -91,8 +125,15 @@ public class ExperimentManager {
 
   @VisibleForTesting
   protected ExperimentManager(Submitter submitter, ExperimentService experimentService) {
+    this(submitter, experimentService,
+        SubmarineConfiguration.getInstance().getInt(ConfVars.SUBMARINE_EXPERIMENT_SPEC_CACHE_SIZE));
+  }
+
+  @VisibleForTesting
+  protected ExperimentManager(Submitter submitter, ExperimentService experimentService, int specCacheSize) {
     this.submitter = submitter;
     this.experimentService = experimentService;
+    this.cachedSpecMap = CacheBuilder.newBuilder().maximumSize(Math.max(specCacheSize, 0)).build();
   }
 
   /**
@@ -128,6 +169,8 @@ public class ExperimentManager {
 
     ExperimentEntity entity = buildEntityFromExperiment(experiment);
     experimentService.insert(entity);
+    cachedSpecMap.put(entity.getId(), new VersionedSpec(entity.getExperimentSpec(), spec));
+    indexName(entity.getId(), spec);
 
     return experiment;
   }
@@ -140,9 +183,7 @@ public class ExperimentManager {
    * @throws SubmarineRuntimeException the service error
    */
   public Experiment getExperiment(String id) throws SubmarineRuntimeException {
-    checkExperimentId(id);
-
-    ExperimentEntity entity = experimentService.select(id);
+    ExperimentEntity entity = getExperimentEntity(id);
     Experiment experiment = buildExperimentFromEntity(entity);
     Experiment foundExperiment = submitter.findExperiment(experiment.getSpec());
     experiment.rebuild(foundExperiment);
@@ -169,6 +210,8 @@ public class ExperimentManager {
       } catch (SubmarineRuntimeException e) {
         LOG.warn("Submitter can not find experiment: {}, will delete it", entity.getId());
         experimentService.delete(entity.getId());
+        cachedSpecMap.invalidate(entity.getId());
+        unindexName(entity.getId(), experiment.getSpec());
         continue;
       }
       LOG.info("Found experiment: {}", foundExperiment.getStatus());
@@ -190,10 +233,9 @@ public class ExperimentManager {
    * @throws SubmarineRuntimeException the service error
    */
   public Experiment patchExperiment(String id, ExperimentSpec newSpec) throws SubmarineRuntimeException {
-    checkExperimentId(id);
     checkSpec(newSpec);
 
-    ExperimentEntity entity = experimentService.select(id);
+    ExperimentEntity entity = getExperimentEntity(id);
     Experiment experiment = buildExperimentFromEntity(entity);
     Experiment patchExperiment = submitter.patchExperiment(newSpec);
 
@@ -201,8 +243,11 @@ public class ExperimentManager {
     experiment.setSpec(newSpec);
 
     // update entity and commit
-    entity.setExperimentSpec(new GsonBuilder().disableHtmlEscaping().create().toJson(newSpec));
+    entity.setExperimentSpec(GSON_WITHOUT_HTML_ESCAPING.toJson(newSpec));
     experimentService.update(entity);
+    cachedSpecMap.put(id, new VersionedSpec(entity.getExperimentSpec(), newSpec));
+    unindexName(id, experiment.getSpec());
+    indexName(id, newSpec);
 
     // patch new information in experiment
     experiment.rebuild(patchExperiment);
@@ -218,12 +263,16 @@ public class ExperimentManager {
    * @throws SubmarineRuntimeException the service error
    */
   public Experiment deleteExperiment(String id) throws SubmarineRuntimeException {
-    checkExperimentId(id);
-
-    ExperimentEntity entity = experimentService.select(id);
+    ExperimentEntity entity = getExperimentEntity(id);
     Experiment experiment = buildExperimentFromEntity(entity);
     Experiment deletedExperiment = submitter.deleteExperiment(experiment.getSpec());
     experimentService.delete(id);
+    cachedSpecMap.invalidate(id);
+    ExperimentSpec spec = experiment.getSpec();
+    if (spec != null && spec.getMeta() != null) {
+      deletedExperimentIdByName.put(spec.getMeta().getNamespace() + "/" + spec.getMeta().getName(), id);
+    }
+    unindexName(id, spec);
 
     experiment.rebuild(deletedExperiment);
 
@@ -276,9 +325,7 @@ public class ExperimentManager {
    * @throws SubmarineRuntimeException the service error
    */
   public ExperimentLog getExperimentLog(String id) throws SubmarineRuntimeException {
-    checkExperimentId(id);
-
-    ExperimentEntity entity = experimentService.select(id);
+    ExperimentEntity entity = getExperimentEntity(id);
     Experiment experiment = buildExperimentFromEntity(entity);
 
     Experiment foundExperiment = submitter.findExperiment(experiment.getSpec());
@@ -290,6 +337,61 @@ public class ExperimentManager {
     );
   }
 
+  /**
+   * Open the log stream of an experiment, the log is streamed from the submitter
+   * without buffering, the caller must close the stream.
+   * If no pod is selected and the experiment has several pods, their logs are
+   * concatenated, each one preceded by a "==> pod name <==" line.
+   *
+   * @param id      experiment id
+   * @param options pod name, range of the log and follow mode
+   * @return the log stream
+   * @throws SubmarineRuntimeException the service error
+   */
+  public InputStream getExperimentLogStream(String id, ExperimentLogOptions options)
+      throws SubmarineRuntimeException {
+    ExperimentEntity entity = getExperimentEntity(id);
+    ExperimentSpec spec = buildExperimentFromEntity(entity).getSpec();
+    List<String> podNames = submitter.getExperimentLogName(spec, id).getPodNames();
+
+    String podName = options.getPodName();
+    if (podName != null) {
+      if (!podNames.contains(podName)) {
+        throw new SubmarineRuntimeException(Status.NOT_FOUND.getStatusCode(), "Not found pod " + podName);
+      }
+      return submitter.getExperimentLogStream(spec, options);
+    }
+    if (podNames.isEmpty()) {
+      throw new SubmarineRuntimeException(Status.NOT_FOUND.getStatusCode(), "Not found pod.");
+    }
+    if (podNames.size() == 1) {
+      return submitter.getExperimentLogStream(spec, options.podName(podNames.get(0)));
+    }
+    if (options.isFollow() || options.getOffset() > 0 || options.getLimitBytes() != null) {
+      throw new SubmarineRuntimeException(Status.BAD_REQUEST.getStatusCode(),
+          "The pod is required to follow the log or to read a byte range, pods: " + podNames);
+    }
+
+    // Open the stream of a pod only when the previous one is consumed
+    Iterator<String> iterator = podNames.iterator();
+    return new SequenceInputStream(new Enumeration<InputStream>() {
+      @Override
+      public boolean hasMoreElements() {
+        return iterator.hasNext();
+      }
+
+      @Override
+      public InputStream nextElement() {
+        String pod = iterator.next();
+        byte[] header = ("==> " + pod + " <==\n").getBytes(StandardCharsets.UTF_8);
+        ExperimentLogOptions podOptions = new ExperimentLogOptions().podName(pod)
+            .tailLines(options.getTailLines()).sinceSeconds(options.getSinceSeconds());
+        return new SequenceInputStream(new ByteArrayInputStream(header),
+            submitter.getExperimentLogStream(spec, podOptions));
+      }
+    });
+  }
+
   /**
    * Get tensorboard meta data
    *
@@ -342,11 +444,12 @@ public class ExperimentManager {
     }
   }
 
-  private void checkExperimentId(String id) throws SubmarineRuntimeException {
+  private ExperimentEntity getExperimentEntity(String id) throws SubmarineRuntimeException {
     ExperimentEntity entity = experimentService.select(id);
     if (entity == null) {
       throw new SubmarineRuntimeException(Status.NOT_FOUND.getStatusCode(), "Not found experiment.");
     }
+    return entity;
   }
 
   private String getSQLAlchemyURL() {
@@ -358,6 +461,61 @@ public class ExperimentManager {
     return "mysql+pymysql://" + jdbcUserName + ":" + jdbcPassword + "@" + jdbcUrl;
   }
 
+  /**
+   * Find the experiment managed by submarine of an experiment resource
+   *
+   * @param namespace namespace of the resource
+   * @param name      name of the resource
+   * @return the experiment id, null if the resource is not managed by submarine
+   */
+  public String findExperimentIdByName(String namespace, String name) {
+    return findExperimentIdByName(namespace, name, false);
+  }
+
+  /**
+   * Find the experiment managed by submarine of an experiment resource
+   *
+   * @param namespace namespace of the resource
+   * @param name      name of the resource
+   * @param deleted   whether the resource was deleted, the experiment deleted by submarine
+   *                  is then found once
+   * @return the experiment id, null if the resource is not managed by submarine
+   */
+  public String findExperimentIdByName(String namespace, String name, boolean deleted) {
+    if (deleted) {
+      String id = deletedExperimentIdByName.asMap().remove(namespace + "/" + name);
+      if (id != null) {
+        return id;
+      }
+    }
+    if (!nameIndexLoaded) {
+      synchronized (experimentIdByName) {
+        if (!nameIndexLoaded) {
+          for (ExperimentEntity entity : experimentService.selectAll()) {
+            indexName(entity.getId(), getSpec(entity));
+          }
+          nameIndexLoaded = true;
+        }
+      }
+    }
+    return experimentIdByName.get(namespace + "/" + name);
+  }
+
+  private void indexName(String id, ExperimentSpec spec) {
+    if (spec != null && spec.getMeta() != null) {
+      String key = spec.getMeta().getNamespace() + "/" + spec.getMeta().getName();
+      // A new experiment reuses the name of a deleted one
+      deletedExperimentIdByName.invalidate(key);
+      experimentIdByName.put(key, id);
+    }
+  }
+
+  private void unindexName(String id, ExperimentSpec spec) {
+    if (spec != null && spec.getMeta() != null) {
+      experimentIdByName.remove(spec.getMeta().getNamespace() + "/" + spec.getMeta().getName(), id);
+    }
+  }
+
   public ExperimentId generateExperimentId() {
     return ExperimentId.newInstance(SubmarineServer.getServerTimeStamp(),
         experimentCounter.incrementAndGet());
@@ -366,7 +524,8 @@ public class ExperimentManager {
   /**
    * Create a new experiment instance from entity, and filled
    * 1. experimentId
-   * 2. spec
+   * 2. spec, the parsed spec is cached until the JSON in the entity changes,
+   *    so it is shared between the experiments and must not be modified
    *
    * @param entity
    * @return Experiment
@@ -374,10 +533,21 @@ public class ExperimentManager {
   private Experiment buildExperimentFromEntity(ExperimentEntity entity) {
     Experiment experiment = new Experiment();
     experiment.setExperimentId(ExperimentId.fromString(entity.getId()));
-    experiment.setSpec(new Gson().fromJson(entity.getExperimentSpec(), ExperimentSpec.class));
+    experiment.setSpec(getSpec(entity));
     return experiment;
   }
 
+  private ExperimentSpec getSpec(ExperimentEntity entity) {
+    String json = entity.getExperimentSpec();
+    VersionedSpec cached = cachedSpecMap.getIfPresent(entity.getId());
+    if (cached != null && cached.json.equals(json)) {
+      return cached.spec;
+    }
+    ExperimentSpec spec = GSON.fromJson(json, ExperimentSpec.class);
+    cachedSpecMap.put(entity.getId(), new VersionedSpec(json, spec));
+    return spec;
+  }
+
   /**
    * Create a ExperimentEntity instance from experiment
    *
@@ -387,7 +557,21 @@ public class ExperimentManager {
   private ExperimentEntity buildEntityFromExperiment(Experiment experiment) {
     ExperimentEntity entity = new ExperimentEntity();
     entity.setId(experiment.getExperimentId().toString());
-    entity.setExperimentSpec(new GsonBuilder().disableHtmlEscaping().create().toJson(experiment.getSpec()));
+    entity.setExperimentSpec(GSON_WITHOUT_HTML_ESCAPING.toJson(experiment.getSpec()));
     return entity;
   }
+
+  /**
+   * The parsed spec of an experiment and the JSON it was parsed from, the spec
+   * is reused as long as the JSON stored in database is the same.
+   */
+  private static class VersionedSpec {
+    private final String json;
+    private final ExperimentSpec spec;
+
+    VersionedSpec(String json, ExperimentSpec spec) {
+      this.json = json;
+      this.spec = spec;
+    }
+  }
 }
@@ -0,0 +1,264 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.submarine.server.experimenttemplate;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.ws.rs.core.Response.Status;
+
+import org.apache.submarine.commons.utils.exception.SubmarineRuntimeException;
+import org.apache.submarine.server.api.spec.ExperimentSpec;
+import org.apache.submarine.server.api.spec.ExperimentTemplateSpec;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonPrimitive;
+
+/**
+ * An experiment template compiled by {@link ExperimentTemplateCompiler}.
+ *
+ * The experiment spec of the template is kept as a tree of literal values and of slots,
+ * one slot for each parameter. Rendering only substitutes the values of the parameters in
+ * their slots, the template is not parsed again. Immutable and thread-safe.
+ */
+public class CompiledExperimentTemplate {
+  private final ExperimentTemplateSpec source;
+  private final Gson gson;
+  private final Node root;
+  // Map:parameter name -> slot
+  private final Map<String, Integer> slots;
+  private final String[] defaults;
+  private final boolean[] required;
+
+  CompiledExperimentTemplate(ExperimentTemplateSpec source, Gson gson, Node root,
+      Map<String, Integer> slots, String[] defaults, boolean[] required) {
+    this.source = source;
+    this.gson = gson;
+    this.root = root;
+    this.slots = slots;
+    this.defaults = defaults;
+    this.required = required;
+  }
+
+  /**
+   * @return the template spec this template was compiled from
+   */
+  public ExperimentTemplateSpec getSource() {
+    return source;
+  }
+
+  /**
+   * Render the experiment spec with the submitted parameters. A parameter which is not
+   * submitted takes its default value, unless it is required.
+   *
+   * @param params submitted parameters, may be null
+   * @return experiment spec
+   * @throws SubmarineRuntimeException if a parameter is not in the template or a required
+   *         parameter is missing
+   */
+  public ExperimentSpec render(Map<String, String> params) throws SubmarineRuntimeException {
+    String[] values = new String[defaults.length];
+    for (int slot = 0; slot < values.length; slot++) {
+      values[slot] = required[slot] ? null : defaults[slot];
+    }
+    if (params != null) {
+      // illegalParamList: The parameters not in template parameters should not be used
+      Set<String> illegalParamList = new TreeSet<>();
+      for (Map.Entry<String, String> param : params.entrySet()) {
+        Integer slot = slots.get(param.getKey());
+        if (slot == null) {
+          illegalParamList.add(param.getKey());
+        } else if (param.getValue() != null) {
+          values[slot] = param.getValue();
+        }
+      }
+      if (illegalParamList.size() > 0) {
+        throw new SubmarineRuntimeException(Status.BAD_REQUEST.getStatusCode(),
+            "Parameters contains illegal key: " + illegalParamList.toString());
+      }
+    }
+
+    // unmapedParamList: Parameters that should be used in the template but could not be found
+    Set<String> unmapedParamList = new TreeSet<>();
+    for (Map.Entry<String, Integer> slot : slots.entrySet()) {
+      if (values[slot.getValue()] == null) {
+        unmapedParamList.add(slot.getKey());
+      }
+    }
+    if (unmapedParamList.size() > 0) {
+      throw new SubmarineRuntimeException(Status.BAD_REQUEST.getStatusCode(),
+          "Template contains unmapped value: " + unmapedParamList.toString());
+    }
+    return render(values);
+  }
+
+  /**
+   * Render the experiment spec with the default values of the parameters, an empty value
+   * for a parameter without default. Used to check a template when it is registered.
+   *
+   * @return experiment spec
+   */
+  public ExperimentSpec renderDefaults() throws SubmarineRuntimeException {
+    String[] values = new String[defaults.length];
+    for (int slot = 0; slot < values.length; slot++) {
+      values[slot] = defaults[slot] == null ? "" : defaults[slot];
+    }
+    return render(values);
+  }
+
+  private ExperimentSpec render(String[] values) {
+    try {
+      return gson.fromJson(root.render(values), ExperimentSpec.class);
+    } catch (JsonParseException e) {
+      throw new SubmarineRuntimeException(Status.BAD_REQUEST.getStatusCode(),
+          "Template mapping fail: " + e.getMessage());
+    }
+  }
+
+  /**
+   * A node of the compiled experiment spec
+   */
+  interface Node {
+    JsonElement render(String[] values);
+  }
+
+  /**
+   * A value without parameter, shared by all the rendered specs
+   */
+  static class Literal implements Node {
+    private final JsonElement value;
+
+    Literal(JsonElement value) {
+      this.value = value;
+    }
+
+    @Override
+    public JsonElement render(String[] values) {
+      return value;
+    }
+  }
+
+  /**
+   * A value replaced by a parameter, such as "spec.Worker.replicas"
+   */
+  static class Slot implements Node {
+    private final int slot;
+
+    Slot(int slot) {
+      this.slot = slot;
+    }
+
+    @Override
+    public JsonElement render(String[] values) {
+      return new JsonPrimitive(values[slot]);
+    }
+  }
+
+  /**
+   * A string with {{...}} placeholders, split into the literal parts around the slots
+   */
+  static class Text implements Node {
+    // There is one more literal than slots
+    private final String[] literals;
+    private final int[] slots;
+    private final int length;
+
+    Text(String[] literals, int[] slots) {
+      this.literals = literals;
+      this.slots = slots;
+      int sum = 0;
+      for (String literal : literals) {
+        sum += literal.length();
+      }
+      this.length = sum;
+    }
+
+    @Override
+    public JsonElement render(String[] values) {
+      StringBuilder sb = new StringBuilder(length + 16 * slots.length);
+      sb.append(literals[0]);
+      for (int i = 0; i < slots.length; i++) {
+        sb.append(values[slots[i]]).append(literals[i + 1]);
+      }
+      return new JsonPrimitive(sb.toString());
+    }
+  }
+
+  /**
+   * The resources of a task, built from its cpu and memory parameters
+   */
+  static class Resources implements Node {
+    // -1 if the template has no such parameter
+    private final int cpuSlot;
+    private final int memorySlot;
+
+    Resources(int cpuSlot, int memorySlot) {
+      this.cpuSlot = cpuSlot;
+      this.memorySlot = memorySlot;
+    }
+
+    @Override
+    public JsonElement render(String[] values) {
+      return new JsonPrimitive(String.format("cpu=%s,memory=%s",
+          cpuSlot < 0 ? null : values[cpuSlot], memorySlot < 0 ? null : values[memorySlot]));
+    }
+  }
+
+  static class ObjectNode implements Node {
+    private final String[] names;
+    private final Node[] children;
+
+    ObjectNode(String[] names, Node[] children) {
+      this.names = names;
+      this.children = children;
+    }
+
+    @Override
+    public JsonElement render(String[] values) {
+      JsonObject object = new JsonObject();
+      for (int i = 0; i < names.length; i++) {
+        object.add(names[i], children[i].render(values));
+      }
+      return object;
+    }
+  }
+
+  static class ArrayNode implements Node {
+    private final Node[] children;
+
+    ArrayNode(Node[] children) {
+      this.children = children;
+    }
+
+    @Override
+    public JsonElement render(String[] values) {
+      JsonArray array = new JsonArray(children.length);
+      for (Node child : children) {
+        array.add(child.render(values));
+      }
+      return array;
+    }
+  }
+}
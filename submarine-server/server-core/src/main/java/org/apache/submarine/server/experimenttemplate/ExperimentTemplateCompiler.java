@@ -0,0 +1,232 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.submarine.server.experimenttemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.ws.rs.core.Response.Status;
+
+import org.apache.submarine.commons.utils.exception.SubmarineRuntimeException;
+import org.apache.submarine.server.api.spec.ExperimentTemplateParamSpec;
+import org.apache.submarine.server.api.spec.ExperimentTemplateSpec;
+import org.apache.submarine.server.experimenttemplate.CompiledExperimentTemplate.ArrayNode;
+import org.apache.submarine.server.experimenttemplate.CompiledExperimentTemplate.Literal;
+import org.apache.submarine.server.experimenttemplate.CompiledExperimentTemplate.Node;
+import org.apache.submarine.server.experimenttemplate.CompiledExperimentTemplate.ObjectNode;
+import org.apache.submarine.server.experimenttemplate.CompiledExperimentTemplate.Resources;
+import org.apache.submarine.server.experimenttemplate.CompiledExperimentTemplate.Slot;
+import org.apache.submarine.server.experimenttemplate.CompiledExperimentTemplate.Text;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+
+/**
+ * Compiles an experiment template into a {@link CompiledExperimentTemplate}.
+ *
+ * The experiment spec of the template is walked once. A value is mapped to a parameter
+ * in three ways, checked in this order:
+ * <ul>
+ *   <li>a {{name}} placeholder in a string, matching the parameter "path:name", such as
+ *   "meta.cmd:learning_rate", or else the parameter "name"</li>
+ *   <li>the path of the value, such as "spec.Worker.replicas"</li>
+ *   <li>the resources of a task, built from its "spec.task.resourceMap.cpu" and
+ *   "spec.task.resourceMap.memory" parameters</li>
+ * </ul>
+ * The template is rejected if a placeholder has no parameter or a parameter is not used.
+ */
+public class ExperimentTemplateCompiler {
+  private static final Pattern PLACEHOLDER = Pattern.compile("\\{\\{(.*?)\\}\\}");
+
+  private final Gson gson;
+
+  public ExperimentTemplateCompiler(Gson gson) {
+    this.gson = gson;
+  }
+
+  /**
+   * Compile the template
+   *
+   * @param tplSpec experimentTemplate spec
+   * @return compiled template
+   * @throws SubmarineRuntimeException if the template is invalid
+   */
+  public CompiledExperimentTemplate compile(ExperimentTemplateSpec tplSpec)
+      throws SubmarineRuntimeException {
+    if (tplSpec.getExperimentSpec() == null) {
+      throw new SubmarineRuntimeException(Status.BAD_REQUEST.getStatusCode(),
+          "Invalid experimentTemplate spec: no experiment spec.");
+    }
+    List<ExperimentTemplateParamSpec> params = tplSpec.getExperimentTemplateParamSpec() == null
+        ? Collections.emptyList() : tplSpec.getExperimentTemplateParamSpec();
+    Compilation compilation = new Compilation(params.size());
+    for (int slot = 0; slot < params.size(); slot++) {
+      ExperimentTemplateParamSpec param = params.get(slot);
+      compilation.slots.put(param.getName(), slot);
+      compilation.defaults[slot] = param.getValue();
+      compilation.required[slot] = Boolean.parseBoolean(param.getRequired());
+    }
+
+    JsonElement json = gson.toJsonTree(tplSpec.getExperimentSpec());
+    // resourceMap needs special handling
+    if (tplSpec.getExperimentSpec().getSpec() != null) {
+      JsonObject tasks = json.getAsJsonObject().getAsJsonObject("spec");
+      for (String task : tplSpec.getExperimentSpec().getSpec().keySet()) {
+        String path = path(path("spec", task), "resources");
+        compilation.resources.put(path, new Resources(
+            compilation.use(String.format("spec.%s.resourceMap.cpu", task)),
+            compilation.use(String.format("spec.%s.resourceMap.memory", task))));
+        JsonObject taskJson = tasks.getAsJsonObject(task);
+        if (taskJson != null && !taskJson.has("resources")) {
+          taskJson.add("resources", JsonNull.INSTANCE);
+        }
+      }
+    }
+    Node root = compilation.compile("", json);
+
+    // unusedParamList: Parameters not used by the template
+    Set<String> unusedParamList = new TreeSet<>(compilation.slots.keySet());
+    unusedParamList.removeAll(compilation.used);
+    if (unusedParamList.size() > 0) {
+      throw new SubmarineRuntimeException(Status.BAD_REQUEST.getStatusCode(),
+          "Parameters contains unused key: " + unusedParamList.toString());
+    }
+    if (compilation.unmapped.size() > 0) {
+      throw new SubmarineRuntimeException(Status.BAD_REQUEST.getStatusCode(),
+          "Template contains unmapped value: " + compilation.unmapped.toString());
+    }
+    return new CompiledExperimentTemplate(tplSpec, gson, root, compilation.slots,
+        compilation.defaults, compilation.required);
+  }
+
+  // The path of a value, as in "meta.envVars.ENV1", "spec.Worker.replicas" or "a[0]"
+  private static String path(String parent, String name) {
+    if (name.contains(".")) {
+      return parent + "[\"" + name + "\"]";
+    }
+    return parent.isEmpty() ? name : parent + "." + name;
+  }
+
+  private static class Compilation {
+    private final Map<String, Integer> slots = new HashMap<>();
+    private final String[] defaults;
+    private final boolean[] required;
+    private final Map<String, Resources> resources = new HashMap<>();
+    private final Set<String> used = new HashSet<>();
+    private final Set<String> unmapped = new TreeSet<>();
+
+    Compilation(int size) {
+      defaults = new String[size];
+      required = new boolean[size];
+    }
+
+    /**
+     * @return the slot of the parameter, -1 if there is no such parameter
+     */
+    int use(String name) {
+      Integer slot = slots.get(name);
+      if (slot == null) {
+        return -1;
+      }
+      used.add(name);
+      return slot;
+    }
+
+    Node compile(String path, JsonElement json) {
+      if (json.isJsonObject() && json.getAsJsonObject().size() > 0) {
+        List<String> names = new ArrayList<>();
+        List<Node> children = new ArrayList<>();
+        boolean literal = true;
+        for (Map.Entry<String, JsonElement> entry : json.getAsJsonObject().entrySet()) {
+          Node child = compile(path(path, entry.getKey()), entry.getValue());
+          names.add(entry.getKey());
+          children.add(child);
+          literal &= child instanceof Literal;
+        }
+        return literal ? new Literal(json)
+            : new ObjectNode(names.toArray(new String[0]), children.toArray(new Node[0]));
+      }
+      if (json.isJsonArray() && json.getAsJsonArray().size() > 0) {
+        JsonArray array = json.getAsJsonArray();
+        Node[] children = new Node[array.size()];
+        boolean literal = true;
+        for (int i = 0; i < children.length; i++) {
+          children[i] = compile(path + "[" + i + "]", array.get(i));
+          literal &= children[i] instanceof Literal;
+        }
+        return literal ? new Literal(json) : new ArrayNode(children);
+      }
+      return compileValue(path, json);
+    }
+
+    private Node compileValue(String path, JsonElement json) {
+      // match placeholders
+      if (json.isJsonPrimitive() && json.getAsJsonPrimitive().isString()
+          && !resources.containsKey(path)) {
+        String value = json.getAsString();
+        Matcher matcher = PLACEHOLDER.matcher(value);
+        List<String> literals = new ArrayList<>();
+        List<Integer> textSlots = new ArrayList<>();
+        int last = 0;
+        while (matcher.find()) {
+          String name = matcher.group(1);
+          // match path+placeholder ("meta.cmd:parametername"), then placeholder ("parametername")
+          int slot = use(path + ":" + name);
+          if (slot < 0) {
+            slot = use(name);
+          }
+          if (slot < 0) {
+            unmapped.add(path + ":" + name);
+            continue;
+          }
+          literals.add(value.substring(last, matcher.start()));
+          textSlots.add(slot);
+          last = matcher.end();
+        }
+        if (textSlots.size() > 0) {
+          literals.add(value.substring(last));
+          int[] slotArray = new int[textSlots.size()];
+          for (int i = 0; i < slotArray.length; i++) {
+            slotArray[i] = textSlots.get(i);
+          }
+          return new Text(literals.toArray(new String[0]), slotArray);
+        }
+      }
+      // match path ("meta.cmd")
+      int slot = use(path);
+      if (slot >= 0) {
+        return new Slot(slot);
+      }
+      Resources taskResources = resources.get(path);
+      return taskResources != null ? taskResources : new Literal(json);
+    }
+  }
+}
@@ -19,21 +19,16 @@
 
 package org.apache.submarine.server.experimenttemplate;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import javax.ws.rs.core.Response.Status;
 
 import org.apache.ibatis.session.SqlSession;
+import org.apache.submarine.commons.utils.SubmarineConfVars.ConfVars;
+import org.apache.submarine.commons.utils.SubmarineConfiguration;
 import org.apache.submarine.commons.utils.exception.SubmarineRuntimeException;
 import org.apache.submarine.server.SubmarineServer;
 import org.apache.submarine.server.api.experiment.Experiment;
@@ -45,6 +40,7 @@ import org.apache.submarine.server.api.spec.ExperimentSpec;
 import org.apache.submarine.server.api.spec.ExperimentTaskSpec;
 import org.apache.submarine.server.api.spec.ExperimentTemplateParamSpec;
 import org.apache.submarine.server.api.spec.ExperimentTemplateSpec;
+import org.apache.submarine.server.database.utils.EntityCache;
 import org.apache.submarine.server.database.utils.MyBatisUtil;
 import org.apache.submarine.server.experiment.ExperimentManager;
 import org.apache.submarine.server.experimenttemplate.database.entity.ExperimentTemplateEntity;
@@ -54,9 +50,8 @@ import org.apache.submarine.server.gson.ExperimentIdSerializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.esotericsoftware.minlog.Log;
-import com.github.wnameless.json.flattener.JsonFlattener;
-import com.github.wnameless.json.unflattener.JsonUnflattener;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 
@@ -73,14 +68,19 @@ public class ExperimentTemplateManager {
       .registerTypeAdapter(ExperimentId.class, new ExperimentIdSerializer())
       .registerTypeAdapter(ExperimentId.class, new ExperimentIdDeserializer());
   private static Gson gson = gsonBuilder.setDateFormat("yyyy-MM-dd HH:mm:ss").create();
+  private static final Gson specGson = gsonBuilder.disableHtmlEscaping().create();
 
+  /**
+   * ExperimentTemplate Cache
+   */
+  private final EntityCache<ExperimentTemplate> cachedExperimentTemplates;
 
+  private final ExperimentTemplateCompiler compiler = new ExperimentTemplateCompiler(gson);
 
   /**
-   * ExperimentTemplate Cache
+   * Compiled ExperimentTemplate Cache, an entry is compiled again once its template spec is replaced
    */
-  private final ConcurrentMap<String, ExperimentTemplate> cachedExperimentTemplates = 
-        new ConcurrentHashMap<>();
+  private final Cache<String, CompiledExperimentTemplate> compiledExperimentTemplates;
 
   /**
    * Get the singleton instance
@@ -99,7 +99,12 @@ public class ExperimentTemplateManager {
   }
 
   private ExperimentTemplateManager() {
-
+    SubmarineConfiguration conf = SubmarineConfiguration.getInstance();
+    int cacheSize = conf.getInt(ConfVars.SUBMARINE_EXPERIMENT_TEMPLATE_CACHE_SIZE);
+    cachedExperimentTemplates = new EntityCache<>("experiment_template", cacheSize,
+        conf.getLong(ConfVars.SUBMARINE_EXPERIMENT_TEMPLATE_CACHE_EXPIRE_MS),
+        this::loadExperimentTemplate, this::loadExperimentTemplates);
+    compiledExperimentTemplates = CacheBuilder.newBuilder().maximumSize(Math.max(cacheSize, 0)).build();
   }
 
   /**
@@ -143,10 +148,11 @@ public class ExperimentTemplateManager {
     String experimentTemplateId = generateExperimentTemplateId().toString();
     entity.setId(experimentTemplateId);
     entity.setExperimentTemplateName(spec.getName());
-    entity.setExperimentTemplateSpec(gsonBuilder.disableHtmlEscaping().create().toJson(spec));
+    entity.setExperimentTemplateSpec(specGson.toJson(spec));
 
-    
-    parameterMapping(spec);
+    // Check the parameters of the template and that its default values can be mapped
+    CompiledExperimentTemplate compiledTemplate = compiler.compile(spec);
+    compiledTemplate.renderDefaults();
 
     try (SqlSession sqlSession = MyBatisUtil.getSqlSession()) {
       ExperimentTemplateMapper experimentTemplateMapper = 
@@ -178,6 +184,7 @@ public class ExperimentTemplateManager {
     }
     // Update cache
     cachedExperimentTemplates.put(spec.getName(), experimentTemplate);
+    compiledExperimentTemplates.put(spec.getName(), compiledTemplate);
 
     return experimentTemplate;
   }
@@ -209,7 +216,8 @@ public class ExperimentTemplateManager {
       sqlSession.commit();
 
       // Invalidate cache
-      cachedExperimentTemplates.remove(name);
+      cachedExperimentTemplates.invalidate(name);
+      compiledExperimentTemplates.invalidate(name);
       return tpl;
     } catch (Exception e) {
       LOG.error(e.getMessage(), e);
@@ -241,34 +249,7 @@ public class ExperimentTemplateManager {
    * @throws SubmarineRuntimeException the service error
    */
   public List<ExperimentTemplate> listExperimentTemplates(String status) throws SubmarineRuntimeException {
-    List<ExperimentTemplate> tpls = new ArrayList<>(cachedExperimentTemplates.values());
-
-    // Is it available in cache?
-    if (tpls != null && tpls.size() != 0) {
-      return tpls;
-    }
-    try (SqlSession sqlSession = MyBatisUtil.getSqlSession()) {
-      ExperimentTemplateMapper experimentTemplateMapper = 
-            sqlSession.getMapper(ExperimentTemplateMapper.class);
-
-      List<ExperimentTemplateEntity> experimentTemplateEntitys = experimentTemplateMapper.selectByKey(null);
-      for (ExperimentTemplateEntity experimentTemplateEntity : experimentTemplateEntitys) {
-        if (experimentTemplateEntity != null) {
-          ExperimentTemplate tpl = new ExperimentTemplate();
-
-          tpl.setExperimentTemplateSpec(
-                gson.fromJson(experimentTemplateEntity.getExperimentTemplateSpec(), 
-                ExperimentTemplateSpec.class));
-          tpls.add(tpl);
-          cachedExperimentTemplates.put(tpl.getExperimentTemplateSpec().getName(), tpl);
-        }
-      }
-    } catch (Exception e) {
-      LOG.error(e.getMessage(), e);
-      throw new SubmarineRuntimeException(Status.BAD_REQUEST.getStatusCode(),
-          "Unable to get the experimentTemplate details.");
-    }
-    return tpls;
+    return cachedExperimentTemplates.list();
   }
 
   private void checkSpec(ExperimentTemplateSpec spec) throws SubmarineRuntimeException {
@@ -279,33 +260,49 @@ public class ExperimentTemplateManager {
   }
 
   private ExperimentTemplate getExperimentTemplateDetails(String name) throws SubmarineRuntimeException {
+    return cachedExperimentTemplates.get(name);
+  }
 
-    // Is it available in cache?
-    ExperimentTemplate tpl = cachedExperimentTemplates.get(name);
-    if (tpl != null) {
-      return tpl;
-    }
-    ExperimentTemplateEntity experimentTemplateEntity;
+  private ExperimentTemplate loadExperimentTemplate(String name) {
     try (SqlSession sqlSession = MyBatisUtil.getSqlSession()) {
       ExperimentTemplateMapper experimentTemplateMapper = 
             sqlSession.getMapper(ExperimentTemplateMapper.class);
+      ExperimentTemplateEntity experimentTemplateEntity = experimentTemplateMapper.select(name);
+      return experimentTemplateEntity == null ? null : toExperimentTemplate(experimentTemplateEntity);
+    } catch (Exception e) {
+      LOG.error(e.getMessage(), e);
+      throw new SubmarineRuntimeException(Status.BAD_REQUEST.getStatusCode(),
+          "Unable to get the experimentTemplate details.");
+    }
+  }
 
-      experimentTemplateEntity = experimentTemplateMapper.select(name);
-
-      if (experimentTemplateEntity != null) {
-        tpl = new ExperimentTemplate();
-        tpl.setExperimentTemplateSpec(
-            gson.fromJson(experimentTemplateEntity.getExperimentTemplateSpec(), 
-            ExperimentTemplateSpec.class));
+  private Map<String, ExperimentTemplate> loadExperimentTemplates() {
+    try (SqlSession sqlSession = MyBatisUtil.getSqlSession()) {
+      ExperimentTemplateMapper experimentTemplateMapper = 
+            sqlSession.getMapper(ExperimentTemplateMapper.class);
+      Map<String, ExperimentTemplate> tpls = new LinkedHashMap<>();
+      for (ExperimentTemplateEntity experimentTemplateEntity : experimentTemplateMapper.selectByKey(null)) {
+        if (experimentTemplateEntity != null) {
+          ExperimentTemplate tpl = toExperimentTemplate(experimentTemplateEntity);
+          tpls.put(tpl.getExperimentTemplateSpec().getName(), tpl);
+        }
       }
+      return tpls;
     } catch (Exception e) {
       LOG.error(e.getMessage(), e);
       throw new SubmarineRuntimeException(Status.BAD_REQUEST.getStatusCode(),
           "Unable to get the experimentTemplate details.");
     }
-    return tpl;
   }
 
+  private ExperimentTemplate toExperimentTemplate(ExperimentTemplateEntity experimentTemplateEntity) {
+    ExperimentTemplate tpl = new ExperimentTemplate();
+    tpl.setExperimentTemplateId(ExperimentTemplateId.fromString(experimentTemplateEntity.getId()));
+    tpl.setExperimentTemplateSpec(
+        gson.fromJson(experimentTemplateEntity.getExperimentTemplateSpec(), 
+        ExperimentTemplateSpec.class));
+    return tpl;
+  }
 
   /**
    * Create ExperimentTemplate
@@ -323,24 +320,21 @@ public class ExperimentTemplateManager {
     }
 
     ExperimentTemplate experimentTemplate = getExperimentTemplate(SubmittedParam.getName());
-    Map<String, String> params = SubmittedParam.getParams();
-    
-    
-    for (ExperimentTemplateParamSpec paramSpec: 
-          experimentTemplate.getExperimentTemplateSpec().getExperimentTemplateParamSpec()) {
-
-      String value = params.get(paramSpec.getName());
-      if (value != null) {
-        paramSpec.setValue(value);
-      }
-    }
-    ExperimentTemplateSpec spec = experimentTemplate.getExperimentTemplateSpec();
+    ExperimentSpec experimentSpec = getCompiledExperimentTemplate(experimentTemplate)
+        .render(SubmittedParam.getParams());
 
-    ExperimentSpec experimentSpec = parameterMapping(spec, params);
-    
     return ExperimentManager.getInstance().createExperiment(experimentSpec);
   }
-  
+
+  private CompiledExperimentTemplate getCompiledExperimentTemplate(ExperimentTemplate experimentTemplate) {
+    ExperimentTemplateSpec spec = experimentTemplate.getExperimentTemplateSpec();
+    CompiledExperimentTemplate compiledTemplate = compiledExperimentTemplates.getIfPresent(spec.getName());
+    if (compiledTemplate == null || compiledTemplate.getSource() != spec) {
+      compiledTemplate = compiler.compile(spec);
+      compiledExperimentTemplates.put(spec.getName(), compiledTemplate);
+    }
+    return compiledTemplate;
+  }
 
   private ExperimentTemplateSpec addResourcesParameter(ExperimentTemplateSpec tplSpec) {
     
@@ -374,145 +368,4 @@ public class ExperimentTemplateManager {
     }
     return tplSpec;
   }
-
-
-  // use template default value to mapping
-  private ExperimentSpec parameterMapping(ExperimentTemplateSpec tplSpec) {
-
-    Map<String, String> paramMap = new HashMap<String, String>();
-    for (ExperimentTemplateParamSpec parm : tplSpec.getExperimentTemplateParamSpec()) {
-      if (parm.getValue() != null) {
-        paramMap.put(parm.getName(), parm.getValue());
-      } else {
-        paramMap.put(parm.getName(), "");
-      }
-    }
-    return parameterMapping(tplSpec, paramMap);
-  }
-
-  private ExperimentSpec parameterMapping(ExperimentTemplateSpec tplspec, Map<String, String> paramMap) {
-        
-    String spec = gson.toJson(tplspec.getExperimentSpec());
-    Map<String, Object> flattenJson = JsonFlattener.flattenAsMap(spec);
-    
-    Log.info(flattenJson.toString());
-    // illegalParamList: The parameters not in template parameters should not be used
-    // Check at submission
-    Map<String, ExperimentTemplateParamSpec> tplparamMap = new HashMap<String, ExperimentTemplateParamSpec>();
-    for (ExperimentTemplateParamSpec tplParam : tplspec.getExperimentTemplateParamSpec()) {
-      tplparamMap.put(tplParam.getName(), tplParam);
-    }
-    Set<String> illegalParamList = new HashSet<String>();
-    for (String key : paramMap.keySet()) {
-      if (tplparamMap.get(key) == null) {
-        illegalParamList.add(key);
-      }
-    }
-    
-    if (illegalParamList.size() > 0) {
-      throw new SubmarineRuntimeException(Status.BAD_REQUEST.getStatusCode(),
-            "Parameters contains illegal key: " + illegalParamList.toString());
-    } 
-    
-    // unmapedParamList: Parameters that should be used in the template but could not be found
-    // Check at registration and submission
-    Set<String> unmapedParamList = new HashSet<String>();
-    for (ExperimentTemplateParamSpec tplParam : tplspec.getExperimentTemplateParamSpec()) {
-      if (paramMap.get(tplParam.getName()) == null) {
-        // use default value
-        if (!Boolean.parseBoolean(tplParam.getRequired())) {
-          paramMap.put(tplParam.getName(), tplParam.getValue());
-        } else {
-          unmapedParamList.add(tplParam.getName());
-        }
-      }
-    }
-   
-    // unusedParamList: Parameters not used by the template
-    // Check at registration
-    Set<String> unusedParamList = new HashSet<String>();
-    for (String s : paramMap.keySet()) {
-      unusedParamList.add(s);
-    }
-
-    // resourceMap needs special handling
-    for (Map.Entry<String, ExperimentTaskSpec> entrySet : tplspec.getExperimentSpec().getSpec().entrySet()) {
-      String cpu = paramMap.get(String.format("spec.%s.resourceMap.cpu", entrySet.getKey()));
-      String memory = paramMap.get(String.format("spec.%s.resourceMap.memory", entrySet.getKey()));
-      flattenJson.put(String.format("spec.%s.resources", entrySet.getKey()), 
-            String.format("cpu=%s,memory=%s", cpu, memory));
-    }
-
-    // Mapping the {{...}} param
-    Pattern pattern = Pattern.compile("\\{\\{(.*?)\\}\\}");
-    for (Map.Entry<String, Object> entry : flattenJson.entrySet()) {
-      boolean isMatch = false;
-      if (entry.getValue() instanceof String) {
-        String value = (String) entry.getValue();
-        Matcher matcher = pattern.matcher(value);
-        StringBuffer sb = new StringBuffer();
-
-        while (matcher.find()) {
-          String name = matcher.group(1);
-          String key = entry.getKey() + ":" + name;
-          
-          // match path+placeholder  ("meta.cmd:parametername")
-          if (paramMap.get(key) != null) {
-            isMatch = true;
-            matcher.appendReplacement(sb, paramMap.get(key));
-            unusedParamList.remove(key);
-            unmapedParamList.remove(key);
-          }
-          // match placeholder ("parametername")
-          else if (paramMap.get(name) != null) {
-            isMatch = true;
-            matcher.appendReplacement(sb, paramMap.get(name));
-            unusedParamList.remove(name);
-            unmapedParamList.remove(name);
-          } else {
-            unmapedParamList.add(key);
-          }
-        }
-        if (isMatch) {
-          matcher.appendTail(sb);
-          flattenJson.put(entry.getKey(), sb.toString());
-        }
-      }
-      // match path ("meta.cmd")
-      if (!isMatch) {
-        String key = entry.getKey();
-        if (paramMap.get(key) != null) {
-          flattenJson.put(key, paramMap.get(key));
-          unusedParamList.remove(key);
-        }
-      }
-    }
-
-    if (unusedParamList.size() > 0) {
-      throw new SubmarineRuntimeException(Status.BAD_REQUEST.getStatusCode(),
-            "Parameters contains unused key: " + unusedParamList.toString());
-    }
-
-    if (unmapedParamList.size() > 0) {
-      throw new SubmarineRuntimeException(Status.BAD_REQUEST.getStatusCode(),
-          "Template contains unmapped value: " + unmapedParamList.toString());
-    }  
-
-    String json = flattenJson.toString();
-    Log.info("flattenJson    " + json);
-
-    String nestedJson = JsonUnflattener.unflatten(json);
-    Log.info("nestedJson    " + nestedJson);
-    
-    ExperimentSpec returnExperimentSpec = null;
-    try {
-      returnExperimentSpec = gson.fromJson(nestedJson, ExperimentSpec.class);
-      Log.info("ExperimentSpec " + returnExperimentSpec.toString());
-
-    } catch (Exception e) {
-      throw new SubmarineRuntimeException(Status.BAD_REQUEST.getStatusCode(),
-          "Template mapping fail: " + e.getMessage() + nestedJson);
-    }
-    return returnExperimentSpec;
-  }
 }
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.submarine.server.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram with fixed bucket upper bounds, the layout follows the Prometheus
+ * histogram type (cumulative bucket counts plus sum and count).
+ */
+public class Histogram {
+  /**
+   * Latency buckets in seconds, from 0.5 ms to 10 s.
+   */
+  public static final double[] LATENCY_SECONDS_BUCKETS = {
+      0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10};
+
+  private final double[] bounds;
+  // counts[i] is the number of observations in (bounds[i - 1], bounds[i]],
+  // the last one counts the observations larger than all the bounds
+  private final LongAdder[] counts;
+  private final DoubleAdder sum = new DoubleAdder();
+  private final LongAdder count = new LongAdder();
+
+  public Histogram(double... bounds) {
+    this.bounds = Arrays.copyOf(bounds, bounds.length);
+    Arrays.sort(this.bounds);
+    this.counts = new LongAdder[this.bounds.length + 1];
+    for (int i = 0; i < counts.length; i++) {
+      counts[i] = new LongAdder();
+    }
+  }
+
+  /**
+   * @return a histogram with the default latency buckets, in seconds
+   */
+  public static Histogram latency() {
+    return new Histogram(LATENCY_SECONDS_BUCKETS);
+  }
+
+  public void observe(double value) {
+    int index = Arrays.binarySearch(bounds, value);
+    if (index < 0) {
+      index = -index - 1;
+    }
+    counts[index].increment();
+    sum.add(value);
+    count.increment();
+  }
+
+  public void observeNanos(long nanos) {
+    observe(nanos / 1e9);
+  }
+
+  public double[] getBounds() {
+    return Arrays.copyOf(bounds, bounds.length);
+  }
+
+  /**
+   * @return the cumulative count of each bucket, the last element is the +Inf bucket
+   */
+  public long[] getCumulativeCounts() {
+    long[] cumulative = new long[counts.length];
+    long total = 0;
+    for (int i = 0; i < counts.length; i++) {
+      total += counts[i].sum();
+      cumulative[i] = total;
+    }
+    return cumulative;
+  }
+
+  public double getSum() {
+    return sum.sum();
+  }
+
+  public long getCount() {
+    return count.sum();
+  }
+}
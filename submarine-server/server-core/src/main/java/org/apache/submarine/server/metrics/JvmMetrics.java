@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.submarine.server.metrics;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Heap, GC and thread metrics of the JVM.
+ */
+public class JvmMetrics {
+  private JvmMetrics() {
+  }
+
+  public static void register(MetricsRegistry registry) {
+    MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    registry.gauge("jvm_memory_bytes_used", "Used bytes of a JVM memory area",
+        () -> memory.getHeapMemoryUsage().getUsed(), "area", "heap");
+    registry.gauge("jvm_memory_bytes_used", "Used bytes of a JVM memory area",
+        () -> memory.getNonHeapMemoryUsage().getUsed(), "area", "nonheap");
+    registry.gauge("jvm_memory_bytes_committed", "Committed bytes of a JVM memory area",
+        () -> memory.getHeapMemoryUsage().getCommitted(), "area", "heap");
+    registry.gauge("jvm_memory_bytes_committed", "Committed bytes of a JVM memory area",
+        () -> memory.getNonHeapMemoryUsage().getCommitted(), "area", "nonheap");
+    registry.gauge("jvm_memory_bytes_max", "Max bytes of a JVM memory area, -1 if undefined",
+        () -> memory.getHeapMemoryUsage().getMax(), "area", "heap");
+
+    for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+      registry.counter("jvm_gc_collection_count", "Number of collections of a JVM garbage collector",
+          gc::getCollectionCount, "gc", gc.getName());
+      registry.counter("jvm_gc_collection_seconds", "Time spent in a JVM garbage collector",
+          () -> gc.getCollectionTime() / 1e3, "gc", gc.getName());
+    }
+
+    ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    registry.gauge("jvm_threads_current", "Current thread count of the JVM", threads::getThreadCount);
+    registry.gauge("jvm_threads_daemon", "Daemon thread count of the JVM", threads::getDaemonThreadCount);
+  }
+}
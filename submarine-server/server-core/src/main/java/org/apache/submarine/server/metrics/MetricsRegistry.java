@@ -0,0 +1,210 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.submarine.server.metrics;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Registry of the server metrics, exported in the Prometheus text format.
+ * <p>
+ * A metric is identified by its name and its label values, the labels are given as
+ * alternating names and values, e.g. {@code timer("x_seconds", "help", "path", "/v1/x")}.
+ * The label values must have a bounded cardinality (templates rather than raw paths).
+ */
+public class MetricsRegistry {
+  public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+  private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+
+  private final ConcurrentMap<String, Family> families = new ConcurrentHashMap<>();
+
+  public static MetricsRegistry getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * @return the latency histogram of the metric, in seconds, created on the first call
+   */
+  public Histogram timer(String name, String help, String... labels) {
+    return (Histogram) family(name, help, Type.HISTOGRAM)
+        .metrics.computeIfAbsent(labels(labels), key -> Histogram.latency());
+  }
+
+  /**
+   * Register a histogram owned by another component
+   */
+  public void histogram(String name, String help, Histogram histogram, String... labels) {
+    family(name, help, Type.HISTOGRAM).metrics.put(labels(labels), histogram);
+  }
+
+  /**
+   * @return the counter of the metric, created on the first call
+   */
+  public LongAdder counter(String name, String help, String... labels) {
+    return (LongAdder) family(name, help, Type.COUNTER)
+        .metrics.computeIfAbsent(labels(labels), key -> new LongAdder());
+  }
+
+  /**
+   * Register a counter whose value is read when the metrics are scraped
+   */
+  public void counter(String name, String help, DoubleSupplier value, String... labels) {
+    family(name, help, Type.COUNTER).metrics.put(labels(labels), value);
+  }
+
+  /**
+   * Register a gauge whose value is read when the metrics are scraped
+   */
+  public void gauge(String name, String help, DoubleSupplier value, String... labels) {
+    family(name, help, Type.GAUGE).metrics.put(labels(labels), value);
+  }
+
+  public void clear() {
+    families.clear();
+  }
+
+  /**
+   * Write all the metrics in the Prometheus text format, version 0.0.4
+   */
+  public void write(Writer writer) throws IOException {
+    for (Family family : new TreeMap<>(families).values()) {
+      writer.write("# HELP " + family.name + " " + escapeHelp(family.help) + "\n");
+      writer.write("# TYPE " + family.name + " " + family.type.name().toLowerCase() + "\n");
+      for (Map.Entry<String, Object> metric : new TreeMap<>(family.metrics).entrySet()) {
+        String labels = metric.getKey();
+        Object value = metric.getValue();
+        if (value instanceof Histogram) {
+          writeHistogram(writer, family.name, labels, (Histogram) value);
+        } else if (value instanceof LongAdder) {
+          writeSample(writer, family.name, labels, ((LongAdder) value).sum());
+        } else {
+          writeSample(writer, family.name, labels, ((DoubleSupplier) value).getAsDouble());
+        }
+      }
+    }
+  }
+
+  /**
+   * @return all the metrics in the Prometheus text format
+   */
+  public String scrape() {
+    StringWriter writer = new StringWriter();
+    try {
+      write(writer);
+    } catch (IOException e) {
+      // StringWriter does not throw
+      throw new IllegalStateException(e);
+    }
+    return writer.toString();
+  }
+
+  private Family family(String name, String help, Type type) {
+    Family family = families.computeIfAbsent(name, key -> new Family(name, help, type));
+    if (family.type != type) {
+      throw new IllegalArgumentException("Metric " + name + " is already registered as a " +
+          family.type.name().toLowerCase());
+    }
+    return family;
+  }
+
+  private static void writeHistogram(Writer writer, String name, String labels, Histogram histogram)
+      throws IOException {
+    double[] bounds = histogram.getBounds();
+    long[] counts = histogram.getCumulativeCounts();
+    String separator = labels.isEmpty() ? "" : ",";
+    for (int i = 0; i < bounds.length; i++) {
+      writeSample(writer, name + "_bucket", labels + separator + "le=\"" + format(bounds[i]) + "\"",
+          counts[i]);
+    }
+    writeSample(writer, name + "_bucket", labels + separator + "le=\"+Inf\"", counts[bounds.length]);
+    writeSample(writer, name + "_count", labels, counts[bounds.length]);
+    writeSample(writer, name + "_sum", labels, histogram.getSum());
+  }
+
+  private static void writeSample(Writer writer, String name, String labels, double value)
+      throws IOException {
+    writer.write(name);
+    if (!labels.isEmpty()) {
+      writer.write("{" + labels + "}");
+    }
+    writer.write(" " + format(value) + "\n");
+  }
+
+  private static String format(double value) {
+    if (value == Double.POSITIVE_INFINITY) {
+      return "+Inf";
+    } else if (value == Double.NEGATIVE_INFINITY) {
+      return "-Inf";
+    } else if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+      return String.valueOf((long) value);
+    }
+    return String.valueOf(value);
+  }
+
+  /**
+   * Render the label pairs as {@code name="value",...}, also used as the key of the metric
+   */
+  static String labels(String... labels) {
+    if (labels.length % 2 != 0) {
+      throw new IllegalArgumentException("Labels must be given as name and value pairs");
+    }
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < labels.length; i += 2) {
+      if (i > 0) {
+        builder.append(',');
+      }
+      builder.append(labels[i]).append("=\"").append(escapeLabelValue(labels[i + 1])).append('"');
+    }
+    return builder.toString();
+  }
+
+  private static String escapeLabelValue(String value) {
+    return String.valueOf(value).replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+  }
+
+  private static String escapeHelp(String help) {
+    return help.replace("\\", "\\\\").replace("\n", "\\n");
+  }
+
+  private enum Type {
+    COUNTER, GAUGE, HISTOGRAM
+  }
+
+  private static class Family {
+    private final String name;
+    private final String help;
+    private final Type type;
+    // rendered labels -> LongAdder, DoubleSupplier or Histogram
+    private final ConcurrentMap<String, Object> metrics = new ConcurrentHashMap<>();
+
+    Family(String name, String help, Type type) {
+      this.name = name;
+      this.help = help;
+      this.type = type;
+    }
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.submarine.server.metrics;
+
+import org.apache.submarine.server.response.JsonResponse;
+import org.glassfish.jersey.server.ExtendedUriInfo;
+import org.glassfish.jersey.uri.UriTemplate;
+
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.UriInfo;
+import javax.ws.rs.ext.Provider;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Times the REST requests per resource path template, e.g. {@code /v1/experiment/{id}}.
+ * The time of a {@link JsonResponse} includes its serialisation, the time of another
+ * response body, e.g. a streamed log, is not included.
+ */
+@Provider
+public class RestMetricsFilter implements ContainerRequestFilter, ContainerResponseFilter,
+    WriterInterceptor {
+  static final String METRIC_NAME = "submarine_rest_request_seconds";
+  private static final String START_NANOS = RestMetricsFilter.class.getName() + ".startNanos";
+  private static final String TIMING = RestMetricsFilter.class.getName() + ".timing";
+
+  @Override
+  public void filter(ContainerRequestContext requestContext) {
+    requestContext.setProperty(START_NANOS, System.nanoTime());
+  }
+
+  @Override
+  public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+    Object startNanos = requestContext.getProperty(START_NANOS);
+    if (startNanos == null) {
+      // The request did not match a resource, or the response is already timed
+      return;
+    }
+    // The error response replacing a response which failed to be written is not timed again
+    requestContext.removeProperty(START_NANOS);
+    Timing timing = new Timing(requestContext.getMethod(),
+        getPathTemplate(requestContext.getUriInfo()), responseContext.getStatus(), (Long) startNanos);
+    if (responseContext.getEntity() instanceof JsonResponse) {
+      // Timed once the entity is serialised, by aroundWriteTo
+      requestContext.setProperty(TIMING, timing);
+    } else {
+      timing.observe(timing.status);
+    }
+  }
+
+  @Override
+  public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+    Object timing = context.getProperty(TIMING);
+    if (timing == null) {
+      context.proceed();
+      return;
+    }
+    context.removeProperty(TIMING);
+    int status = ((Timing) timing).status;
+    try {
+      context.proceed();
+    } catch (IOException | RuntimeException e) {
+      // Jersey sends an error response instead, when the status is not committed yet
+      status = Response.Status.INTERNAL_SERVER_ERROR.getStatusCode();
+      throw e;
+    } finally {
+      ((Timing) timing).observe(status);
+    }
+  }
+
+  static String getPathTemplate(UriInfo uriInfo) {
+    if (!(uriInfo instanceof ExtendedUriInfo)) {
+      return "unknown";
+    }
+    // The matched templates are ordered from the resource method to the root resource
+    List<UriTemplate> templates = ((ExtendedUriInfo) uriInfo).getMatchedTemplates();
+    StringBuilder path = new StringBuilder();
+    for (int i = templates.size() - 1; i >= 0; i--) {
+      String template = templates.get(i).getTemplate();
+      if (!template.startsWith("/")) {
+        path.append('/');
+      }
+      path.append(template);
+    }
+    String result = path.toString().replaceAll("/+", "/");
+    if (result.length() > 1 && result.endsWith("/")) {
+      result = result.substring(0, result.length() - 1);
+    }
+    return result.isEmpty() ? "/" : result;
+  }
+
+  private static class Timing {
+    private final String method;
+    private final String path;
+    private final int status;
+    private final long startNanos;
+
+    Timing(String method, String path, int status, long startNanos) {
+      this.method = method;
+      this.path = path;
+      this.status = status;
+      this.startNanos = startNanos;
+    }
+
+    void observe(int responseStatus) {
+      MetricsRegistry.getInstance().timer(METRIC_NAME, "Latency of the REST requests",
+          "method", method, "path", path, "status", String.valueOf(responseStatus))
+          .observeNanos(System.nanoTime() - startNanos);
+    }
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.submarine.server.metrics;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * Times the calls of an interface per method name.
+ */
+public class TimedProxy {
+  private TimedProxy() {
+  }
+
+  /**
+   * @param type   interface to time
+   * @param target implementation of the interface
+   * @param metric name of the timer, the failures are counted in {@code <metric>_errors_total}
+   * @param help   description of the timer
+   * @return a proxy recording the latency of each call of the target
+   */
+  public static <T> T wrap(Class<T> type, T target, String metric, String help) {
+    MetricsRegistry registry = MetricsRegistry.getInstance();
+    Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+        (instance, method, args) -> {
+          if (method.getDeclaringClass() == Object.class) {
+            return invoke(method, target, args);
+          }
+          long start = System.nanoTime();
+          try {
+            return invoke(method, target, args);
+          } catch (Throwable e) {
+            registry.counter(metric + "_errors_total", "Failed calls of " + type.getSimpleName(),
+                "method", method.getName()).increment();
+            throw e;
+          } finally {
+            registry.timer(metric, help, "method", method.getName()).observeNanos(System.nanoTime() - start);
+          }
+        });
+    return type.cast(proxy);
+  }
+
+  private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+}
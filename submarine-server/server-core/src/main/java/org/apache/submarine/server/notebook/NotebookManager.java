@@ -19,6 +19,8 @@
 
 package org.apache.submarine.server.notebook;
 
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
 import org.apache.submarine.commons.utils.exception.SubmarineRuntimeException;
 import org.apache.submarine.server.SubmarineServer;
 import org.apache.submarine.server.SubmitterManager;
@@ -28,34 +30,54 @@ import org.apache.submarine.server.api.notebook.Notebook;
 import org.apache.submarine.server.api.notebook.NotebookId;
 import org.apache.submarine.server.api.spec.NotebookSpec;
 import org.apache.submarine.server.environment.EnvironmentManager;
+import org.apache.submarine.server.notebook.database.NotebookEntity;
+import org.apache.submarine.server.notebook.database.NotebookService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.ws.rs.core.Response;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class NotebookManager {
 
+  private static final Logger LOG = LoggerFactory.getLogger(NotebookManager.class);
+
   private static volatile NotebookManager manager;
 
+  private static final Gson GSON = new GsonBuilder().disableHtmlEscaping().create();
+
   private final Submitter submitter;
 
-  private NotebookManager(Submitter submitter) {
-    this.submitter = submitter;
-  }
+  private final NotebookService notebookService;
 
   private final AtomicInteger notebookCounter = new AtomicInteger(0);
 
   /**
-   * Used to cache the specs by the notebook id.
+   * Used to cache the notebooks by the notebook id, it is a write-through cache
+   * of the notebook table.
    *  key: the string of notebook id
    *  value: Notebook object
    */
   private final ConcurrentMap<String, Notebook> cachedNotebookMap = new ConcurrentHashMap<>();
 
+  /**
+   * Index of the cached notebooks by the uid of the notebook resource.
+   *  key: the uid of the notebook resource
+   *  value: the string of notebook id
+   */
+  private final ConcurrentMap<String, String> notebookIdByUid = new ConcurrentHashMap<>();
+
+  private volatile boolean loaded = false;
+
+  protected NotebookManager(Submitter submitter, NotebookService notebookService) {
+    this.submitter = submitter;
+    this.notebookService = notebookService;
+  }
+
   /**
    * Get the singleton instance
    * @return object
@@ -64,7 +86,7 @@ public class NotebookManager {
     if (manager == null) {
       synchronized (NotebookManager.class) {
         if (manager == null) {
-          manager = new NotebookManager(SubmitterManager.loadSubmitter());
+          manager = new NotebookManager(SubmitterManager.loadSubmitter(), new NotebookService());
         }
       }
     }
@@ -79,20 +101,37 @@ public class NotebookManager {
    */
   public Notebook createNotebook(NotebookSpec spec) throws SubmarineRuntimeException {
     checkNotebookSpec(spec);
+    loadNotebooks();
     String lowerName = spec.getMeta().getName().toLowerCase();
     spec.getMeta().setName(lowerName);
+    // Resolve the environment before the notebook resource is created, a missing
+    // environment fails the creation without leaving a resource behind
+    EnvironmentManager environmentManager = EnvironmentManager.getInstance();
+    Environment environment = environmentManager.getEnvironment(spec.getEnvironment().getName());
+
     Notebook notebook = submitter.createNotebook(spec);
     notebook.setNotebookId(generateNotebookId());
     notebook.setSpec(spec);
 
     // environment information
     NotebookSpec notebookSpec = notebook.getSpec();
-    EnvironmentManager environmentManager = EnvironmentManager.getInstance();
-    Environment environment = environmentManager.getEnvironment(spec.getEnvironment().getName());
     if (environment.getEnvironmentSpec() != null) {
       notebookSpec.setEnvironment(environment.getEnvironmentSpec());
     }
-    cachedNotebookMap.putIfAbsent(notebook.getNotebookId().toString(), notebook);
+
+    try {
+      notebookService.insert(buildEntityFromNotebook(notebook));
+    } catch (RuntimeException e) {
+      // Not recorded, the notebook could neither be listed nor deleted, delete its resource
+      LOG.error("Failed to record the notebook {}, delete it", lowerName, e);
+      try {
+        submitter.deleteNotebook(spec);
+      } catch (RuntimeException deleteException) {
+        LOG.error("Failed to delete the notebook {}", lowerName, deleteException);
+      }
+      throw e;
+    }
+    cacheNotebook(notebook);
     return notebook;
   }
 
@@ -103,12 +142,16 @@ public class NotebookManager {
    * @throws SubmarineRuntimeException the service error
    */
   public List<Notebook> listNotebooksByNamespace(String namespace) throws SubmarineRuntimeException {
+    loadNotebooks();
     List<Notebook> notebookList = new ArrayList<>();
-    for (Map.Entry<String, Notebook> entry : cachedNotebookMap.entrySet()) {
-      Notebook notebook = entry.getValue();
-      Notebook patchNotebook = submitter.findNotebook(notebook.getSpec());
+    // One list call for all the notebooks, joined with the registry by uid
+    for (Notebook patchNotebook : submitter.listNotebook(null)) {
+      Notebook notebook = getCachedNotebookByUid(patchNotebook.getUid());
+      if (notebook == null) {
+        continue;
+      }
       if (namespace == null || namespace.length() == 0
-              || namespace.toLowerCase().equals(patchNotebook.getSpec().getMeta().getNamespace())) {
+              || namespace.toLowerCase().equals(notebook.getSpec().getMeta().getNamespace())) {
         notebook.rebuild(patchNotebook);
         notebookList.add(notebook);
       }
@@ -122,14 +165,13 @@ public class NotebookManager {
    * @return a list of notebook
    */
   public List<Notebook> listNotebooksByUserId(String id) {
+    loadNotebooks();
     List<Notebook> notebookList = submitter.listNotebook(id);
     for (Notebook notebook : notebookList) {
-      for (Map.Entry<String, Notebook> entry : cachedNotebookMap.entrySet()) {
-        Notebook cachedNotebook = entry.getValue();
-        if (cachedNotebook.getUid().equals(notebook.getUid())) {
-          notebook.setNotebookId(cachedNotebook.getNotebookId());
-          notebook.setSpec(cachedNotebook.getSpec());
-        }
+      Notebook cachedNotebook = getCachedNotebookByUid(notebook.getUid());
+      if (cachedNotebook != null) {
+        notebook.setNotebookId(cachedNotebook.getNotebookId());
+        notebook.setSpec(cachedNotebook.getSpec());
       }
     }
     return notebookList;
@@ -146,7 +188,12 @@ public class NotebookManager {
     Notebook notebook = cachedNotebookMap.get(id);
     NotebookSpec spec = notebook.getSpec();
     Notebook patchNotebook = submitter.findNotebook(spec);
+    boolean missingUid = notebook.getUid() == null;
     notebook.rebuild(patchNotebook);
+    if (missingUid && notebook.getUid() != null) {
+      notebookService.update(buildEntityFromNotebook(notebook));
+      indexNotebookUid(notebook);
+    }
     return notebook;
   }
 
@@ -158,9 +205,14 @@ public class NotebookManager {
    */
   public Notebook deleteNotebook(String id) throws SubmarineRuntimeException {
     checkNotebookId(id);
-    Notebook notebook = cachedNotebookMap.remove(id);
+    Notebook notebook = cachedNotebookMap.get(id);
     NotebookSpec spec = notebook.getSpec();
     Notebook patchNotebook = submitter.deleteNotebook(spec);
+    notebookService.delete(id);
+    cachedNotebookMap.remove(id);
+    if (notebook.getUid() != null) {
+      notebookIdByUid.remove(notebook.getUid(), id);
+    }
     notebook.rebuild(patchNotebook);
     return notebook;
   }
@@ -169,11 +221,81 @@ public class NotebookManager {
    * Generate a unique notebook id
    * @return notebook id
    */
-  private NotebookId generateNotebookId() {
+  protected NotebookId generateNotebookId() {
     return NotebookId.newInstance(SubmarineServer.getServerTimeStamp(),
             notebookCounter.incrementAndGet());
   }
 
+  /**
+   * Find the notebook managed by submarine of a notebook resource
+   * @param uid the uid of the notebook resource
+   * @return the notebook id, null if the resource is not managed by submarine
+   */
+  public String findNotebookIdByUid(String uid) {
+    if (uid == null) {
+      return null;
+    }
+    loadNotebooks();
+    return notebookIdByUid.get(uid);
+  }
+
+  /**
+   * Load the notebooks persisted in the database into the cache, this happens
+   * once, so that the notebooks created before a restart are still managed.
+   */
+  private void loadNotebooks() {
+    if (loaded) {
+      return;
+    }
+    synchronized (this) {
+      if (loaded) {
+        return;
+      }
+      for (NotebookEntity entity : notebookService.selectAll()) {
+        Notebook notebook = buildNotebookFromEntity(entity);
+        cachedNotebookMap.putIfAbsent(entity.getId(), notebook);
+        indexNotebookUid(notebook);
+      }
+      LOG.info("Loaded {} notebooks from database", cachedNotebookMap.size());
+      loaded = true;
+    }
+  }
+
+  private void cacheNotebook(Notebook notebook) {
+    cachedNotebookMap.put(notebook.getNotebookId().toString(), notebook);
+    indexNotebookUid(notebook);
+  }
+
+  private void indexNotebookUid(Notebook notebook) {
+    if (notebook.getUid() != null) {
+      notebookIdByUid.put(notebook.getUid(), notebook.getNotebookId().toString());
+    }
+  }
+
+  private Notebook getCachedNotebookByUid(String uid) {
+    if (uid == null) {
+      return null;
+    }
+    String id = notebookIdByUid.get(uid);
+    return id == null ? null : cachedNotebookMap.get(id);
+  }
+
+  private Notebook buildNotebookFromEntity(NotebookEntity entity) {
+    Notebook notebook = new Notebook();
+    notebook.setNotebookId(NotebookId.fromString(entity.getId()));
+    notebook.setUid(entity.getUid());
+    notebook.setSpec(GSON.fromJson(entity.getNotebookSpec(), NotebookSpec.class));
+    return notebook;
+  }
+
+  private NotebookEntity buildEntityFromNotebook(Notebook notebook) {
+    NotebookEntity entity = new NotebookEntity();
+    entity.setId(notebook.getNotebookId().toString());
+    entity.setUid(notebook.getUid());
+    entity.setNotebookSpec(GSON.toJson(notebook.getSpec()));
+    return entity;
+  }
+
   /**
    * Check if notebook spec is valid
    * @param spec notebook spec
@@ -187,6 +309,7 @@ public class NotebookManager {
   }
 
   private void checkNotebookId(String id) throws SubmarineRuntimeException {
+    loadNotebooks();
     NotebookId notebookId = NotebookId.fromString(id);
     if (notebookId == null || !cachedNotebookMap.containsKey(id)) {
       throw new SubmarineRuntimeException(Response.Status.NOT_FOUND.getStatusCode(),
@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.submarine.server.response;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.annotations.SerializedName;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import org.apache.submarine.server.workbench.annotation.Dict;
+import org.apache.submarine.server.workbench.database.service.SysDictItemCache;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Serialises the classes with @Dict fields with the name of the dictionary item of each
+ * of these fields, in a companion field suffixed by {@link #DICT_SUFFIX}: a field "sex"
+ * with the value "1" is followed by "sex@dict": "Male".
+ *
+ * The object is serialised by the default adapter of Gson, so the field names, @Expose and
+ * the exclusion strategies apply, then the companion fields are added. The @Dict fields of
+ * a class are resolved once, when Gson asks for its adapter, and the items come from the
+ * {@link SysDictItemCache}. A companion field is only written when the dictionary has
+ * items, it is null when the value is not one of them. The other classes and the
+ * deserialisation are left to the default adapters.
+ */
+public class DictTypeAdapterFactory implements TypeAdapterFactory {
+  public static final String DICT_SUFFIX = "@dict";
+
+  // dict code -> {item code -> item name}
+  private final Function<String, Map<String, String>> dictionary;
+
+  public DictTypeAdapterFactory() {
+    this(dictCode -> SysDictItemCache.getInstance().getItemNames(dictCode));
+  }
+
+  public DictTypeAdapterFactory(Function<String, Map<String, String>> dictionary) {
+    this.dictionary = dictionary;
+  }
+
+  @Override
+  public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+    Class<?> rawType = type.getRawType();
+    if (rawType.isInterface() || rawType.isPrimitive() || rawType.isArray()
+        || rawType.getName().startsWith("java.")) {
+      return null;
+    }
+
+    Map<String, String> dictCodes = getDictCodes(gson, rawType);
+    if (dictCodes.isEmpty()) {
+      return null;
+    }
+    return new DictTypeAdapter<>(gson.getDelegateAdapter(this, type),
+        gson.getAdapter(JsonElement.class), dictCodes);
+  }
+
+  /**
+   * @return the dict code of the @Dict fields, by the name Gson serialises them with
+   */
+  private static Map<String, String> getDictCodes(Gson gson, Class<?> clazz) {
+    Map<String, String> dictCodes = new LinkedHashMap<>();
+    for (Class<?> c = clazz; c != null && c != Object.class; c = c.getSuperclass()) {
+      for (Field field : c.getDeclaredFields()) {
+        Dict dict = field.getAnnotation(Dict.class);
+        if (dict != null) {
+          SerializedName serializedName = field.getAnnotation(SerializedName.class);
+          dictCodes.put(serializedName != null ? serializedName.value()
+              : gson.fieldNamingStrategy().translateName(field), dict.Code());
+        }
+      }
+    }
+    return dictCodes;
+  }
+
+  private class DictTypeAdapter<T> extends TypeAdapter<T> {
+    private final TypeAdapter<T> delegate;
+    private final TypeAdapter<JsonElement> elementAdapter;
+    private final Map<String, String> dictCodes;
+
+    DictTypeAdapter(TypeAdapter<T> delegate, TypeAdapter<JsonElement> elementAdapter,
+        Map<String, String> dictCodes) {
+      this.delegate = delegate;
+      this.elementAdapter = elementAdapter;
+      this.dictCodes = dictCodes;
+    }
+
+    @Override
+    public void write(JsonWriter out, T value) throws IOException {
+      // The default adapter applies the field names, the exclusions and @Expose of Gson
+      JsonElement tree = delegate.toJsonTree(value);
+      if (!tree.isJsonObject()) {
+        elementAdapter.write(out, tree);
+        return;
+      }
+
+      JsonObject json = new JsonObject();
+      for (Map.Entry<String, JsonElement> member : tree.getAsJsonObject().entrySet()) {
+        json.add(member.getKey(), member.getValue());
+        String dictCode = dictCodes.get(member.getKey());
+        String companion = member.getKey() + DICT_SUFFIX;
+        if (dictCode == null || tree.getAsJsonObject().has(companion)) {
+          continue;
+        }
+        Map<String, String> itemNames = dictionary.apply(dictCode);
+        if (!itemNames.isEmpty()) {
+          String itemName = itemNames.get(toItemCode(member.getValue()));
+          json.add(companion, itemName == null ? JsonNull.INSTANCE : new JsonPrimitive(itemName));
+        }
+      }
+      elementAdapter.write(out, json);
+    }
+
+    @Override
+    public T read(JsonReader in) throws IOException {
+      // The companion fields are unknown to the class, so they are skipped
+      return delegate.read(in);
+    }
+  }
+
+  private static String toItemCode(JsonElement value) {
+    return value.isJsonPrimitive() ? value.getAsString() : String.valueOf(value);
+  }
+}
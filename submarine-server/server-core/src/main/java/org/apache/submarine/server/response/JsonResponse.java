@@ -23,6 +23,7 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonWriter;
 import org.apache.submarine.server.api.environment.EnvironmentId;
 import org.apache.submarine.server.api.experiment.ExperimentId;
 import org.apache.submarine.server.gson.EnvironmentIdDeserializer;
@@ -38,6 +39,8 @@ import org.slf4j.LoggerFactory;
 import javax.ws.rs.core.NewCookie;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.ResponseBuilder;
+import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
@@ -63,8 +66,6 @@ public class JsonResponse<T> {
 
   private static Gson safeGson = null;
 
-  private static final String CGLIB_PROPERTY_PREFIX = "\\$cglib_prop_";
-
   private JsonResponse(Builder<T> builder) {
     this.code = builder.code;
     this.success = builder.success;
@@ -157,6 +158,20 @@ public class JsonResponse<T> {
 
   @Override
   public String toString() {
+    return getGson().toJson(this);
+  }
+
+  /**
+   * Write the JSON of the response to the writer, without building it in memory first
+   */
+  public void writeTo(Writer writer) throws IOException {
+    Gson gson = getGson();
+    JsonWriter jsonWriter = gson.newJsonWriter(writer);
+    gson.toJson(this, JsonResponse.class, jsonWriter);
+    jsonWriter.flush();
+  }
+
+  private Gson getGson() {
     if (safeGson == null) {
       GsonBuilder gsonBuilder = new GsonBuilder();
       if (pretty) {
@@ -182,29 +197,15 @@ public class JsonResponse<T> {
           .registerTypeAdapter(EnvironmentId.class, new EnvironmentIdDeserializer())
           .registerTypeAdapter(NotebookId.class, new NotebookIdSerializer())
           .registerTypeAdapter(NotebookId.class, new NotebookIdDeserializer())
+          .registerTypeAdapterFactory(new DictTypeAdapterFactory())
           .serializeNulls()
           .create();
     }
-
-    boolean haveDictAnnotation = false;
-    try {
-      if (null != getResult()) {
-        haveDictAnnotation = DictAnnotation.parseDictAnnotation(getResult());
-      }
-    } catch (Exception e) {
-      LOG.error(e.getMessage(), e);
-    }
-
-    String json = safeGson.toJson(this);
-    if (haveDictAnnotation) {
-      json = json.replaceAll(CGLIB_PROPERTY_PREFIX, "");
-    }
-
-    return json;
+    return safeGson;
   }
 
   private synchronized javax.ws.rs.core.Response build() {
-    ResponseBuilder r = javax.ws.rs.core.Response.status(status).entity(this.toString());
+    ResponseBuilder r = javax.ws.rs.core.Response.status(status).entity(this);
     if (cookies != null) {
       for (NewCookie nc : cookies) {
         r.cookie(nc);
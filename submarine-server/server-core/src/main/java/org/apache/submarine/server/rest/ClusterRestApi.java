@@ -83,6 +83,18 @@ public class ClusterRestApi {
     clusterMeta = clusterServer.getClusterMeta(ClusterMetaType.SERVER_META, "");
     intpMeta = clusterServer.getClusterMeta(ClusterMetaType.INTP_PROCESS_META, "");
 
+    // Group the interpreter processes by node in one pass
+    Map<String, ArrayList<String>> intpProcessesByNode = new HashMap<>();
+    for (Map.Entry<String, HashMap<String, Object>> intpMetaEntity : intpMeta.entrySet()) {
+      if (!intpMetaEntity.getValue().containsKey(ClusterMeta.NODE_NAME)
+          && !intpMetaEntity.getValue().containsKey(ClusterMeta.INTP_PROCESS_NAME)) {
+        continue;
+      }
+      String intpNodeName = (String) intpMetaEntity.getValue().get(ClusterMeta.NODE_NAME);
+      String intpName = (String) intpMetaEntity.getValue().get(ClusterMeta.INTP_PROCESS_NAME);
+      intpProcessesByNode.computeIfAbsent(intpNodeName, k -> new ArrayList<>()).add(intpName);
+    }
+
     // Number of interpreter processes
     for (Map.Entry<String, HashMap<String, Object>> serverMetaEntity : clusterMeta.entrySet()) {
       if (!serverMetaEntity.getValue().containsKey(ClusterMeta.NODE_NAME)) {
@@ -90,22 +102,9 @@ public class ClusterRestApi {
       }
       String serverNodeName = (String) serverMetaEntity.getValue().get(ClusterMeta.NODE_NAME);
 
-      ArrayList<String> arrIntpProcess = new ArrayList<>();
-      int intpProcCount = 0;
-      for (Map.Entry<String, HashMap<String, Object>> intpMetaEntity : intpMeta.entrySet()) {
-        if (!intpMetaEntity.getValue().containsKey(ClusterMeta.NODE_NAME)
-            && !intpMetaEntity.getValue().containsKey(ClusterMeta.INTP_PROCESS_NAME)) {
-          continue;
-        }
-        String intpNodeName = (String) intpMetaEntity.getValue().get(ClusterMeta.NODE_NAME);
-
-        if (serverNodeName.equals(intpNodeName)) {
-          intpProcCount++;
-          String intpName = (String) intpMetaEntity.getValue().get(ClusterMeta.INTP_PROCESS_NAME);
-          arrIntpProcess.add(intpName);
-        }
-      }
-      serverMetaEntity.getValue().put(ClusterMeta.INTP_PROCESS_COUNT, intpProcCount);
+      ArrayList<String> arrIntpProcess
+          = intpProcessesByNode.getOrDefault(serverNodeName, new ArrayList<>());
+      serverMetaEntity.getValue().put(ClusterMeta.INTP_PROCESS_COUNT, arrIntpProcess.size());
       serverMetaEntity.getValue().put(ClusterMeta.INTP_PROCESS_LIST, arrIntpProcess);
     }
 
@@ -187,8 +186,9 @@ public class ClusterRestApi {
                                  @PathParam("intpName") String intpName){
     ArrayList<HashMap<String, Object>> intpProcesses = new ArrayList<>();
 
-    Map<String, HashMap<String, Object>> intpMeta = null;
-    intpMeta = clusterServer.getClusterMeta(ClusterMetaType.INTP_PROCESS_META, "");
+    // The interpreter processes of the node
+    Map<String, HashMap<String, Object>> intpMeta = clusterServer.findClusterMeta(
+        ClusterMetaType.INTP_PROCESS_META, ClusterMeta.NODE_NAME, nodeName);
 
     // Number of calculation processes
     for (Map.Entry<String, HashMap<String, Object>> intpMetaEntity : intpMeta.entrySet()) {
@@ -21,6 +21,7 @@ package org.apache.submarine.server.rest;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
+import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
 import javax.ws.rs.PATCH;
 import javax.ws.rs.POST;
@@ -30,6 +31,10 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
 
 import com.google.common.annotations.VisibleForTesting;
@@ -48,6 +53,7 @@ import org.apache.submarine.server.api.experiment.ServeResponse;
 import org.apache.submarine.server.experiment.ExperimentManager;
 import org.apache.submarine.server.experimenttemplate.ExperimentTemplateManager;
 import org.apache.submarine.server.api.experiment.ExperimentLog;
+import org.apache.submarine.server.api.experiment.ExperimentLogOptions;
 import org.apache.submarine.server.api.experimenttemplate.ExperimentTemplateSubmit;
 import org.apache.submarine.server.api.spec.ExperimentSpec;
 import org.apache.submarine.server.response.JsonResponse;
@@ -264,6 +270,53 @@ public class ExperimentRestApi {
     }
   }
 
+  @GET
+  @Path("/logs/{id}/stream")
+  @Produces({MediaType.TEXT_PLAIN + "; " + RestConstants.CHARSET_UTF8})
+  @Operation(summary = "Stream the log of experiment by id",
+      tags = {"experiment"},
+      responses = {
+          @ApiResponse(description = "successful operation", content = @Content(
+              schema = @Schema(implementation = String.class))),
+          @ApiResponse(responseCode = "400", description = "Invalid log options"),
+          @ApiResponse(responseCode = "404", description = "Experiment or pod not found")})
+  public Response streamLog(@PathParam(RestConstants.ID) String id,
+                            @QueryParam("pod") String pod,
+                            @QueryParam("tailLines") Integer tailLines,
+                            @QueryParam("sinceSeconds") Integer sinceSeconds,
+                            @QueryParam("follow") @DefaultValue("false") boolean follow,
+                            @QueryParam("offset") @DefaultValue("0") long offset,
+                            @QueryParam("limitBytes") Integer limitBytes) {
+    if ((tailLines != null && tailLines < 0) || (sinceSeconds != null && sinceSeconds <= 0)
+        || offset < 0 || (limitBytes != null && limitBytes <= 0)) {
+      return parseExperimentServiceException(new SubmarineRuntimeException(
+          Response.Status.BAD_REQUEST.getStatusCode(), "Invalid log options"));
+    }
+    ExperimentLogOptions options = new ExperimentLogOptions().podName(pod).tailLines(tailLines)
+        .sinceSeconds(sinceSeconds).follow(follow).offset(offset).limitBytes(limitBytes);
+    final InputStream in;
+    try {
+      in = experimentManager.getExperimentLogStream(id, options);
+    } catch (SubmarineRuntimeException e) {
+      return parseExperimentServiceException(e);
+    }
+
+    // Copy the log as it comes, so that the followed log reaches the client without delay
+    StreamingOutput output = (OutputStream out) -> {
+      try (InputStream log = in) {
+        byte[] buffer = new byte[8192];
+        int n;
+        while ((n = log.read(buffer)) != -1) {
+          out.write(buffer, 0, n);
+          out.flush();
+        }
+      } catch (SubmarineRuntimeException e) {
+        throw new IOException(e.getMessage(), e);
+      }
+    };
+    return Response.ok(output).build();
+  }
+
   @GET
   @Path("/tensorboard")
   @Operation(summary = "Get tensorboard's information",
@@ -353,7 +406,9 @@ public class ExperimentRestApi {
   }
 
   private Response parseExperimentServiceException(SubmarineRuntimeException e) {
-    return new JsonResponse.Builder<String>(e.getCode())
-      .message(e.getMessage().equals("Conflict") ? "Duplicated experiment name" : e.getMessage()).build();
+    Response response = new JsonResponse.Builder<String>(e.getCode())
+        .message(e.getMessage().equals("Conflict") ? "Duplicated experiment name" : e.getMessage()).build();
+    // The error is always JSON, also for the methods producing plain text
+    return Response.fromResponse(response).type(MediaType.APPLICATION_JSON_TYPE).build();
   }
 }
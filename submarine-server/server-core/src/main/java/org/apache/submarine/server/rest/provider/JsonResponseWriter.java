@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.submarine.server.rest.provider;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.apache.submarine.commons.utils.SubmarineConfVars;
+import org.apache.submarine.commons.utils.SubmarineConfiguration;
+import org.apache.submarine.server.response.JsonResponse;
+
+import javax.ws.rs.InternalServerErrorException;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes a {@link JsonResponse} entity as UTF-8 bytes, instead of rendering the whole JSON
+ * to a String first. The response is compressed with gzip when the client accepts it,
+ * unless submarine.server.rest.gzip.enabled is false.
+ *
+ * The entity is serialised to a buffer of the encoded bytes before anything is written to
+ * the response, so that a serialisation failure is answered with an error status rather
+ * than a truncated body behind a committed success status.
+ *
+ * The JSON is written whatever the produced media type, as the String entity was before.
+ */
+@Provider
+@Produces(MediaType.WILDCARD)
+public class JsonResponseWriter implements MessageBodyWriter<JsonResponse> {
+  private static final String GZIP = "gzip";
+  private static final int BUFFER_SIZE = 8192;
+
+  @Context
+  private HttpHeaders requestHeaders;
+
+  private final boolean gzipEnabled;
+
+  public JsonResponseWriter() {
+    this(SubmarineConfiguration.getInstance()
+        .getBoolean(SubmarineConfVars.ConfVars.SUBMARINE_SERVER_REST_GZIP_ENABLED));
+  }
+
+  @VisibleForTesting
+  JsonResponseWriter(boolean gzipEnabled) {
+    this.gzipEnabled = gzipEnabled;
+  }
+
+  @Override
+  public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations,
+      MediaType mediaType) {
+    return JsonResponse.class.isAssignableFrom(type);
+  }
+
+  @Override
+  public long getSize(JsonResponse response, Class<?> type, Type genericType,
+      Annotation[] annotations, MediaType mediaType) {
+    return -1;
+  }
+
+  @Override
+  public void writeTo(JsonResponse response, Class<?> type, Type genericType,
+      Annotation[] annotations, MediaType mediaType, MultivaluedMap<String, Object> httpHeaders,
+      OutputStream entityStream) throws IOException {
+    boolean gzip = gzipEnabled && requestHeaders != null
+        && acceptsGzip(requestHeaders.getRequestHeader(HttpHeaders.ACCEPT_ENCODING));
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream(BUFFER_SIZE);
+    try {
+      write(response, buffer, gzip);
+    } catch (RuntimeException e) {
+      // Nothing is written yet, Jersey answers with this error status
+      throw new InternalServerErrorException("Failed to serialise the response", e);
+    }
+
+    if (gzipEnabled) {
+      // The body depends on the Accept-Encoding of the request, whether it is compressed or not
+      httpHeaders.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    }
+    if (gzip) {
+      httpHeaders.putSingle(HttpHeaders.CONTENT_ENCODING, GZIP);
+    }
+    httpHeaders.putSingle(HttpHeaders.CONTENT_LENGTH, buffer.size());
+    buffer.writeTo(entityStream);
+  }
+
+  /**
+   * Write the JSON of the response to the stream, compressed with gzip if asked.
+   * The stream is left open.
+   */
+  public static void write(JsonResponse<?> response, OutputStream out, boolean gzip)
+      throws IOException {
+    GZIPOutputStream gzipStream = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : null;
+    Writer writer = new OutputStreamWriter(gzip ? gzipStream : out, StandardCharsets.UTF_8);
+    response.writeTo(writer);
+    writer.flush();
+    if (gzipStream != null) {
+      gzipStream.finish();
+    }
+  }
+
+  /**
+   * @param acceptEncodings the values of the Accept-Encoding headers of the request
+   * @return whether gzip is an accepted encoding, e.g. "gzip, deflate" or "*;q=0.5"
+   */
+  @VisibleForTesting
+  static boolean acceptsGzip(List<String> acceptEncodings) {
+    if (acceptEncodings == null) {
+      return false;
+    }
+    boolean accepted = false;
+    for (String acceptEncoding : acceptEncodings) {
+      for (String coding : acceptEncoding.split(",")) {
+        String[] params = coding.split(";");
+        String name = params[0].trim();
+        boolean gzip = GZIP.equalsIgnoreCase(name) || "x-gzip".equalsIgnoreCase(name);
+        if (!gzip && !"*".equals(name)) {
+          continue;
+        }
+        boolean refused = false;
+        for (int i = 1; i < params.length; i++) {
+          String param = params[i].trim();
+          if (param.startsWith("q=") || param.startsWith("Q=")) {
+            try {
+              refused = Double.parseDouble(param.substring(2).trim()) <= 0;
+            } catch (NumberFormatException e) {
+              refused = true;
+            }
+          }
+        }
+        if (gzip) {
+          // An explicit gzip coding takes precedence over the wildcard
+          return !refused;
+        }
+        accepted = !refused;
+      }
+    }
+    return accepted;
+  }
+}
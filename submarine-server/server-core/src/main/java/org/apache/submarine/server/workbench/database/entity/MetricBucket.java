@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.submarine.server.workbench.database.entity;
+
+/**
+ * Aggregate of the metric points whose x value falls in [start, start + width).
+ * min/max/last are null if all the points of the bucket are NaN.
+ */
+public class MetricBucket {
+  private long start;
+  private long end;
+  private Float min;
+  private Float max;
+  private Float last;
+  private int count;
+
+  public MetricBucket(long start) {
+    this.start = start;
+  }
+
+  public void add(long x, Float value, boolean isNan) {
+    count++;
+    end = x;
+    if (isNan || value == null) {
+      return;
+    }
+    if (min == null || value < min) {
+      min = value;
+    }
+    if (max == null || value > max) {
+      max = value;
+    }
+    last = value;
+  }
+
+  /**
+   * @return the lower bound of the bucket
+   */
+  public long getStart() {
+    return start;
+  }
+
+  /**
+   * @return the x value of the last point in the bucket
+   */
+  public long getEnd() {
+    return end;
+  }
+
+  public Float getMin() {
+    return min;
+  }
+
+  public Float getMax() {
+    return max;
+  }
+
+  public Float getLast() {
+    return last;
+  }
+
+  public int getCount() {
+    return count;
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.submarine.server.workbench.database.entity;
+
+/**
+ * Filter of a metric time series, the x axis is either the step or the timestamp.
+ */
+public class MetricSeriesQuery {
+  public static final String AXIS_STEP = "step";
+  public static final String AXIS_TIMESTAMP = "timestamp";
+
+  private String id;
+  private String key;
+  private String workerIndex;
+  private String axis = AXIS_STEP;
+  private Long from;
+  private Long to;
+  private int points;
+
+  public String getId() {
+    return id;
+  }
+
+  public void setId(String id) {
+    this.id = id;
+  }
+
+  public String getKey() {
+    return key;
+  }
+
+  public void setKey(String key) {
+    this.key = key;
+  }
+
+  public String getWorkerIndex() {
+    return workerIndex;
+  }
+
+  public void setWorkerIndex(String workerIndex) {
+    this.workerIndex = workerIndex;
+  }
+
+  public String getAxis() {
+    return axis;
+  }
+
+  public void setAxis(String axis) {
+    this.axis = axis;
+  }
+
+  public boolean isTimestampAxis() {
+    return AXIS_TIMESTAMP.equals(axis);
+  }
+
+  public Long getFrom() {
+    return from;
+  }
+
+  public void setFrom(Long from) {
+    this.from = from;
+  }
+
+  public Long getTo() {
+    return to;
+  }
+
+  public void setTo(Long to) {
+    this.to = to;
+  }
+
+  public int getPoints() {
+    return points;
+  }
+
+  public void setPoints(int points) {
+    this.points = points;
+  }
+}
@@ -20,8 +20,11 @@
 package org.apache.submarine.server.workbench.database.mappers;
 
 import java.util.List;
+import java.util.Map;
 
+import org.apache.ibatis.session.ResultHandler;
 import org.apache.submarine.server.workbench.database.entity.Metric;
+import org.apache.submarine.server.workbench.database.entity.MetricSeriesQuery;
 
 public interface MetricMapper {
 
@@ -30,10 +33,16 @@ public interface MetricMapper {
   int deleteById(String id);
 
   int insert(Metric metric);
+
+  int insertBatch(List<Metric> metrics);
   
   Metric selectById(String id);
 
   int update(Metric metric);
 
   List<Metric> selectByPrimaryKeySelective(Metric metric);
+
+  Map<String, Object> selectSeriesRange(MetricSeriesQuery query);
+
+  void selectSeries(MetricSeriesQuery query, ResultHandler handler);
 }
@@ -0,0 +1,306 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.submarine.server.workbench.database.service;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.apache.submarine.commons.utils.SubmarineConfVars;
+import org.apache.submarine.commons.utils.SubmarineConfiguration;
+import org.apache.submarine.server.metrics.Histogram;
+import org.apache.submarine.server.metrics.MetricsRegistry;
+import org.apache.submarine.server.workbench.database.entity.Metric;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Buffers metric points in memory and writes them to the metrics table in batches.
+ * Points are grouped by experiment id and flushed with multi-row INSERTs, either when
+ * the batch size is reached or when the oldest buffered point has waited the linger time.
+ * The number of points which are accepted but not written yet is bounded by the capacity,
+ * {@link #offer(List)} refuses new points when the queue is full.
+ * The singleton instance exports the queue depth, the point counts and the flush latency
+ * to the {@link MetricsRegistry}.
+ */
+public class MetricIngestionQueue {
+  private static final Logger LOG = LoggerFactory.getLogger(MetricIngestionQueue.class);
+
+  private static volatile MetricIngestionQueue instance;
+
+  private final MetricService metricService;
+  private final int capacity;
+  private final int batchSize;
+  private final long lingerNanos;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition notEmpty = lock.newCondition();
+
+  // experiment id -> buffered points, guarded by lock
+  private Map<String, List<Metric>> pending = new LinkedHashMap<>();
+  private int pendingCount = 0;
+  private boolean closed = false;
+
+  // Accepted points which are buffered or being written
+  private final AtomicLong depth = new AtomicLong();
+  private final AtomicLong acceptedCount = new AtomicLong();
+  private final AtomicLong rejectedCount = new AtomicLong();
+  private final AtomicLong writtenCount = new AtomicLong();
+  private final AtomicLong failedCount = new AtomicLong();
+  private final AtomicLong flushCount = new AtomicLong();
+  private final AtomicLong flushTimeNanos = new AtomicLong();
+  private final AtomicLong maxFlushTimeNanos = new AtomicLong();
+  private final Histogram flushSeconds = Histogram.latency();
+
+  private final Thread flusher;
+
+  /**
+   * Get the singleton instance
+   *
+   * @return object
+   */
+  public static MetricIngestionQueue getInstance() {
+    if (instance == null) {
+      synchronized (MetricIngestionQueue.class) {
+        if (instance == null) {
+          SubmarineConfiguration conf = SubmarineConfiguration.getInstance();
+          instance = new MetricIngestionQueue(new MetricService(),
+              conf.getInt(SubmarineConfVars.ConfVars.METRIC_INGESTION_QUEUE_CAPACITY),
+              conf.getInt(SubmarineConfVars.ConfVars.METRIC_INGESTION_BATCH_SIZE),
+              conf.getLong(SubmarineConfVars.ConfVars.METRIC_INGESTION_LINGER_MS));
+          instance.register(MetricsRegistry.getInstance());
+        }
+      }
+    }
+    return instance;
+  }
+
+  /**
+   * Flush the buffered points and stop the singleton instance if it was created.
+   */
+  public static void shutdown() {
+    synchronized (MetricIngestionQueue.class) {
+      if (instance != null) {
+        instance.close();
+        instance = null;
+      }
+    }
+  }
+
+  @VisibleForTesting
+  MetricIngestionQueue(MetricService metricService, int capacity, int batchSize, long lingerMillis) {
+    this.metricService = metricService;
+    this.capacity = capacity;
+    this.batchSize = Math.max(1, batchSize);
+    this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+    this.flusher = new Thread(this::runFlusher, "MetricIngestionFlusher");
+    this.flusher.setDaemon(true);
+    this.flusher.start();
+  }
+
+  /**
+   * Add the points to the queue.
+   *
+   * @param metrics points to write
+   * @return false if the queue doesn't have room for all the points, none of them is added then
+   */
+  public boolean offer(List<Metric> metrics) {
+    int size = metrics.size();
+    if (size == 0) {
+      return true;
+    }
+    lock.lock();
+    try {
+      if (closed || depth.get() + size > capacity) {
+        rejectedCount.addAndGet(size);
+        return false;
+      }
+      for (Metric metric : metrics) {
+        pending.computeIfAbsent(metric.getId(), k -> new ArrayList<>()).add(metric);
+      }
+      // Wake up the flusher to start the linger timer, or to flush a full batch
+      if (pendingCount == 0 || pendingCount < batchSize && pendingCount + size >= batchSize) {
+        notEmpty.signal();
+      }
+      pendingCount += size;
+      depth.addAndGet(size);
+    } finally {
+      lock.unlock();
+    }
+    acceptedCount.addAndGet(size);
+    return true;
+  }
+
+  /**
+   * Export the queue state and the flush latency to the metrics registry
+   */
+  public void register(MetricsRegistry registry) {
+    registry.gauge("submarine_metric_ingestion_queue_depth",
+        "Metric points accepted and not written yet", this::getDepth);
+    registry.gauge("submarine_metric_ingestion_queue_capacity",
+        "Max metric points accepted and not written yet", this::getCapacity);
+    registry.counter("submarine_metric_ingestion_accepted_total", "Metric points accepted",
+        this::getAcceptedCount);
+    registry.counter("submarine_metric_ingestion_rejected_total",
+        "Metric points rejected because the queue was full", this::getRejectedCount);
+    registry.counter("submarine_metric_ingestion_written_total", "Metric points written",
+        this::getWrittenCount);
+    registry.counter("submarine_metric_ingestion_failed_total", "Metric points dropped by a failed write",
+        this::getFailedCount);
+    registry.histogram("submarine_metric_ingestion_flush_seconds", "Time to write a batch of metric points",
+        flushSeconds);
+  }
+
+  /**
+   * Stop accepting points, write the buffered ones and stop the flusher thread.
+   */
+  public void close() {
+    lock.lock();
+    try {
+      closed = true;
+      notEmpty.signal();
+    } finally {
+      lock.unlock();
+    }
+    try {
+      flusher.join(TimeUnit.SECONDS.toMillis(30));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void runFlusher() {
+    while (true) {
+      Map<String, List<Metric>> batch;
+      lock.lock();
+      try {
+        while (!closed && pendingCount == 0) {
+          notEmpty.awaitUninterruptibly();
+        }
+        long deadline = System.nanoTime() + lingerNanos;
+        long remaining = lingerNanos;
+        while (!closed && pendingCount < batchSize && remaining > 0) {
+          notEmpty.awaitNanos(remaining);
+          remaining = deadline - System.nanoTime();
+        }
+        if (pendingCount == 0) {
+          // closed and nothing left to write
+          return;
+        }
+        batch = pending;
+        pending = new LinkedHashMap<>();
+        pendingCount = 0;
+      } catch (InterruptedException e) {
+        LOG.warn("Metric ingestion flusher is interrupted, stop it.");
+        return;
+      } finally {
+        lock.unlock();
+      }
+      flush(batch);
+    }
+  }
+
+  private void flush(Map<String, List<Metric>> batch) {
+    long start = System.nanoTime();
+    int total = 0;
+    for (List<Metric> metrics : batch.values()) {
+      for (int from = 0; from < metrics.size(); from += batchSize) {
+        List<Metric> rows = metrics.subList(from, Math.min(from + batchSize, metrics.size()));
+        write(rows);
+        total += rows.size();
+      }
+    }
+    depth.addAndGet(-total);
+
+    long elapsed = System.nanoTime() - start;
+    flushSeconds.observeNanos(elapsed);
+    flushTimeNanos.addAndGet(elapsed);
+    maxFlushTimeNanos.accumulateAndGet(elapsed, Math::max);
+    flushCount.incrementAndGet();
+    if (LOG.isDebugEnabled()) {
+      LOG.debug("Flushed {} metric points of {} experiments in {} ms", total, batch.size(),
+          TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+  }
+
+  private void write(List<Metric> rows) {
+    try {
+      metricService.insertBatch(rows);
+      writtenCount.addAndGet(rows.size());
+      return;
+    } catch (Exception e) {
+      LOG.warn("Batch insert of {} metric points failed, retry them one by one. {}",
+          rows.size(), e.getMessage());
+    }
+    // Isolate the bad rows, e.g. a duplicated primary key fails the whole multi-row INSERT
+    for (Metric metric : rows) {
+      try {
+        metricService.insert(metric);
+        writtenCount.incrementAndGet();
+      } catch (Exception e) {
+        failedCount.incrementAndGet();
+        LOG.error("Drop metric point {} of experiment {}: {}", metric.getKey(), metric.getId(),
+            e.getMessage());
+      }
+    }
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  public long getDepth() {
+    return depth.get();
+  }
+
+  public long getAcceptedCount() {
+    return acceptedCount.get();
+  }
+
+  public long getRejectedCount() {
+    return rejectedCount.get();
+  }
+
+  public long getWrittenCount() {
+    return writtenCount.get();
+  }
+
+  public long getFailedCount() {
+    return failedCount.get();
+  }
+
+  public long getFlushCount() {
+    return flushCount.get();
+  }
+
+  public long getFlushTimeNanos() {
+    return flushTimeNanos.get();
+  }
+
+  public long getMaxFlushTimeNanos() {
+    return maxFlushTimeNanos.get();
+  }
+}
@@ -21,11 +21,16 @@ package org.apache.submarine.server.workbench.database.service;
 
 import org.apache.submarine.server.database.utils.MyBatisUtil;
 import org.apache.submarine.server.workbench.database.entity.Metric;
+import org.apache.submarine.server.workbench.database.entity.MetricBucket;
+import org.apache.submarine.server.workbench.database.entity.MetricSeriesQuery;
 import org.apache.submarine.server.workbench.database.mappers.MetricMapper;
+import org.apache.submarine.server.workbench.database.utils.MetricDownsampler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.ibatis.session.SqlSession;
 
@@ -67,7 +72,7 @@ public class MetricService {
   }
 
   public boolean insert(Metric metric) throws Exception {
-    LOG.info("Metric insert {}", metric);
+    LOG.debug("Metric insert {}", metric);
 
     try (SqlSession sqlSession = MyBatisUtil.getSqlSession()) {
       MetricMapper mapper = sqlSession.getMapper(MetricMapper.class);
@@ -80,6 +85,20 @@ public class MetricService {
     return true;
   }
 
+  public boolean insertBatch(List<Metric> metrics) throws Exception {
+    LOG.debug("Metric insertBatch {} rows", metrics.size());
+
+    try (SqlSession sqlSession = MyBatisUtil.getSqlSession()) {
+      MetricMapper mapper = sqlSession.getMapper(MetricMapper.class);
+      mapper.insertBatch(metrics);
+      sqlSession.commit();
+    } catch (Exception e) {
+      LOG.error(e.getMessage(), e);
+      throw new Exception(e);
+    }
+    return true;
+  }
+
   public Metric selectById(String id) throws Exception {
     LOG.info("Metric selectByPrimaryKey {}", id);
     Metric metric;
@@ -122,4 +141,28 @@ public class MetricService {
     }
     return result;
   }
+
+  /**
+   * Read the series matching the query through a cursor and reduce it to at most
+   * query.getPoints() buckets of min/max/last values.
+   */
+  public List<MetricBucket> selectDownsampledSeries(MetricSeriesQuery query) throws Exception {
+    LOG.info("Metric selectDownsampledSeries {} {}", query.getId(), query.getKey());
+    MetricDownsampler downsampler;
+    try (SqlSession sqlSession = MyBatisUtil.getSqlSession()) {
+      MetricMapper mapper = sqlSession.getMapper(MetricMapper.class);
+      Map<String, Object> range = mapper.selectSeriesRange(query);
+      if (range == null || range.get("min_x") == null) {
+        return new ArrayList<>();
+      }
+      downsampler = new MetricDownsampler(query.isTimestampAxis(),
+          ((Number) range.get("min_x")).longValue(), ((Number) range.get("max_x")).longValue(),
+          query.getPoints());
+      mapper.selectSeries(query, downsampler);
+    } catch (Exception e) {
+      LOG.error(e.getMessage(), e);
+      throw new Exception(e);
+    }
+    return downsampler.getBuckets();
+  }
 }
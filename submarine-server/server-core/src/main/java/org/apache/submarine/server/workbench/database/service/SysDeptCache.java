@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.submarine.server.workbench.database.service;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.submarine.commons.utils.SubmarineConfVars;
+import org.apache.submarine.commons.utils.SubmarineConfiguration;
+import org.apache.submarine.server.database.utils.MyBatisUtil;
+import org.apache.submarine.server.workbench.database.entity.SysDept;
+import org.apache.submarine.server.workbench.database.mappers.SysDeptMapper;
+import org.apache.submarine.server.workbench.database.utils.DepartmentTree;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Caches all the departments in a {@link DepartmentTree}, to build the department tree
+ * without reading sys_department for each query.
+ *
+ * The departments changed through this server are updated in the tree. The tree also
+ * expires after a while, so that the changes made through another server are seen.
+ */
+public class SysDeptCache {
+  private static volatile SysDeptCache instance;
+
+  private final Supplier<List<SysDept>> loader;
+  private final long expireNanos;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  // Guarded by the lock, null until loaded
+  private DepartmentTree tree;
+  private long loadedNanos;
+
+  /**
+   * Get the singleton instance
+   *
+   * @return object
+   */
+  public static SysDeptCache getInstance() {
+    if (instance == null) {
+      synchronized (SysDeptCache.class) {
+        if (instance == null) {
+          instance = new SysDeptCache(SysDeptCache::selectAll, SubmarineConfiguration.getInstance()
+              .getLong(SubmarineConfVars.ConfVars.WORKBENCH_DEPT_CACHE_EXPIRE_MS));
+        }
+      }
+    }
+    return instance;
+  }
+
+  @VisibleForTesting
+  SysDeptCache(Supplier<List<SysDept>> loader, long expireMillis) {
+    this.loader = loader;
+    this.expireNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(expireMillis, 0));
+  }
+
+  /**
+   * Read the department tree, loaded if it is not cached or has expired
+   *
+   * @param reader must not change the tree
+   * @return the result of the reader
+   */
+  public <T> T read(Function<DepartmentTree, T> reader) {
+    lock.readLock().lock();
+    try {
+      if (isLoaded()) {
+        return reader.apply(tree);
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    lock.writeLock().lock();
+    try {
+      if (!isLoaded()) {
+        tree = new DepartmentTree(loader.get());
+        loadedNanos = System.nanoTime();
+      }
+      return reader.apply(tree);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Update a department added or changed in the database
+   */
+  public void put(SysDept dept) {
+    lock.writeLock().lock();
+    try {
+      if (tree != null && dept != null) {
+        tree.put(dept);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Remove a department removed from the database
+   */
+  public void remove(String id) {
+    lock.writeLock().lock();
+    try {
+      if (tree != null) {
+        tree.removeById(id);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Clear the cache, after many departments are changed
+   */
+  public void invalidateAll() {
+    lock.writeLock().lock();
+    try {
+      tree = null;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private boolean isLoaded() {
+    return tree != null && System.nanoTime() - loadedNanos < expireNanos;
+  }
+
+  private static List<SysDept> selectAll() {
+    try (SqlSession sqlSession = MyBatisUtil.getSqlSession()) {
+      return sqlSession.getMapper(SysDeptMapper.class).selectAll(new HashMap<>());
+    }
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.submarine.server.workbench.database.service;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.submarine.commons.utils.SubmarineConfVars;
+import org.apache.submarine.commons.utils.SubmarineConfiguration;
+import org.apache.submarine.server.workbench.database.entity.SysDictItem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches the items of the dictionaries by dict code, to translate the @Dict fields of
+ * the responses without querying sys_dict_item for each of them.
+ *
+ * The cache is cleared when the dict items are changed through this server. The entries
+ * also expire after a while, so that the changes made through another server are seen.
+ */
+public class SysDictItemCache {
+  private static final Logger LOG = LoggerFactory.getLogger(SysDictItemCache.class);
+
+  private static volatile SysDictItemCache instance;
+
+  private final SysDictItemService sysDictItemService;
+
+  // dict code -> {item code -> item name}
+  private final Cache<String, Map<String, String>> cachedItems;
+
+  /**
+   * Get the singleton instance
+   *
+   * @return object
+   */
+  public static SysDictItemCache getInstance() {
+    if (instance == null) {
+      synchronized (SysDictItemCache.class) {
+        if (instance == null) {
+          instance = new SysDictItemCache(new SysDictItemService(), SubmarineConfiguration.getInstance()
+              .getLong(SubmarineConfVars.ConfVars.WORKBENCH_DICT_CACHE_EXPIRE_MS));
+        }
+      }
+    }
+    return instance;
+  }
+
+  @VisibleForTesting
+  SysDictItemCache(SysDictItemService sysDictItemService, long expireMillis) {
+    this.sysDictItemService = sysDictItemService;
+    this.cachedItems = CacheBuilder.newBuilder()
+        .expireAfterWrite(Math.max(expireMillis, 0), TimeUnit.MILLISECONDS).build();
+  }
+
+  /**
+   * @return the names of the items of the dictionary by item code, empty if the
+   * dictionary has no item or could not be read
+   */
+  public Map<String, String> getItemNames(String dictCode) {
+    try {
+      return cachedItems.get(dictCode, () -> loadItemNames(dictCode));
+    } catch (ExecutionException e) {
+      LOG.error(e.getMessage(), e);
+      return Collections.emptyMap();
+    }
+  }
+
+  /**
+   * Clear the cache, after the dict items are changed
+   */
+  public void invalidateAll() {
+    cachedItems.invalidateAll();
+  }
+
+  private Map<String, String> loadItemNames(String dictCode) {
+    // An error is cached as no item, until the entry expires
+    List<SysDictItem> dictItems = sysDictItemService.queryDictByCode(dictCode);
+    if (dictItems == null || dictItems.isEmpty()) {
+      return Collections.emptyMap();
+    }
+    Map<String, String> itemNames = new HashMap<>();
+    for (SysDictItem dictItem : dictItems) {
+      // The first item of a code wins, as in the translation done before the cache
+      itemNames.putIfAbsent(dictItem.getItemCode(), dictItem.getItemName());
+    }
+    return Collections.unmodifiableMap(itemNames);
+  }
+}
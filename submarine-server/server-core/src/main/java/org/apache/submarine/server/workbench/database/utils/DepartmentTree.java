@@ -0,0 +1,268 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.submarine.server.workbench.database.utils;
+
+import org.apache.submarine.server.workbench.database.entity.SysDept;
+import org.apache.submarine.server.workbench.database.entity.SysDeptSelect;
+import org.apache.submarine.server.workbench.database.entity.SysDeptTree;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The departments indexed by code, by id and by parent code.
+ *
+ * Building the index from the department list, and the tree from the index, take a
+ * single pass over the departments instead of scanning the list for the children of each
+ * one. A department can then be added, changed or removed without building the index
+ * again. The children of a department are kept by sort order.
+ *
+ * A department whose parent code is empty is a root. A department whose parent does not
+ * exist, or which is its own ancestor, is not in the tree. Not thread-safe.
+ */
+public class DepartmentTree {
+  private static final Comparator<SysDept> BY_SORT_ORDER =
+      Comparator.comparing(SysDept::getSortOrder, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+  // The parent code of the roots in the children index
+  private static final String ROOT = "";
+
+  private final TreeMap<String, SysDept> byCode = new TreeMap<>();
+  private final Map<String, SysDept> byId = new HashMap<>();
+  // parent code -> children, by sort order
+  private final Map<String, List<SysDept>> children = new HashMap<>();
+
+  /**
+   * @param sysDeptList departments, by sort order
+   */
+  public DepartmentTree(List<SysDept> sysDeptList) {
+    for (SysDept dept : sysDeptList) {
+      if (byCode.containsKey(dept.getDeptCode())) {
+        remove(byCode.get(dept.getDeptCode()));
+      }
+      index(dept);
+      children.computeIfAbsent(parentKey(dept), key -> new ArrayList<>()).add(dept);
+    }
+  }
+
+  public int size() {
+    return byCode.size();
+  }
+
+  public SysDept getByCode(String deptCode) {
+    return byCode.get(deptCode);
+  }
+
+  public SysDept getById(String id) {
+    return byId.get(id);
+  }
+
+  /**
+   * Add a department, or replace the department of the same id or code
+   */
+  public void put(SysDept dept) {
+    SysDept previous = dept.getId() == null ? null : byId.get(dept.getId());
+    if (previous != null) {
+      remove(previous);
+    }
+    previous = byCode.get(dept.getDeptCode());
+    if (previous != null) {
+      remove(previous);
+    }
+    index(dept);
+    List<SysDept> siblings = children.computeIfAbsent(parentKey(dept), key -> new ArrayList<>());
+    // After the siblings of the same sort order
+    int low = 0;
+    int high = siblings.size();
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (BY_SORT_ORDER.compare(siblings.get(middle), dept) <= 0) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    siblings.add(low, dept);
+  }
+
+  /**
+   * Remove the department of the id, its children stay under its code
+   *
+   * @return the removed department, null if there is none
+   */
+  public SysDept removeById(String id) {
+    SysDept dept = byId.get(id);
+    if (dept != null) {
+      remove(dept);
+    }
+    return dept;
+  }
+
+  /**
+   * @return the children of the department, by sort order
+   */
+  public List<SysDept> getChildren(String deptCode) {
+    List<SysDept> depts = children.get(deptCode);
+    return depts == null ? Collections.emptyList() : Collections.unmodifiableList(depts);
+  }
+
+  /**
+   * @return the ancestors of the department, from its parent to its root, empty if it
+   * does not exist or is a root
+   */
+  public List<SysDept> getAncestors(String deptCode) {
+    List<SysDept> ancestors = new ArrayList<>();
+    SysDept dept = byCode.get(deptCode);
+    Set<String> visited = new HashSet<>();
+    while (dept != null && !isEmpty(dept.getParentCode()) && visited.add(dept.getDeptCode())) {
+      dept = byCode.get(dept.getParentCode());
+      if (dept != null) {
+        ancestors.add(dept);
+      }
+    }
+    return ancestors;
+  }
+
+  /**
+   * @return the department and its descendants, each before its children, empty if it
+   * does not exist
+   */
+  public List<SysDept> getSubtree(String deptCode) {
+    List<SysDept> subtree = new ArrayList<>();
+    SysDept dept = byCode.get(deptCode);
+    if (dept == null) {
+      return subtree;
+    }
+    Set<String> visited = new HashSet<>();
+    Deque<SysDept> stack = new ArrayDeque<>();
+    stack.push(dept);
+    while (!stack.isEmpty()) {
+      SysDept next = stack.pop();
+      if (!visited.add(next.getDeptCode())) {
+        continue;
+      }
+      subtree.add(next);
+      List<SysDept> nextChildren = getChildren(next.getDeptCode());
+      for (int i = nextChildren.size() - 1; i >= 0; i--) {
+        stack.push(nextChildren.get(i));
+      }
+    }
+    return subtree;
+  }
+
+  /**
+   * @return the departments whose code starts with the prefix, by code
+   */
+  public List<SysDept> findByCodePrefix(String prefix) {
+    return new ArrayList<>(byCode.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values());
+  }
+
+  /**
+   * @return all the departments, by sort order
+   */
+  public List<SysDept> list() {
+    List<SysDept> depts = new ArrayList<>(byCode.values());
+    depts.sort(BY_SORT_ORDER);
+    return depts;
+  }
+
+  /**
+   * Build the tree of the departments, for the tree table and the tree select controls
+   *
+   * @param sysDeptSelects cleared, then filled with the tree select nodes of the roots
+   * @return the tree table nodes of the roots
+   */
+  public List<SysDeptTree> toTree(List<SysDeptSelect> sysDeptSelects) {
+    sysDeptSelects.clear();
+    List<SysDeptTree> roots = new ArrayList<>();
+    Deque<SysDeptTree> treeStack = new ArrayDeque<>();
+    Deque<SysDeptSelect> selectStack = new ArrayDeque<>();
+    for (SysDept dept : getChildren(ROOT)) {
+      SysDeptTree tree = newTree(dept);
+      SysDeptSelect select = new SysDeptSelect().convert(tree);
+      roots.add(tree);
+      sysDeptSelects.add(select);
+      treeStack.push(tree);
+      selectStack.push(select);
+    }
+    while (!treeStack.isEmpty()) {
+      SysDeptTree parent = treeStack.pop();
+      SysDeptSelect parentSelect = selectStack.pop();
+      for (SysDept dept : getChildren(parent.getDeptCode())) {
+        SysDeptTree tree = newTree(dept);
+        SysDeptSelect select = new SysDeptSelect().convert(tree);
+        parent.getChildren().add(tree);
+        parentSelect.getChildren().add(select);
+        treeStack.push(tree);
+        selectStack.push(select);
+      }
+      if (parent.getChildren().isEmpty()) {
+        parent.setChildren(null);
+      }
+    }
+    return roots;
+  }
+
+  private SysDeptTree newTree(SysDept dept) {
+    SysDeptTree tree = new SysDeptTree(dept);
+    SysDept parent = isEmpty(dept.getParentCode()) ? null : byCode.get(dept.getParentCode());
+    if (parent != null) {
+      tree.setParentName(parent.getDeptName());
+    }
+    return tree;
+  }
+
+  private void index(SysDept dept) {
+    byCode.put(dept.getDeptCode(), dept);
+    if (dept.getId() != null) {
+      byId.put(dept.getId(), dept);
+    }
+  }
+
+  private void remove(SysDept dept) {
+    byCode.remove(dept.getDeptCode());
+    if (dept.getId() != null) {
+      byId.remove(dept.getId());
+    }
+    List<SysDept> siblings = children.get(parentKey(dept));
+    if (siblings != null) {
+      siblings.remove(dept);
+      if (siblings.isEmpty()) {
+        children.remove(parentKey(dept));
+      }
+    }
+  }
+
+  private static String parentKey(SysDept dept) {
+    return isEmpty(dept.getParentCode()) ? ROOT : dept.getParentCode();
+  }
+
+  static boolean isEmpty(Object object) {
+    return object == null || "".equals(object) || "null".equals(object);
+  }
+}
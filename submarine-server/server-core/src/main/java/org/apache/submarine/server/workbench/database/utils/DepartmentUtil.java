@@ -22,7 +22,6 @@ import org.apache.submarine.server.workbench.database.entity.SysDeptSelect;
 import org.apache.submarine.server.workbench.database.entity.SysDeptTree;
 import org.apache.submarine.server.workbench.database.entity.SysDept;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public class DepartmentUtil {
@@ -42,16 +41,7 @@ public class DepartmentUtil {
 
   public static List<SysDeptTree> wrapDeptListToTree(List<SysDept> sysDeptList,
                                                      List<SysDeptSelect> sysDeptSelects) {
-    sysDeptSelects.clear();
-    List<SysDeptTree> records = new ArrayList<>();
-    for (int i = 0; i < sysDeptList.size(); i++) {
-      SysDept dept = sysDeptList.get(i);
-      records.add(new SysDeptTree(dept));
-    }
-    List<SysDeptTree> sysOrgTreeList = findChildren(records, sysDeptSelects);
-    setEmptyChildrenAsNull(sysOrgTreeList);
-
-    return sysOrgTreeList;
+    return new DepartmentTree(sysDeptList).toTree(sysDeptSelects);
   }
 
   public static long getDeptTreeSize(List<SysDeptTree> sysDeptTreeList) {
@@ -66,63 +56,4 @@ public class DepartmentUtil {
 
     return size;
   }
-
-  // Find and encapsulate the node of the top parent class to the TreeList collection
-  private static List<SysDeptTree> findChildren(List<SysDeptTree> sysDeptList,
-                                                List<SysDeptSelect> sysDeptSelects) {
-    List<SysDeptTree> treeList = new ArrayList<>();
-    for (int i = 0; i < sysDeptList.size(); i++) {
-      SysDeptTree branch = sysDeptList.get(i);
-      if (isEmpty(branch.getParentCode())) {
-        treeList.add(branch);
-        SysDeptSelect departIdModel = new SysDeptSelect().convert(branch);
-        sysDeptSelects.add(departIdModel);
-      }
-    }
-    getGrandChildren(treeList, sysDeptList, sysDeptSelects);
-    return treeList;
-  }
-
-  // Find all child node collections under the top parent class and wrap them in a TreeList collection
-  private static void getGrandChildren(List<SysDeptTree> treeList,
-                                       List<SysDeptTree> recordList,
-                                       List<SysDeptSelect> sysDeptSelects) {
-    for (int i = 0; i < treeList.size(); i++) {
-      SysDeptTree model = treeList.get(i);
-      SysDeptSelect idModel = sysDeptSelects.get(i);
-      for (int i1 = 0; i1 < recordList.size(); i1++) {
-        SysDeptTree m = recordList.get(i1);
-        if (m.getParentCode() != null && m.getParentCode().equals(model.getDeptCode())) {
-          model.getChildren().add(m);
-          SysDeptSelect dim = new SysDeptSelect().convert(m);
-          idModel.getChildren().add(dim);
-        }
-      }
-      getGrandChildren(treeList.get(i).getChildren(), recordList, sysDeptSelects.get(i).getChildren());
-    }
-  }
-
-  private static void setEmptyChildrenAsNull(List<SysDeptTree> treeList) {
-    for (int i = 0; i < treeList.size(); i++) {
-      SysDeptTree model = treeList.get(i);
-      if (model.getChildren().size() == 0) {
-        model.setChildren(null);
-      } else {
-        setEmptyChildrenAsNull(model.getChildren());
-      }
-    }
-  }
-
-  private static boolean isEmpty(Object object) {
-    if (object == null) {
-      return true;
-    }
-    if ("".equals(object)) {
-      return true;
-    }
-    if ("null".equals(object)) {
-      return true;
-    }
-    return false;
-  }
 }
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.submarine.server.workbench.database.utils;
+
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.submarine.server.workbench.database.entity.Metric;
+import org.apache.submarine.server.workbench.database.entity.MetricBucket;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reduces a metric series to at most the requested number of buckets while the rows are
+ * read from the cursor. The rows must be ordered by the x axis, so only the current bucket
+ * is open and the memory is bounded by the number of buckets, not the number of rows.
+ */
+public class MetricDownsampler implements ResultHandler {
+  private final boolean timestampAxis;
+  private final long minX;
+  private final long width;
+  private final List<MetricBucket> buckets = new ArrayList<>();
+
+  private MetricBucket current;
+  private long currentIndex = -1;
+
+  /**
+   * @param timestampAxis use the timestamp instead of the step as x axis
+   * @param minX the smallest x value of the series
+   * @param maxX the largest x value of the series
+   * @param points the maximum number of buckets
+   */
+  public MetricDownsampler(boolean timestampAxis, long minX, long maxX, int points) {
+    this.timestampAxis = timestampAxis;
+    this.minX = minX;
+    long span = maxX - minX + 1;
+    this.width = Math.max(1, (span + points - 1) / points);
+  }
+
+  @Override
+  public void handleResult(ResultContext context) {
+    add((Metric) context.getResultObject());
+  }
+
+  public void add(Metric metric) {
+    long x = timestampAxis ? metric.getTimestamp().longValue() : metric.getStep();
+    long index = (x - minX) / width;
+    if (current == null || index != currentIndex) {
+      current = new MetricBucket(minX + index * width);
+      currentIndex = index;
+      buckets.add(current);
+    }
+    current.add(x, metric.getValue(), Boolean.TRUE.equals(metric.getIsNan()));
+  }
+
+  public long getWidth() {
+    return width;
+  }
+
+  public List<MetricBucket> getBuckets() {
+    return buckets;
+  }
+}
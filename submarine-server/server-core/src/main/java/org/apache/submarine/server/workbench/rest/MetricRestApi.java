@@ -20,6 +20,9 @@ package org.apache.submarine.server.workbench.rest;
 
 import org.apache.submarine.server.workbench.annotation.SubmarineApi;
 import org.apache.submarine.server.workbench.database.entity.Metric;
+import org.apache.submarine.server.workbench.database.entity.MetricBucket;
+import org.apache.submarine.server.workbench.database.entity.MetricSeriesQuery;
+import org.apache.submarine.server.workbench.database.service.MetricIngestionQueue;
 import org.apache.submarine.server.workbench.database.service.MetricService;
 import org.apache.submarine.server.response.JsonResponse;
 import org.slf4j.Logger;
@@ -31,6 +34,7 @@ import java.util.List;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import javax.ws.rs.DELETE;
+import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
 import javax.ws.rs.POST;
 import javax.ws.rs.PUT;
@@ -45,6 +49,8 @@ import javax.ws.rs.core.Response;
 @Singleton
 public class MetricRestApi {
   private static final Logger LOG = LoggerFactory.getLogger(LoginRestApi.class);
+  private static final int MAX_SERIES_POINTS = 10000;
+
   MetricService metricService = new MetricService();
 
   @Inject
@@ -83,6 +89,49 @@ public class MetricRestApi {
     return new JsonResponse.Builder<List<Metric>>(Response.Status.OK).success(true).result(metrics).build();
   }
 
+  @GET
+  @Path("/series")
+  @SubmarineApi
+  public Response getMetricSeries(@QueryParam("id") String id,
+                                  @QueryParam("metricKey") String metricKey,
+                                  @QueryParam("workerIndex") String workerIndex,
+                                  @DefaultValue(MetricSeriesQuery.AXIS_STEP) @QueryParam("axis") String axis,
+                                  @QueryParam("from") Long from,
+                                  @QueryParam("to") Long to,
+                                  @DefaultValue("1000") @QueryParam("points") int points) {
+    if (id == null || metricKey == null) {
+      return new JsonResponse.Builder<Boolean>(Response.Status.BAD_REQUEST).success(false)
+          .message("id and metricKey are required.").build();
+    }
+    if (!MetricSeriesQuery.AXIS_STEP.equals(axis) && !MetricSeriesQuery.AXIS_TIMESTAMP.equals(axis)) {
+      return new JsonResponse.Builder<Boolean>(Response.Status.BAD_REQUEST).success(false)
+          .message("axis should be step or timestamp.").build();
+    }
+    if (points <= 0 || points > MAX_SERIES_POINTS) {
+      return new JsonResponse.Builder<Boolean>(Response.Status.BAD_REQUEST).success(false)
+          .message("points should be between 1 and " + MAX_SERIES_POINTS + ".").build();
+    }
+
+    MetricSeriesQuery query = new MetricSeriesQuery();
+    query.setId(id);
+    query.setKey(metricKey);
+    query.setWorkerIndex(workerIndex);
+    query.setAxis(axis);
+    query.setFrom(from);
+    query.setTo(to);
+    query.setPoints(points);
+
+    List<MetricBucket> buckets;
+    try {
+      buckets = metricService.selectDownsampledSeries(query);
+    } catch (Exception e) {
+      LOG.error(e.toString());
+      return new JsonResponse.Builder<Boolean>(Response.Status.OK).success(false).build();
+    }
+    return new JsonResponse.Builder<List<MetricBucket>>(Response.Status.OK).success(true)
+        .result(buckets).build();
+  }
+
   @GET
   @Path("/{id}")
   @SubmarineApi
@@ -111,6 +160,21 @@ public class MetricRestApi {
     return new JsonResponse.Builder<Boolean>(Response.Status.OK).success(true).result(result).build();
   }
 
+  @POST
+  @Path("/batch")
+  @SubmarineApi
+  public Response postMetrics(List<Metric> metrics) {
+    if (metrics == null) {
+      return new JsonResponse.Builder<Boolean>(Response.Status.OK).success(false).build();
+    }
+    if (!MetricIngestionQueue.getInstance().offer(metrics)) {
+      return new JsonResponse.Builder<Boolean>(Response.Status.TOO_MANY_REQUESTS).success(false)
+          .message("Metric ingestion queue is full, please retry later.").build();
+    }
+    return new JsonResponse.Builder<Integer>(Response.Status.OK).success(true)
+        .result(metrics.size()).build();
+  }
+
   @DELETE
   @Path("/delete")
   @SubmarineApi
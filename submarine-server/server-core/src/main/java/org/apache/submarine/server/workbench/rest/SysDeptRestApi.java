@@ -26,6 +26,7 @@ import org.apache.submarine.server.workbench.database.entity.SysDeptSelect;
 import org.apache.submarine.server.workbench.database.entity.SysDeptTree;
 import org.apache.submarine.server.workbench.database.entity.SysDept;
 import org.apache.submarine.server.workbench.database.mappers.SysDeptMapper;
+import org.apache.submarine.server.workbench.database.service.SysDeptCache;
 import org.apache.submarine.server.workbench.database.utils.DepartmentUtil;
 import org.apache.submarine.server.database.utils.MyBatisUtil;
 import org.apache.submarine.server.response.JsonResponse;
@@ -69,6 +70,10 @@ public class SysDeptRestApi {
                        @QueryParam("deptName") String likeDeptName) {
     LOG.info("SysDeptRestApi.tree()");
 
+    if (StringUtils.isEmpty(likeDeptCode) && StringUtils.isEmpty(likeDeptName)) {
+      return cachedTree();
+    }
+
     List<SysDept> sysDeptList = null;
 
     try (SqlSession sqlSession = MyBatisUtil.getSqlSession()) {
@@ -90,14 +95,9 @@ public class SysDeptRestApi {
     if (sysDeptList.size() != sizeDeptTreeList) {
       ListResult<SysDept> listResult = new ListResult(sysDeptList, page.getTotal());
 
-      JsonResponse.Builder builder = new JsonResponse.Builder<ListResult<SysDept>>(Response.Status.OK)
-          .success(true).result(listResult);
-      if (StringUtils.isEmpty(likeDeptCode) && StringUtils.isEmpty(likeDeptName)) {
-        // Query some data, may not be a configuration error
-        builder.attribute(SHOW_ALERT, Boolean.TRUE);
-        LOG.warn("The department's level is set incorrectly. Now show all department in a list.");
-      }
-      return builder.build();
+      // Query some data, may not be a configuration error
+      return new JsonResponse.Builder<ListResult<SysDept>>(Response.Status.OK)
+          .success(true).result(listResult).build();
     } else {
       ListResult<SysDeptTree> listResult = new ListResult(sysDeptTreeList, page.getTotal());
       return new JsonResponse.Builder<ListResult<SysDeptTree>>(Response.Status.OK)
@@ -105,6 +105,29 @@ public class SysDeptRestApi {
     }
   }
 
+  // Query all departments from the cached department tree
+  private Response cachedTree() {
+    try {
+      return SysDeptCache.getInstance().read(tree -> {
+        List<SysDeptSelect> sysDeptSelects = new ArrayList<>();
+        List<SysDeptTree> sysDeptTreeList = tree.toTree(sysDeptSelects);
+        if (tree.size() != DepartmentUtil.getDeptTreeSize(sysDeptTreeList)) {
+          List<SysDept> sysDeptList = tree.list();
+          ListResult<SysDept> listResult = new ListResult(sysDeptList, sysDeptList.size());
+          LOG.warn("The department's level is set incorrectly. Now show all department in a list.");
+          return new JsonResponse.Builder<ListResult<SysDept>>(Response.Status.OK)
+              .success(true).result(listResult).attribute(SHOW_ALERT, Boolean.TRUE).build();
+        }
+        ListResult<SysDeptTree> listResult = new ListResult(sysDeptTreeList, tree.size());
+        return new JsonResponse.Builder<ListResult<SysDeptTree>>(Response.Status.OK)
+            .success(true).result(listResult).build();
+      });
+    } catch (Exception e) {
+      LOG.error(e.getMessage(), e);
+      return new JsonResponse.Builder<>(Response.Status.OK).success(false).build();
+    }
+  }
+
   @GET
   @Path("/queryIdTree")
   @SubmarineApi
@@ -112,11 +135,8 @@ public class SysDeptRestApi {
     LOG.info("queryIdTree({})", disableDeptCode);
 
     List<SysDeptSelect> sysDeptSelects = new ArrayList<>();
-    try (SqlSession sqlSession = MyBatisUtil.getSqlSession()) {
-      SysDeptMapper sysDeptMapper = sqlSession.getMapper(SysDeptMapper.class);
-      List<SysDept> sysDeptList = sysDeptMapper.selectAll(new HashMap<>());
-
-      DepartmentUtil.wrapDeptListToTree(sysDeptList, sysDeptSelects);
+    try {
+      SysDeptCache.getInstance().read(tree -> tree.toTree(sysDeptSelects));
 
       if (!StringUtils.isEmpty(disableDeptCode)) {
         DepartmentUtil.disableTargetDeptCode(sysDeptSelects, disableDeptCode);
@@ -140,6 +160,7 @@ public class SysDeptRestApi {
       SysDeptMapper sysDeptMapper = sqlSession.getMapper(SysDeptMapper.class);
       sysDeptMapper.add(sysDept);
       sqlSession.commit();
+      SysDeptCache.getInstance().put(sysDeptMapper.getById(sysDept.getId()));
     } catch (Exception e) {
       LOG.error(e.getMessage(), e);
       return new JsonResponse.Builder<>(Response.Status.OK).success(false)
@@ -165,6 +186,7 @@ public class SysDeptRestApi {
       }
       sysDeptMapper.updateBy(sysDept);
       sqlSession.commit();
+      SysDeptCache.getInstance().put(sysDeptMapper.getById(sysDept.getId()));
     } catch (Exception e) {
       LOG.error(e.getMessage(), e);
       return new JsonResponse.Builder<>(Response.Status.OK)
@@ -184,6 +206,7 @@ public class SysDeptRestApi {
       SysDeptMapper sysDeptMapper = sqlSession.getMapper(SysDeptMapper.class);
       sysDeptMapper.resetDeptLevel();
       sqlSession.commit();
+      SysDeptCache.getInstance().invalidateAll();
     } catch (Exception e) {
       LOG.error(e.getMessage(), e);
       return new JsonResponse.Builder<>(Response.Status.OK)
@@ -213,6 +236,7 @@ public class SysDeptRestApi {
       dept.setDeleted(deleted);
       sysDeptMapper.updateBy(dept);
       sqlSession.commit();
+      SysDeptCache.getInstance().put(sysDeptMapper.getById(id));
     } catch (Exception e) {
       LOG.error(e.getMessage(), e);
       return new JsonResponse.Builder<>(Response.Status.OK)
@@ -230,8 +254,17 @@ public class SysDeptRestApi {
     LOG.info("deleteBatch({})", ids.toString());
     try (SqlSession sqlSession = MyBatisUtil.getSqlSession()) {
       SysDeptMapper sysDeptMapper = sqlSession.getMapper(SysDeptMapper.class);
-      sysDeptMapper.deleteBatch(Arrays.asList(ids.split(",")));
+      List<String> idList = Arrays.asList(ids.split(","));
+      sysDeptMapper.deleteBatch(idList);
       sqlSession.commit();
+      for (String id : idList) {
+        SysDept dept = sysDeptMapper.getById(id);
+        if (dept == null) {
+          SysDeptCache.getInstance().remove(id);
+        } else {
+          SysDeptCache.getInstance().put(dept);
+        }
+      }
     } catch (Exception e) {
       LOG.error(e.getMessage(), e);
       return new JsonResponse.Builder<>(Response.Status.OK)
@@ -252,6 +285,7 @@ public class SysDeptRestApi {
       SysDeptMapper sysDeptMapper = sqlSession.getMapper(SysDeptMapper.class);
       sysDeptMapper.deleteById(id);
       sqlSession.commit();
+      SysDeptCache.getInstance().remove(id);
     } catch (Exception e) {
       LOG.error(e.getMessage(), e);
       return new JsonResponse.Builder<>(Response.Status.OK)
@@ -25,6 +25,7 @@ import org.apache.ibatis.session.SqlSession;
 import org.apache.submarine.server.workbench.annotation.SubmarineApi;
 import org.apache.submarine.server.workbench.database.entity.SysDictItem;
 import org.apache.submarine.server.workbench.database.mappers.SysDictItemMapper;
+import org.apache.submarine.server.workbench.database.service.SysDictItemCache;
 import org.apache.submarine.server.workbench.database.service.SysDictItemService;
 import org.apache.submarine.server.database.utils.MyBatisUtil;
 import org.apache.submarine.server.response.JsonResponse;
@@ -107,6 +108,7 @@ public class SysDictItemRestApi {
       try {
         sysDictItemMapper.insertSysDictItem(sysDictItem);
         sqlSession.commit();
+        SysDictItemCache.getInstance().invalidateAll();
       } catch (Exception e) {
         LOG.error(e.getMessage(), e);
       } finally {
@@ -137,6 +139,7 @@ public class SysDictItemRestApi {
         }
         sysDictItemMapper.updateBy(sysDictItem);
         sqlSession.commit();
+        SysDictItemCache.getInstance().invalidateAll();
       } catch (Exception e) {
         LOG.error(e.getMessage(), e);
       } finally {
@@ -170,6 +173,7 @@ public class SysDictItemRestApi {
         dictItem.setDeleted(deleted);
         sysDictItemMapper.updateBy(dictItem);
         sqlSession.commit();
+        SysDictItemCache.getInstance().invalidateAll();
       } catch (Exception e) {
         LOG.error(e.getMessage(), e);
       } finally {
@@ -195,6 +199,7 @@ public class SysDictItemRestApi {
       try {
         sysDictItemMapper.deleteById(id);
         sqlSession.commit();
+        SysDictItemCache.getInstance().invalidateAll();
       } catch (Exception e) {
         LOG.error(e.getMessage(), e);
       } finally {
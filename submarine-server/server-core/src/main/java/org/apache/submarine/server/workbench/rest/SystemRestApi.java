@@ -120,4 +120,13 @@ public class SystemRestApi {
     return new JsonResponse.Builder<ListResult<SysUser>>(Response.Status.OK)
         .success(false).build();
   }
+
+  @GET
+  @Path("/database/pool")
+  @SubmarineApi
+  public Response databasePool() {
+    Map<String, Object> pool = MyBatisUtil.getPoolMetrics().toMap();
+    return new JsonResponse.Builder<Map<String, Object>>(Response.Status.OK)
+        .success(true).result(pool).build();
+  }
 }
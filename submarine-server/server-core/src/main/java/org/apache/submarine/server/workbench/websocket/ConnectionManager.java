@@ -25,6 +25,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.Date;
 import java.util.Map;
 import java.util.Queue;
@@ -46,6 +48,10 @@ public class ConnectionManager {
   final Queue<NotebookSocket> connectedSockets = new ConcurrentLinkedQueue<>();
   // user -> connection
   final Map<String, Queue<NotebookSocket>> userSocketMap = new ConcurrentHashMap<>();
+  // topic -> subscribed connections, see StatusEventPublisher for the topics
+  final Map<String, Set<NotebookSocket>> topicSocketMap = new ConcurrentHashMap<>();
+  // connection -> subscribed topics
+  final Map<NotebookSocket, Set<String>> socketTopicMap = new ConcurrentHashMap<>();
 
   public void addConnection(NotebookSocket conn) {
     connectedSockets.add(conn);
@@ -53,6 +59,58 @@ public class ConnectionManager {
 
   public void removeConnection(NotebookSocket conn) {
     connectedSockets.remove(conn);
+    Set<String> topics = socketTopicMap.remove(conn);
+    if (topics != null) {
+      unsubscribe(conn, topics);
+    }
+  }
+
+  public void subscribe(NotebookSocket conn, Collection<String> topics) {
+    for (String topic : topics) {
+      topicSocketMap.compute(topic, (key, sockets) -> {
+        Set<NotebookSocket> result = sockets == null ? ConcurrentHashMap.newKeySet() : sockets;
+        result.add(conn);
+        return result;
+      });
+      socketTopicMap.computeIfAbsent(conn, key -> ConcurrentHashMap.newKeySet()).add(topic);
+    }
+  }
+
+  public void unsubscribe(NotebookSocket conn, Collection<String> topics) {
+    for (String topic : topics) {
+      topicSocketMap.computeIfPresent(topic, (key, sockets) -> {
+        sockets.remove(conn);
+        return sockets.isEmpty() ? null : sockets;
+      });
+      Set<String> subscribed = socketTopicMap.get(conn);
+      if (subscribed != null) {
+        subscribed.remove(topic);
+      }
+    }
+  }
+
+  public boolean hasSubscriptions() {
+    return !topicSocketMap.isEmpty();
+  }
+
+  /**
+   * Send a message to the connections subscribed to any of the topics, the message
+   * is serialized once and each connection receives it once
+   * @return the number of connections the message was sent to
+   */
+  public int publish(Message m, String... topics) {
+    Set<NotebookSocket> sockets = new LinkedHashSet<>();
+    for (String topic : topics) {
+      Set<NotebookSocket> subscribed = topicSocketMap.get(topic);
+      if (subscribed != null) {
+        sockets.addAll(subscribed);
+      }
+    }
+    if (sockets.isEmpty()) {
+      return 0;
+    }
+    send(sockets, serializeMessage(m), m);
+    return sockets.size();
   }
 
   public void addUserConnection(String user, NotebookSocket conn) {
@@ -81,17 +139,24 @@ public class ConnectionManager {
   }
 
   public void broadcast(Message m) {
-    synchronized (connectedSockets) {
-      for (NotebookSocket ns : connectedSockets) {
-        try {
-          ns.send(serializeMessage(m));
-        } catch (IOException | WebSocketException e) {
-          LOG.error("Send error: " + m, e);
-        }
+    send(connectedSockets, serializeMessage(m), m);
+  }
+
+  // The sends of a connection are serialized by the connection itself, no global lock is needed
+  private void send(Collection<NotebookSocket> sockets, String serialized, Message m) {
+    for (NotebookSocket ns : sockets) {
+      try {
+        ns.send(serialized);
+      } catch (IOException | WebSocketException e) {
+        LOG.error("Send error: " + m, e);
       }
     }
   }
 
+  public int getConnectionCount() {
+    return connectedSockets.size();
+  }
+
   public Set<String> getConnectedUsers() {
     Set<String> connectedUsers = Sets.newHashSet();
     for (NotebookSocket notebookSocket : connectedSockets) {
@@ -28,7 +28,11 @@ public class Message {
    */
   public enum OP {
     ERROR_INFO,                   // [s-c] error information to be sent
-    NOTICE                        // [s-c] Notice
+    NOTICE,                       // [s-c] Notice
+    SUBSCRIBE,                    // [c-s] subscribe to experimentIds, notebookIds or namespaces
+    UNSUBSCRIBE,                  // [c-s] cancel a subscription, same data as SUBSCRIBE
+    EXPERIMENT_STATUS,            // [s-c] the status of a subscribed experiment changed
+    NOTEBOOK_STATUS               // [s-c] the status of a subscribed notebook changed
   }
 
   private static final Gson gson = new Gson();
@@ -25,6 +25,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicReference;
 import org.apache.commons.lang.StringUtils;
+import org.apache.submarine.server.metrics.MetricsRegistry;
 import org.eclipse.jetty.util.annotation.ManagedAttribute;
 import org.eclipse.jetty.util.annotation.ManagedObject;
 import org.eclipse.jetty.util.annotation.ManagedOperation;
@@ -73,6 +74,8 @@ public class NotebookServer extends WebSocketServlet
   public NotebookServer() {
     this.connectionManager = new ConnectionManager();
     NotebookServer.self.set(this);
+    MetricsRegistry.getInstance().gauge("submarine_websocket_connections",
+        "Open WebSocket connections", connectionManager::getConnectionCount);
     LOG.info("NotebookServer instantiated: {}", this);
   }
 
@@ -94,6 +97,12 @@ public class NotebookServer extends WebSocketServlet
       if (StringUtils.isEmpty(conn.getUser())) {
         connectionManager.addUserConnection("FakeUser1", conn);
       }
+      Message message = deserializeMessage(msg);
+      if (message != null && message.op == Message.OP.SUBSCRIBE) {
+        connectionManager.subscribe(conn, StatusEventPublisher.getTopics(message));
+      } else if (message != null && message.op == Message.OP.UNSUBSCRIBE) {
+        connectionManager.unsubscribe(conn, StatusEventPublisher.getTopics(message));
+      }
     } catch (Exception e) {
       LOG.error("Can't handle message: " + msg, e);
       try {
@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.submarine.server.workbench.websocket;
+
+import org.apache.submarine.server.api.StatusListener;
+import org.apache.submarine.server.api.experiment.Experiment;
+import org.apache.submarine.server.api.notebook.Notebook;
+import org.apache.submarine.server.experiment.ExperimentManager;
+import org.apache.submarine.server.notebook.NotebookManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Pushes the status changes observed by the submitter to the subscribed websocket
+ * connections. A connection subscribes to the topics
+ *  experiment:{experiment id}
+ *  notebook:{notebook id}
+ *  namespace:{namespace}, all the experiments and notebooks of the namespace
+ */
+public class StatusEventPublisher implements StatusListener {
+  private static final Logger LOG = LoggerFactory.getLogger(StatusEventPublisher.class);
+
+  private static final int QUEUE_SIZE = 10000;
+
+  private final ConnectionManager connectionManager;
+
+  private final ExperimentIdResolver experimentIdResolver;
+
+  // uid -> notebook id, null if the resource is not managed by submarine
+  private final Function<String, String> notebookIdResolver;
+
+  // Single thread, so the events are delivered in order and the submitter threads never block
+  private final ExecutorService executor;
+
+  public StatusEventPublisher(ConnectionManager connectionManager) {
+    this(connectionManager,
+        (namespace, name, deleted) ->
+            ExperimentManager.getInstance().findExperimentIdByName(namespace, name, deleted),
+        uid -> NotebookManager.getInstance().findNotebookIdByUid(uid));
+  }
+
+  StatusEventPublisher(ConnectionManager connectionManager,
+      ExperimentIdResolver experimentIdResolver,
+      Function<String, String> notebookIdResolver) {
+    this.connectionManager = connectionManager;
+    this.experimentIdResolver = experimentIdResolver;
+    this.notebookIdResolver = notebookIdResolver;
+    ThreadFactory threadFactory = r -> {
+      Thread thread = new Thread(r, "StatusEventPublisher");
+      thread.setDaemon(true);
+      return thread;
+    };
+    this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+        new LinkedBlockingQueue<>(QUEUE_SIZE), threadFactory);
+  }
+
+  /**
+   * Finds the experiment of an experiment resource
+   */
+  interface ExperimentIdResolver {
+    /**
+     * @param deleted whether the resource was deleted
+     * @return the experiment id, null if the resource is not managed by submarine
+     */
+    String resolve(String namespace, String name, boolean deleted);
+  }
+
+  public static String experimentTopic(String experimentId) {
+    return "experiment:" + experimentId;
+  }
+
+  public static String notebookTopic(String notebookId) {
+    return "notebook:" + notebookId;
+  }
+
+  public static String namespaceTopic(String namespace) {
+    return "namespace:" + namespace;
+  }
+
+  /**
+   * Build the topics of a SUBSCRIBE or UNSUBSCRIBE message
+   */
+  public static List<String> getTopics(Message message) {
+    List<String> topics = new ArrayList<>();
+    addTopics(topics, message.get("experimentIds"), StatusEventPublisher::experimentTopic);
+    addTopics(topics, message.get("notebookIds"), StatusEventPublisher::notebookTopic);
+    addTopics(topics, message.get("namespaces"), StatusEventPublisher::namespaceTopic);
+    return topics;
+  }
+
+  private static void addTopics(List<String> topics, Object values, Function<String, String> topic) {
+    if (values instanceof Iterable) {
+      for (Object value : (Iterable<?>) values) {
+        topics.add(topic.apply(String.valueOf(value)));
+      }
+    } else if (values != null) {
+      topics.add(topic.apply(String.valueOf(values)));
+    }
+  }
+
+  @Override
+  public void onExperimentStatus(String namespace, Experiment experiment, boolean deleted) {
+    // Nobody is listening, skip the lookup of the experiment id
+    if (!connectionManager.hasSubscriptions()) {
+      return;
+    }
+    dispatch(() -> {
+      String id = experimentIdResolver.resolve(namespace, experiment.getName(), deleted);
+      Message message = new Message(Message.OP.EXPERIMENT_STATUS)
+          .put("experimentId", id)
+          .put("namespace", namespace)
+          .put("name", experiment.getName())
+          .put("uid", experiment.getUid())
+          .put("status", experiment.getStatus())
+          .put("acceptedTime", experiment.getAcceptedTime())
+          .put("createdTime", experiment.getCreatedTime())
+          .put("runningTime", experiment.getRunningTime())
+          .put("finishedTime", experiment.getFinishedTime())
+          .put("deleted", deleted);
+      publish(message, id == null ? null : experimentTopic(id), namespace);
+    });
+  }
+
+  @Override
+  public void onNotebookStatus(String namespace, Notebook notebook, boolean deleted) {
+    if (!connectionManager.hasSubscriptions()) {
+      return;
+    }
+    dispatch(() -> {
+      String id = notebookIdResolver.apply(notebook.getUid());
+      Message message = new Message(Message.OP.NOTEBOOK_STATUS)
+          .put("notebookId", id)
+          .put("namespace", namespace)
+          .put("name", notebook.getName())
+          .put("uid", notebook.getUid())
+          .put("status", notebook.getStatus())
+          .put("reason", notebook.getReason())
+          .put("deleted", deleted);
+      publish(message, id == null ? null : notebookTopic(id), namespace);
+    });
+  }
+
+  private void publish(Message message, String idTopic, String namespace) {
+    if (idTopic == null) {
+      connectionManager.publish(message, namespaceTopic(namespace));
+    } else {
+      connectionManager.publish(message, idTopic, namespaceTopic(namespace));
+    }
+  }
+
+  private void dispatch(Runnable task) {
+    try {
+      executor.execute(() -> {
+        try {
+          task.run();
+        } catch (RuntimeException e) {
+          LOG.warn("Failed to publish the status event: " + e.getMessage(), e);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      LOG.warn("Too many pending status events, dropped one");
+    }
+  }
+
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+}
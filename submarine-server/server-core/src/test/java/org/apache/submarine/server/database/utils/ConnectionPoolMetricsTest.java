@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.submarine.server.database.utils;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.apache.submarine.server.metrics.Histogram;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class ConnectionPoolMetricsTest {
+
+  @Test
+  public void testHistogram() {
+    Histogram histogram = new Histogram(0.1, 1, 10);
+    histogram.observe(0.05);
+    histogram.observe(0.1);
+    histogram.observe(0.5);
+    histogram.observe(20);
+
+    assertArrayEquals(new long[] {2, 3, 3, 4}, histogram.getCumulativeCounts());
+    assertEquals(4, histogram.getCount());
+    assertEquals(20.65, histogram.getSum(), 1e-9);
+  }
+
+  @Test
+  public void testTracker() {
+    ConnectionPoolMetrics metrics = new ConnectionPoolMetrics();
+    IMetricsTracker tracker = metrics.create("test-pool", new PoolStats(0) {
+      @Override
+      protected void update() {
+        totalConnections = 10;
+        idleConnections = 7;
+        activeConnections = 3;
+        pendingThreads = 2;
+        maxConnections = 20;
+      }
+    });
+    tracker.recordConnectionAcquiredNanos(2_000_000L);
+    tracker.recordConnectionAcquiredNanos(3_000_000_000L);
+    tracker.recordConnectionTimeout();
+
+    assertEquals(3, metrics.getActiveConnections());
+    assertEquals(7, metrics.getIdleConnections());
+    assertEquals(2, metrics.getPendingThreads());
+    assertEquals(1, metrics.getTimeouts());
+    assertEquals(2, metrics.getAcquireSeconds().getCount());
+
+    Map<String, Object> map = metrics.toMap();
+    assertEquals("test-pool", map.get("pool"));
+    assertEquals(10, map.get("total"));
+    @SuppressWarnings("unchecked")
+    Map<String, Object> acquire = (Map<String, Object>) map.get("acquireSeconds");
+    @SuppressWarnings("unchecked")
+    Map<String, Long> buckets = (Map<String, Long>) acquire.get("buckets");
+    assertEquals(Long.valueOf(0), buckets.get("0.001"));
+    assertEquals(Long.valueOf(1), buckets.get("0.0025"));
+    assertEquals(Long.valueOf(2), buckets.get("+Inf"));
+  }
+}
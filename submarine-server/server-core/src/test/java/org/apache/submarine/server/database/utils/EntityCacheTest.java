@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.submarine.server.database.utils;
+
+import com.google.common.base.Ticker;
+import org.apache.submarine.commons.utils.exception.SubmarineRuntimeException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class EntityCacheTest {
+
+  // A table of rows by name, which counts its queries
+  private static class StubTable {
+    private final Map<String, String> rows = new LinkedHashMap<>();
+    private final AtomicInteger selects = new AtomicInteger();
+    private final AtomicInteger selectAlls = new AtomicInteger();
+    private volatile CountDownLatch blocked = new CountDownLatch(0);
+
+    String select(String name) {
+      selects.incrementAndGet();
+      try {
+        blocked.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      if ("broken".equals(name)) {
+        throw new SubmarineRuntimeException(400, "Unable to get the details.");
+      }
+      synchronized (rows) {
+        return rows.get(name);
+      }
+    }
+
+    Map<String, String> selectAll() {
+      selectAlls.incrementAndGet();
+      synchronized (rows) {
+        return new LinkedHashMap<>(rows);
+      }
+    }
+
+    void insert(String name) {
+      synchronized (rows) {
+        rows.put(name, name);
+      }
+    }
+  }
+
+  private static class FakeTicker extends Ticker {
+    private long nanos = 0;
+
+    @Override
+    public long read() {
+      return nanos;
+    }
+
+    void advance(long millis) {
+      nanos += TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+  }
+
+  private final StubTable table = new StubTable();
+  private final FakeTicker ticker = new FakeTicker();
+
+  private EntityCache<String> newCache(long maximumSize) {
+    return new EntityCache<>(maximumSize, 60000, table::select, table::selectAll, ticker);
+  }
+
+  @Test
+  public void testReadThrough() {
+    table.insert("a");
+    EntityCache<String> cache = newCache(100);
+
+    for (int i = 0; i < 10; i++) {
+      assertEquals("a", cache.get("a"));
+    }
+    assertEquals(1, table.selects.get());
+    assertEquals(9, cache.getHitCount());
+    assertEquals(1, cache.getMissCount());
+
+    // A missing row is read again, until all the rows are cached
+    assertNull(cache.get("b"));
+    assertNull(cache.get("b"));
+    assertEquals(3, table.selects.get());
+
+    try {
+      cache.get("broken");
+      fail("Expected the error of the loader");
+    } catch (SubmarineRuntimeException e) {
+      assertEquals(400, e.getCode());
+    }
+  }
+
+  @Test
+  public void testListOnce() {
+    table.insert("a");
+    table.insert("b");
+    EntityCache<String> cache = newCache(100);
+
+    assertEquals(2, cache.list().size());
+    for (int i = 0; i < 10; i++) {
+      assertEquals(2, cache.list().size());
+      assertEquals("b", cache.get("b"));
+      assertNull(cache.get("c"));
+    }
+    assertEquals(1, table.selectAlls.get());
+    assertEquals(0, table.selects.get());
+
+    // Written through
+    table.insert("c");
+    cache.put("c", "c");
+    cache.invalidate("a");
+    List<String> names = new ArrayList<>(cache.list());
+    names.sort(String::compareTo);
+    assertEquals("[b, c]", names.toString());
+    assertEquals(1, table.selectAlls.get());
+
+    // Read again once expired, to see the rows written by another server
+    ticker.advance(60001);
+    assertEquals(3, cache.list().size());
+    assertEquals(2, table.selectAlls.get());
+  }
+
+  @Test
+  public void testListAfterEviction() {
+    for (int i = 0; i < 10; i++) {
+      table.insert("row" + i);
+    }
+    // Too small to hold all the rows, so a list always reads them
+    EntityCache<String> cache = newCache(5);
+    assertEquals(10, cache.list().size());
+    assertEquals(10, cache.list().size());
+    assertEquals(2, table.selectAlls.get());
+  }
+
+  @Test
+  public void testSingleLoad() throws Exception {
+    table.insert("a");
+    EntityCache<String> cache = newCache(100);
+    table.blocked = new CountDownLatch(1);
+
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<String>> futures = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        futures.add(executor.submit(() -> cache.get("a")));
+      }
+      // Let the callers wait for the same load
+      Thread.sleep(200);
+      table.blocked.countDown();
+      for (Future<String> future : futures) {
+        assertEquals("a", future.get(10, TimeUnit.SECONDS));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertEquals(1, table.selects.get());
+    assertTrue(cache.getMissCount() >= 1);
+  }
+}
@@ -22,11 +22,14 @@ package org.apache.submarine.server.experiment;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import org.apache.commons.io.IOUtils;
 import org.apache.submarine.commons.runtime.exception.SubmarineException;
 import org.apache.submarine.commons.utils.exception.SubmarineRuntimeException;
 import org.apache.submarine.server.api.Submitter;
 import org.apache.submarine.server.api.experiment.Experiment;
 import org.apache.submarine.server.api.experiment.ExperimentId;
+import org.apache.submarine.server.api.experiment.ExperimentLog;
+import org.apache.submarine.server.api.experiment.ExperimentLogOptions;
 import org.apache.submarine.server.api.spec.ExperimentSpec;
 import org.apache.submarine.server.experiment.database.ExperimentEntity;
 import org.apache.submarine.server.experiment.database.ExperimentService;
@@ -35,7 +38,11 @@ import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.ws.rs.core.Response.Status;
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.Reader;
 import java.net.URISyntaxException;
 import java.net.URL;
@@ -43,10 +50,16 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 
@@ -202,6 +215,88 @@ public class ExperimentManagerTest {
     Experiment actualExperiment = experimentManager.deleteExperiment(experimentId.toString());
 
     verifyResult(expectedExperiment, actualExperiment);
+
+    // The deletion of the resource observed afterwards is still reported with the id, once
+    String namespace = spec.getMeta().getNamespace();
+    String name = spec.getMeta().getName();
+    assertNull(experimentManager.findExperimentIdByName(namespace, name));
+    assertEquals(experimentId.toString(), experimentManager.findExperimentIdByName(namespace, name, true));
+    assertNull(experimentManager.findExperimentIdByName(namespace, name, true));
+  }
+
+  @Test
+  public void testCachedSpec() {
+    ExperimentId experimentId = new ExperimentId();
+    experimentId.setServerTimestamp(System.currentTimeMillis());
+    experimentId.setId(1);
+
+    ExperimentEntity entity = new ExperimentEntity();
+    entity.setExperimentSpec(toJson(spec));
+    entity.setId(experimentId.toString());
+
+    when(mockService.select(any(String.class))).thenReturn(entity);
+    when(mockSubmitter.findExperiment(any(ExperimentSpec.class))).thenReturn(result);
+
+    // The spec is parsed once while the JSON in db does not change
+    ExperimentSpec first = experimentManager.getExperiment(experimentId.toString()).getSpec();
+    ExperimentSpec second = experimentManager.getExperiment(experimentId.toString()).getSpec();
+    assertSame(first, second);
+    verify(mockService, times(2)).select(experimentId.toString());
+
+    // Updated by another server, the new version is parsed
+    entity.setExperimentSpec(toJson(newSpec));
+    ExperimentSpec third = experimentManager.getExperiment(experimentId.toString()).getSpec();
+    assertNotSame(second, third);
+    assertEquals(newSpec.getMeta().getName(), third.getMeta().getName());
+  }
+
+  @Test
+  public void testGetExperimentLogStream() throws IOException {
+    ExperimentId experimentId = new ExperimentId();
+    experimentId.setServerTimestamp(System.currentTimeMillis());
+    experimentId.setId(1);
+
+    ExperimentEntity entity = new ExperimentEntity();
+    entity.setExperimentSpec(toJson(spec));
+    entity.setId(experimentId.toString());
+
+    ExperimentLog pods = new ExperimentLog();
+    pods.addPodLog("worker-0", null);
+    pods.addPodLog("worker-1", null);
+
+    when(mockService.select(any(String.class))).thenReturn(entity);
+    when(mockSubmitter.getExperimentLogName(any(ExperimentSpec.class), any(String.class))).thenReturn(pods);
+    when(mockSubmitter.getExperimentLogStream(any(ExperimentSpec.class), any(ExperimentLogOptions.class)))
+        .thenAnswer(invocation -> {
+          ExperimentLogOptions options = invocation.getArgument(1);
+          return new ByteArrayInputStream(("log of " + options.getPodName() + "\n")
+              .getBytes(StandardCharsets.UTF_8));
+        });
+
+    // The logs of all the pods are concatenated
+    InputStream in = experimentManager.getExperimentLogStream(experimentId.toString(),
+        new ExperimentLogOptions());
+    assertEquals("==> worker-0 <==\nlog of worker-0\n==> worker-1 <==\nlog of worker-1\n",
+        IOUtils.toString(in, StandardCharsets.UTF_8));
+
+    in = experimentManager.getExperimentLogStream(experimentId.toString(),
+        new ExperimentLogOptions().podName("worker-1").follow(true));
+    assertEquals("log of worker-1\n", IOUtils.toString(in, StandardCharsets.UTF_8));
+
+    try {
+      experimentManager.getExperimentLogStream(experimentId.toString(),
+          new ExperimentLogOptions().follow(true));
+      fail("The pod is required to follow the log");
+    } catch (SubmarineRuntimeException e) {
+      assertEquals(Status.BAD_REQUEST.getStatusCode(), e.getCode());
+    }
+    try {
+      experimentManager.getExperimentLogStream(experimentId.toString(),
+          new ExperimentLogOptions().podName("worker-2"));
+      fail("The pod does not belong to the experiment");
+    } catch (SubmarineRuntimeException e) {
+      assertEquals(Status.NOT_FOUND.getStatusCode(), e.getCode());
+    }
   }
 
   @Test(expected = SubmarineRuntimeException.class)
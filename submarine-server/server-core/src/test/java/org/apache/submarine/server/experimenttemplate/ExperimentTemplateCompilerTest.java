@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.submarine.server.experimenttemplate;
+
+import com.google.gson.Gson;
+import org.apache.commons.io.IOUtils;
+import org.apache.submarine.commons.utils.exception.SubmarineRuntimeException;
+import org.apache.submarine.server.api.spec.ExperimentSpec;
+import org.apache.submarine.server.api.spec.ExperimentTaskSpec;
+import org.apache.submarine.server.api.spec.ExperimentTemplateParamSpec;
+import org.apache.submarine.server.api.spec.ExperimentTemplateSpec;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ExperimentTemplateCompilerTest {
+  private final Gson gson = new Gson();
+  private final ExperimentTemplateCompiler compiler = new ExperimentTemplateCompiler(gson);
+
+  private ExperimentTemplateSpec tplSpec;
+
+  @Before
+  public void loadTemplate() throws IOException {
+    try (InputStream in = getClass().getResourceAsStream("/experimentTemplate/test_template_1.json")) {
+      tplSpec = gson.fromJson(IOUtils.toString(in, StandardCharsets.UTF_8), ExperimentTemplateSpec.class);
+    }
+    // The parameters added when the template is registered
+    for (Map.Entry<String, ExperimentTaskSpec> task : tplSpec.getExperimentSpec().getSpec().entrySet()) {
+      task.getValue().setResources(task.getValue().getResources());
+      addParameter(String.format("spec.%s.replicas", task.getKey()), "1", false);
+      addParameter(String.format("spec.%s.resourceMap.cpu", task.getKey()),
+          task.getValue().getCpu(), false);
+      addParameter(String.format("spec.%s.resourceMap.memory", task.getKey()),
+          task.getValue().getMemory(), false);
+    }
+  }
+
+  private void addParameter(String name, String value, boolean required) {
+    ExperimentTemplateParamSpec param = new ExperimentTemplateParamSpec();
+    param.setName(name);
+    param.setValue(value);
+    param.setRequired(String.valueOf(required));
+    tplSpec.getExperimentTemplateParamSpec().add(param);
+  }
+
+  @Test
+  public void testRenderDefaults() {
+    ExperimentSpec spec = compiler.compile(tplSpec).renderDefaults();
+    assertEquals("tf-mnist-test_1", spec.getMeta().getName());
+    assertEquals("python /var/tf_mnist/mnist_with_summaries.py --log_dir=/train/log"
+        + " --learning_rate=0.1 --batch_size=150", spec.getMeta().getCmd());
+    assertEquals(Integer.valueOf(1), spec.getSpec().get("Worker").getReplicas());
+    assertEquals("cpu=1,memory=1024M", spec.getSpec().get("Worker").getResources());
+  }
+
+  @Test
+  public void testRender() {
+    CompiledExperimentTemplate compiledTemplate = compiler.compile(tplSpec);
+    Map<String, String> params = new HashMap<>();
+    // Rendered as is, not as a regex replacement
+    params.put("experiment_name", "new-$1\\test");
+    params.put("learning_rate", "0.2");
+    params.put("spec.Worker.replicas", "3");
+    params.put("spec.Worker.resourceMap.memory", "4096M");
+
+    ExperimentSpec spec = compiledTemplate.render(params);
+    assertEquals("new-$1\\test", spec.getMeta().getName());
+    assertTrue(spec.getMeta().getCmd().contains("--learning_rate=0.2 --batch_size=150"));
+    assertEquals(Integer.valueOf(3), spec.getSpec().get("Worker").getReplicas());
+    assertEquals("cpu=1,memory=4096M", spec.getSpec().get("Worker").getResources());
+    assertEquals(Integer.valueOf(1), spec.getSpec().get("Ps").getReplicas());
+    assertEquals("cpu=1,memory=1024M", spec.getSpec().get("Ps").getResources());
+
+    // The submitted values do not change the defaults of the template
+    params.remove("learning_rate");
+    spec = compiledTemplate.render(params);
+    assertTrue(spec.getMeta().getCmd().contains("--learning_rate=0.1"));
+  }
+
+  @Test
+  public void testRenderWithInvalidParameters() {
+    CompiledExperimentTemplate compiledTemplate = compiler.compile(tplSpec);
+    assertRejected(() -> compiledTemplate.render(new HashMap<>()),
+        "Template contains unmapped value: [experiment_name]");
+
+    Map<String, String> params = new HashMap<>();
+    params.put("experiment_name", "new-test");
+    params.put("unknown", "1");
+    assertRejected(() -> compiledTemplate.render(params), "Parameters contains illegal key: [unknown]");
+  }
+
+  @Test
+  public void testCompileWithInvalidTemplate() {
+    addParameter("unused", "1", false);
+    assertRejected(() -> compiler.compile(tplSpec), "Parameters contains unused key: [unused]");
+
+    tplSpec.getExperimentTemplateParamSpec().remove(tplSpec.getExperimentTemplateParamSpec().size() - 1);
+    tplSpec.getExperimentSpec().getMeta().setCmd("python train.py --learning_rate={{learning_rate}}"
+        + " --batch_size={{batch_size}} --epochs={{epochs}}");
+    assertRejected(() -> compiler.compile(tplSpec), "Template contains unmapped value: [meta.cmd:epochs]");
+  }
+
+  private void assertRejected(Runnable runnable, String message) {
+    try {
+      runnable.run();
+      fail("Expected " + message);
+    } catch (SubmarineRuntimeException e) {
+      assertEquals(message, e.getMessage());
+    }
+  }
+}
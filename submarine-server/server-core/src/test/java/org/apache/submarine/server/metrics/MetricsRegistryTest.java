@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.submarine.server.metrics;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.Callable;
+
+public class MetricsRegistryTest {
+  private final MetricsRegistry registry = MetricsRegistry.getInstance();
+
+  @After
+  public void after() {
+    registry.clear();
+  }
+
+  @Test
+  public void testCounterAndGauge() {
+    registry.counter("test_requests_total", "Requests", "path", "/v1/\"x\"").add(3);
+    registry.gauge("test_connections", "Connections", () -> 2.5);
+
+    String text = registry.scrape();
+    Assert.assertTrue(text, text.contains("# TYPE test_requests_total counter\n"));
+    Assert.assertTrue(text, text.contains("test_requests_total{path=\"/v1/\\\"x\\\"\"} 3\n"));
+    Assert.assertTrue(text, text.contains("# TYPE test_connections gauge\n"));
+    Assert.assertTrue(text, text.contains("test_connections 2.5\n"));
+  }
+
+  @Test
+  public void testTimer() {
+    Histogram timer = registry.timer("test_seconds", "Latency", "method", "GET");
+    Assert.assertSame(timer, registry.timer("test_seconds", "Latency", "method", "GET"));
+    timer.observe(0.003);
+    timer.observe(20);
+
+    String text = registry.scrape();
+    Assert.assertTrue(text, text.contains("# TYPE test_seconds histogram\n"));
+    Assert.assertTrue(text, text.contains("test_seconds_bucket{method=\"GET\",le=\"0.0025\"} 0\n"));
+    Assert.assertTrue(text, text.contains("test_seconds_bucket{method=\"GET\",le=\"0.005\"} 1\n"));
+    Assert.assertTrue(text, text.contains("test_seconds_bucket{method=\"GET\",le=\"+Inf\"} 2\n"));
+    Assert.assertTrue(text, text.contains("test_seconds_count{method=\"GET\"} 2\n"));
+    Assert.assertTrue(text, text.contains("test_seconds_sum{method=\"GET\"} 20.003\n"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTypeConflict() {
+    registry.counter("test_metric", "Counter");
+    registry.gauge("test_metric", "Gauge", () -> 1);
+  }
+
+  @Test
+  public void testTimedProxy() throws Exception {
+    Callable<String> target = () -> {
+      throw new IllegalStateException("failed");
+    };
+    @SuppressWarnings("unchecked")
+    Callable<String> timed = TimedProxy.wrap(Callable.class, target, "test_call_seconds", "Calls");
+    try {
+      timed.call();
+      Assert.fail("The exception of the target should be thrown");
+    } catch (IllegalStateException e) {
+      Assert.assertEquals("failed", e.getMessage());
+    }
+
+    String text = registry.scrape();
+    Assert.assertTrue(text, text.contains("test_call_seconds_count{method=\"call\"} 1\n"));
+    Assert.assertTrue(text, text.contains("test_call_seconds_errors_total{method=\"call\"} 1\n"));
+  }
+}
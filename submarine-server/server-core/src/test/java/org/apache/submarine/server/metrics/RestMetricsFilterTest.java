@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.submarine.server.metrics;
+
+import org.apache.submarine.server.response.JsonResponse;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.WriterInterceptorContext;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class RestMetricsFilterTest {
+  private final RestMetricsFilter filter = new RestMetricsFilter();
+  private final MetricsRegistry registry = MetricsRegistry.getInstance();
+  // The properties of the request, shared by the filters and the interceptors
+  private final Map<String, Object> properties = new HashMap<>();
+  private ContainerRequestContext request;
+  private WriterInterceptorContext writer;
+
+  @Before
+  public void before() {
+    request = mock(ContainerRequestContext.class);
+    when(request.getMethod()).thenReturn("GET");
+    when(request.getProperty(anyString())).thenAnswer(i -> properties.get(i.getArgument(0)));
+    doAnswer(i -> properties.put(i.getArgument(0), i.getArgument(1)))
+        .when(request).setProperty(anyString(), any());
+    doAnswer(i -> properties.remove(i.getArgument(0))).when(request).removeProperty(anyString());
+
+    writer = mock(WriterInterceptorContext.class);
+    when(writer.getProperty(anyString())).thenAnswer(i -> properties.get(i.getArgument(0)));
+    doAnswer(i -> properties.remove(i.getArgument(0))).when(writer).removeProperty(anyString());
+  }
+
+  @After
+  public void after() {
+    registry.clear();
+  }
+
+  private ContainerResponseContext response(int status, Object entity) {
+    ContainerResponseContext response = mock(ContainerResponseContext.class);
+    when(response.getStatus()).thenReturn(status);
+    when(response.getEntity()).thenReturn(entity);
+    return response;
+  }
+
+  private Histogram timer(int status) {
+    return registry.timer(RestMetricsFilter.METRIC_NAME, "Latency of the REST requests",
+        "method", "GET", "path", "unknown", "status", String.valueOf(status));
+  }
+
+  @Test
+  public void testSerialisationTimed() throws IOException {
+    Object entity = new JsonResponse.Builder<String>(Response.Status.OK).success(true).build()
+        .getEntity();
+    filter.filter(request);
+    filter.filter(request, response(200, entity));
+    // Not timed until the entity is written
+    Assert.assertEquals(0, timer(200).getCount());
+
+    doAnswer(i -> {
+      Thread.sleep(50);
+      return null;
+    }).when(writer).proceed();
+    filter.aroundWriteTo(writer);
+    Assert.assertEquals(1, timer(200).getCount());
+    Assert.assertTrue(timer(200).getSum() >= 0.05);
+  }
+
+  @Test
+  public void testSerialisationFailure() throws IOException {
+    Object entity = new JsonResponse.Builder<String>(Response.Status.OK).success(true).build()
+        .getEntity();
+    filter.filter(request);
+    filter.filter(request, response(200, entity));
+    doThrow(new IllegalStateException("failed")).when(writer).proceed();
+    try {
+      filter.aroundWriteTo(writer);
+      Assert.fail("The failure should be thrown");
+    } catch (IllegalStateException e) {
+      // Expected
+    }
+    // The error response replacing it is not timed again
+    filter.filter(request, response(500, null));
+    Assert.assertEquals(0, timer(200).getCount());
+    Assert.assertEquals(1, timer(500).getCount());
+  }
+
+  @Test
+  public void testOtherEntity() throws IOException {
+    filter.filter(request);
+    filter.filter(request, response(200, "text"));
+    Assert.assertEquals(1, timer(200).getCount());
+    filter.aroundWriteTo(writer);
+    Assert.assertEquals(1, timer(200).getCount());
+  }
+}
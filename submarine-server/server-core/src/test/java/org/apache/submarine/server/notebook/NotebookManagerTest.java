@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.submarine.server.notebook;
+
+import com.google.gson.Gson;
+import org.apache.submarine.server.api.Submitter;
+import org.apache.submarine.server.api.notebook.Notebook;
+import org.apache.submarine.server.api.notebook.NotebookId;
+import org.apache.submarine.server.api.spec.NotebookMeta;
+import org.apache.submarine.server.api.spec.NotebookSpec;
+import org.apache.submarine.server.notebook.database.NotebookEntity;
+import org.apache.submarine.server.notebook.database.NotebookService;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class NotebookManagerTest {
+  private static final int SIZE = 1000;
+
+  private Submitter mockSubmitter;
+  private NotebookService mockService;
+  private NotebookManager notebookManager;
+  private List<NotebookEntity> entities;
+  private List<Notebook> upstream;
+
+  @Before
+  public void init() {
+    mockSubmitter = mock(Submitter.class);
+    mockService = mock(NotebookService.class);
+    notebookManager = new NotebookManager(mockSubmitter, mockService);
+
+    // Pretend the notebooks were persisted before a restart
+    entities = new ArrayList<>();
+    upstream = new ArrayList<>();
+    for (int i = 0; i < SIZE; i++) {
+      String namespace = i % 2 == 0 ? "default" : "team";
+      NotebookEntity entity = new NotebookEntity();
+      entity.setId(NotebookId.newInstance(1L, i + 1).toString());
+      entity.setUid("uid-" + i);
+      entity.setNotebookSpec(new Gson().toJson(buildSpec("notebook-" + i, namespace, "user-" + (i % 10))));
+      entities.add(entity);
+
+      Notebook notebook = new Notebook();
+      notebook.setUid("uid-" + i);
+      notebook.setName("notebook-" + i);
+      notebook.setStatus(Notebook.Status.STATUS_RUNNING.getValue());
+      upstream.add(notebook);
+    }
+    when(mockService.selectAll()).thenReturn(entities);
+  }
+
+  @Test
+  public void testListNotebooksByNamespace() {
+    when(mockSubmitter.listNotebook(isNull())).thenReturn(upstream);
+
+    List<Notebook> notebooks = notebookManager.listNotebooksByNamespace("team");
+
+    assertEquals(SIZE / 2, notebooks.size());
+    Notebook notebook = notebooks.get(0);
+    assertEquals(entities.get(1).getId(), notebook.getNotebookId().toString());
+    assertEquals("team", notebook.getSpec().getMeta().getNamespace());
+    assertEquals(Notebook.Status.STATUS_RUNNING.getValue(), notebook.getStatus());
+
+    assertEquals(SIZE, notebookManager.listNotebooksByNamespace(null).size());
+    verify(mockSubmitter, times(2)).listNotebook(isNull());
+    verify(mockSubmitter, never()).findNotebook(any(NotebookSpec.class));
+    verify(mockService, times(1)).selectAll();
+  }
+
+  @Test
+  public void testListNotebooksByUserId() {
+    List<Notebook> owned = new ArrayList<>();
+    owned.add(upstream.get(3));
+    Notebook unknown = new Notebook();
+    unknown.setUid("uid-unknown");
+    owned.add(unknown);
+    when(mockSubmitter.listNotebook("user-3")).thenReturn(owned);
+
+    List<Notebook> notebooks = notebookManager.listNotebooksByUserId("user-3");
+
+    assertEquals(2, notebooks.size());
+    assertEquals(entities.get(3).getId(), notebooks.get(0).getNotebookId().toString());
+    assertEquals("notebook-3", notebooks.get(0).getSpec().getMeta().getName());
+    assertNull(notebooks.get(1).getNotebookId());
+  }
+
+  @Test
+  public void testDeleteNotebook() {
+    String id = entities.get(0).getId();
+    when(mockSubmitter.deleteNotebook(any(NotebookSpec.class))).thenReturn(upstream.get(0));
+    when(mockSubmitter.listNotebook(isNull())).thenReturn(upstream);
+
+    notebookManager.deleteNotebook(id);
+
+    verify(mockService).delete(id);
+    assertEquals(SIZE - 1, notebookManager.listNotebooksByNamespace(null).size());
+  }
+
+  private NotebookSpec buildSpec(String name, String namespace, String ownerId) {
+    NotebookMeta meta = new NotebookMeta();
+    meta.setName(name);
+    meta.setNamespace(namespace);
+    meta.setOwnerId(ownerId);
+    NotebookSpec spec = new NotebookSpec();
+    spec.setMeta(meta);
+    return spec;
+  }
+}
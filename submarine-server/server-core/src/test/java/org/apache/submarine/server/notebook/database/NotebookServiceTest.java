@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.submarine.server.notebook.database;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class NotebookServiceTest {
+  NotebookService notebookService = new NotebookService();
+
+  @After
+  public void cleanNotebookTable() throws Exception {
+    List<NotebookEntity> entities = notebookService.selectAll();
+    for (NotebookEntity entity: entities) {
+      notebookService.delete(entity.getId());
+    }
+  }
+
+  @Test
+  public void testInsert() throws Exception {
+    NotebookEntity entity = buildEntity("notebook_1230_1", "{\"value\": 1}", "uid-1");
+    notebookService.insert(entity);
+
+    NotebookEntity entitySelected = notebookService.select(entity.getId());
+    compareEntity(entity, entitySelected);
+  }
+
+  @Test
+  public void testUpdate() throws Exception {
+    NotebookEntity entity = buildEntity("notebook_1230_1", "{\"value\": 1}", null);
+    notebookService.insert(entity);
+
+    entity.setUid("uid-1");
+    notebookService.update(entity);
+
+    NotebookEntity entitySelected = notebookService.select(entity.getId());
+    compareEntity(entity, entitySelected);
+  }
+
+  @Test
+  public void testDelete() throws Exception {
+    NotebookEntity entity = buildEntity("notebook_1230_1", "{\"value\": 1}", "uid-1");
+    notebookService.insert(entity);
+
+    notebookService.delete(entity.getId());
+
+    Assert.assertEquals(0, notebookService.selectAll().size());
+  }
+
+  private NotebookEntity buildEntity(String id, String spec, String uid) {
+    NotebookEntity entity = new NotebookEntity();
+    entity.setId(id);
+    entity.setNotebookSpec(spec);
+    entity.setUid(uid);
+    return entity;
+  }
+
+  private void compareEntity(NotebookEntity expected, NotebookEntity actual) {
+    Assert.assertEquals(expected.getId(), actual.getId());
+    Assert.assertEquals(expected.getNotebookSpec(), actual.getNotebookSpec());
+    Assert.assertEquals(expected.getUid(), actual.getUid());
+  }
+}
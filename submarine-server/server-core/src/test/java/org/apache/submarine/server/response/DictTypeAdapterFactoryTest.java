@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.submarine.server.response;
+
+import com.google.gson.FieldNamingPolicy;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.annotations.Expose;
+import com.google.gson.annotations.SerializedName;
+import org.apache.submarine.server.response.JsonResponse.ListResult;
+import org.apache.submarine.server.workbench.annotation.Dict;
+import org.apache.submarine.server.workbench.database.entity.SysDict;
+import org.apache.submarine.server.workbench.database.entity.SysUser;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DictTypeAdapterFactoryTest {
+  private final AtomicInteger lookups = new AtomicInteger();
+
+  private final DictTypeAdapterFactory factory = new DictTypeAdapterFactory(dictCode -> {
+    lookups.incrementAndGet();
+    Map<String, String> itemNames = new HashMap<>();
+    if ("SYS_USER_SEX".equals(dictCode)) {
+      itemNames.put("1", "Male");
+      itemNames.put("2", "Female");
+    }
+    return itemNames;
+  });
+
+  private final Gson gson = new GsonBuilder()
+      .registerTypeAdapterFactory(factory)
+      .serializeNulls()
+      .create();
+
+  private static class Person {
+    @Expose
+    @SerializedName("gender")
+    @Dict(Code = "SYS_USER_SEX")
+    private String sex;
+
+    @Expose
+    @Dict(Code = "SYS_USER_SEX")
+    private String partnerSex;
+
+    @Dict(Code = "SYS_USER_SEX")
+    private String hiddenSex;
+  }
+
+  @Test
+  public void testDictFields() {
+    SysUser user = new SysUser();
+    user.setId("1");
+    user.setUserName("user");
+    user.setSex("2");
+    user.setStatus("0");
+
+    JsonObject json = gson.toJsonTree(user).getAsJsonObject();
+    assertEquals("user", json.get("userName").getAsString());
+    assertEquals("1", json.get("id").getAsString());
+    assertEquals("2", json.get("sex").getAsString());
+    assertEquals("Female", json.get("sex" + DictTypeAdapterFactory.DICT_SUFFIX).getAsString());
+    // No item in the dictionary, no companion field
+    assertEquals("0", json.get("status").getAsString());
+    assertFalse(json.has("status" + DictTypeAdapterFactory.DICT_SUFFIX));
+    // Null fields are kept with serializeNulls
+    assertTrue(json.get("email").isJsonNull());
+
+    user.setSex("3");
+    json = gson.toJsonTree(user).getAsJsonObject();
+    assertTrue(json.get("sex" + DictTypeAdapterFactory.DICT_SUFFIX).isJsonNull());
+
+    // The companion fields are ignored when reading
+    SysUser read = gson.fromJson(gson.toJson(user), SysUser.class);
+    assertEquals("user", read.getUserName());
+    assertEquals("3", read.getSex());
+  }
+
+  @Test
+  public void testListResult() {
+    SysUser male = new SysUser();
+    male.setSex("1");
+    SysUser female = new SysUser();
+    female.setSex("2");
+    ListResult<SysUser> listResult = new ListResult<>(Arrays.asList(male, female), 2);
+
+    JsonObject json = gson.toJsonTree(listResult).getAsJsonObject();
+    assertEquals("Male", json.getAsJsonArray("records").get(0).getAsJsonObject()
+        .get("sex" + DictTypeAdapterFactory.DICT_SUFFIX).getAsString());
+    assertEquals("Female", json.getAsJsonArray("records").get(1).getAsJsonObject()
+        .get("sex" + DictTypeAdapterFactory.DICT_SUFFIX).getAsString());
+  }
+
+  @Test
+  public void testGsonSettings() {
+    Person person = new Person();
+    person.sex = "1";
+    person.partnerSex = "2";
+    person.hiddenSex = "1";
+
+    Gson exposeGson = new GsonBuilder()
+        .registerTypeAdapterFactory(factory)
+        .setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES)
+        .excludeFieldsWithoutExposeAnnotation()
+        .create();
+    JsonObject json = exposeGson.toJsonTree(person).getAsJsonObject();
+    // @SerializedName and the naming policy name the field and its companion
+    assertEquals("1", json.get("gender").getAsString());
+    assertEquals("Male", json.get("gender" + DictTypeAdapterFactory.DICT_SUFFIX).getAsString());
+    assertEquals("2", json.get("partner_sex").getAsString());
+    assertEquals("Female", json.get("partner_sex" + DictTypeAdapterFactory.DICT_SUFFIX).getAsString());
+    // A field excluded by Gson has no companion either
+    assertFalse(json.has("hidden_sex"));
+    assertFalse(json.has("hidden_sex" + DictTypeAdapterFactory.DICT_SUFFIX));
+    assertEquals(4, json.size());
+
+    // Without serializeNulls, a null field and its companion are left out
+    person.partnerSex = null;
+    json = exposeGson.toJsonTree(person).getAsJsonObject();
+    assertFalse(json.has("partner_sex"));
+    assertFalse(json.has("partner_sex" + DictTypeAdapterFactory.DICT_SUFFIX));
+  }
+
+  @Test
+  public void testWithoutDictFields() {
+    SysDict sysDict = new SysDict();
+    sysDict.setDictCode("code");
+    ListResult<SysDict> listResult = new ListResult<>(Collections.singletonList(sysDict), 1);
+
+    // Serialised by the default adapters
+    String json = gson.toJson(listResult);
+    assertEquals(new GsonBuilder().serializeNulls().create().toJson(listResult), json);
+    assertFalse(json.contains(DictTypeAdapterFactory.DICT_SUFFIX));
+    assertEquals(0, lookups.get());
+  }
+}
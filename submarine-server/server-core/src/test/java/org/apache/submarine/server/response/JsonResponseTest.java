@@ -46,7 +46,7 @@ public class JsonResponseTest {
     Response response = new JsonResponse.Builder<SysDict>(Response.Status.OK)
         .success(true).result(sysDict).build();
 
-    String entity = (String) response.getEntity();
+    String entity = response.getEntity().toString();
 
     Type type = new TypeToken<JsonResponse<SysDict>>() {}.getType();
 
@@ -73,7 +73,7 @@ public class JsonResponseTest {
     Response response = new JsonResponse.Builder<ListResult<SysDict>>(Response.Status.OK)
         .success(true).result(listResult).build();
 
-    String entity = (String) response.getEntity();
+    String entity = response.getEntity().toString();
 
     Type type = new TypeToken<JsonResponse<ListResult<SysDict>>>() {}.getType();
 
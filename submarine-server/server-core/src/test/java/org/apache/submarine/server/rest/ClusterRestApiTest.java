@@ -140,7 +140,8 @@ public class ClusterRestApiTest {
   @Ignore
   @Test
   public void testGetClusterNode() {
-    when(mockClusterServer.getClusterMeta(ClusterMetaType.INTP_PROCESS_META, "")).thenReturn(clusterMetas);
+    when(mockClusterServer.findClusterMeta(
+        ClusterMetaType.INTP_PROCESS_META, ClusterMeta.NODE_NAME, nodeName1)).thenReturn(clusterMetas);
     Response response = clusterRestApi.getClusterNode(nodeName1, "");
     ArrayList<HashMap<String, Object>> result = getResultListFromResponse(response);
     Map<String, Object> properties = (LinkedTreeMap) result.get(0).get(ClusterMeta.PROPERTIES);
@@ -154,7 +155,7 @@ public class ClusterRestApiTest {
   }
 
   private <T> List<T> getResultListFromResponse(Response response, Class<T> typeT) {
-    String entity = (String) response.getEntity();
+    String entity = response.getEntity().toString();
     JsonObject object = new JsonParser().parse(entity).getAsJsonObject();
     JsonElement result = object.get("result");
     List<T> list = new ArrayList<T>();
@@ -166,7 +167,7 @@ public class ClusterRestApiTest {
   }
 
   private ArrayList<HashMap<String, Object>> getResultListFromResponse(Response response) {
-    String entity = (String) response.getEntity();
+    String entity = response.getEntity().toString();
     JsonObject object = new JsonParser().parse(entity).getAsJsonObject();
     JsonElement result = object.get("result");
     ArrayList<HashMap<String, Object>> list = new ArrayList<>();
@@ -125,7 +125,7 @@ public class EnvironmentRestApiTest {
   }
 
   private Environment getEnvironmentFromResponse(Response response) {
-    String entity = (String) response.getEntity();
+    String entity = response.getEntity().toString();
     Type type = new TypeToken<JsonResponse<Environment>>() {}.getType();
     JsonResponse<Environment> jsonResponse = gson.fromJson(entity, type);
     return jsonResponse.getResult();
@@ -134,7 +134,7 @@ public class EnvironmentRestApiTest {
   @Test
   public void listEnvironment() {
     Response getEnvResponse = environmentStoreApi.listEnvironment("");
-    String entity = (String) getEnvResponse.getEntity();
+    String entity = getEnvResponse.getEntity().toString();
     JsonResponse jsonResponse = gson.fromJson(entity, JsonResponse.class);
 
     // environments.length = 2; One is created in this test, one is get from database
@@ -28,6 +28,7 @@ import org.apache.submarine.server.SubmarineServer;
 import org.apache.submarine.server.api.experiment.Experiment;
 import org.apache.submarine.server.api.experiment.ExperimentId;
 import org.apache.submarine.server.api.experiment.ExperimentLog;
+import org.apache.submarine.server.api.experiment.ExperimentLogOptions;
 import org.apache.submarine.server.api.spec.EnvironmentSpec;
 import org.apache.submarine.server.api.spec.ExperimentMeta;
 import org.apache.submarine.server.api.spec.ExperimentSpec;
@@ -40,11 +41,17 @@ import org.junit.BeforeClass;
 import org.junit.Before;
 
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
@@ -170,6 +177,21 @@ public class ExperimentRestApiTest {
     assertEquals(dummyId, result.getExperimentId());
   }
 
+  @Test
+  public void testStreamLog() throws IOException {
+    byte[] log = "step 1\nstep 2\n".getBytes(StandardCharsets.UTF_8);
+    when(mockExperimentManager.getExperimentLogStream(any(String.class), any(ExperimentLogOptions.class)))
+        .thenReturn(new ByteArrayInputStream(log));
+    Response logResponse = experimentRestApi.streamLog(dummyId, "worker-0", 10, null, false, 0, null);
+    assertEquals(Response.Status.OK.getStatusCode(), logResponse.getStatus());
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ((StreamingOutput) logResponse.getEntity()).write(out);
+    assertArrayEquals(log, out.toByteArray());
+
+    Response invalidResponse = experimentRestApi.streamLog(dummyId, "worker-0", -1, null, false, 0, null);
+    assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), invalidResponse.getStatus());
+  }
+
   @Test
   public void testListExperiment() {
     Experiment experiment2 = new Experiment();
@@ -197,14 +219,14 @@ public class ExperimentRestApiTest {
   }
 
   private <T> T getResultFromResponse(Response response, Class<T> typeT) {
-    String entity = (String) response.getEntity();
+    String entity = response.getEntity().toString();
     JsonObject object = new JsonParser().parse(entity).getAsJsonObject();
     JsonElement result = object.get("result");
     return gson.fromJson(result, typeT);
   }
 
   private <T> List<T> getResultListFromResponse(Response response, Class<T> typeT) {
-    String entity = (String) response.getEntity();
+    String entity = response.getEntity().toString();
     JsonObject object = new JsonParser().parse(entity).getAsJsonObject();
     JsonElement result = object.get("result");
     List<T> list = new ArrayList<T>();
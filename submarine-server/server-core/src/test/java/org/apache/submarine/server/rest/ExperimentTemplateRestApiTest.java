@@ -103,7 +103,7 @@ public class ExperimentTemplateRestApiTest {
   }
 
   private ExperimentTemplate getExperimentTemplateFromResponse(Response response) {
-    String entity = (String) response.getEntity();
+    String entity = response.getEntity().toString();
     Type type = new TypeToken<JsonResponse<ExperimentTemplate>>() {
         }.getType();
     JsonResponse<ExperimentTemplate> jsonResponse = gson.fromJson(entity, type);
@@ -117,7 +117,7 @@ public class ExperimentTemplateRestApiTest {
     experimentTemplateSpec = gson.fromJson(body, ExperimentTemplateSpec.class);
 
     Response getEnvResponse = experimentTemplateStoreApi.listExperimentTemplate("");
-    String entity = (String) getEnvResponse.getEntity();
+    String entity = getEnvResponse.getEntity().toString();
     JsonResponse jsonResponse = gson.fromJson(entity, JsonResponse.class);
     ExperimentTemplate[] experimentTemplates = gson.fromJson(gson.toJson(jsonResponse.getResult()),
         ExperimentTemplate[].class);
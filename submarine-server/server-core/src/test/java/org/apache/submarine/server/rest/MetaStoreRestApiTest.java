@@ -77,7 +77,7 @@ public class MetaStoreRestApiTest {
     metaStoreApi.createDatabase(databaseJson);
     Response databaseCountResponse = metaStoreApi.getDatabaseCount();
     assertEquals(databaseCountResponse.getStatus(), Response.Status.OK.getStatusCode());
-    assertTrue(((String) databaseCountResponse.getEntity()).contains("\"result\":1"));
+    assertTrue(databaseCountResponse.getEntity().toString().contains("\"result\":1"));
 
     Table table = new Table();
     table.setTableName("testtable");
@@ -124,10 +124,10 @@ public class MetaStoreRestApiTest {
 
     Response tableResponse = metaStoreApi.getTable("testdb", "testtable");
     assertEquals(tableResponse.getStatus(), Response.Status.OK.getStatusCode());
-    assertTrue(((String) tableResponse.getEntity()).contains("\"tableName\":\"testtable\""));
+    assertTrue(tableResponse.getEntity().toString().contains("\"tableName\":\"testtable\""));
     Response tableCountResponse = metaStoreApi.getTableCount();
     assertEquals(tableCountResponse.getStatus(), Response.Status.OK.getStatusCode());
-    assertTrue(((String) tableCountResponse.getEntity()).contains("\"result\":1"));
+    assertTrue(tableCountResponse.getEntity().toString().contains("\"result\":1"));
   }
 
   @After
@@ -135,46 +135,46 @@ public class MetaStoreRestApiTest {
     metaStoreApi.dropTable("testdb", "testtable");
     Response tableCountResponse = metaStoreApi.getTableCount();
     assertEquals(tableCountResponse.getStatus(), Response.Status.OK.getStatusCode());
-    assertTrue(((String) tableCountResponse.getEntity()).contains("\"result\":0"));
+    assertTrue(tableCountResponse.getEntity().toString().contains("\"result\":0"));
 
     metaStoreApi.dropDatabase("testdb");
     Response databaseCountResponse = metaStoreApi.getDatabaseCount();
     assertEquals(databaseCountResponse.getStatus(), Response.Status.OK.getStatusCode());
-    assertTrue(((String) databaseCountResponse.getEntity()).contains("\"result\":0"));
+    assertTrue(databaseCountResponse.getEntity().toString().contains("\"result\":0"));
   }
 
   @Test
   public void getDatabaseCount() {
     Response response = metaStoreApi.getDatabaseCount();
-    assertTrue(((String) response.getEntity()).contains("\"result\":1"));
+    assertTrue(response.getEntity().toString().contains("\"result\":1"));
   }
 
   @Test
   public void listDatabases() {
     Response response = metaStoreApi.listDatabases();
     assertEquals(response.getStatus(), Response.Status.OK.getStatusCode());
-    assertTrue(((String) response.getEntity()).contains("testdb"));
+    assertTrue(response.getEntity().toString().contains("testdb"));
   }
 
   @Test
   public void getDatabase() {
     Response response = metaStoreApi.getDatabase("testdb");
     assertEquals(response.getStatus(), Response.Status.OK.getStatusCode());
-    assertTrue(((String) response.getEntity()).contains("testdb"));
+    assertTrue(response.getEntity().toString().contains("testdb"));
   }
 
   @Test
   public void getAllTables() {
     Response response = metaStoreApi.listTables("testdb");
     assertEquals(response.getStatus(), Response.Status.OK.getStatusCode());
-    assertTrue(((String) response.getEntity()).contains("testtable"));
+    assertTrue(response.getEntity().toString().contains("testtable"));
   }
 
   @Test
   public void getTableCount() {
     Response response = metaStoreApi.getTableCount();
     assertEquals(response.getStatus(), Response.Status.OK.getStatusCode());
-    assertTrue(((String) response.getEntity()).contains("\"result\":1"));
+    assertTrue(response.getEntity().toString().contains("\"result\":1"));
   }
 
 }
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.submarine.server.rest.provider;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.submarine.server.response.JsonResponse;
+import org.apache.submarine.server.response.JsonResponse.ListResult;
+import org.apache.submarine.server.workbench.database.entity.SysDict;
+import org.junit.Test;
+
+import javax.ws.rs.InternalServerErrorException;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.Response;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class JsonResponseWriterTest {
+
+  private static JsonResponse<?> newResponse(int records) {
+    List<SysDict> list = new ArrayList<>();
+    for (int i = 0; i < records; i++) {
+      SysDict sysDict = new SysDict();
+      sysDict.setDictCode("code" + i);
+      sysDict.setDictName("name <" + i + "> é");
+      list.add(sysDict);
+    }
+    Response response = new JsonResponse.Builder<ListResult<SysDict>>(Response.Status.OK)
+        .success(true).result(new ListResult<>(list, records)).build();
+    return (JsonResponse<?>) response.getEntity();
+  }
+
+  @Test
+  public void testWrite() throws Exception {
+    JsonResponse<?> response = newResponse(1000);
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    JsonResponseWriter.write(response, out, false);
+    assertEquals(response.toString(), new String(out.toByteArray(), UTF_8));
+
+    out = new ByteArrayOutputStream();
+    JsonResponseWriter.write(response, out, true);
+    byte[] compressed = out.toByteArray();
+    assertTrue(compressed.length < response.toString().getBytes(UTF_8).length);
+    String decompressed = IOUtils.toString(
+        new GZIPInputStream(new ByteArrayInputStream(compressed)), UTF_8);
+    assertEquals(response.toString(), decompressed);
+  }
+
+  @Test
+  public void testWriteWithoutRequest() throws Exception {
+    JsonResponse<?> response = newResponse(1);
+    JsonResponseWriter writer = new JsonResponseWriter(true);
+    assertTrue(writer.isWriteable(response.getClass(), null, null, MediaType.APPLICATION_JSON_TYPE));
+    assertFalse(writer.isWriteable(String.class, null, null, MediaType.APPLICATION_JSON_TYPE));
+
+    // No request headers, nothing is compressed
+    MultivaluedHashMap<String, Object> headers = new MultivaluedHashMap<>();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    writer.writeTo(response, response.getClass(), null, null, MediaType.APPLICATION_JSON_TYPE,
+        headers, out);
+    assertFalse(headers.containsKey(HttpHeaders.CONTENT_ENCODING));
+    // The response could have been compressed, caches must key it by the Accept-Encoding
+    assertEquals(Collections.singletonList(HttpHeaders.ACCEPT_ENCODING), headers.get(HttpHeaders.VARY));
+    assertEquals(out.size(), headers.getFirst(HttpHeaders.CONTENT_LENGTH));
+    assertEquals(response.toString(), new String(out.toByteArray(), UTF_8));
+
+    // Nothing is negotiated when gzip is disabled
+    headers = new MultivaluedHashMap<>();
+    new JsonResponseWriter(false).writeTo(response, response.getClass(), null, null,
+        MediaType.APPLICATION_JSON_TYPE, headers, new ByteArrayOutputStream());
+    assertFalse(headers.containsKey(HttpHeaders.VARY));
+  }
+
+  @Test
+  public void testSerialisationFailure() throws Exception {
+    // Gson refuses NaN
+    Response response = new JsonResponse.Builder<Double>(Response.Status.OK)
+        .success(true).result(Double.NaN).build();
+    JsonResponseWriter writer = new JsonResponseWriter(true);
+    MultivaluedHashMap<String, Object> headers = new MultivaluedHashMap<>();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try {
+      writer.writeTo((JsonResponse<?>) response.getEntity(), JsonResponse.class, null, null,
+          MediaType.APPLICATION_JSON_TYPE, headers, out);
+      fail("The serialisation should fail");
+    } catch (InternalServerErrorException e) {
+      // Failed before anything was written, so the error status can still be sent
+      assertEquals(0, out.size());
+      assertTrue(headers.isEmpty());
+    }
+  }
+
+  @Test
+  public void testAcceptsGzip() {
+    assertFalse(JsonResponseWriter.acceptsGzip(null));
+    assertFalse(JsonResponseWriter.acceptsGzip(Collections.emptyList()));
+    assertFalse(JsonResponseWriter.acceptsGzip(Collections.singletonList("identity")));
+    assertTrue(JsonResponseWriter.acceptsGzip(Collections.singletonList("gzip")));
+    assertTrue(JsonResponseWriter.acceptsGzip(Collections.singletonList("deflate, GZIP;q=0.8")));
+    assertTrue(JsonResponseWriter.acceptsGzip(Arrays.asList("deflate", "x-gzip")));
+    assertTrue(JsonResponseWriter.acceptsGzip(Collections.singletonList("*")));
+    assertFalse(JsonResponseWriter.acceptsGzip(Collections.singletonList("gzip;q=0")));
+    assertFalse(JsonResponseWriter.acceptsGzip(Collections.singletonList("*;q=0.5, gzip;q=0")));
+    assertTrue(JsonResponseWriter.acceptsGzip(Collections.singletonList("gzip;q=0.5, *;q=0")));
+    assertFalse(JsonResponseWriter.acceptsGzip(Collections.singletonList("*;q=0")));
+  }
+}
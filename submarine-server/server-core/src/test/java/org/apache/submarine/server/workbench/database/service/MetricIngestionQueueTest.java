@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.submarine.server.workbench.database.service;
+
+import org.apache.submarine.server.metrics.MetricsRegistry;
+import org.apache.submarine.server.workbench.database.entity.Metric;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MetricIngestionQueueTest {
+
+  @Test
+  public void testFlushBySize() throws Exception {
+    RecordingMetricService service = new RecordingMetricService();
+    MetricIngestionQueue queue = new MetricIngestionQueue(service, 100, 10, 60000);
+    try {
+      assertTrue(queue.offer(buildMetrics("experiment-1", 6)));
+      assertTrue(queue.offer(buildMetrics("experiment-2", 4)));
+
+      waitUntilWritten(queue, 10);
+      // One multi-row insert per experiment
+      assertEquals(2, service.batches.size());
+      assertEquals(6, service.batches.get(0).size());
+      assertEquals(4, service.batches.get(1).size());
+      assertEquals(0, queue.getDepth());
+    } finally {
+      queue.close();
+    }
+  }
+
+  @Test
+  public void testFlushByLinger() throws Exception {
+    RecordingMetricService service = new RecordingMetricService();
+    MetricIngestionQueue queue = new MetricIngestionQueue(service, 100, 10, 50);
+    try {
+      assertTrue(queue.offer(buildMetrics("experiment-1", 3)));
+      waitUntilWritten(queue, 3);
+      assertEquals(1, service.batches.size());
+    } finally {
+      queue.close();
+    }
+  }
+
+  @Test
+  public void testRejectWhenFull() {
+    RecordingMetricService service = new RecordingMetricService();
+    MetricIngestionQueue queue = new MetricIngestionQueue(service, 5, 100, 60000);
+    try {
+      assertTrue(queue.offer(buildMetrics("experiment-1", 5)));
+      assertFalse(queue.offer(buildMetrics("experiment-1", 1)));
+      assertEquals(5, queue.getDepth());
+      assertEquals(1, queue.getRejectedCount());
+    } finally {
+      queue.close();
+    }
+    // Buffered points are written on close
+    assertEquals(5, queue.getWrittenCount());
+  }
+
+  @Test
+  public void testRetryOneByOne() throws Exception {
+    RecordingMetricService service = new RecordingMetricService();
+    service.failBatch = true;
+    MetricIngestionQueue queue = new MetricIngestionQueue(service, 100, 3, 60000);
+    try {
+      assertTrue(queue.offer(buildMetrics("experiment-1", 3)));
+      waitUntilWritten(queue, 3);
+      assertEquals(3, service.rows.size());
+      assertEquals(0, queue.getFailedCount());
+    } finally {
+      queue.close();
+    }
+  }
+
+  @Test
+  public void testRegisterMetrics() throws Exception {
+    RecordingMetricService service = new RecordingMetricService();
+    MetricIngestionQueue queue = new MetricIngestionQueue(service, 5, 2, 60000);
+    MetricsRegistry registry = MetricsRegistry.getInstance();
+    try {
+      queue.register(registry);
+      assertTrue(queue.offer(buildMetrics("experiment-1", 2)));
+      assertFalse(queue.offer(buildMetrics("experiment-1", 6)));
+      waitUntilWritten(queue, 2);
+      // The flush is counted after its points and latency
+      long deadline = System.currentTimeMillis() + 10000;
+      while (queue.getFlushCount() < 1 && System.currentTimeMillis() < deadline) {
+        Thread.sleep(10);
+      }
+
+      String text = registry.scrape();
+      assertTrue(text, text.contains("submarine_metric_ingestion_queue_depth 0\n"));
+      assertTrue(text, text.contains("submarine_metric_ingestion_queue_capacity 5\n"));
+      assertTrue(text, text.contains("submarine_metric_ingestion_rejected_total 6\n"));
+      assertTrue(text, text.contains("submarine_metric_ingestion_written_total 2\n"));
+      assertTrue(text, text.contains("submarine_metric_ingestion_flush_seconds_count 1\n"));
+    } finally {
+      queue.close();
+      registry.clear();
+    }
+  }
+
+  private void waitUntilWritten(MetricIngestionQueue queue, long count) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 10000;
+    while (queue.getWrittenCount() < count && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(count, queue.getWrittenCount());
+  }
+
+  private List<Metric> buildMetrics(String id, int count) {
+    List<Metric> metrics = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      Metric metric = new Metric();
+      metric.setId(id);
+      metric.setKey("loss");
+      metric.setValue((float) i);
+      metric.setWorkerIndex("worker-0");
+      metric.setTimestamp(BigInteger.valueOf(1569139525097L + i));
+      metric.setStep(i);
+      metric.setIsNan(false);
+      metrics.add(metric);
+    }
+    return metrics;
+  }
+
+  private static class RecordingMetricService extends MetricService {
+    private final List<List<Metric>> batches = Collections.synchronizedList(new ArrayList<>());
+    private final List<Metric> rows = Collections.synchronizedList(new ArrayList<>());
+    private volatile boolean failBatch = false;
+
+    @Override
+    public boolean insertBatch(List<Metric> metrics) throws Exception {
+      if (failBatch) {
+        throw new Exception("Duplicate entry");
+      }
+      batches.add(new ArrayList<>(metrics));
+      return true;
+    }
+
+    @Override
+    public boolean insert(Metric metric) {
+      rows.add(metric);
+      return true;
+    }
+  }
+}
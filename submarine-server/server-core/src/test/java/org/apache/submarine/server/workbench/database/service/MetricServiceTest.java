@@ -19,12 +19,15 @@
 package org.apache.submarine.server.workbench.database.service;
 
 import org.apache.submarine.server.workbench.database.entity.Metric;
+import org.apache.submarine.server.workbench.database.entity.MetricBucket;
+import org.apache.submarine.server.workbench.database.entity.MetricSeriesQuery;
 import org.junit.After;
 import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.List;
 
 import static junit.framework.TestCase.assertEquals;
@@ -66,6 +69,53 @@ public class MetricServiceTest {
     compareMetrics(metric, metricDb2);
   }
 
+  @Test
+  public void testInsertBatch() throws Exception {
+    List<Metric> metrics = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      Metric metric = new Metric();
+      metric.setId("test_application_1234");
+      metric.setKey("test_score");
+      metric.setValue((float) 0.666667);
+      metric.setWorkerIndex("test_worker-1");
+      metric.setTimestamp(new BigInteger("1569139525097").add(BigInteger.valueOf(i)));
+      metric.setStep(i);
+      metric.setIsNan(false);
+      metrics.add(metric);
+    }
+    boolean result = metricService.insertBatch(metrics);
+    assertTrue(result);
+
+    List<Metric> metricList = metricService.selectAll();
+    assertEquals(metricList.size(), 3);
+  }
+
+  @Test
+  public void testSelectDownsampledSeries() throws Exception {
+    List<Metric> metrics = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      Metric metric = new Metric();
+      metric.setId("test_application_1234");
+      metric.setKey("test_loss");
+      metric.setValue((float) i);
+      metric.setWorkerIndex("test_worker-1");
+      metric.setTimestamp(new BigInteger("1569139525097").add(BigInteger.valueOf(i)));
+      metric.setStep(i);
+      metric.setIsNan(false);
+      metrics.add(metric);
+    }
+    metricService.insertBatch(metrics);
+
+    MetricSeriesQuery query = new MetricSeriesQuery();
+    query.setId("test_application_1234");
+    query.setKey("test_loss");
+    query.setPoints(10);
+    List<MetricBucket> buckets = metricService.selectDownsampledSeries(query);
+    assertEquals(10, buckets.size());
+    assertEquals(10, buckets.get(0).getCount());
+    assertEquals(9f, buckets.get(0).getLast(), 0);
+  }
+
   @Test
   public void testUpdate() throws Exception {
     Metric metric = new Metric();
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.submarine.server.workbench.database.service;
+
+import org.apache.submarine.server.workbench.database.entity.SysDictItem;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SysDictItemCacheTest {
+
+  private static class StubSysDictItemService extends SysDictItemService {
+    private final Map<String, List<SysDictItem>> dictItems = new HashMap<>();
+    private int queries = 0;
+
+    void addItem(String dictCode, String itemCode, String itemName) {
+      SysDictItem dictItem = new SysDictItem();
+      dictItem.setDictCode(dictCode);
+      dictItem.setItemCode(itemCode);
+      dictItem.setItemName(itemName);
+      dictItems.computeIfAbsent(dictCode, code -> new ArrayList<>()).add(dictItem);
+    }
+
+    @Override
+    public List<SysDictItem> queryDictByCode(String dictCode) {
+      queries++;
+      if ("BROKEN".equals(dictCode)) {
+        // As the service does when the database fails
+        return null;
+      }
+      return dictItems.getOrDefault(dictCode, new ArrayList<>());
+    }
+  }
+
+  @Test
+  public void testCachedUntilInvalidated() {
+    StubSysDictItemService service = new StubSysDictItemService();
+    service.addItem("SYS_USER_SEX", "1", "Male");
+    service.addItem("SYS_USER_SEX", "2", "Female");
+    SysDictItemCache cache = new SysDictItemCache(service, 60000);
+
+    for (int i = 0; i < 10; i++) {
+      Map<String, String> itemNames = cache.getItemNames("SYS_USER_SEX");
+      assertEquals(2, itemNames.size());
+      assertEquals("Female", itemNames.get("2"));
+    }
+    assertEquals(1, service.queries);
+
+    service.addItem("SYS_USER_SEX", "3", "Other");
+    assertEquals(2, cache.getItemNames("SYS_USER_SEX").size());
+    cache.invalidateAll();
+    assertEquals("Other", cache.getItemNames("SYS_USER_SEX").get("3"));
+    assertEquals(2, service.queries);
+  }
+
+  @Test
+  public void testMissingDictionary() {
+    StubSysDictItemService service = new StubSysDictItemService();
+    SysDictItemCache cache = new SysDictItemCache(service, 60000);
+
+    assertTrue(cache.getItemNames("UNKNOWN").isEmpty());
+    assertTrue(cache.getItemNames("BROKEN").isEmpty());
+    assertTrue(cache.getItemNames("BROKEN").isEmpty());
+    assertEquals(2, service.queries);
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.submarine.server.workbench.database.utils;
+
+import org.apache.submarine.server.workbench.database.entity.SysDept;
+import org.apache.submarine.server.workbench.database.entity.SysDeptSelect;
+import org.apache.submarine.server.workbench.database.entity.SysDeptTree;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class DepartmentTreeTest {
+
+  private static SysDept dept(String id, String deptCode, String parentCode, int sortOrder) {
+    SysDept dept = new SysDept(deptCode, "dept" + deptCode);
+    dept.setId(id);
+    dept.setParentCode(parentCode);
+    dept.setSortOrder(sortOrder);
+    return dept;
+  }
+
+  private static List<String> codes(List<SysDept> depts) {
+    return depts.stream().map(SysDept::getDeptCode).collect(Collectors.toList());
+  }
+
+  private static DepartmentTree newTree() {
+    // By sort order, as selected from the database
+    return new DepartmentTree(Arrays.asList(
+        dept("1", "A", null, 1),
+        dept("3", "AA", "A", 1),
+        dept("4", "AAA", "AA", 1),
+        dept("5", "ABA", "AB", 1),
+        dept("2", "AB", "A", 2),
+        dept("6", "B", "", 2)));
+  }
+
+  @Test
+  public void testToTree() {
+    List<SysDeptSelect> sysDeptSelects = new ArrayList<>();
+    List<SysDeptTree> roots = newTree().toTree(sysDeptSelects);
+
+    assertEquals(2, roots.size());
+    assertEquals("A", roots.get(0).getDeptCode());
+    assertNull(roots.get(1).getChildren());
+    SysDeptTree deptAA = roots.get(0).getChildren().get(0);
+    assertEquals("AA", deptAA.getDeptCode());
+    assertEquals("deptA", deptAA.getParentName());
+    assertEquals("AAA", deptAA.getChildren().get(0).getDeptCode());
+    assertNull(deptAA.getChildren().get(0).getChildren());
+    assertEquals(6, DepartmentUtil.getDeptTreeSize(roots));
+
+    assertEquals(2, sysDeptSelects.size());
+    assertEquals(2, sysDeptSelects.get(0).getChildren().size());
+    assertEquals(1, sysDeptSelects.get(0).getChildren().get(1).getChildren().size());
+  }
+
+  @Test
+  public void testQueries() {
+    DepartmentTree tree = newTree();
+    assertEquals(6, tree.size());
+    assertEquals("AA", tree.getById("3").getDeptCode());
+    assertEquals(Arrays.asList("AA", "AB"), codes(tree.getChildren("A")));
+    assertEquals(Arrays.asList("AA", "A"), codes(tree.getAncestors("AAA")));
+    assertTrue(tree.getAncestors("A").isEmpty());
+    assertEquals(Arrays.asList("A", "AA", "AAA", "AB", "ABA"), codes(tree.getSubtree("A")));
+    assertEquals(Arrays.asList("AA", "AAA"), codes(tree.findByCodePrefix("AA")));
+    assertTrue(tree.findByCodePrefix("C").isEmpty());
+  }
+
+  @Test
+  public void testIncrementalUpdates() {
+    DepartmentTree tree = newTree();
+
+    // Added after the siblings of the same sort order
+    tree.put(dept("7", "AC", "A", 1));
+    assertEquals(Arrays.asList("AA", "AC", "AB"), codes(tree.getChildren("A")));
+
+    // Moved under another parent, with its children
+    tree.put(dept("3", "AA", "B", 1));
+    assertEquals(Arrays.asList("AC", "AB"), codes(tree.getChildren("A")));
+    assertEquals(Arrays.asList("AA", "B"), codes(tree.getAncestors("AAA")));
+    assertEquals(Arrays.asList("B", "AA", "AAA"), codes(tree.getSubtree("B")));
+
+    // Renamed, its children are not in the tree any more
+    tree.put(dept("3", "AD", "B", 1));
+    assertNull(tree.getByCode("AA"));
+    List<SysDeptSelect> sysDeptSelects = new ArrayList<>();
+    assertEquals(6, DepartmentUtil.getDeptTreeSize(tree.toTree(sysDeptSelects)));
+    assertEquals(7, tree.size());
+
+    tree.removeById("5");
+    assertNull(tree.getByCode("ABA"));
+    assertTrue(tree.getChildren("AB").isEmpty());
+    assertEquals(6, tree.size());
+  }
+
+  @Test
+  public void testCycle() {
+    DepartmentTree tree = new DepartmentTree(Arrays.asList(
+        dept("1", "A", "B", 1),
+        dept("2", "B", "A", 1)));
+    assertEquals(Arrays.asList("B", "A"), codes(tree.getAncestors("A")));
+    assertEquals(Arrays.asList("A", "B"), codes(tree.getSubtree("A")));
+    assertTrue(tree.toTree(new ArrayList<>()).isEmpty());
+  }
+}
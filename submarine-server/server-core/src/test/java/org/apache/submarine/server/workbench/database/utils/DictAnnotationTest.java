@@ -22,7 +22,7 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.internal.LinkedTreeMap;
 import com.google.gson.reflect.TypeToken;
-import org.apache.submarine.server.response.DictAnnotation;
+import org.apache.submarine.server.response.DictTypeAdapterFactory;
 import org.apache.submarine.server.workbench.rest.CommonDataTest;
 import org.apache.submarine.server.workbench.rest.SysUserRestApi;
 import org.apache.submarine.server.response.JsonResponse;
@@ -45,7 +45,7 @@ public class DictAnnotationTest extends CommonDataTest {
   public void userSexDictAnnotationTest() {
     Response response = userRestApi.queryPageList(null, null, null, null, null, 1, 10);
 
-    String entity = (String) response.getEntity();
+    String entity = response.getEntity().toString();
     Type type = new TypeToken<JsonResponse>() {}.getType();
     JsonResponse jsonResponse = gson.fromJson(entity, type);
 
@@ -54,9 +54,9 @@ public class DictAnnotationTest extends CommonDataTest {
         = (ArrayList<LinkedTreeMap<String, Object>>) linkedTreeMap.get("records");
 
     assertTrue(arrayList.get(0).containsKey("sex"));
-    assertTrue(arrayList.get(0).containsKey("sex" + DictAnnotation.DICT_SUFFIX));
+    assertTrue(arrayList.get(0).containsKey("sex" + DictTypeAdapterFactory.DICT_SUFFIX));
 
     assertTrue(arrayList.get(0).containsKey("status"));
-    assertTrue(arrayList.get(0).containsKey("status" + DictAnnotation.DICT_SUFFIX));
+    assertTrue(arrayList.get(0).containsKey("status" + DictTypeAdapterFactory.DICT_SUFFIX));
   }
 }
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.submarine.server.workbench.database.utils;
+
+import org.apache.submarine.server.workbench.database.entity.Metric;
+import org.apache.submarine.server.workbench.database.entity.MetricBucket;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class MetricDownsamplerTest {
+
+  @Test
+  public void testDownsampleByStep() {
+    MetricDownsampler downsampler = new MetricDownsampler(false, 0, 9999, 100);
+    assertEquals(100, downsampler.getWidth());
+    for (int step = 0; step < 10000; step++) {
+      downsampler.add(buildMetric(step, step, (float) step, false));
+    }
+
+    List<MetricBucket> buckets = downsampler.getBuckets();
+    assertEquals(100, buckets.size());
+    MetricBucket bucket = buckets.get(1);
+    assertEquals(100, bucket.getStart());
+    assertEquals(199, bucket.getEnd());
+    assertEquals(100, bucket.getCount());
+    assertEquals(100f, bucket.getMin(), 0);
+    assertEquals(199f, bucket.getMax(), 0);
+    assertEquals(199f, bucket.getLast(), 0);
+  }
+
+  @Test
+  public void testDownsampleByTimestamp() {
+    MetricDownsampler downsampler = new MetricDownsampler(true, 1000, 1999, 10);
+    downsampler.add(buildMetric(0, 1000, 3f, false));
+    downsampler.add(buildMetric(1, 1050, 1f, false));
+    downsampler.add(buildMetric(2, 1990, 2f, false));
+
+    List<MetricBucket> buckets = downsampler.getBuckets();
+    assertEquals(2, buckets.size());
+    assertEquals(1000, buckets.get(0).getStart());
+    assertEquals(1f, buckets.get(0).getMin(), 0);
+    assertEquals(3f, buckets.get(0).getMax(), 0);
+    assertEquals(1f, buckets.get(0).getLast(), 0);
+    assertEquals(1900, buckets.get(1).getStart());
+  }
+
+  @Test
+  public void testSparseSeriesKeepsEveryPoint() {
+    MetricDownsampler downsampler = new MetricDownsampler(false, 0, 4, 1000);
+    assertEquals(1, downsampler.getWidth());
+    for (int step = 0; step < 5; step++) {
+      downsampler.add(buildMetric(step, step, (float) step, false));
+    }
+    assertEquals(5, downsampler.getBuckets().size());
+  }
+
+  @Test
+  public void testNanPoints() {
+    MetricDownsampler downsampler = new MetricDownsampler(false, 0, 0, 10);
+    downsampler.add(buildMetric(0, 0, 0f, true));
+
+    MetricBucket bucket = downsampler.getBuckets().get(0);
+    assertEquals(1, bucket.getCount());
+    assertNull(bucket.getMin());
+    assertNull(bucket.getLast());
+  }
+
+  private Metric buildMetric(int step, long timestamp, float value, boolean isNan) {
+    Metric metric = new Metric();
+    metric.setId("experiment-1");
+    metric.setKey("loss");
+    metric.setWorkerIndex("worker-0");
+    metric.setStep(step);
+    metric.setTimestamp(BigInteger.valueOf(timestamp));
+    metric.setValue(value);
+    metric.setIsNan(isNan);
+    return metric;
+  }
+}
@@ -231,7 +231,7 @@ public class CommonDataTest {
   }
 
   public static JsonResponse<ListResult<SysDeptTree>> wrapDeptResponse(Response response) {
-    String entity = (String) response.getEntity();
+    String entity = response.getEntity().toString();
     Type type = new TypeToken<JsonResponse<ListResult<SysDeptTree>>>() {}.getType();
     JsonResponse<ListResult<SysDeptTree>> jsonResponse = gson.fromJson(entity, type);
 
@@ -239,7 +239,7 @@ public class CommonDataTest {
   }
 
   public static JsonResponse<SysDept> assertDeptResponseSuccess(Response response) {
-    String entity = (String) response.getEntity();
+    String entity = response.getEntity().toString();
     Type type = new TypeToken<JsonResponse<SysDept>>() {}.getType();
     JsonResponse<SysDept> jsonResponse = gson.fromJson(entity, type);
     assertTrue(jsonResponse.getSuccess());
@@ -247,7 +247,7 @@ public class CommonDataTest {
   }
 
   public static JsonResponse<SysUser> assertUserResponseSuccess(Response response) {
-    String entity = (String) response.getEntity();
+    String entity = response.getEntity().toString();
     Type type = new TypeToken<JsonResponse<SysUser>>() {}.getType();
     JsonResponse<SysUser> jsonResponse = gson.fromJson(entity, type);
     assertTrue(jsonResponse.getSuccess());
@@ -255,14 +255,14 @@ public class CommonDataTest {
   }
 
   public static void assertResponseSuccess(Response response) {
-    String entity = (String) response.getEntity();
+    String entity = response.getEntity().toString();
     Type type = new TypeToken<JsonResponse>() {}.getType();
     JsonResponse jsonResponse = gson.fromJson(entity, type);
     Assert.assertTrue(jsonResponse.getSuccess());
   }
 
   public static JsonResponse<ListResult<SysDict>> assertDictResponseSuccess(Response response) {
-    String entity = (String) response.getEntity();
+    String entity = response.getEntity().toString();
     Type type = new TypeToken<JsonResponse<ListResult<SysDict>>>() {}.getType();
     JsonResponse<ListResult<SysDict>> jsonResponse = gson.fromJson(entity, type);
     assertTrue(jsonResponse.getSuccess());
@@ -270,7 +270,7 @@ public class CommonDataTest {
   }
 
   public static JsonResponse<ListResult<SysDictItem>> assertDictItemResponseSuccess(Response response) {
-    String entity = (String) response.getEntity();
+    String entity = response.getEntity().toString();
     Type type = new TypeToken<JsonResponse<ListResult<SysDictItem>>>() {}.getType();
     JsonResponse<ListResult<SysDictItem>> jsonResponse = gson.fromJson(entity, type);
     assertTrue(jsonResponse.getSuccess());
@@ -94,7 +94,7 @@ public class SysDictItemRestApiTest {
   public void hasDuplicateCheckItemCodeTest() {
     Response response = systemRestApi.duplicateCheck(
         "sys_dict_item", "item_code", "text-SysDictItemRestApiTest-0", "dict_code", DICT_CODE, null);
-    String entity = (String) response.getEntity();
+    String entity = response.getEntity().toString();
     JsonResponse jsonResponse = gson.fromJson(entity, JsonResponse.class);
     assertFalse(jsonResponse.getSuccess());
   }
@@ -103,7 +103,7 @@ public class SysDictItemRestApiTest {
   public void hasDuplicateCheckItemNameTest() {
     Response response = systemRestApi.duplicateCheck(
         "sys_dict_item", "item_name", "value-SysDictItemRestApiTest-0", "dict_code", DICT_CODE, null);
-    String entity = (String) response.getEntity();
+    String entity = response.getEntity().toString();
     JsonResponse jsonResponse = gson.fromJson(entity, JsonResponse.class);
     assertFalse(jsonResponse.getSuccess());
   }
@@ -112,7 +112,7 @@ public class SysDictItemRestApiTest {
   public void notDuplicateCheckItemCodeTest() {
     Response response = systemRestApi.duplicateCheck(
         "sys_dict_item", "item_code", "not-exist-code", "dict_code", DICT_CODE, null);
-    String entity = (String) response.getEntity();
+    String entity = response.getEntity().toString();
     JsonResponse jsonResponse = gson.fromJson(entity, JsonResponse.class);
     assertTrue(jsonResponse.getSuccess());
   }
@@ -121,7 +121,7 @@ public class SysDictItemRestApiTest {
   public void notDuplicateCheckItemNameTest() {
     Response response = systemRestApi.duplicateCheck(
         "sys_dict_item", "item_name", "not-exist-code", "dict_code", DICT_CODE, null);
-    String entity = (String) response.getEntity();
+    String entity = response.getEntity().toString();
     JsonResponse jsonResponse = gson.fromJson(entity, JsonResponse.class);
     assertTrue(jsonResponse.getSuccess());
   }
@@ -158,7 +158,7 @@ public class SysDictItemRestApiTest {
 
   public static ListResult<SysDictItem> queryTestDictItemList() {
     Response response = sysDictItemRestApi.list(DICT_CODE, "", "", "", "", "", 0, 10);
-    String entity = (String) response.getEntity();
+    String entity = response.getEntity().toString();
     Type type = new TypeToken<JsonResponse<ListResult<SysDictItem>>>() {}.getType();
     JsonResponse<ListResult<SysDictItem>> jsonResponse = gson.fromJson(entity, type);
 
@@ -168,7 +168,7 @@ public class SysDictItemRestApiTest {
 
   public static ListResult<SysDict> queryTestDictList() {
     Response response = sysDictRestApi.list(DICT_CODE, "", "", "", "", 1, 10);
-    String entity = (String) response.getEntity();
+    String entity = response.getEntity().toString();
     Type type = new TypeToken<JsonResponse<ListResult<SysDict>>>() {}.getType();
     JsonResponse<ListResult<SysDict>> jsonResponse = gson.fromJson(entity, type);
 
@@ -76,7 +76,7 @@ public class SysDictRestApiTest {
   public void hasDuplicateCheckTest() {
     Response response = systemRestApi.duplicateCheck(
         "sys_dict", "dict_code", "dictCode-SysDictRestApiTest-0", null, null, null);
-    String entity = (String) response.getEntity();
+    String entity = response.getEntity().toString();
     JsonResponse jsonResponse = gson.fromJson(entity, JsonResponse.class);
     assertFalse(jsonResponse.getSuccess());
   }
@@ -85,7 +85,7 @@ public class SysDictRestApiTest {
   public void notDuplicateCheckTest() {
     Response response = systemRestApi.duplicateCheck("sys_dict", "dict_code", "not-exist-code",
         null, null, null);
-    String entity = (String) response.getEntity();
+    String entity = response.getEntity().toString();
     JsonResponse jsonResponse = gson.fromJson(entity, JsonResponse.class);
     assertTrue(jsonResponse.getSuccess());
   }
@@ -124,7 +124,7 @@ public class SysDictRestApiTest {
 
   public static ListResult<SysDict> queryTestDictList() {
     Response response = sysDictRestApi.list("-SysDictRestApiTest-", "", "", "", "", 1, 10);
-    String entity = (String) response.getEntity();
+    String entity = response.getEntity().toString();
     Type type = new TypeToken<JsonResponse<ListResult<SysDict>>>() {}.getType();
     JsonResponse<ListResult<SysDict>> jsonResponse = gson.fromJson(entity, type);
 
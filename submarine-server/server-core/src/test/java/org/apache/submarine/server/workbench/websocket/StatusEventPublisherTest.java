@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.submarine.server.workbench.websocket;
+
+import org.apache.submarine.server.api.experiment.Experiment;
+import org.apache.submarine.server.api.notebook.Notebook;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class StatusEventPublisherTest {
+  private ConnectionManager connectionManager;
+  private StatusEventPublisher publisher;
+
+  @Before
+  public void before() {
+    connectionManager = new ConnectionManager();
+    publisher = new StatusEventPublisher(connectionManager,
+        (namespace, name, deleted) -> "mnist".equals(name) ? "experiment_1_1" : null,
+        uid -> "uid-1".equals(uid) ? "notebook_1_1" : null);
+  }
+
+  @After
+  public void after() {
+    publisher.shutdown();
+  }
+
+  @Test
+  public void testGetTopics() {
+    Message message = new Message(Message.OP.SUBSCRIBE)
+        .put("experimentIds", Arrays.asList("experiment_1_1", "experiment_1_2"))
+        .put("namespaces", "default");
+    Assert.assertEquals(Arrays.asList("experiment:experiment_1_1", "experiment:experiment_1_2",
+        "namespace:default"), StatusEventPublisher.getTopics(message));
+  }
+
+  @Test
+  public void testPublishOncePerConnection() throws Exception {
+    NotebookSocket socket = mock(NotebookSocket.class);
+    NotebookSocket other = mock(NotebookSocket.class);
+    connectionManager.addConnection(socket);
+    connectionManager.addConnection(other);
+    connectionManager.subscribe(socket, Arrays.asList(
+        StatusEventPublisher.experimentTopic("experiment_1_1"),
+        StatusEventPublisher.namespaceTopic("default")));
+
+    Experiment experiment = new Experiment();
+    experiment.setName("mnist");
+    experiment.setStatus(Experiment.Status.STATUS_RUNNING.getValue());
+    publisher.onExperimentStatus("default", experiment, false);
+
+    ArgumentCaptor<String> sent = ArgumentCaptor.forClass(String.class);
+    verify(socket, timeout(1000)).send(sent.capture());
+    Message message = Message.fromJson(sent.getValue());
+    Assert.assertEquals(Message.OP.EXPERIMENT_STATUS, message.op);
+    Assert.assertEquals("experiment_1_1", message.get("experimentId"));
+    Assert.assertEquals("Running", message.get("status"));
+
+    // Subscribed to both the experiment and its namespace, but the event is sent once
+    Thread.sleep(100);
+    verify(socket, times(1)).send(anyString());
+    verify(other, never()).send(anyString());
+  }
+
+  @Test
+  public void testUnsubscribeOnClose() throws Exception {
+    NotebookSocket socket = mock(NotebookSocket.class);
+    connectionManager.addConnection(socket);
+    connectionManager.subscribe(socket,
+        Collections.singletonList(StatusEventPublisher.notebookTopic("notebook_1_1")));
+
+    Notebook notebook = new Notebook();
+    notebook.setUid("uid-1");
+    notebook.setStatus(Notebook.Status.STATUS_RUNNING.getValue());
+    publisher.onNotebookStatus("default", notebook, false);
+    verify(socket, timeout(1000)).send(anyString());
+
+    connectionManager.removeConnection(socket);
+    Assert.assertFalse(connectionManager.hasSubscriptions());
+    Assert.assertEquals(0, connectionManager.publish(new Message(Message.OP.NOTEBOOK_STATUS),
+        StatusEventPublisher.notebookTopic("notebook_1_1")));
+  }
+}
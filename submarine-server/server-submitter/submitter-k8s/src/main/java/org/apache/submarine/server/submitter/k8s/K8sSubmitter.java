@@ -21,14 +21,24 @@ package org.apache.submarine.server.submitter.k8s;
 
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonSyntaxException;
+import com.squareup.okhttp.Call;
+import com.squareup.okhttp.Response;
 import io.kubernetes.client.ApiClient;
 import io.kubernetes.client.ApiException;
 import io.kubernetes.client.Configuration;
@@ -36,6 +46,7 @@ import io.kubernetes.client.JSON;
 import io.kubernetes.client.apis.AppsV1Api;
 import io.kubernetes.client.apis.CoreV1Api;
 import io.kubernetes.client.apis.CustomObjectsApi;
+import io.kubernetes.client.informer.ResourceEventHandler;
 import io.kubernetes.client.models.V1DeleteOptionsBuilder;
 import io.kubernetes.client.models.V1Deployment;
 import io.kubernetes.client.models.V1ObjectMeta;
@@ -48,12 +59,15 @@ import io.kubernetes.client.models.V1Service;
 import io.kubernetes.client.models.V1Status;
 import io.kubernetes.client.util.ClientBuilder;
 import io.kubernetes.client.util.KubeConfig;
+import org.apache.submarine.commons.utils.SubmarineConfVars;
 import org.apache.submarine.commons.utils.SubmarineConfiguration;
 import org.apache.submarine.commons.utils.exception.SubmarineRuntimeException;
+import org.apache.submarine.server.api.StatusListener;
 import org.apache.submarine.server.api.Submitter;
 import org.apache.submarine.server.api.exception.InvalidSpecException;
 import org.apache.submarine.server.api.experiment.Experiment;
 import org.apache.submarine.server.api.experiment.ExperimentLog;
+import org.apache.submarine.server.api.experiment.ExperimentLogOptions;
 import org.apache.submarine.server.api.experiment.TensorboardInfo;
 import org.apache.submarine.server.api.experiment.MlflowInfo;
 import org.apache.submarine.server.api.experiment.ServeRequest;
@@ -62,6 +76,8 @@ import org.apache.submarine.server.api.notebook.Notebook;
 import org.apache.submarine.server.api.spec.ExperimentMeta;
 import org.apache.submarine.server.api.spec.ExperimentSpec;
 import org.apache.submarine.server.api.spec.NotebookSpec;
+import org.apache.submarine.server.submitter.k8s.informer.MLJobInformer;
+import org.apache.submarine.server.submitter.k8s.informer.NotebookInformer;
 import org.apache.submarine.server.submitter.k8s.model.MLJob;
 import org.apache.submarine.server.submitter.k8s.model.NotebookCR;
 import org.apache.submarine.server.submitter.k8s.model.ingressroute.IngressRoute;
@@ -72,6 +88,10 @@ import org.apache.submarine.server.submitter.k8s.parser.ExperimentSpecParser;
 import org.apache.submarine.server.submitter.k8s.parser.NotebookSpecParser;
 import org.apache.submarine.server.submitter.k8s.parser.ServeSpecParser;
 import org.apache.submarine.server.submitter.k8s.parser.VolumeSpecParser;
+import org.apache.submarine.server.submitter.k8s.util.K8sCallExecutor;
+import org.apache.submarine.server.submitter.k8s.util.K8sCallExecutor.K8sCall;
+import org.apache.submarine.server.submitter.k8s.util.K8sCallExecutor.Operation;
+import org.apache.submarine.server.submitter.k8s.util.K8sCallExecutor.Operation.PendingCall;
 import org.apache.submarine.server.submitter.k8s.util.MLJobConverter;
 import org.apache.submarine.server.submitter.k8s.util.NotebookUtils;
 import org.slf4j.Logger;
@@ -91,6 +111,8 @@ public class K8sSubmitter implements Submitter {
   
   private static final String ENV_NAMESPACE = "ENV_NAMESPACE";
 
+  private static final int CALL_QUEUE_SIZE = 1024;
+
   // K8s API client for CRD
   private CustomObjectsApi api;
 
@@ -98,26 +120,36 @@ public class K8sSubmitter implements Submitter {
 
   private AppsV1Api appsV1Api;
 
+  // K8s API client for the long-lived connections, without read timeout and debugging
+  private ApiClient streamClient;
+
+  private CoreV1Api logApi;
+
+  // Local index of the TFJob/PyTorchJob resources, null if disabled
+  private MLJobInformer jobInformer;
+
+  // Watch of the Notebook resources, null if disabled
+  private NotebookInformer notebookInformer;
+
+  private final List<StatusListener> statusListeners = new CopyOnWriteArrayList<>();
+
+  // Runs the independent K8s API calls of an operation in parallel
+  private K8sCallExecutor callExecutor;
+
   public K8sSubmitter() {}
 
   @Override
   public void initialize(SubmarineConfiguration conf) {
-    ApiClient client = null;
-    try {
-      String path = System.getenv(KUBECONFIG_ENV);
-      KubeConfig config = KubeConfig.loadKubeConfig(new FileReader(path));
-      client = ClientBuilder.kubeconfig(config).build();
-    } catch (Exception e) {
-      LOG.info("Maybe in cluster mode, try to initialize the client again.");
-      try {
-        client = ClientBuilder.cluster().build();
-      } catch (IOException e1) {
-        LOG.error("Initialize K8s submitter failed. " + e.getMessage(), e1);
-        throw new SubmarineRuntimeException(500, "Initialize K8s submitter failed.");
-      }
-    } finally {
-      Configuration.setDefaultApiClient(client);
+    if (conf == null) {
+      conf = SubmarineConfiguration.getInstance();
     }
+    ApiClient client = createApiClient();
+    // A call is cancelled after the call timeout, the HTTP timeouts end its blocking reads
+    long callTimeoutMillis = conf.getLong(SubmarineConfVars.ConfVars.SUBMARINE_K8S_CALL_TIMEOUT_MS);
+    client.getHttpClient().setConnectTimeout(callTimeoutMillis, TimeUnit.MILLISECONDS);
+    client.getHttpClient().setReadTimeout(callTimeoutMillis, TimeUnit.MILLISECONDS);
+    client.getHttpClient().setWriteTimeout(callTimeoutMillis, TimeUnit.MILLISECONDS);
+    Configuration.setDefaultApiClient(client);
 
     if (api == null) {
       api = new CustomObjectsApi();
@@ -131,6 +163,52 @@ public class K8sSubmitter implements Submitter {
     }
 
     client.setDebugging(true);
+
+    if (streamClient == null) {
+      // The debugging interceptor buffers the whole response body, so the log streams
+      // and the watch connections use their own client
+      streamClient = createApiClient();
+      streamClient.getHttpClient().setReadTimeout(0, TimeUnit.SECONDS);
+    }
+    if (logApi == null) {
+      logApi = new CoreV1Api(streamClient);
+    }
+
+    if (callExecutor == null) {
+      callExecutor = new K8sCallExecutor(conf.getInt(SubmarineConfVars.ConfVars.SUBMARINE_K8S_CALL_THREADS),
+          CALL_QUEUE_SIZE, callTimeoutMillis,
+          conf.getLong(SubmarineConfVars.ConfVars.SUBMARINE_K8S_SLOW_OPERATION_MS));
+    }
+
+    boolean informerEnabled = conf.getBoolean(SubmarineConfVars.ConfVars.SUBMARINE_K8S_INFORMER_ENABLED);
+    if (jobInformer == null && informerEnabled) {
+      jobInformer = new MLJobInformer(streamClient,
+          conf.getLong(SubmarineConfVars.ConfVars.SUBMARINE_K8S_INFORMER_RESYNC_PERIOD_MS));
+      jobInformer.addEventHandler(new ExperimentStatusHandler());
+      jobInformer.start();
+    }
+    if (notebookInformer == null && informerEnabled) {
+      notebookInformer = new NotebookInformer(streamClient,
+          conf.getLong(SubmarineConfVars.ConfVars.SUBMARINE_K8S_INFORMER_RESYNC_PERIOD_MS));
+      notebookInformer.addEventHandler(new NotebookStatusHandler());
+      notebookInformer.start();
+    }
+  }
+
+  private ApiClient createApiClient() {
+    try {
+      String path = System.getenv(KUBECONFIG_ENV);
+      KubeConfig config = KubeConfig.loadKubeConfig(new FileReader(path));
+      return ClientBuilder.kubeconfig(config).build();
+    } catch (Exception e) {
+      LOG.info("Maybe in cluster mode, try to initialize the client again.");
+      try {
+        return ClientBuilder.cluster().build();
+      } catch (IOException e1) {
+        LOG.error("Initialize K8s submitter failed. " + e.getMessage(), e1);
+        throw new SubmarineRuntimeException(500, "Initialize K8s submitter failed.");
+      }
+    }
   }
 
   @Override
@@ -157,6 +235,11 @@ public class K8sSubmitter implements Submitter {
     Experiment experiment;
     try {
       MLJob mlJob = ExperimentSpecParser.parseJob(spec);
+      MLJob cachedJob = jobInformer == null ? null : jobInformer.get(mlJob);
+      if (cachedJob != null) {
+        return MLJobConverter.toJobFromMLJob(cachedJob);
+      }
+      // Not synced yet or the job was just created, fall back to the API server
       Object object = api.getNamespacedCustomObject(mlJob.getGroup(), mlJob.getVersion(),
           mlJob.getMetadata().getNamespace(), mlJob.getPlural(), mlJob.getMetadata().getName());
       experiment = parseExperimentResponseObject(object, ParseOp.PARSE_OP_RESULT);
@@ -245,22 +328,26 @@ public class K8sSubmitter implements Submitter {
   public ExperimentLog getExperimentLog(ExperimentSpec spec, String id) {
     ExperimentLog experimentLog = new ExperimentLog();
     experimentLog.setExperimentId(id);
-    try {
+    try (Operation operation = callExecutor.begin("getExperimentLog " + id)) {
       final V1PodList podList = coreApi.listNamespacedPod(
           spec.getMeta().getNamespace(),
           "false", null, null,
           getJobLabelSelector(spec), null, null,
           null, null);
 
+      // Read the logs of the pods in parallel, a pod whose log can not be read has an empty log
+      Map<String, PendingCall<String>> podLogs = new LinkedHashMap<>();
       for (V1Pod pod : podList.getItems()) {
         String podName = pod.getMetadata().getName();
         String namespace = pod.getMetadata().getNamespace();
-        String podLog = coreApi.readNamespacedPodLog(
-            podName, namespace, null, Boolean.FALSE,
-            Integer.MAX_VALUE, null, Boolean.FALSE,
-            Integer.MAX_VALUE, null, Boolean.FALSE);
-
-        experimentLog.addPodLog(podName, podLog);
+        podLogs.put(podName, operation.submit("readNamespacedPodLog " + podName,
+            () -> coreApi.readNamespacedPodLog(
+                podName, namespace, null, Boolean.FALSE,
+                Integer.MAX_VALUE, null, Boolean.FALSE,
+                Integer.MAX_VALUE, null, Boolean.FALSE)));
+      }
+      for (Map.Entry<String, PendingCall<String>> podLog : podLogs.entrySet()) {
+        experimentLog.addPodLog(podLog.getKey(), podLog.getValue().getOrNull());
       }
     } catch (final ApiException e) {
       LOG.error("Error when listing pod for experiment:" + spec.getMeta().getName(), e.getMessage());
@@ -269,83 +356,115 @@ public class K8sSubmitter implements Submitter {
   }
 
   @Override
-  public TensorboardInfo getTensorboardInfo() throws SubmarineRuntimeException {
-    final String name = "submarine-tensorboard";
-    final String ingressRouteName = "submarine-tensorboard-ingressroute";
-    String namespace = "default";
-    if (System.getenv(ENV_NAMESPACE) != null) {
-      namespace = System.getenv(ENV_NAMESPACE);
+  public InputStream getExperimentLogStream(ExperimentSpec spec, ExperimentLogOptions options)
+      throws SubmarineRuntimeException {
+    String podName = options.getPodName();
+    long offset = options.getOffset();
+    Integer limitBytes = options.getLimitBytes();
+    if (limitBytes != null) {
+      // The limit of K8s counts from the beginning of the selected log
+      limitBytes = (int) Math.min(Integer.MAX_VALUE, offset + limitBytes);
     }
-
+    Response response = null;
     try {
-      V1Deployment deploy =  appsV1Api.readNamespacedDeploymentStatus(name, namespace, "true");
-      boolean available = deploy.getStatus().getAvailableReplicas() > 0; // at least one replica is running
-
-      IngressRoute ingressRoute = new IngressRoute();
-      V1ObjectMeta meta = new V1ObjectMeta();
-      meta.setName(ingressRouteName);
-      meta.setNamespace(namespace);
-      ingressRoute.setMetadata(meta);
-      Object object = api.getNamespacedCustomObject(
-          ingressRoute.getGroup(), ingressRoute.getVersion(),
-          ingressRoute.getMetadata().getNamespace(),
-          ingressRoute.getPlural(), ingressRouteName
-      );
-
-      Gson gson = new JSON().getGson();
-      String jsonString = gson.toJson(object);
-      IngressRoute result = gson.fromJson(jsonString, IngressRoute.class);
-
-
-      String route = result.getSpec().getRoutes().stream().findFirst().get().getMatch();
-
-      //  replace "PathPrefix(`/tensorboard`)" with "/tensorboard/"
-      String url = route.replace("PathPrefix(`", "").replace("`)", "/");
-
-      TensorboardInfo tensorboardInfo = new TensorboardInfo(available, url);
-
-      return tensorboardInfo;
+      Call call = logApi.readNamespacedPodLogCall(podName, spec.getMeta().getNamespace(),
+          null, options.isFollow(), limitBytes, null, Boolean.FALSE,
+          options.getSinceSeconds(), options.getTailLines(), Boolean.FALSE, null, null);
+      response = call.execute();
+      if (!response.isSuccessful()) {
+        throw new SubmarineRuntimeException(response.code(),
+            "K8s submitter: read log of pod " + podName + " failed by " + response.body().string());
+      }
+      InputStream in = response.body().byteStream();
+      skipFully(in, offset);
+      return in;
     } catch (ApiException e) {
       throw new SubmarineRuntimeException(e.getCode(), e.getMessage());
+    } catch (IOException e) {
+      LOG.error("Error when reading log of pod:" + podName, e);
+      if (response != null) {
+        closeQuietly(response);
+      }
+      throw new SubmarineRuntimeException(500, "K8s submitter: read log of pod " + podName +
+          " failed by " + e.getMessage());
+    }
+  }
+
+  private static void skipFully(InputStream in, long bytes) throws IOException {
+    long remaining = bytes;
+    while (remaining > 0) {
+      long skipped = in.skip(remaining);
+      if (skipped <= 0) {
+        if (in.read() < 0) {
+          return;
+        }
+        skipped = 1;
+      }
+      remaining -= skipped;
+    }
+  }
+
+  private static void closeQuietly(Response response) {
+    try {
+      response.body().close();
+    } catch (IOException e) {
+      LOG.warn("Error when closing response", e);
     }
   }
 
+  @Override
+  public TensorboardInfo getTensorboardInfo() throws SubmarineRuntimeException {
+    return getIngressServiceInfo("submarine-tensorboard", "submarine-tensorboard-ingressroute",
+        TensorboardInfo::new);
+  }
+
   @Override
   public MlflowInfo getMlflowInfo() throws SubmarineRuntimeException {
-    final String name = "submarine-mlflow";
-    final String ingressRouteName = "submarine-mlflow-ingressroute";
+    return getIngressServiceInfo("submarine-mlflow", "submarine-mlflow-ingressroute",
+        MlflowInfo::new);
+  }
+
+  /**
+   * Get whether the deployment of a service is available and the url of its ingress route,
+   * both are read in parallel
+   */
+  private <T> T getIngressServiceInfo(String name, String ingressRouteName,
+      BiFunction<Boolean, String, T> infoBuilder) throws SubmarineRuntimeException {
     String namespace = "default";
     if (System.getenv(ENV_NAMESPACE) != null) {
       namespace = System.getenv(ENV_NAMESPACE);
     }
 
-    try {
-      V1Deployment deploy =  appsV1Api.readNamespacedDeploymentStatus(name, namespace, "true");
-      boolean available = deploy.getStatus().getAvailableReplicas() > 0; // at least one replica is running
+    try (Operation operation = callExecutor.begin("get " + name + " info")) {
+      final String deployNamespace = namespace;
+      PendingCall<V1Deployment> deployCall = operation.submit("readNamespacedDeploymentStatus",
+          () -> appsV1Api.readNamespacedDeploymentStatus(name, deployNamespace, "true"));
 
       IngressRoute ingressRoute = new IngressRoute();
       V1ObjectMeta meta = new V1ObjectMeta();
       meta.setName(ingressRouteName);
       meta.setNamespace(namespace);
       ingressRoute.setMetadata(meta);
-      Object object = api.getNamespacedCustomObject(
+      PendingCall<Object> ingressRouteCall = operation.submit("getNamespacedCustomObject",
+          () -> api.getNamespacedCustomObject(
               ingressRoute.getGroup(), ingressRoute.getVersion(),
               ingressRoute.getMetadata().getNamespace(),
               ingressRoute.getPlural(), ingressRouteName
-      );
+          ));
+
+      V1Deployment deploy = deployCall.get();
+      boolean available = deploy.getStatus().getAvailableReplicas() > 0; // at least one replica is running
 
       Gson gson = new JSON().getGson();
-      String jsonString = gson.toJson(object);
+      String jsonString = gson.toJson(ingressRouteCall.get());
       IngressRoute result = gson.fromJson(jsonString, IngressRoute.class);
 
-
       String route = result.getSpec().getRoutes().stream().findFirst().get().getMatch();
 
+      //  replace "PathPrefix(`/tensorboard`)" with "/tensorboard/"
       String url = route.replace("PathPrefix(`", "").replace("`)", "/");
 
-      MlflowInfo mlflowInfo = new MlflowInfo(available, url);
-
-      return mlflowInfo;
+      return infoBuilder.apply(available, url);
     } catch (ApiException e) {
       throw new SubmarineRuntimeException(e.getCode(), e.getMessage());
     }
@@ -366,6 +485,8 @@ public class K8sSubmitter implements Submitter {
       namespace = System.getenv(ENV_NAMESPACE);
     }
     
+    // Each resource depends on the previous one, so they are created one after another
+    // and the creation stops at the first failure
     try {
       // create notebook custom resource
       NotebookCR notebookCR = NotebookSpecParser.parseNotebook(spec);
@@ -373,7 +494,7 @@ public class K8sSubmitter implements Submitter {
       labels.put(NotebookCR.NOTEBOOK_OWNER_SELECTOR_KET, spec.getMeta().getOwnerId());
       notebookCR.getMetadata().setLabels(labels);
       notebookCR.getMetadata().setNamespace(namespace);
-      
+
       // create persistent volume
       createPersistentVolume(pvName, host, storage);
 
@@ -436,17 +557,29 @@ public class K8sSubmitter implements Submitter {
       namespace = System.getenv(ENV_NAMESPACE);
     }
     
-    try {
+    try (Operation operation = callExecutor.begin("deleteNotebook " + name)) {
       NotebookCR notebookCR = NotebookSpecParser.parseNotebook(spec);
+      final String crNamespace = namespace;
       Object object = api.deleteNamespacedCustomObject(notebookCR.getGroup(), notebookCR.getVersion(),
               namespace, notebookCR.getPlural(),
               notebookCR.getMetadata().getName(),
               new V1DeleteOptionsBuilder().withApiVersion(notebookCR.getApiVersion()).build(),
               null, null, null);
       notebook = NotebookUtils.parseObject(object, NotebookUtils.ParseOpt.PARSE_OPT_DELETE);
-      deleteIngressRoute(namespace, notebookCR.getMetadata().getName());
-      deletePersistentVolumeClaim(pvcName, namespace);
-      deletePersistentVolume(pvName);
+
+      // Once the notebook is deleted, its route and its storage are deleted in parallel,
+      // the claim before the volume it is bound to
+      PendingCall<Void> ingressRouteCall = operation.submit("deleteIngressRoute", () -> {
+        deleteIngressRoute(crNamespace, notebookCR.getMetadata().getName());
+        return null;
+      });
+      PendingCall<Void> storageCall = operation.submit("deleteStorage", () -> {
+        deletePersistentVolumeClaim(pvcName, crNamespace);
+        deletePersistentVolume(pvName);
+        return null;
+      });
+      ingressRouteCall.get();
+      storageCall.get();
     } catch (ApiException e) {
       throw new SubmarineRuntimeException(e.getCode(), e.getMessage());
     }
@@ -456,11 +589,13 @@ public class K8sSubmitter implements Submitter {
   @Override
   public List<Notebook> listNotebook(String id) throws SubmarineRuntimeException {
     List<Notebook> notebookList;
+    // Without user id, select every notebook created by submarine, all of them carry the owner label
+    String labelSelector = id == null ? NotebookCR.NOTEBOOK_OWNER_SELECTOR_KET
+        : NotebookCR.NOTEBOOK_OWNER_SELECTOR_KET + "=" + id;
     try {
       Object object = api.listClusterCustomObject(NotebookCR.CRD_NOTEBOOK_GROUP_V1,
               NotebookCR.CRD_NOTEBOOK_VERSION_V1, NotebookCR.CRD_NOTEBOOK_PLURAL_V1,
-              "true", null, NotebookCR.NOTEBOOK_OWNER_SELECTOR_KET + "=" + id,
-              null, null, null);
+              "true", null, labelSelector, null, null, null);
       notebookList = NotebookUtils.parseObjectForList(object);
     } catch (ApiException e) {
       throw new SubmarineRuntimeException(e.getCode(), e.getMessage());
@@ -482,19 +617,34 @@ public class K8sSubmitter implements Submitter {
     Middlewares middleware = parser.getMiddlewares();
     ServeResponse serveInfo = new ServeResponse().url(parser.getRoutePath());
 
-    try {
-      appsV1Api.createNamespacedDeployment(namespace, deployment, "true", null, null);
-      coreApi.createNamespacedService(namespace, svc, "true", null, null);
-
-      api.createNamespacedCustomObject(
+    // The deployment, the service and the middleware do not depend on each other, they are
+    // created in parallel. The route to the service through the middleware is created last.
+    // When a creation fails, the resources already created are deleted.
+    try (Operation operation = callExecutor.begin("createServe " + modelName)) {
+      PendingCall<V1Deployment> deploymentCall = operation.submit("createNamespacedDeployment",
+          () -> appsV1Api.createNamespacedDeployment(namespace, deployment, "true", null, null));
+      PendingCall<V1Service> serviceCall = operation.submit("createNamespacedService",
+          () -> coreApi.createNamespacedService(namespace, svc, "true", null, null));
+      PendingCall<Object> middlewareCall = operation.submit("createMiddleware",
+          () -> api.createNamespacedCustomObject(
             middleware.getGroup(), middleware.getVersion(),
             middleware.getMetadata().getNamespace(),
-            middleware.getPlural(), middleware, "true");
-            
-      api.createNamespacedCustomObject(
+            middleware.getPlural(), middleware, "true"));
+
+      CreatedResources created = new CreatedResources(operation);
+      created.await(deploymentCall, "deleteNamespacedDeployment",
+          () -> deleteServeDeployment(parser, namespace));
+      created.await(serviceCall, "deleteNamespacedService", () -> deleteServeService(parser, namespace));
+      created.await(middlewareCall, "deleteMiddleware", () -> deleteServeMiddleware(parser));
+      created.rollbackIfFailed();
+
+      PendingCall<Object> ingressRouteCall = operation.submit("createIngressRoute",
+          () -> api.createNamespacedCustomObject(
             ingressRoute.getGroup(), ingressRoute.getVersion(),
             ingressRoute.getMetadata().getNamespace(),
-            ingressRoute.getPlural(), ingressRoute, "true");
+            ingressRoute.getPlural(), ingressRoute, "true"));
+      created.await(ingressRouteCall, "deleteIngressRoute", () -> deleteServeIngressRoute(parser));
+      created.rollbackIfFailed();
       return serveInfo;
     } catch (ApiException e) {
       throw new SubmarineRuntimeException(e.getCode(), e.getMessage());
@@ -509,31 +659,64 @@ public class K8sSubmitter implements Submitter {
     String namespace = spec.getNamespace();
 
     ServeSpecParser parser = new ServeSpecParser(modelName, modelVersion, namespace);
-    IngressRoute ingressRoute = parser.getIngressRoute();
-    Middlewares middleware = parser.getMiddlewares();
     ServeResponse serveInfo = new ServeResponse().url(parser.getRoutePath());
 
-    try {
-      appsV1Api.deleteNamespacedDeployment(parser.getGeneralName(), namespace, "true",
-          null, null, null, null, null);
-      coreApi.deleteNamespacedService(parser.getSvcName(), namespace, "true",
-          null, null, null, null, null);
-      api.deleteNamespacedCustomObject(
-          middleware.getGroup(), middleware.getVersion(),
-          middleware.getMetadata().getNamespace(), middleware.getPlural(), parser.getMiddlewareName(),
-          new V1DeleteOptionsBuilder().withApiVersion(middleware.getApiVersion()).build(),
-          null, null, null);
-      api.deleteNamespacedCustomObject(
-          ingressRoute.getGroup(), ingressRoute.getVersion(),
-          ingressRoute.getMetadata().getNamespace(), ingressRoute.getPlural(), parser.getRouteName(),
-          new V1DeleteOptionsBuilder().withApiVersion(ingressRoute.getApiVersion()).build(),
-          null, null, null);
+    // The route is deleted first, so that no request is routed to the resources being
+    // deleted, then the other resources are deleted in parallel
+    try (Operation operation = callExecutor.begin("deleteServe " + modelName)) {
+      try {
+        operation.submit("deleteIngressRoute", () -> deleteServeIngressRoute(parser)).get();
+      } catch (ApiException e) {
+        if (e.getCode() != HttpURLConnection.HTTP_NOT_FOUND) {
+          throw e;
+        }
+        // Left by a creation that failed, the other resources may still exist
+        LOG.warn("K8s submitter: the ingress route of {} does not exist", modelName);
+      }
+      PendingCall<V1Status> deploymentCall = operation.submit("deleteNamespacedDeployment",
+          () -> deleteServeDeployment(parser, namespace));
+      PendingCall<V1Status> serviceCall = operation.submit("deleteNamespacedService",
+          () -> deleteServeService(parser, namespace));
+      PendingCall<Object> middlewareCall = operation.submit("deleteMiddleware",
+          () -> deleteServeMiddleware(parser));
+
+      deploymentCall.get();
+      serviceCall.get();
+      middlewareCall.get();
       return serveInfo;
     } catch (ApiException e) {
       throw new SubmarineRuntimeException(e.getCode(), e.getMessage());
     }
   }
 
+  private V1Status deleteServeDeployment(ServeSpecParser parser, String namespace) throws ApiException {
+    return appsV1Api.deleteNamespacedDeployment(parser.getGeneralName(), namespace, "true",
+        null, null, null, null, null);
+  }
+
+  private V1Status deleteServeService(ServeSpecParser parser, String namespace) throws ApiException {
+    return coreApi.deleteNamespacedService(parser.getSvcName(), namespace, "true",
+        null, null, null, null, null);
+  }
+
+  private Object deleteServeMiddleware(ServeSpecParser parser) throws ApiException {
+    Middlewares middleware = parser.getMiddlewares();
+    return api.deleteNamespacedCustomObject(
+        middleware.getGroup(), middleware.getVersion(),
+        middleware.getMetadata().getNamespace(), middleware.getPlural(), parser.getMiddlewareName(),
+        new V1DeleteOptionsBuilder().withApiVersion(middleware.getApiVersion()).build(),
+        null, null, null);
+  }
+
+  private Object deleteServeIngressRoute(ServeSpecParser parser) throws ApiException {
+    IngressRoute ingressRoute = parser.getIngressRoute();
+    return api.deleteNamespacedCustomObject(
+        ingressRoute.getGroup(), ingressRoute.getVersion(),
+        ingressRoute.getMetadata().getNamespace(), ingressRoute.getPlural(), parser.getRouteName(),
+        new V1DeleteOptionsBuilder().withApiVersion(ingressRoute.getApiVersion()).build(),
+        null, null, null);
+  }
+
   public void createPersistentVolume(String pvName, String hostPath, String storage) throws ApiException {
     V1PersistentVolume pv = VolumeSpecParser.parsePersistentVolume(pvName, hostPath, storage);
 
@@ -687,4 +870,137 @@ public class K8sSubmitter implements Submitter {
     PARSE_OP_RESULT,
     PARSE_OP_DELETE
   }
+
+  @Override
+  public void addStatusListener(StatusListener listener) {
+    if (jobInformer == null) {
+      LOG.info("K8s submitter: the informers are disabled, no status change will be notified");
+    }
+    statusListeners.add(listener);
+  }
+
+  private void notifyExperimentStatus(MLJob job, boolean deleted) {
+    Experiment experiment = MLJobConverter.toJobFromMLJob(job);
+    if (deleted) {
+      experiment.setStatus(Experiment.Status.STATUS_DELETED.getValue());
+    }
+    for (StatusListener listener : statusListeners) {
+      try {
+        listener.onExperimentStatus(job.getMetadata().getNamespace(), experiment, deleted);
+      } catch (RuntimeException e) {
+        LOG.warn("K8s submitter: status listener failed by " + e.getMessage(), e);
+      }
+    }
+  }
+
+  private void notifyNotebookStatus(NotebookCR notebookCR, boolean deleted) {
+    Notebook notebook = NotebookUtils.buildNotebookResponse(notebookCR);
+    for (StatusListener listener : statusListeners) {
+      try {
+        listener.onNotebookStatus(notebookCR.getMetadata().getNamespace(), notebook, deleted);
+      } catch (RuntimeException e) {
+        LOG.warn("K8s submitter: status listener failed by " + e.getMessage(), e);
+      }
+    }
+  }
+
+  /**
+   * Notifies the listeners when the status of a TFJob/PyTorchJob changes,
+   * the updates of the spec or of the other metadata are ignored
+   */
+  private class ExperimentStatusHandler implements ResourceEventHandler<MLJob> {
+    @Override
+    public void onAdd(MLJob job) {
+      notifyExperimentStatus(job, false);
+    }
+
+    @Override
+    public void onUpdate(MLJob oldJob, MLJob newJob) {
+      Experiment oldStatus = MLJobConverter.toJobFromMLJob(oldJob);
+      Experiment newStatus = MLJobConverter.toJobFromMLJob(newJob);
+      if (!Objects.equals(oldStatus.getStatus(), newStatus.getStatus())
+          || !Objects.equals(oldStatus.getRunningTime(), newStatus.getRunningTime())
+          || !Objects.equals(oldStatus.getFinishedTime(), newStatus.getFinishedTime())) {
+        notifyExperimentStatus(newJob, false);
+      }
+    }
+
+    @Override
+    public void onDelete(MLJob job, boolean deletedFinalStateUnknown) {
+      notifyExperimentStatus(job, true);
+    }
+  }
+
+  /**
+   * Notifies the listeners when the status of a Notebook changes
+   */
+  private class NotebookStatusHandler implements ResourceEventHandler<NotebookCR> {
+    @Override
+    public void onAdd(NotebookCR notebookCR) {
+      notifyNotebookStatus(notebookCR, false);
+    }
+
+    @Override
+    public void onUpdate(NotebookCR oldNotebookCR, NotebookCR newNotebookCR) {
+      Notebook oldStatus = NotebookUtils.buildNotebookResponse(oldNotebookCR);
+      Notebook newStatus = NotebookUtils.buildNotebookResponse(newNotebookCR);
+      if (!Objects.equals(oldStatus.getStatus(), newStatus.getStatus())
+          || !Objects.equals(oldStatus.getReason(), newStatus.getReason())) {
+        notifyNotebookStatus(newNotebookCR, false);
+      }
+    }
+
+    @Override
+    public void onDelete(NotebookCR notebookCR, boolean deletedFinalStateUnknown) {
+      notifyNotebookStatus(notebookCR, true);
+    }
+  }
+
+  /**
+   * The resources created by an operation, they are deleted when one of the creations failed
+   */
+  private static class CreatedResources {
+    private final Operation operation;
+    // The calls deleting the created resources, by call name
+    private final Map<String, K8sCall<?>> deletes = new LinkedHashMap<>();
+    private Exception failure;
+
+    CreatedResources(Operation operation) {
+      this.operation = operation;
+    }
+
+    /**
+     * Wait for a call creating a resource, keep the call deleting it or the failure
+     */
+    void await(PendingCall<?> call, String deleteName, K8sCall<?> delete) {
+      try {
+        call.get();
+        deletes.put(deleteName, delete);
+      } catch (ApiException | RuntimeException e) {
+        if (failure == null) {
+          failure = e;
+        }
+      }
+    }
+
+    /**
+     * If a creation failed, delete the created resources in parallel and throw the failure
+     */
+    void rollbackIfFailed() throws ApiException {
+      if (failure == null) {
+        return;
+      }
+      List<PendingCall<?>> calls = new ArrayList<>();
+      for (Map.Entry<String, K8sCall<?>> delete : deletes.entrySet()) {
+        calls.add(operation.submit(delete.getKey(), delete.getValue()));
+      }
+      for (PendingCall<?> call : calls) {
+        call.getOrNull();
+      }
+      if (failure instanceof ApiException) {
+        throw (ApiException) failure;
+      }
+      throw (RuntimeException) failure;
+    }
+  }
 }
@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.submarine.server.submitter.k8s.informer;
+
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.gson.reflect.TypeToken;
+import com.squareup.okhttp.Call;
+import io.kubernetes.client.ApiClient;
+import io.kubernetes.client.ApiException;
+import io.kubernetes.client.apis.CustomObjectsApi;
+import io.kubernetes.client.informer.ListerWatcher;
+import io.kubernetes.client.informer.ResourceEventHandler;
+import io.kubernetes.client.informer.SharedIndexInformer;
+import io.kubernetes.client.informer.impl.DefaultSharedIndexInformer;
+import io.kubernetes.client.util.CallGeneratorParams;
+import io.kubernetes.client.util.Watch;
+import io.kubernetes.client.util.Watchable;
+import org.apache.submarine.server.submitter.k8s.model.MLJob;
+import org.apache.submarine.server.submitter.k8s.model.MLJobList;
+import org.apache.submarine.server.submitter.k8s.model.pytorchjob.PyTorchJob;
+import org.apache.submarine.server.submitter.k8s.model.tfjob.TFJob;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps an in-memory index of the TFJob and PyTorchJob custom resources.
+ * Each CRD is listed once and then kept up to date from the watch stream,
+ * so the status of a job can be looked up without calling the API server.
+ */
+public class MLJobInformer {
+  private static final Logger LOG = LoggerFactory.getLogger(MLJobInformer.class);
+
+  private static final Type WATCH_TYPE = new TypeToken<Watch.Response<MLJob>>() {}.getType();
+
+  private final ApiClient client;
+
+  private final CustomObjectsApi api;
+
+  // plural -> informer
+  private final Map<String, SharedIndexInformer<MLJob>> informers = new HashMap<>();
+
+  private final ExecutorService executor;
+
+  private volatile boolean started = false;
+
+  /**
+   * @param client the API client used by the watches, its read timeout should be disabled
+   * @param resyncPeriodMillis resync period of the local index, 0 to disable
+   */
+  public MLJobInformer(ApiClient client, long resyncPeriodMillis) {
+    this.client = client;
+    this.api = new CustomObjectsApi(client);
+    register(TFJob.CRD_TF_GROUP_V1, TFJob.CRD_TF_VERSION_V1, TFJob.CRD_TF_PLURAL_V1,
+        resyncPeriodMillis);
+    register(PyTorchJob.CRD_PYTORCH_GROUP_V1, PyTorchJob.CRD_PYTORCH_VERSION_V1,
+        PyTorchJob.CRD_PYTORCH_PLURAL_V1, resyncPeriodMillis);
+
+    AtomicInteger threadIndex = new AtomicInteger();
+    this.executor = Executors.newFixedThreadPool(informers.size(), r -> {
+      Thread thread = new Thread(r, "MLJobInformer-" + threadIndex.getAndIncrement());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  private void register(String group, String version, String plural, long resyncPeriodMillis) {
+    ListerWatcher<MLJob, MLJobList> listerWatcher = new ListerWatcher<MLJob, MLJobList>() {
+      @Override
+      public MLJobList list(CallGeneratorParams params) throws ApiException {
+        Call call = api.listClusterCustomObjectCall(group, version, plural, null, null, null,
+            params.resourceVersion, params.timeoutSeconds, Boolean.FALSE, null, null);
+        return client.<MLJobList>execute(call, MLJobList.class).getData();
+      }
+
+      @Override
+      public Watchable<MLJob> watch(CallGeneratorParams params) throws ApiException {
+        Call call = api.listClusterCustomObjectCall(group, version, plural, null, null, null,
+            params.resourceVersion, params.timeoutSeconds, Boolean.TRUE, null, null);
+        return Watch.createWatch(client, call, WATCH_TYPE);
+      }
+    };
+    informers.put(plural, new DefaultSharedIndexInformer<>(MLJob.class, listerWatcher,
+        resyncPeriodMillis));
+  }
+
+  /**
+   * Add a handler of the changes of all the kinds of job, it must be added before
+   * the informers are started.
+   * @param handler the event handler
+   */
+  public void addEventHandler(ResourceEventHandler<MLJob> handler) {
+    informers.values().forEach(informer -> informer.addEventHandler(handler));
+  }
+
+  /**
+   * Start the list and watch loops in background threads.
+   */
+  public synchronized void start() {
+    if (started) {
+      return;
+    }
+    for (Map.Entry<String, SharedIndexInformer<MLJob>> entry : informers.entrySet()) {
+      LOG.info("Start the informer of {}", entry.getKey());
+      executor.submit(entry.getValue()::run);
+    }
+    started = true;
+  }
+
+  /**
+   * Stop all the informers.
+   */
+  public synchronized void stop() {
+    if (!started) {
+      return;
+    }
+    informers.values().forEach(SharedIndexInformer::stop);
+    executor.shutdown();
+    try {
+      executor.awaitTermination(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    started = false;
+  }
+
+  /**
+   * Whether the index of the given kind of job has been filled by the initial list.
+   * @param plural the plural of the CRD
+   * @return true if synced
+   */
+  public boolean hasSynced(String plural) {
+    SharedIndexInformer<MLJob> informer = informers.get(plural);
+    return informer != null && informer.hasSynced();
+  }
+
+  /**
+   * Get the latest observed state of the job.
+   * @param job the job with group/plural and metadata namespace/name set
+   * @return the cached job, or null if it isn't cached or the index is not synced yet
+   */
+  public MLJob get(MLJob job) {
+    SharedIndexInformer<MLJob> informer = informers.get(job.getPlural());
+    if (informer == null || !informer.hasSynced()) {
+      return null;
+    }
+    String key = job.getMetadata().getNamespace() + "/" + job.getMetadata().getName();
+    return informer.getIndexer().getByKey(key);
+  }
+}
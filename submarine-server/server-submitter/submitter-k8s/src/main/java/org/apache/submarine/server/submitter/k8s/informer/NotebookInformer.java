@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.submarine.server.submitter.k8s.informer;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.google.gson.reflect.TypeToken;
+import com.squareup.okhttp.Call;
+import io.kubernetes.client.ApiClient;
+import io.kubernetes.client.ApiException;
+import io.kubernetes.client.apis.CustomObjectsApi;
+import io.kubernetes.client.informer.ListerWatcher;
+import io.kubernetes.client.informer.ResourceEventHandler;
+import io.kubernetes.client.informer.SharedIndexInformer;
+import io.kubernetes.client.informer.impl.DefaultSharedIndexInformer;
+import io.kubernetes.client.util.CallGeneratorParams;
+import io.kubernetes.client.util.Watch;
+import io.kubernetes.client.util.Watchable;
+import org.apache.submarine.server.submitter.k8s.model.NotebookCR;
+import org.apache.submarine.server.submitter.k8s.model.NotebookCRList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Watches the Notebook custom resources, the same way as {@link MLJobInformer}
+ * does for the jobs, to notify the status changes of the notebooks.
+ */
+public class NotebookInformer {
+  private static final Logger LOG = LoggerFactory.getLogger(NotebookInformer.class);
+
+  private static final Type WATCH_TYPE = new TypeToken<Watch.Response<NotebookCR>>() {}.getType();
+
+  private final SharedIndexInformer<NotebookCR> informer;
+
+  private final ExecutorService executor;
+
+  private volatile boolean started = false;
+
+  /**
+   * @param client the API client used by the watch, its read timeout should be disabled
+   * @param resyncPeriodMillis resync period of the local index, 0 to disable
+   */
+  public NotebookInformer(ApiClient client, long resyncPeriodMillis) {
+    CustomObjectsApi api = new CustomObjectsApi(client);
+    ListerWatcher<NotebookCR, NotebookCRList> listerWatcher =
+        new ListerWatcher<NotebookCR, NotebookCRList>() {
+          @Override
+          public NotebookCRList list(CallGeneratorParams params) throws ApiException {
+            Call call = api.listClusterCustomObjectCall(NotebookCR.CRD_NOTEBOOK_GROUP_V1,
+                NotebookCR.CRD_NOTEBOOK_VERSION_V1, NotebookCR.CRD_NOTEBOOK_PLURAL_V1, null, null, null,
+                params.resourceVersion, params.timeoutSeconds, Boolean.FALSE, null, null);
+            return client.<NotebookCRList>execute(call, NotebookCRList.class).getData();
+          }
+
+          @Override
+          public Watchable<NotebookCR> watch(CallGeneratorParams params) throws ApiException {
+            Call call = api.listClusterCustomObjectCall(NotebookCR.CRD_NOTEBOOK_GROUP_V1,
+                NotebookCR.CRD_NOTEBOOK_VERSION_V1, NotebookCR.CRD_NOTEBOOK_PLURAL_V1, null, null, null,
+                params.resourceVersion, params.timeoutSeconds, Boolean.TRUE, null, null);
+            return Watch.createWatch(client, call, WATCH_TYPE);
+          }
+        };
+    this.informer = new DefaultSharedIndexInformer<>(NotebookCR.class, listerWatcher, resyncPeriodMillis);
+    this.executor = Executors.newSingleThreadExecutor(r -> {
+      Thread thread = new Thread(r, "NotebookInformer");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Add a handler of the notebook changes, it must be added before the informer is started.
+   * @param handler the event handler
+   */
+  public void addEventHandler(ResourceEventHandler<NotebookCR> handler) {
+    informer.addEventHandler(handler);
+  }
+
+  /**
+   * Start the list and watch loop in a background thread.
+   */
+  public synchronized void start() {
+    if (started) {
+      return;
+    }
+    LOG.info("Start the informer of {}", NotebookCR.CRD_NOTEBOOK_PLURAL_V1);
+    executor.submit(informer::run);
+    started = true;
+  }
+
+  /**
+   * Stop the informer.
+   */
+  public synchronized void stop() {
+    if (!started) {
+      return;
+    }
+    informer.stop();
+    executor.shutdown();
+    try {
+      executor.awaitTermination(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    started = false;
+  }
+}
@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.submarine.server.submitter.k8s.model;
+
+import com.google.gson.annotations.SerializedName;
+import io.kubernetes.client.models.V1ListMeta;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The list response of the TFJob/PyTorchJob CRD API.
+ * Only the metadata and status of each job are deserialized.
+ *   GET: /apis/{group}/{version}/{plural}
+ */
+public class MLJobList {
+  @SerializedName("apiVersion")
+  private String apiVersion;
+
+  @SerializedName("kind")
+  private String kind;
+
+  @SerializedName("metadata")
+  private V1ListMeta metadata;
+
+  @SerializedName("items")
+  private List<MLJob> items = new ArrayList<>();
+
+  public String getApiVersion() {
+    return apiVersion;
+  }
+
+  public String getKind() {
+    return kind;
+  }
+
+  public V1ListMeta getMetadata() {
+    return metadata;
+  }
+
+  public List<MLJob> getItems() {
+    return items;
+  }
+}
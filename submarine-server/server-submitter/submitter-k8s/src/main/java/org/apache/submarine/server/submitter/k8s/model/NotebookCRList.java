@@ -20,14 +20,22 @@
 package org.apache.submarine.server.submitter.k8s.model;
 
 import com.google.gson.annotations.SerializedName;
+import io.kubernetes.client.models.V1ListMeta;
 
 import java.util.List;
 
 public class NotebookCRList {
 
+  @SerializedName("metadata")
+  private V1ListMeta metadata;
+
   @SerializedName("items")
   private List<NotebookCR> items;
 
+  public V1ListMeta getMetadata() {
+    return metadata;
+  }
+
   public List<NotebookCR> getItems() {
     return items;
   }
@@ -0,0 +1,201 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.submarine.server.submitter.k8s.util;
+
+import io.kubernetes.client.ApiException;
+import org.apache.submarine.commons.utils.exception.SubmarineRuntimeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the independent K8s API calls of an operation in parallel, so that the
+ * operation takes max(latency) instead of sum(latency) of its calls.
+ * The pool is bounded, when it is saturated the calls run in the caller thread.
+ */
+public class K8sCallExecutor {
+  private static final Logger LOG = LoggerFactory.getLogger(K8sCallExecutor.class);
+
+  /**
+   * A K8s API call
+   */
+  @FunctionalInterface
+  public interface K8sCall<T> {
+    T call() throws ApiException;
+  }
+
+  private final ExecutorService executor;
+  private final long timeoutMillis;
+  private final long slowOperationMillis;
+
+  /**
+   * @param threads             maximum number of concurrent calls
+   * @param queueSize           maximum number of calls waiting for a thread
+   * @param timeoutMillis       timeout of each call
+   * @param slowOperationMillis operations taking longer are logged at debug level
+   */
+  public K8sCallExecutor(int threads, int queueSize, long timeoutMillis, long slowOperationMillis) {
+    AtomicInteger counter = new AtomicInteger();
+    ThreadFactory threadFactory = runnable -> {
+      Thread thread = new Thread(runnable, "k8s-submitter-call-" + counter.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+    ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(queueSize), threadFactory, new ThreadPoolExecutor.CallerRunsPolicy());
+    pool.allowCoreThreadTimeOut(true);
+    this.executor = pool;
+    this.timeoutMillis = timeoutMillis;
+    this.slowOperationMillis = slowOperationMillis;
+  }
+
+  /**
+   * Begin an operation, the operation must be closed to record its latency
+   * @param name operation name
+   * @return operation
+   */
+  public Operation begin(String name) {
+    return new Operation(name);
+  }
+
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * The calls of an operation and their latency
+   */
+  public class Operation implements AutoCloseable {
+    private final String name;
+    private final long startNanos = System.nanoTime();
+    // Latency in milliseconds of each call, in the order they finished
+    private final Map<String, Long> latencies = new LinkedHashMap<>();
+
+    private Operation(String name) {
+      this.name = name;
+    }
+
+    /**
+     * Submit a call, it starts immediately
+     * @param callName call name, used in the latency breakdown and in the errors
+     * @param call     K8s API call
+     * @return pending result of the call
+     */
+    public <T> PendingCall<T> submit(String callName, K8sCall<T> call) {
+      // The future of the pool interrupts the thread of the call when it is cancelled
+      Future<T> future = executor.submit(() -> {
+        long start = System.nanoTime();
+        try {
+          return call.call();
+        } finally {
+          record(callName, System.nanoTime() - start);
+        }
+      });
+      return new PendingCall<>(callName, future);
+    }
+
+    private synchronized void record(String callName, long nanos) {
+      latencies.put(callName, TimeUnit.NANOSECONDS.toMillis(nanos));
+    }
+
+    /**
+     * Log the latency breakdown if the operation is slow
+     */
+    @Override
+    public void close() {
+      long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+      if (elapsed >= slowOperationMillis && LOG.isDebugEnabled()) {
+        synchronized (this) {
+          LOG.debug("K8s submitter: slow operation {} took {} ms, calls: {}", name, elapsed, latencies);
+        }
+      }
+    }
+
+    /**
+     * The pending result of a call
+     */
+    public class PendingCall<T> {
+      private final String callName;
+      private final Future<T> future;
+      private final long deadlineNanos;
+
+      private PendingCall(String callName, Future<T> future) {
+        this.callName = callName;
+        this.future = future;
+        this.deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+      }
+
+      /**
+       * Wait for the result of the call, a call that times out is cancelled and its thread
+       * interrupted, the HTTP timeouts of the API client end the blocking reads
+       * @return the result
+       * @throws ApiException the call failed
+       * @throws SubmarineRuntimeException the call timed out or was interrupted
+       */
+      public T get() throws ApiException {
+        try {
+          return future.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+          future.cancel(true);
+          throw new SubmarineRuntimeException(504, "K8s submitter: " + name + " timed out in " +
+              callName + " after " + timeoutMillis + " ms");
+        } catch (InterruptedException e) {
+          future.cancel(true);
+          Thread.currentThread().interrupt();
+          throw new SubmarineRuntimeException(500, "K8s submitter: " + name + " was interrupted");
+        } catch (ExecutionException e) {
+          Throwable cause = e.getCause();
+          if (cause instanceof ApiException) {
+            throw (ApiException) cause;
+          } else if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+          }
+          throw new SubmarineRuntimeException(500, "K8s submitter: " + name + " failed in " +
+              callName + " by " + cause.getMessage());
+        }
+      }
+
+      /**
+       * Wait for the result of the call, the failure of the call is logged and does
+       * not fail the operation
+       * @return the result, null if the call failed or timed out
+       */
+      public T getOrNull() {
+        try {
+          return get();
+        } catch (ApiException | RuntimeException e) {
+          LOG.warn("K8s submitter: {} ignored the failure of {}: {}", name, callName, e.getMessage());
+          return null;
+        }
+      }
+    }
+  }
+}
@@ -75,7 +75,7 @@ public class NotebookUtils {
   public static List<Notebook> parseObjectForList(Object object) throws SubmarineRuntimeException {
     Gson gson = new JSON().getGson();
     String jsonString = gson.toJson(object);
-    LOG.info("Upstream response JSON: {}", jsonString);
+    LOG.debug("Upstream response JSON: {}", jsonString);
 
     try {
       List<Notebook> notebookList = new ArrayList<>();
@@ -91,7 +91,7 @@ public class NotebookUtils {
     throw new SubmarineRuntimeException(500, "K8s Submitter parse upstream response failed.");
   }
 
-  private static Notebook buildNotebookResponse(NotebookCR notebookCR) {
+  public static Notebook buildNotebookResponse(NotebookCR notebookCR) {
     Notebook notebook = new Notebook();
     notebook.setUid(notebookCR.getMetadata().getUid());
     notebook.setName(notebookCR.getMetadata().getName());
@@ -133,7 +133,7 @@ public class NotebookUtils {
 
       // if the notebook instance is waiting
       V1ContainerState containerState = notebookCR.getStatus().getContainerState();
-      if (containerState.getWaiting() != null) {
+      if (containerState != null && containerState.getWaiting() != null) {
         statusMap = createStatusMap(Notebook.Status.STATUS_WAITING.toString(),
                 containerState.getWaiting().getReason());
       }
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.submarine.server.submitter.k8s;
+
+import io.kubernetes.client.ApiException;
+import org.apache.submarine.commons.utils.exception.SubmarineRuntimeException;
+import org.apache.submarine.server.submitter.k8s.util.K8sCallExecutor;
+import org.apache.submarine.server.submitter.k8s.util.K8sCallExecutor.Operation;
+import org.apache.submarine.server.submitter.k8s.util.K8sCallExecutor.Operation.PendingCall;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class K8sCallExecutorTest {
+  private K8sCallExecutor executor;
+
+  @Before
+  public void before() {
+    executor = new K8sCallExecutor(4, 16, 500, 0);
+  }
+
+  @After
+  public void after() {
+    executor.shutdown();
+  }
+
+  @Test
+  public void testParallelCalls() throws ApiException {
+    long start = System.currentTimeMillis();
+    try (Operation operation = executor.begin("parallel")) {
+      PendingCall<String> first = operation.submit("first", () -> sleep(200, "first"));
+      PendingCall<String> second = operation.submit("second", () -> sleep(200, "second"));
+      PendingCall<String> third = operation.submit("third", () -> sleep(200, "third"));
+      Assert.assertEquals("first", first.get());
+      Assert.assertEquals("second", second.get());
+      Assert.assertEquals("third", third.get());
+    }
+    // The calls run at the same time, it takes about the latency of the slowest one
+    Assert.assertTrue(System.currentTimeMillis() - start < 500);
+  }
+
+  @Test
+  public void testApiException() {
+    try (Operation operation = executor.begin("failure")) {
+      PendingCall<String> call = operation.submit("fail", () -> {
+        throw new ApiException(404, "not found");
+      });
+      call.get();
+      Assert.fail("The ApiException of the call should be thrown");
+    } catch (ApiException e) {
+      Assert.assertEquals(404, e.getCode());
+    }
+  }
+
+  @Test
+  public void testTimeout() throws ApiException {
+    try (Operation operation = executor.begin("timeout")) {
+      PendingCall<String> call = operation.submit("slow", () -> sleep(2000, "slow"));
+      call.get();
+      Assert.fail("The call should time out");
+    } catch (SubmarineRuntimeException e) {
+      Assert.assertEquals(504, e.getCode());
+    }
+  }
+
+  @Test
+  public void testTimeoutInterruptsCall() throws ApiException, InterruptedException {
+    CountDownLatch interrupted = new CountDownLatch(1);
+    try (Operation operation = executor.begin("timeout")) {
+      PendingCall<String> call = operation.submit("slow", () -> {
+        try {
+          Thread.sleep(10000);
+        } catch (InterruptedException e) {
+          interrupted.countDown();
+        }
+        return "slow";
+      });
+      call.get();
+      Assert.fail("The call should time out");
+    } catch (SubmarineRuntimeException e) {
+      Assert.assertEquals(504, e.getCode());
+    }
+    // The thread of the call is released instead of running until the call ends
+    Assert.assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testGetOrNull() {
+    try (Operation operation = executor.begin("partial")) {
+      PendingCall<String> failed = operation.submit("fail", () -> {
+        throw new ApiException(500, "internal error");
+      });
+      PendingCall<String> succeeded = operation.submit("succeed", () -> "ok");
+      Assert.assertNull(failed.getOrNull());
+      Assert.assertEquals("ok", succeeded.getOrNull());
+    }
+  }
+
+  private static String sleep(long millis, String result) throws ApiException {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ApiException(e);
+    }
+    return result;
+  }
+}
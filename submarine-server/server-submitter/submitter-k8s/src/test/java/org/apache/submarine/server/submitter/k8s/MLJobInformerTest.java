@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.submarine.server.submitter.k8s;
+
+import io.kubernetes.client.ApiClient;
+import io.kubernetes.client.JSON;
+import io.kubernetes.client.models.V1ObjectMeta;
+import org.apache.submarine.server.submitter.k8s.informer.MLJobInformer;
+import org.apache.submarine.server.submitter.k8s.model.MLJob;
+import org.apache.submarine.server.submitter.k8s.model.MLJobList;
+import org.apache.submarine.server.submitter.k8s.model.tfjob.TFJob;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MLJobInformerTest {
+  private static final String TF_JOB_LIST_JSON = "{\"apiVersion\":\"kubeflow.org/v1\"," +
+      "\"kind\":\"TFJobList\",\"metadata\":{\"resourceVersion\":\"1024\"}," +
+      "\"items\":[{\"apiVersion\":\"kubeflow.org/v1\",\"kind\":\"TFJob\"," +
+      "\"metadata\":{\"name\":\"mnist\",\"namespace\":\"default\",\"uid\":\"uid-1\"," +
+      "\"creationTimestamp\":\"2020-01-01T00:00:00Z\"}," +
+      "\"spec\":{\"tfReplicaSpecs\":{\"Worker\":{\"replicas\":1}}}," +
+      "\"status\":{\"startTime\":\"2020-01-01T00:00:10Z\"}}]}";
+
+  @Test
+  public void testParseJobList() {
+    MLJobList jobList = new JSON().getGson().fromJson(TF_JOB_LIST_JSON, MLJobList.class);
+    Assert.assertEquals("1024", jobList.getMetadata().getResourceVersion());
+    Assert.assertEquals(1, jobList.getItems().size());
+
+    MLJob job = jobList.getItems().get(0);
+    Assert.assertEquals("mnist", job.getMetadata().getName());
+    Assert.assertEquals("default", job.getMetadata().getNamespace());
+    Assert.assertNotNull(job.getStatus().getStartTime());
+  }
+
+  @Test
+  public void testGetBeforeSynced() {
+    MLJobInformer informer = new MLJobInformer(new ApiClient(), 0);
+    Assert.assertFalse(informer.hasSynced(TFJob.CRD_TF_PLURAL_V1));
+
+    TFJob job = new TFJob();
+    V1ObjectMeta meta = new V1ObjectMeta();
+    meta.setName("mnist");
+    meta.setNamespace("default");
+    job.setMetadata(meta);
+    Assert.assertNull(informer.get(job));
+  }
+}